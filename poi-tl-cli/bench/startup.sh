@@ -0,0 +1,43 @@
+#!/usr/bin/env bash
+# Startup benchmark of poi-tl-cli: wall time of one complete render per launch.
+#
+#   mvn package -Pappcds -DskipTests        # target/poi-tl-cli.jar + target/poi-tl-cli.jsa
+#   mvn package -Pnative -DskipTests        # target/poi-tl-cli (GraalVM)
+#   bench/startup.sh [runs]
+set -e
+cd "$(dirname "$0")/.."
+RUNS=${1:-10}
+JAR=target/poi-tl-cli.jar
+JSA=target/poi-tl-cli.jsa
+NATIVE=target/poi-tl-cli
+ARGS="-t src/test/resources/template.docx -o target/bench.docx -d src/test/resources/data.json"
+
+if [ ! -f "$JAR" ]; then
+  echo "$JAR not found, run mvn package first" >&2
+  exit 1
+fi
+
+bench() {
+  local name=$1
+  shift
+  "$@" $ARGS > /dev/null 2>&1
+  local min=0 total=0
+  for i in $(seq "$RUNS"); do
+    local start end ms
+    start=$(date +%s%N)
+    "$@" $ARGS > /dev/null 2>&1
+    end=$(date +%s%N)
+    ms=$(( (end - start) / 1000000 ))
+    total=$(( total + ms ))
+    if [ "$min" -eq 0 ] || [ "$ms" -lt "$min" ]; then min=$ms; fi
+  done
+  printf "%-8s runs=%d avg=%dms min=%dms\n" "$name" "$RUNS" $(( total / RUNS )) "$min"
+}
+
+bench jar java -jar "$JAR"
+if [ -f "$JSA" ]; then
+  bench appcds java -XX:SharedArchiveFile="$JSA" -Xlog:cds*=error -jar "$JAR"
+fi
+if [ -x "$NATIVE" ]; then
+  bench native "$NATIVE"
+fi
@@ -0,0 +1,327 @@
+package com.deepoove.poi.cli;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.jsonmodel.support.GsonHandler;
+
+/**
+ * Render one template against many data models in a single JVM.
+ *
+ * <pre>
+ * java -jar poi-tl-cli.jar batch -t template.docx -d models/ -o out/ --name {file}.docx
+ * java -jar poi-tl-cli.jar batch -t template.docx -d models.ndjson -o out/ --name {index}_{id}.docx --threads 8
+ * cat models.ndjson | java -jar poi-tl-cli.jar batch -t template.docx -d - -o out/
+ * </pre>
+ *
+ * The template file and the configure are loaded once and shared by every
+ * worker, at most <code>--max-in-flight</code> data models are held in memory
+ * at the same time. Each job still compiles its own document from the template
+ * bytes: rendering changes the document in place and copying a XWPFDocument
+ * costs the same parse as compiling it.
+ * <p>
+ * A data model that cannot be read or rendered fails its job only, so does a
+ * job whose file name is already taken by another job of this run, the exit
+ * code is 1 if any job failed.
+ * </p>
+ *
+ * @author sayi
+ *
+ */
+public class Batch {
+
+    static final String COMMAND = "batch";
+
+    private static final Pattern NAME_VARIABLE = Pattern.compile("\\{([^{}]+)\\}");
+
+    @Parameter(names = "-t", description = "template file path", required = true, order = 0)
+    private String template;
+
+    @Parameter(names = "-o", description = "output directory", required = true, order = 1)
+    private String output;
+
+    @Parameter(names = "-d", description = "data model directory of *.json files, NDJSON file, or - for NDJSON from stdin", required = true, order = 2)
+    private String datamodel;
+
+    @Parameter(names = "--name", description = "output file name pattern, supports {index}, {file}(data file name or NDJSON line number) and top-level fields of data model", order = 3)
+    private String name = "{file}.docx";
+
+    @Parameter(names = "--threads", description = "number of rendering threads", order = 4)
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    @Parameter(names = "--max-in-flight", description = "max number of data models held in memory, default threads * 2", order = 5)
+    private int maxInFlight;
+
+    @Parameter(names = "--help", help = true, order = 6)
+    private boolean help;
+
+    public static void main(String[] args) {
+        Batch batch = new Batch();
+        JCommander jCommander = JCommander.newBuilder().addObject(batch).build();
+        jCommander.parse(args);
+        int status = batch.run(jCommander);
+        if (0 != status) System.exit(status);
+    }
+
+    /**
+     * @return exit code, 0 if every job succeeded
+     */
+    public int run(JCommander jCommander) {
+        if (help) {
+            jCommander.setProgramName("java -jar poi-tl-cli.jar " + COMMAND);
+            jCommander.usage();
+            return 0;
+        }
+        int workers = Math.max(1, threads);
+        int permits = maxInFlight > 0 ? maxInFlight : workers * 2;
+
+        GsonHandler gsonHandler = CLI.createGsonHandler();
+        Configure configure = CLI.createConfigure(gsonHandler);
+        Summary summary = new Summary();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        Semaphore inFlight = new Semaphore(permits);
+        Set<Path> claimed = ConcurrentHashMap.newKeySet();
+        try {
+            byte[] templateBytes = Files.readAllBytes(Paths.get(template));
+            // fail fast on a broken template instead of failing every job
+            XWPFTemplate.compile(new ByteArrayInputStream(templateBytes), configure).close();
+            Path outputDir = Paths.get(output);
+            Files.createDirectories(outputDir);
+
+            long start = System.nanoTime();
+            int index = 0;
+            try (JobSource source = new JobSource(datamodel)) {
+                for (Job job : source) {
+                    job.index = ++index;
+                    inFlight.acquire();
+                    executor.execute(() -> {
+                        long begin = System.nanoTime();
+                        try {
+                            Map<String, Object> model = gsonHandler.castJsonToType(job.read(), CLI.TYPE);
+                            Path file = outputDir.resolve(fileName(job, model)).normalize();
+                            if (!claimed.add(file)) {
+                                throw new IOException("Duplicate output file " + file.getFileName()
+                                        + ", add {index} to --name");
+                            }
+                            try (XWPFTemplate doc = XWPFTemplate.compile(new ByteArrayInputStream(templateBytes),
+                                    configure); OutputStream out = Files.newOutputStream(file)) {
+                                doc.render(model).write(out);
+                            }
+                            summary.success(System.nanoTime() - begin);
+                        } catch (Exception e) {
+                            summary.failure();
+                            jCommander.getConsole().println("Failed to render " + job.name + ": " + e.getMessage());
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            jCommander.getConsole().println(summary.report(System.nanoTime() - start));
+            jCommander.getConsole().println("Output directory: " + outputDir.toAbsolutePath().toString());
+            return summary.hasFailure() ? 1 : 0;
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+            jCommander.getConsole().println(e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    String fileName(Job job, Map<String, Object> model) {
+        Matcher matcher = NAME_VARIABLE.matcher(name);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            String key = matcher.group(1);
+            Object value;
+            if ("index".equals(key)) {
+                value = job.index;
+            } else if ("file".equals(key)) {
+                value = job.name;
+            } else {
+                value = null == model ? null : model.get(key);
+            }
+            String text = null == value ? "" : String.valueOf(value).replaceAll("[\\\\/:*?\"<>|]", "_");
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(text));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    static class Job {
+        int index;
+        final String name;
+        private final Path file;
+        private final String json;
+        private final IOException error;
+
+        Job(String name, Path file, String json) {
+            this(name, file, json, null);
+        }
+
+        Job(String name, Path file, String json, IOException error) {
+            this.name = name;
+            this.file = file;
+            this.json = json;
+            this.error = error;
+        }
+
+        String read() throws IOException {
+            if (null != error) throw error;
+            return null != json ? json : new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Streams jobs from a directory of json files or from NDJSON lines, never
+     * holding more than the current line in memory. Malformed UTF-8 is replaced
+     * and fails at parsing, an I/O error while reading a line becomes a failed
+     * job that ends the stream.
+     */
+    static class JobSource implements Iterable<Job>, Closeable {
+        private final String datamodel;
+        private BufferedReader reader;
+
+        JobSource(String datamodel) {
+            this.datamodel = datamodel;
+        }
+
+        @Override
+        public Iterator<Job> iterator() {
+            try {
+                if ("-".equals(datamodel)) {
+                    return lines(System.in);
+                }
+                Path path = Paths.get(datamodel);
+                if (Files.isDirectory(path)) {
+                    List<Path> files = new ArrayList<>();
+                    try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*.json")) {
+                        stream.forEach(files::add);
+                    }
+                    files.sort(null);
+                    return files.stream().map(file -> {
+                        String fileName = file.getFileName().toString();
+                        return new Job(fileName.substring(0, fileName.length() - ".json".length()), file, null);
+                    }).iterator();
+                }
+                return lines(Files.newInputStream(path));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private Iterator<Job> lines(InputStream in) {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return new Iterator<Job>() {
+                private int line;
+                private Job next;
+                private boolean end;
+
+                @Override
+                public boolean hasNext() {
+                    while (null == next && !end) {
+                        line++;
+                        try {
+                            String text = reader.readLine();
+                            if (null == text) {
+                                end = true;
+                            } else if (!text.trim().isEmpty()) {
+                                next = new Job(String.valueOf(line), null, text.trim());
+                            }
+                        } catch (IOException e) {
+                            end = true;
+                            next = new Job(String.valueOf(line), null, null, e);
+                        }
+                    }
+                    return null != next;
+                }
+
+                @Override
+                public Job next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    Job job = next;
+                    next = null;
+                    return job;
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (null != reader) reader.close();
+        }
+    }
+
+    static class Summary {
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        synchronized void success(long nanos) {
+            latencies.add(nanos);
+        }
+
+        void failure() {
+            failures.incrementAndGet();
+        }
+
+        boolean hasFailure() {
+            return failures.get() > 0;
+        }
+
+        synchronized String report(long elapsed) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            double seconds = elapsed / 1e9;
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Rendered %d documents, %d failed, in %.2f s (%.1f docs/s)", sorted.length,
+                    failures.get(), seconds, seconds > 0 ? sorted.length / seconds : 0));
+            if (sorted.length > 0) {
+                sb.append(String.format("%nLatency ms: p50 %.1f, p95 %.1f, p99 %.1f, max %.1f", percentile(sorted, 50),
+                        percentile(sorted, 95), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6));
+            }
+            return sb.toString();
+        }
+
+        private static double percentile(long[] sorted, int p) {
+            int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, i)] / 1e6;
+        }
+    }
+
+}
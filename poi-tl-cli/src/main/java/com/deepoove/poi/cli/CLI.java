@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -16,6 +17,7 @@ import com.deepoove.poi.data.RenderData;
 import com.deepoove.poi.jsonmodel.support.DefaultGsonHandler;
 import com.deepoove.poi.jsonmodel.support.GsonHandler;
 import com.deepoove.poi.jsonmodel.support.GsonPreRenderDataCastor;
+import com.deepoove.poi.jsonmodel.support.LazyJsonModel;
 import com.deepoove.poi.plugin.comment.CommentRenderPolicy;
 import com.deepoove.poi.plugin.highlight.HighlightRenderData;
 import com.deepoove.poi.plugin.highlight.HighlightRenderPolicy;
@@ -46,16 +48,23 @@ public class CLI {
     @Parameter(names = "-d", description = "data model", required = true, order = 3)
     private String datamodel;
 
-    @Parameter(names = "--help", help = true, order = 4)
+    @Parameter(names = "--lazy", description = "read only the data used by template, for huge data file", order = 4)
+    private boolean lazy;
+
+    @Parameter(names = "--help", help = true, order = 5)
     private boolean help;
 
-    @Parameter(names = "--version", help = true, order = 5)
+    @Parameter(names = "--version", help = true, order = 6)
     private boolean v;
 
-    private static final Type TYPE = new TypeToken<Map<String, Object>>() {
+    static final Type TYPE = new TypeToken<Map<String, Object>>() {
     }.getType();
 
     public static void main(String[] args) {
+        if (args.length > 0 && Batch.COMMAND.equals(args[0])) {
+            Batch.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         CLI cli = new CLI();
         JCommander jCommander = JCommander.newBuilder().addObject(cli).build();
         jCommander.parse(args);
@@ -74,8 +83,29 @@ public class CLI {
         }
 
         // cli logic
-        ConfigureBuilder builder = Configure.builder();
-        GsonHandler gsonHandler = new DefaultGsonHandler() {
+        GsonHandler gsonHandler = createGsonHandler();
+        Configure configure = createConfigure(gsonHandler);
+        try {
+            Object model;
+            if (validate(datamodel)) {
+                model = gsonHandler.castJsonToType(datamodel, TYPE);
+            } else if (lazy) {
+                model = LazyJsonModel.open(Paths.get(datamodel)).getRoot();
+            } else {
+                model = gsonHandler.castJsonToType(new String(Files.readAllBytes(Paths.get(datamodel))), TYPE);
+            }
+            XWPFTemplate.compile(template, configure)
+                    .render(model)
+                    .writeToFile(output);
+        } catch (IOException e) {
+            e.printStackTrace();
+            jCommander.getConsole().println(e.getMessage());
+        }
+        jCommander.getConsole().println("Output file generated: " + Paths.get(output).toAbsolutePath().toString());
+    }
+
+    static GsonHandler createGsonHandler() {
+        return new DefaultGsonHandler() {
             @Override
             protected RuntimeTypeAdapterFactory<RenderData> createRenderTypeAdapter(boolean readable) {
                 return super.createRenderTypeAdapter(readable).registerSubtype(MarkdownRenderData.class, "markdown")
@@ -96,6 +126,10 @@ public class CLI {
                 return typeAdapter;
             }
         };
+    }
+
+    static Configure createConfigure(GsonHandler gsonHandler) {
+        ConfigureBuilder builder = Configure.builder();
         GsonPreRenderDataCastor gsonPreRenderDataCastor = new GsonPreRenderDataCastor();
         gsonPreRenderDataCastor.setGsonHandler(gsonHandler);
         builder.addPreRenderDataCastor(gsonPreRenderDataCastor);
@@ -104,23 +138,7 @@ public class CLI {
                 .addPlugin('~', new HighlightRenderPolicy())
                 .addPlugin('-', new MarkdownRenderPolicy());
         builder.bind("toc", new TOCRenderPolicy());
-
-        Configure configure = builder.build();
-        try {
-            String jsonStr = "";
-            if (validate(datamodel)) {
-                jsonStr = datamodel;
-            } else {
-                jsonStr = new String(Files.readAllBytes(Paths.get(datamodel)));
-            }
-            XWPFTemplate.compile(template, configure)
-                    .render(gsonHandler.castJsonToType(jsonStr, TYPE))
-                    .writeToFile(output);
-        } catch (IOException e) {
-            e.printStackTrace();
-            jCommander.getConsole().println(e.getMessage());
-        }
-        jCommander.getConsole().println("Output file generated: " + Paths.get(output).toAbsolutePath().toString());
+        return builder.build();
     }
 
     private static boolean validate(String jsonStr) {
@@ -1,7 +1,18 @@
 package com.deepoove.poi.cli;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
 import org.junit.jupiter.api.Test;
 
+import com.beust.jcommander.JCommander;
+
 public class CLITest {
 
     @Test
@@ -10,6 +21,49 @@ public class CLITest {
         CLI.main(cmd.split(" "));
     }
     
+    @Test
+    public void testLazy() {
+        String cmd = "-t src/test/resources/template.docx -o target/out_lazy.docx -d src/test/resources/data.json --lazy";
+        CLI.main(cmd.split(" "));
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        Path ndjson = Paths.get("target/batch.ndjson");
+        Files.write(ndjson, Arrays.asList("{\"name\":\"Sayi\"}", "", "{\"name\":\"Poi-tl\"}"));
+        String cmd = "batch -t src/test/resources/template.docx -o target/batch -d target/batch.ndjson --name out_{index}_{name}_{file}.docx --threads 2";
+        CLI.main(cmd.split(" "));
+        assertTrue(Files.exists(Paths.get("target/batch/out_1_Sayi_1.docx")));
+        assertTrue(Files.exists(Paths.get("target/batch/out_2_Poi-tl_3.docx")));
+    }
+
+    @Test
+    public void testBatchFailure() throws Exception {
+        Path ndjson = Paths.get("target/batch_failure.ndjson");
+        Files.write(ndjson, Arrays.asList("{\"name\":\"Sayi\"}", "{\"name\":", "{\"name\":\"Poi-tl\"}"));
+        String cmd = "-t src/test/resources/template.docx -o target/batch_failure -d target/batch_failure.ndjson --name out_{name}.docx";
+        Batch batch = new Batch();
+        JCommander jCommander = JCommander.newBuilder().addObject(batch).build();
+        jCommander.parse(cmd.split(" "));
+        assertEquals(1, batch.run(jCommander));
+        assertTrue(Files.exists(Paths.get("target/batch_failure/out_Sayi.docx")));
+        assertTrue(Files.exists(Paths.get("target/batch_failure/out_Poi-tl.docx")));
+    }
+
+    @Test
+    public void testBatchDuplicateName() throws Exception {
+        Path ndjson = Paths.get("target/batch_duplicate.ndjson");
+        Files.write(ndjson, Arrays.asList("{\"name\":\"Sayi\"}", "{\"name\":\"Sayi\"}", "{}", "{}"));
+        String cmd = "-t src/test/resources/template.docx -o target/batch_duplicate -d target/batch_duplicate.ndjson --name out_{name}.docx --threads 2";
+        Batch batch = new Batch();
+        JCommander jCommander = JCommander.newBuilder().addObject(batch).build();
+        jCommander.parse(cmd.split(" "));
+        assertEquals(1, batch.run(jCommander));
+        try (Stream<Path> files = Files.list(Paths.get("target/batch_duplicate"))) {
+            assertEquals(2, files.count());
+        }
+    }
+
     @Test
     public void testJsonStr() {
         String cmd = "-t src/test/resources/template.docx -o target/out.docx -d {\"name\":\"Poi-tl\"}";
@@ -15,13 +15,17 @@
  */
 package com.deepoove.poi.jsonmodel.support;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.deepoove.poi.data.*;
 import com.deepoove.poi.plugin.comment.CommentRenderData;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.internal.LinkedTreeMap;
 import com.google.gson.typeadapters.RuntimeTypeAdapterFactory;
 
 /**
@@ -51,6 +55,7 @@ public class DefaultGsonHandler implements GsonHandler {
     private static final String TYPE_NAME = "type";
 
     private Gson parser, writer;
+    private JsonTreeBinder binder;
 
     @Override
     public Gson parser() {
@@ -77,6 +82,36 @@ public class DefaultGsonHandler implements GsonHandler {
         return writer;
     }
 
+    @Override
+    public <T> T castJsonToType(LinkedTreeMap<?, ?> source, Type type) {
+        return binder().bind(source, type);
+    }
+
+    @Override
+    public <T> T castJsonToClass(LinkedTreeMap<?, ?> source, Class<T> clazz) {
+        return binder().bind(source, clazz);
+    }
+
+    @Override
+    public <T> T castJsonToClass(JsonElement source, Class<T> clazz) {
+        return binder().bind(source, clazz);
+    }
+
+    public JsonTreeBinder binder() {
+        if (null != binder) return binder;
+        binder = new JsonTreeBinder(parser(), writer()).precompute(createPrecomputedTypes());
+        return binder;
+    }
+
+    protected List<Type> createPrecomputedTypes() {
+        return Arrays.asList(RenderData.class, TextRenderData.class, HyperlinkTextRenderData.class,
+                BookmarkTextRenderData.class, ParagraphRenderData.class, NumberingRenderData.class,
+                TableRenderData.class, CommentRenderData.class, DocxRenderData.class, AttachmentRenderData.class,
+                DocumentRenderData.class, ChartMultiSeriesRenderData.class, ChartSingleSeriesRenderData.class,
+                PictureRenderData.class, FilePictureRenderData.class, UrlPictureRenderData.class,
+                ByteArrayPictureRenderData.class);
+    }
+
     protected RuntimeTypeAdapterFactory<RenderData> createRenderTypeAdapter(boolean readable) {
         return RuntimeTypeAdapterFactory.of(RenderData.class, TYPE_NAME, readable)
                 .registerSubtype(TextRenderData.class, TEXT)
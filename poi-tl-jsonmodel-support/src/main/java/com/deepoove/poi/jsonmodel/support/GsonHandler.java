@@ -18,6 +18,7 @@ package com.deepoove.poi.jsonmodel.support;
 import java.lang.reflect.Type;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonElement;
 import com.google.gson.internal.LinkedTreeMap;
 
 public interface GsonHandler {
@@ -29,11 +30,15 @@ public interface GsonHandler {
     }
 
     default <T> T castJsonToType(LinkedTreeMap<?, ?> source, Type type) {
-        return parser().fromJson(writer().toJson(source), type);
+        return parser().fromJson(JsonTreeBinder.toJsonTree(source, writer()), type);
     }
 
     default <T> T castJsonToClass(LinkedTreeMap<?, ?> source, Class<T> clazz) {
-        return parser().fromJson(writer().toJson(source), clazz);
+        return parser().fromJson(JsonTreeBinder.toJsonTree(source, writer()), clazz);
+    }
+
+    default <T> T castJsonToClass(JsonElement source, Class<T> clazz) {
+        return parser().fromJson(source, clazz);
     }
 
     default <T> T castJsonToType(String source, Type type) {
@@ -1,5 +1,8 @@
 package com.deepoove.poi.jsonmodel.support;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.deepoove.poi.config.PreRenderDataCastor;
 import com.deepoove.poi.policy.AbstractRenderPolicy;
 import com.deepoove.poi.policy.RenderPolicy;
@@ -10,25 +13,39 @@ import net.jodah.typetools.TypeResolver;
 
 public class GsonPreRenderDataCastor implements PreRenderDataCastor {
 
+    private static final Class<?> NONE = Void.class;
+
     private GsonHandler gsonHandler = new DefaultGsonHandler();
 
+    /**
+     * policy class to the data type
+     */
+    private final Map<Class<?>, Class<?>> targetTypes = new ConcurrentHashMap<>();
+
     @SuppressWarnings("rawtypes")
     @Override
     public Object preCast(RenderPolicy policy, Object data) {
-        if (null != data && data instanceof LinkedTreeMap) {
-            if (policy instanceof AbstractRenderPolicy) {
-                Class<?>[] typeArguments = TypeResolver.resolveRawArguments(AbstractRenderPolicy.class,
-                        policy.getClass());
-                return gsonHandler.castJsonToClass((LinkedTreeMap) data, typeArguments[0]);
-            } else if (policy instanceof AbstractTemplateRenderPolicy) {
-                Class<?>[] typeArguments = TypeResolver.resolveRawArguments(AbstractTemplateRenderPolicy.class,
-                        policy.getClass());
-                return gsonHandler.castJsonToClass((LinkedTreeMap) data, typeArguments[1]);
+        if (null != data && (data instanceof LinkedTreeMap || data instanceof LazyJsonObject)) {
+            Class<?> targetType = targetTypes.computeIfAbsent(policy.getClass(),
+                    GsonPreRenderDataCastor::resolveTargetType);
+            if (NONE == targetType) return data;
+            if (data instanceof LazyJsonObject) {
+                return gsonHandler.castJsonToClass(((LazyJsonObject) data).toJsonTree(), targetType);
             }
+            return gsonHandler.castJsonToClass((LinkedTreeMap) data, targetType);
         }
         return data;
     }
 
+    private static Class<?> resolveTargetType(Class<?> policyClass) {
+        if (AbstractRenderPolicy.class.isAssignableFrom(policyClass)) {
+            return TypeResolver.resolveRawArguments(AbstractRenderPolicy.class, policyClass)[0];
+        } else if (AbstractTemplateRenderPolicy.class.isAssignableFrom(policyClass)) {
+            return TypeResolver.resolveRawArguments(AbstractTemplateRenderPolicy.class, policyClass)[1];
+        }
+        return NONE;
+    }
+
     public GsonHandler getGsonHandler() {
         return gsonHandler;
     }
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014-2022 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.jsonmodel.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.google.gson.JsonParseException;
+
+/**
+ * Memory-mapped json file and the scanning of its tokens by offset.
+ * 
+ * @author Sayi
+ */
+class JsonBytes {
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final MappedByteBuffer[] segments;
+    private final long length;
+
+    JsonBytes(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.length = channel.size();
+            int count = (int) ((length + SEGMENT_MASK) >>> SEGMENT_BITS);
+            this.segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long position = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(MapMode.READ_ONLY, position, Math.min(SEGMENT_MASK + 1, length - position));
+            }
+        }
+    }
+
+    long length() {
+        return length;
+    }
+
+    int get(long pos) {
+        if (pos >= length) throw error("Unexpected end of json", pos);
+        return segments[(int) (pos >>> SEGMENT_BITS)].get((int) (pos & SEGMENT_MASK)) & 0xFF;
+    }
+
+    long skipWhitespace(long pos) {
+        while (pos < length) {
+            int b = get(pos);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') break;
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * @param pos start of value
+     * @return offset after the value
+     */
+    long skipValue(long pos) {
+        int b = get(pos);
+        if (b == '"') return skipString(pos);
+        if (b == '{' || b == '[') {
+            int depth = 0;
+            do {
+                b = get(pos);
+                if (b == '"') {
+                    pos = skipString(pos);
+                    continue;
+                }
+                if (b == '{' || b == '[') depth++;
+                else if (b == '}' || b == ']') depth--;
+                pos++;
+            } while (depth > 0);
+            return pos;
+        }
+        while (pos < length) {
+            b = get(pos);
+            if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') break;
+            pos++;
+        }
+        return pos;
+    }
+
+    long skipString(long pos) {
+        pos++;
+        while (true) {
+            int b = get(pos++);
+            if (b == '\\') pos++;
+            else if (b == '"') return pos;
+        }
+    }
+
+    String readString(long pos) {
+        if (get(pos) != '"') throw error("Expected string", pos);
+        long end = skipString(pos);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(end - pos, 1024));
+        boolean escaped = false;
+        for (long i = pos + 1; i < end - 1; i++) {
+            int b = get(i);
+            if (b == '\\') escaped = true;
+            bytes.write(b);
+        }
+        String raw = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        return escaped ? unescape(raw) : raw;
+    }
+
+    String readLiteral(long pos) {
+        long end = skipValue(pos);
+        StringBuilder sb = new StringBuilder((int) (end - pos));
+        for (long i = pos; i < end; i++) {
+            sb.append((char) get(i));
+        }
+        return sb.toString();
+    }
+
+    InputStream newInputStream(long start, long end) {
+        return new InputStream() {
+            private long pos = start;
+
+            @Override
+            public int read() {
+                return pos < end ? get(pos++) : -1;
+            }
+        };
+    }
+
+    JsonParseException error(String message, long pos) {
+        return new JsonParseException(message + " at offset " + pos);
+    }
+
+    private static String unescape(String raw) {
+        StringBuilder sb = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            c = raw.charAt(++i);
+            switch (c) {
+            case 'b':
+                sb.append('\b');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'u':
+                sb.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                i += 4;
+                break;
+            default:
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+}
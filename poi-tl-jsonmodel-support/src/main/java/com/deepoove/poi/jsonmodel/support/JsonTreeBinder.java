@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014-2022 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.jsonmodel.support;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Bind the parsed json tree({@link com.google.gson.internal.LinkedTreeMap},
+ * list, {@link JsonElement}) to render data, the tree is walked once and no
+ * json string is written or parsed.
+ * 
+ * @author Sayi
+ */
+public class JsonTreeBinder {
+
+    private final Gson parser;
+    private final Gson writer;
+    private final Map<Type, TypeAdapter<?>> adapters = new ConcurrentHashMap<>();
+
+    public JsonTreeBinder(Gson parser, Gson writer) {
+        this.parser = parser;
+        this.writer = writer;
+    }
+
+    /**
+     * compute the type adapters ahead of the first render
+     * 
+     * @param types
+     * @return
+     */
+    public JsonTreeBinder precompute(Iterable<? extends Type> types) {
+        types.forEach(this::adapter);
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T bind(Object source, Type type) {
+        return (T) adapter(type).fromJsonTree(toJsonTree(source, writer));
+    }
+
+    private TypeAdapter<?> adapter(Type type) {
+        return adapters.computeIfAbsent(type, key -> parser.getAdapter(TypeToken.get(key)));
+    }
+
+    /**
+     * convert the object of parsed json to {@link JsonElement}
+     * 
+     * @param value    map, iterable, string, number, boolean or json element
+     * @param fallback gson for other objects
+     * @return
+     */
+    public static JsonElement toJsonTree(Object value, Gson fallback) {
+        if (null == value) return JsonNull.INSTANCE;
+        if (value instanceof JsonElement) return (JsonElement) value;
+        if (value instanceof String) return new JsonPrimitive((String) value);
+        if (value instanceof Number) return new JsonPrimitive((Number) value);
+        if (value instanceof Boolean) return new JsonPrimitive((Boolean) value);
+        if (value instanceof Map) {
+            JsonObject object = new JsonObject();
+            ((Map<?, ?>) value).forEach((k, v) -> object.add(String.valueOf(k), toJsonTree(v, fallback)));
+            return object;
+        }
+        if (value instanceof Iterable) {
+            JsonArray array = new JsonArray();
+            ((Iterable<?>) value).forEach(v -> array.add(toJsonTree(v, fallback)));
+            return array;
+        }
+        return fallback.toJsonTree(value);
+    }
+
+}
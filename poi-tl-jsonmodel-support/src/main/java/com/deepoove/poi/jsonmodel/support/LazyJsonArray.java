@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014-2022 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.jsonmodel.support;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Json array of {@link LazyJsonModel}, elements are materialized one by one
+ * while iterating, so loops over a huge array keep one element in memory.
+ * 
+ * @author Sayi
+ */
+public class LazyJsonArray implements Iterable<Object> {
+
+    private final JsonBytes bytes;
+    private final long start;
+
+    LazyJsonArray(JsonBytes bytes, long start) {
+        this.bytes = bytes;
+        this.start = start;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<Object>() {
+            private long pos = bytes.skipWhitespace(start + 1);
+
+            @Override
+            public boolean hasNext() {
+                return bytes.get(pos) != ']';
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Object value = LazyJsonModel.valueAt(bytes, pos);
+                pos = bytes.skipWhitespace(bytes.skipValue(pos));
+                int b = bytes.get(pos);
+                if (b == ',') pos = bytes.skipWhitespace(pos + 1);
+                else if (b != ']') throw bytes.error("Expected ',' or ']'", pos);
+                return value;
+            }
+        };
+    }
+
+}
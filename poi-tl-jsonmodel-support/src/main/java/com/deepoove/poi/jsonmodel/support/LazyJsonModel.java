@@ -0,0 +1,79 @@
+/*
+ * Copyright 2014-2022 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.jsonmodel.support;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Json data model backed by a memory-mapped file. Only the values touched by
+ * the template are materialized: objects are {@link LazyJsonObject} indexing
+ * the offsets of their members on first access, arrays are
+ * {@link LazyJsonArray} streaming their elements, so the heap is bounded by
+ * the working set instead of the payload size.
+ * 
+ * <pre>
+ * template.render(LazyJsonModel.open(path).getRoot());
+ * </pre>
+ * 
+ * @author Sayi
+ */
+public class LazyJsonModel {
+
+    private final JsonBytes bytes;
+    private final LazyJsonObject root;
+
+    private LazyJsonModel(Path path) throws IOException {
+        this.bytes = new JsonBytes(path);
+        long pos = bytes.skipWhitespace(0);
+        if (bytes.get(pos) != '{') throw bytes.error("Expected json object", pos);
+        this.root = new LazyJsonObject(bytes, pos);
+    }
+
+    public static LazyJsonModel open(Path path) throws IOException {
+        return new LazyJsonModel(path);
+    }
+
+    public LazyJsonObject getRoot() {
+        return root;
+    }
+
+    /**
+     * materialize the value at offset, numbers are double as parsed by gson
+     */
+    static Object valueAt(JsonBytes bytes, long pos) {
+        int b = bytes.get(pos);
+        switch (b) {
+        case '{':
+            return new LazyJsonObject(bytes, pos);
+        case '[':
+            return new LazyJsonArray(bytes, pos);
+        case '"':
+            return bytes.readString(pos);
+        default:
+            String literal = bytes.readLiteral(pos);
+            if ("null".equals(literal)) return null;
+            if ("true".equals(literal)) return Boolean.TRUE;
+            if ("false".equals(literal)) return Boolean.FALSE;
+            try {
+                return Double.valueOf(literal);
+            } catch (NumberFormatException e) {
+                throw bytes.error("Unexpected value " + literal, pos);
+            }
+        }
+    }
+
+}
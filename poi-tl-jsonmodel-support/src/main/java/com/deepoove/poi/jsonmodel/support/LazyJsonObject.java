@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014-2022 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.jsonmodel.support;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParser;
+
+/**
+ * Json object of {@link LazyJsonModel}, the offsets of members are indexed on
+ * first access and values are materialized on each read.
+ * 
+ * @author Sayi
+ */
+public class LazyJsonObject extends AbstractMap<String, Object> {
+
+    private final JsonBytes bytes;
+    private final long start;
+    private long end = -1;
+    private Map<String, Long> index;
+
+    LazyJsonObject(JsonBytes bytes, long start) {
+        this.bytes = bytes;
+        this.start = start;
+    }
+
+    @Override
+    public Object get(Object key) {
+        Long offset = index().get(key);
+        return null == offset ? null : LazyJsonModel.valueAt(bytes, offset);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return index().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return index().size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<Entry<String, Long>> iterator = index().entrySet().iterator();
+                return new Iterator<Entry<String, Object>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        Entry<String, Long> entry = iterator.next();
+                        return new SimpleImmutableEntry<>(entry.getKey(),
+                                LazyJsonModel.valueAt(bytes, entry.getValue()));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return index().size();
+            }
+        };
+    }
+
+    /**
+     * parse the whole object, used when it's cast to render data
+     * 
+     * @return
+     */
+    public JsonElement toJsonTree() {
+        index();
+        try (Reader reader = new InputStreamReader(bytes.newInputStream(start, end), StandardCharsets.UTF_8)) {
+            return JsonParser.parseReader(reader);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+    }
+
+    private Map<String, Long> index() {
+        if (null != index) return index;
+        Map<String, Long> members = new LinkedHashMap<>();
+        long pos = bytes.skipWhitespace(start + 1);
+        if (bytes.get(pos) == '}') {
+            end = pos + 1;
+            index = members;
+            return index;
+        }
+        while (true) {
+            String key = bytes.readString(pos);
+            pos = bytes.skipWhitespace(bytes.skipString(pos));
+            if (bytes.get(pos) != ':') throw bytes.error("Expected ':'", pos);
+            pos = bytes.skipWhitespace(pos + 1);
+            members.put(key, pos);
+            pos = bytes.skipWhitespace(bytes.skipValue(pos));
+            int b = bytes.get(pos);
+            if (b == '}') break;
+            if (b != ',') throw bytes.error("Expected ',' or '}'", pos);
+            pos = bytes.skipWhitespace(pos + 1);
+        }
+        end = pos + 1;
+        index = members;
+        return index;
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.deepoove.poi.jsonmodel.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.data.HyperlinkTextRenderData;
+import com.deepoove.poi.policy.TextRenderPolicy;
+
+public class LazyJsonModelTest {
+
+    static final String JSON = "{\n  \"name\" : \"poi-tl \\u6a21\\u677f \\\"引擎\\\"\",\n"
+            + "  \"version\": 1.5, \"open\": true, \"none\": null,\n"
+            + "  \"author\": {\"name\": \"Sayi\", \"tags\": [\"{\", \"]\"]},\n"
+            + "  \"link\": {\"type\": \"link\", \"text\": \"website\", \"url\": \"http://deepoove.com\"},\n"
+            + "  \"items\": [{\"title\": \"a\"}, {\"title\": \"b\"}, {\"title\": \"c\"}], \"empty\": [ ], \"last\": {}\n}";
+
+    @Test
+    public void testModel() throws Exception {
+        Path path = write(JSON);
+        LazyJsonObject root = LazyJsonModel.open(path).getRoot();
+
+        assertEquals("poi-tl 模板 \"引擎\"", root.get("name"));
+        assertEquals(1.5, root.get("version"));
+        assertEquals(true, root.get("open"));
+        assertNull(root.get("none"));
+        assertTrue(root.containsKey("none"));
+        assertFalse(root.containsKey("absent"));
+        assertEquals(9, root.size());
+
+        LazyJsonObject author = (LazyJsonObject) root.get("author");
+        assertEquals("Sayi", author.get("name"));
+        Iterator<Object> tags = ((LazyJsonArray) author.get("tags")).iterator();
+        assertEquals("{", tags.next());
+        assertEquals("]", tags.next());
+        assertFalse(tags.hasNext());
+
+        List<Object> titles = new ArrayList<>();
+        ((LazyJsonArray) root.get("items")).forEach(item -> titles.add(((LazyJsonObject) item).get("title")));
+        assertEquals(3, titles.size());
+        assertEquals("c", titles.get(2));
+        assertFalse(((LazyJsonArray) root.get("empty")).iterator().hasNext());
+        assertTrue(((LazyJsonObject) root.get("last")).isEmpty());
+
+        Object link = new GsonPreRenderDataCastor().preCast(new TextRenderPolicy(), root.get("link"));
+        assertEquals("http://deepoove.com", ((HyperlinkTextRenderData) link).getUrl());
+    }
+
+    @Test
+    public void testRender() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{author.name}}");
+        doc.createParagraph().createRun().setText("{{?items}}[{{title}}]{{/items}}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+
+        LazyJsonObject root = LazyJsonModel.open(write(JSON)).getRoot();
+        Configure config = Configure.builder().addPreRenderDataCastor(new GsonPreRenderDataCastor()).build();
+        XWPFTemplate template = XWPFTemplate.compile(new ByteArrayInputStream(out.toByteArray()), config)
+                .render(root);
+        XWPFDocument result = template.getXWPFDocument();
+        assertEquals("Sayi", result.getParagraphs().get(0).getText());
+        assertEquals("[a][b][c]", result.getParagraphs().get(1).getText());
+        template.close();
+    }
+
+    private Path write(String json) throws Exception {
+        Path path = Files.createTempFile("poitl-lazy", ".json");
+        path.toFile().deleteOnExit();
+        Files.write(path, json.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+}
@@ -19,6 +19,8 @@ import com.deepoove.poi.config.Configure;
 import com.deepoove.poi.data.*;
 import com.deepoove.poi.data.MergeCellRule.Grid;
 import com.deepoove.poi.data.style.Style;
+import com.deepoove.poi.policy.TextRenderPolicy;
+import com.google.gson.internal.LinkedTreeMap;
 import com.google.gson.reflect.TypeToken;
 
 public class SerializableJsonTest {
@@ -195,6 +197,28 @@ public class SerializableJsonTest {
 
     }
 
+    @Test
+    void testTreeBinding() throws Exception {
+        ChartMultiSeriesRenderData data = Charts.ofMultiSeries("易用性", new String[] { "代码量", "维护量" })
+                .addSeries("poi-tl", new Double[] { 10.0, 5.0 })
+                .create();
+        Map<String, Object> datas = new HashMap<String, Object>();
+        datas.put("link", Texts.of("poi-tl").link("http://deepoove.com").create());
+        datas.put("chart", data);
+        Map<String, Object> tree = write(datas).getResult(new TypeToken<Map<String, Object>>() {
+        }.getType());
+
+        GsonPreRenderDataCastor castor = new GsonPreRenderDataCastor();
+        Object link = castor.preCast(new TextRenderPolicy(), tree.get("link"));
+        assertEquals(HyperlinkTextRenderData.class, link.getClass());
+        assertEquals("http://deepoove.com", ((HyperlinkTextRenderData) link).getUrl());
+
+        ChartMultiSeriesRenderData chart = provider.castJsonToClass((LinkedTreeMap<?, ?>) tree.get("chart"),
+                ChartMultiSeriesRenderData.class);
+        assertEquals(data.getChartTitle(), chart.getChartTitle());
+        assertEquals(5.0, chart.getSeriesDatas().get(0).getValues()[1].doubleValue());
+    }
+
     private SerializableJsonTest write(Object data) throws IOException {
         jsonStr = provider.writer().toJson(data);
 //        System.out.println(jsonStr);
@@ -15,9 +15,12 @@
  */
 package com.deepoove.poi.plugin.highlight;
 
+import java.util.concurrent.Executor;
+
 import com.deepoove.poi.converter.ToRenderDataConverter;
 import com.deepoove.poi.data.DocumentRenderData;
 import com.deepoove.poi.plugin.highlight.converter.HighlightToDocumentRenderDataConverter;
+import com.deepoove.poi.plugin.highlight.converter.LanguageDetector;
 import com.deepoove.poi.policy.AbstractDocumentConverterRenderPolicy;
 
 /**
@@ -28,6 +31,20 @@ import com.deepoove.poi.policy.AbstractDocumentConverterRenderPolicy;
  */
 public class HighlightRenderPolicy extends AbstractDocumentConverterRenderPolicy<HighlightRenderData> {
 
+    public HighlightRenderPolicy() {
+    }
+
+    /**
+     * @param detectExecutor run the candidates of language detection in
+     *                       parallel if not null
+     * @param detectCutoff   stop language detection when one candidate reaches
+     *                       this relevance, 0 means no cutoff
+     */
+    public HighlightRenderPolicy(Executor detectExecutor, int detectCutoff) {
+        ((HighlightToDocumentRenderDataConverter) documentConverter)
+                .setLanguageDetector(new LanguageDetector(detectExecutor, detectCutoff));
+    }
+
     @Override
     public ToRenderDataConverter<HighlightRenderData, DocumentRenderData> getDocumentRenderDataConverter() {
         return new HighlightToDocumentRenderDataConverter();
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.plugin.highlight.converter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.deepoove.poi.data.style.Style;
+import com.deepoove.poi.util.StyleUtils;
+
+/**
+ * Parsed highlight theme, the css of each selector and the derived text
+ * styles are computed once per theme.
+ * 
+ * @author Sayi
+ */
+public class HighlightTheme {
+
+    private static final String BLOCK_SELECTOR = ".hljs";
+    private static final String CLASS_SELECTOR_PREFIX = ".hljs-";
+
+    private static final Map<String, HighlightTheme> THEMES = new ConcurrentHashMap<>();
+
+    private final List<SelectorStyle> selectorStyles;
+    private final Map<String, String> blockProperties = new HashMap<>();
+    private final Map<String, Map<String, String>> classProperties = new HashMap<>();
+    private final Map<String, Style> textStyles = new ConcurrentHashMap<>();
+
+    private HighlightTheme(List<SelectorStyle> selectorStyles) {
+        this.selectorStyles = selectorStyles;
+        for (SelectorStyle css : selectorStyles) {
+            String selector = css.getSelectorName();
+            if (BLOCK_SELECTOR.equals(selector)) {
+                blockProperties.putAll(css.getPropertyValues());
+            } else if (selector.startsWith(CLASS_SELECTOR_PREFIX)) {
+                classProperties.computeIfAbsent(selector.substring(CLASS_SELECTOR_PREFIX.length()),
+                        k -> new HashMap<>()).putAll(css.getPropertyValues());
+            }
+        }
+    }
+
+    public static HighlightTheme of(String theme) {
+        HighlightTheme result = THEMES.get(theme);
+        if (null != result) return result;
+        try {
+            result = new HighlightTheme(StylesheetParser.parse("highlightcss/" + theme + ".css"));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Illegal highlight theme:" + theme, e);
+        }
+        THEMES.putIfAbsent(theme, result);
+        return result;
+    }
+
+    public List<SelectorStyle> getSelectorStyles() {
+        return Collections.unmodifiableList(selectorStyles);
+    }
+
+    /**
+     * css of the code block
+     * 
+     * @return
+     */
+    public Map<String, String> getBlockProperties() {
+        return Collections.unmodifiableMap(blockProperties);
+    }
+
+    /**
+     * text style of the style stack, the inner style overrides the outer ones
+     * 
+     * @param styleStack classes, the top first
+     * @return shared style, do not modify it
+     */
+    public Style getTextStyle(LinkedList<String> styleStack) {
+        String key = String.join(" ", styleStack);
+        Style style = textStyles.get(key);
+        if (null != style) return style;
+        Map<String, String> pv = new HashMap<String, String>();
+        for (int i = styleStack.size() - 1; i >= 0; i--) {
+            Map<String, String> properties = classProperties.get(styleStack.get(i));
+            if (null != properties) pv.putAll(properties);
+        }
+        style = StyleUtils.retriveStyleFromCss(pv);
+        textStyles.putIfAbsent(key, style);
+        return style;
+    }
+
+}
@@ -16,7 +16,6 @@
 package com.deepoove.poi.plugin.highlight.converter;
 
 import com.codewaves.codehighlight.core.Highlighter;
-import com.codewaves.codehighlight.core.Highlighter.HighlightResult;
 import com.codewaves.codehighlight.core.StyleRenderer;
 import com.codewaves.codehighlight.core.StyleRendererFactory;
 import com.deepoove.poi.converter.ParagraphToDocumentRenderDataConverter;
@@ -34,24 +33,34 @@ import com.deepoove.poi.plugin.highlight.HighlightRenderData;
 public class HighlightToDocumentRenderDataConverter
         implements ToRenderDataConverter<HighlightRenderData, DocumentRenderData> {
 
+    private LanguageDetector languageDetector = new LanguageDetector(null, 0);
+
     @Override
     public DocumentRenderData convert(HighlightRenderData data) throws Exception {
-        Highlighter<ParagraphRenderData> highlighter = new Highlighter<>(
-                new StyleRendererFactory<ParagraphRenderData>() {
-                    @Override
-                    public StyleRenderer<ParagraphRenderData> create(String languageName) {
-                        return new ParagraphRenderer(data.getStyle());
-                    }
-                });
-        HighlightResult<ParagraphRenderData> result = null;
+        ParagraphRenderData result = null;
         if (null == data.getLanguage()) {
-            result = highlighter.highlightAuto(data.getCode(), null);
+            result = languageDetector.highlight(data.getCode(), () -> new ParagraphRenderer(data.getStyle()));
         } else {
-            result = highlighter.highlight(data.getLanguage(), data.getCode());
+            Highlighter<ParagraphRenderData> highlighter = new Highlighter<>(
+                    new StyleRendererFactory<ParagraphRenderData>() {
+                        @Override
+                        public StyleRenderer<ParagraphRenderData> create(String languageName) {
+                            return new ParagraphRenderer(data.getStyle());
+                        }
+                    });
+            result = highlighter.highlight(data.getLanguage(), data.getCode()).getResult();
         }
         ParagraphToDocumentRenderDataConverter converter = new ParagraphToDocumentRenderDataConverter(
                 null == data.getStyle() ? false : data.getStyle().isShowLine());
-        return converter.convert(result.getResult());
+        return converter.convert(result);
+    }
+
+    public LanguageDetector getLanguageDetector() {
+        return languageDetector;
+    }
+
+    public void setLanguageDetector(LanguageDetector languageDetector) {
+        this.languageDetector = languageDetector;
     }
 
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.plugin.highlight.converter;
+
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codewaves.codehighlight.core.Highlighter;
+import com.codewaves.codehighlight.core.Highlighter.HighlightResult;
+import com.codewaves.codehighlight.core.StyleRenderer;
+import com.codewaves.codehighlight.core.StyleRendererFactory;
+import com.deepoove.poi.data.ParagraphRenderData;
+
+/**
+ * Detect the language of code, the detected language is cached by the hash of
+ * the code. Candidates can be highlighted in parallel and the detection can
+ * stop as soon as one candidate reaches the cutoff relevance.
+ * 
+ * @author Sayi
+ */
+public class LanguageDetector {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LanguageDetector.class);
+
+    private static final int CACHE_SIZE = 1024;
+    private static final String NONE = "";
+    private static final Map<String, String> DETECTED = Collections
+            .synchronizedMap(new LinkedHashMap<String, String>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            });
+
+    private static final Set<String> COMPILED = new HashSet<>();
+    private static volatile String[] languages;
+
+    private final Executor executor;
+    private final int cutoff;
+
+    /**
+     * @param executor run candidates in parallel if not null
+     * @param cutoff   stop detection when the relevance of one candidate reaches
+     *                 it, 0 means highlighting all candidates
+     */
+    public LanguageDetector(Executor executor, int cutoff) {
+        this.executor = executor;
+        this.cutoff = cutoff;
+    }
+
+    public ParagraphRenderData highlight(String code, Supplier<ParagraphRenderer> rendererSupplier) {
+        // a guess stopped by the cutoff is not the language detected by all candidates
+        String key = (cutoff > 0 ? "cutoff" + cutoff : "exact") + ":" + hash(code);
+        String language = DETECTED.get(key);
+        if (NONE.equals(language)) return plain(code, rendererSupplier);
+
+        // all modes are compiled before highlighting, so concurrent highlights only read them
+        String[] candidates = candidates();
+        if (null != candidates) compile(candidates);
+        Highlighter<ParagraphRenderData> highlighter = new Highlighter<>(factory(rendererSupplier));
+        if (null != language) {
+            return guarded(null != candidates, () -> highlighter.highlight(language, code).getResult());
+        }
+
+        if (null == candidates || (null == executor && cutoff <= 0)) {
+            HighlightResult<ParagraphRenderData> result = guarded(null != candidates,
+                    () -> highlighter.highlightAuto(code, null));
+            DETECTED.put(key, null == result.getLanguage() ? NONE : result.getLanguage());
+            return null == result.getLanguage() ? plain(code, rendererSupplier) : result.getResult();
+        }
+
+        AtomicBoolean reached = new AtomicBoolean();
+        List<CompletableFuture<Candidate>> futures = new ArrayList<>(candidates.length);
+        List<Candidate> results = new ArrayList<>(candidates.length);
+        for (String candidate : candidates) {
+            Supplier<Candidate> task = () -> {
+                if (reached.get()) return null;
+                HighlightResult<ParagraphRenderData> result = new Highlighter<>(factory(rendererSupplier))
+                        .highlight(candidate, code);
+                if (cutoff > 0 && result.getRelevance() >= cutoff) reached.set(true);
+                return new Candidate(result);
+            };
+            if (null == executor) {
+                results.add(task.get());
+            } else {
+                futures.add(CompletableFuture.supplyAsync(task, executor));
+            }
+        }
+        futures.forEach(future -> results.add(future.join()));
+
+        // the first language with the max relevance, same as highlightAuto
+        Candidate best = null;
+        for (Candidate candidate : results) {
+            if (null == candidate || candidate.relevance <= 0) continue;
+            if (null == best || candidate.relevance > best.relevance) best = candidate;
+        }
+        DETECTED.put(key, null == best ? NONE : best.language);
+        return null == best ? plain(code, rendererSupplier) : best.result;
+    }
+
+    public static void clearCache() {
+        DETECTED.clear();
+    }
+
+    private static ParagraphRenderData plain(String code, Supplier<ParagraphRenderer> rendererSupplier) {
+        ParagraphRenderer renderer = rendererSupplier.get();
+        renderer.onStart();
+        renderer.onPushCodeBlock(code);
+        renderer.onFinish();
+        return renderer.getResult();
+    }
+
+    private static StyleRendererFactory<ParagraphRenderData> factory(Supplier<ParagraphRenderer> rendererSupplier) {
+        return new StyleRendererFactory<ParagraphRenderData>() {
+            @Override
+            public StyleRenderer<ParagraphRenderData> create(String languageName) {
+                return rendererSupplier.get();
+            }
+        };
+    }
+
+    /**
+     * highlight under the lock of compilation when the modes may be compiled by
+     * the highlight
+     */
+    private static <T> T guarded(boolean compiled, Supplier<T> highlight) {
+        if (compiled) return highlight.get();
+        synchronized (LanguageDetector.class) {
+            return highlight.get();
+        }
+    }
+
+    /**
+     * languages compile their modes on first use, which is not thread safe
+     */
+    private static synchronized void compile(String[] candidates) {
+        Highlighter<ParagraphRenderData> highlighter = new Highlighter<>(factory(() -> new ParagraphRenderer(null)));
+        for (String candidate : candidates) {
+            if (COMPILED.add(candidate)) highlighter.highlight(candidate, " ");
+        }
+    }
+
+    private static String[] candidates() {
+        if (null != languages) return languages;
+        try {
+            Field field = Highlighter.class.getDeclaredField("mLanguages");
+            field.setAccessible(true);
+            languages = ((String[]) field.get(null)).clone();
+        } catch (Exception e) {
+            LOGGER.warn("Unable to list highlight languages, detect them one by one: {}", e.getMessage());
+            return null;
+        }
+        return languages;
+    }
+
+    private static String hash(String code) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new BigInteger(1, digest.digest(code.getBytes(StandardCharsets.UTF_8))).toString(16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Candidate {
+        final String language;
+        final int relevance;
+        final ParagraphRenderData result;
+
+        Candidate(HighlightResult<ParagraphRenderData> result) {
+            this.language = result.getLanguage();
+            this.relevance = result.getRelevance();
+            this.result = result.getResult();
+        }
+    }
+
+}
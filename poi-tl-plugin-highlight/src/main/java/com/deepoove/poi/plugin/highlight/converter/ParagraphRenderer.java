@@ -15,10 +15,7 @@
  */
 package com.deepoove.poi.plugin.highlight.converter;
 
-import java.util.HashMap;
 import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
 
 import org.apache.poi.xwpf.usermodel.XWPFTable.XWPFBorderType;
 import org.slf4j.Logger;
@@ -47,32 +44,22 @@ public class ParagraphRenderer implements StyleRenderer<ParagraphRenderData> {
     private LinkedList<String> styleStack;
     private String blockResult;
     private String abortResult;
+    private boolean styled;
 
     private String fontFamily;
     private double fontSize;
-    private List<SelectorStyle> cssStyle;
+    private HighlightTheme theme;
 
     public ParagraphRenderer(HighlightStyle style) {
         String theme = (null == style || null == style.getTheme()) ? "poitl" : style.getTheme();
-        try {
-            cssStyle = StylesheetParser.parse("highlightcss/" + theme + ".css");
-            this.fontFamily = null == style ? null : style.getFontFamily();
-            this.fontSize = null == style ? 0f : style.getFontSize();
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Illegal highlight theme:" + theme, e);
-        }
+        this.theme = HighlightTheme.of(theme);
+        this.fontFamily = null == style ? null : style.getFontFamily();
+        this.fontSize = null == style ? 0f : style.getFontSize();
         of = Paragraphs.of();
-        style();
     }
 
     private void style() {
-        Map<String, String> pv = new HashMap<String, String>();
-        for (SelectorStyle css : cssStyle) {
-            if (".hljs".equals(css.getSelectorName())) {
-                pv.putAll(css.getPropertyValues());
-            }
-        }
-        ParagraphStyle paragraphStyle = StyleUtils.retriveParagraphStyleFromCss(pv);
+        ParagraphStyle paragraphStyle = StyleUtils.retriveParagraphStyleFromCss(theme.getBlockProperties());
         if (fontFamily != null && fontSize != 0f) {
             Style defaultTextStyle = paragraphStyle.getDefaultTextStyle();
             if (null == defaultTextStyle) {
@@ -127,16 +114,7 @@ public class ParagraphRenderer implements StyleRenderer<ParagraphRenderData> {
     private void appendBlock() {
         if (blockResult.isEmpty()) return;
         TextBuilder ofText = Texts.of(blockResult.toString());
-        Map<String, String> pv = new HashMap<String, String>();
-        for (int i = styleStack.size() - 1; i >= 0; i--) {
-            String clazz = styleStack.get(i);
-            for (SelectorStyle css : cssStyle) {
-                if ((".hljs-" + clazz).equals(css.getSelectorName())) {
-                    pv.putAll(css.getPropertyValues());
-                }
-            }
-        }
-        ofText.style(StyleUtils.retriveStyleFromCss(pv));
+        ofText.style(theme.getTextStyle(styleStack));
         of.addText(ofText.create());
         blockResult = "";
 
@@ -159,7 +137,15 @@ public class ParagraphRenderer implements StyleRenderer<ParagraphRenderData> {
 //         of.addText(Texts.of(code.toString()).create());
     }
 
+    /**
+     * the paragraph style is applied here, so the renderers of candidate
+     * languages not chosen by auto detection never derive it
+     */
     public ParagraphRenderData getResult() {
+        if (!styled) {
+            style();
+            styled = true;
+        }
         ParagraphRenderData data = of.create();
         if (null != abortResult) {
             data.getContents().clear();
@@ -0,0 +1,102 @@
+package com.deepoove.poi.plugin.highlight;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.data.ParagraphRenderData;
+import com.deepoove.poi.data.RenderData;
+import com.deepoove.poi.data.TextRenderData;
+import com.deepoove.poi.data.style.Style;
+import com.deepoove.poi.plugin.highlight.converter.HighlightTheme;
+import com.deepoove.poi.plugin.highlight.converter.LanguageDetector;
+import com.deepoove.poi.plugin.highlight.converter.ParagraphRenderer;
+
+public class LanguageDetectorTest {
+
+    String code = "public class Hello {\n" + "  public static void main(String[] args) {\n"
+            + "    System.out.println(\"Hello\");\n" + "  }\n" + "}";
+
+    @Test
+    public void testParallelDetection() {
+        HighlightStyle style = HighlightStyle.builder().withTheme("github").build();
+        LanguageDetector.clearCache();
+        ParagraphRenderData sequential = new LanguageDetector(null, 0).highlight(code,
+                () -> new ParagraphRenderer(style));
+
+        LanguageDetector.clearCache();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ParagraphRenderData parallel = new LanguageDetector(executor, 0).highlight(code,
+                    () -> new ParagraphRenderer(style));
+            assertEquals(texts(sequential), texts(parallel));
+        } finally {
+            executor.shutdown();
+        }
+
+        // detected language is cached
+        ParagraphRenderData cached = new LanguageDetector(null, 0).highlight(code,
+                () -> new ParagraphRenderer(style));
+        assertEquals(texts(sequential), texts(cached));
+    }
+
+    @Test
+    public void testCacheByMode() throws Exception {
+        HighlightStyle style = HighlightStyle.builder().withTheme("github").build();
+        LanguageDetector.clearCache();
+        String exact = texts(new LanguageDetector(null, 0).highlight(code, () -> new ParagraphRenderer(style)));
+
+        // a guess of the cutoff is not returned to exact detection
+        LanguageDetector.clearCache();
+        new LanguageDetector(null, 1).highlight(code, () -> new ParagraphRenderer(style));
+        assertEquals(exact, texts(new LanguageDetector(null, 0).highlight(code, () -> new ParagraphRenderer(style))));
+
+        // concurrent highlights
+        LanguageDetector.clearCache();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> texts(
+                        new LanguageDetector(null, 0).highlight(code, () -> new ParagraphRenderer(style)))));
+            }
+            for (Future<String> future : futures) {
+                assertEquals(exact, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testThemeCache() {
+        HighlightTheme theme = HighlightTheme.of("github");
+        assertSame(theme, HighlightTheme.of("github"));
+        LinkedList<String> stack = new LinkedList<>();
+        stack.push("keyword");
+        Style style = theme.getTextStyle(stack);
+        assertSame(style, theme.getTextStyle(stack));
+    }
+
+    private String texts(ParagraphRenderData data) {
+        StringBuilder sb = new StringBuilder();
+        List<RenderData> contents = data.getContents();
+        for (RenderData content : contents) {
+            if (content instanceof TextRenderData) {
+                TextRenderData text = (TextRenderData) content;
+                sb.append(text.getText()).append('|').append(null == text.getStyle() ? "" : text.getStyle().getColor())
+                        .append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.plugin.markdown;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+
+import com.deepoove.poi.render.processor.DrawingSupport;
+import com.deepoove.poi.render.processor.NumberingContinue;
+import com.deepoove.poi.xwpf.BodyContainer;
+
+/**
+ * Cache of the xml rendered from markdown, keyed by the hash of markdown, the
+ * paragraph and run properties of the tag and the style. Fragments are kept per document part because they refer to the
+ * relationships(hyperlinks, pictures) and numbering of that part, a repeated
+ * snippet is inserted by copying xml without parsing and converting it again.
+ * 
+ * @author Sayi
+ */
+public class MarkdownFragmentCache {
+
+    private final int maxFragmentsPerPart;
+    private final Map<Object, Map<Key, List<XmlObject>>> parts = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public MarkdownFragmentCache() {
+        this(256);
+    }
+
+    public MarkdownFragmentCache(int maxFragmentsPerPart) {
+        this.maxFragmentsPerPart = maxFragmentsPerPart;
+    }
+
+    /**
+     * @param data markdown
+     * @param run  the tag run, rendered paragraphs and runs inherit the pPr of its
+     *             paragraph and its rPr
+     * @return null if there is no markdown
+     */
+    public Object key(MarkdownRenderData data, XWPFRun run) {
+        String markdown = data.getMarkdown();
+        if (null == markdown) return null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(markdown.getBytes(StandardCharsets.UTF_8));
+            CTP ctp = ((XWPFParagraph) run.getParent()).getCTP();
+            digest.update((byte) 0);
+            if (ctp.isSetPPr()) digest.update(ctp.getPPr().xmlText().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            CTR ctr = run.getCTR();
+            if (ctr.isSetRPr()) digest.update(ctr.getRPr().xmlText().getBytes(StandardCharsets.UTF_8));
+            String hash = new BigInteger(1, digest.digest()).toString(16);
+            return new Key(hash, data.getStyle());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public List<XmlObject> get(Object part, Object key) {
+        Map<Key, List<XmlObject>> fragments = parts.get(part);
+        return null == fragments ? null : fragments.get(key);
+    }
+
+    /**
+     * keep a copy of the rendered paragraphs and tables
+     */
+    public void put(Object part, Object key, List<IBodyElement> elements) {
+        List<XmlObject> fragment = new ArrayList<>(elements.size());
+        for (IBodyElement element : elements) {
+            if (element instanceof XWPFParagraph) {
+                fragment.add(((XWPFParagraph) element).getCTP().copy());
+            } else if (element instanceof XWPFTable) {
+                fragment.add(((XWPFTable) element).getCTTbl().copy());
+            } else {
+                return;
+            }
+        }
+        putFragment(part, key, fragment);
+    }
+
+    /**
+     * keep the detached paragraphs and tables, they are copied on each insert
+     */
+    public void putFragment(Object part, Object key, List<XmlObject> fragment) {
+        parts.computeIfAbsent(part, k -> Collections.synchronizedMap(new LinkedHashMap<Key, List<XmlObject>>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<XmlObject>> eldest) {
+                return size() > maxFragmentsPerPart;
+            }
+        })).put((Key) key, fragment);
+    }
+
+    /**
+     * insert the cached fragment before the paragraph in one pass, lists restart
+     * their numbering and bookmarks are not copied
+     */
+    public static void insert(BodyContainer bodyContainer, CTP before, List<XmlObject> fragment) {
+        insert(bodyContainer, before, fragment, true);
+    }
+
+    /**
+     * insert the fragment before the paragraph in one pass
+     * 
+     * @param repeated false if the fragment is inserted for the first time, its
+     *                 bookmarks and numbering are kept as written
+     */
+    public static void insert(BodyContainer bodyContainer, CTP before, List<XmlObject> fragment,
+            boolean repeated) {
+        NumberingContinue numberingContinue = repeated ? new NumberingContinue() : null;
+        for (XmlObject xml : fragment) {
+            if (xml instanceof CTP) {
+                XWPFParagraph insertNewParagraph = bodyContainer.insertNewParagraph(before.newCursor());
+                int paraPos = bodyContainer.getParaPos(insertNewParagraph);
+                CTP ctp = insertNewParagraph.getCTP();
+                ctp.set(xml);
+                if (repeated) {
+                    while (ctp.sizeOfBookmarkStartArray() > 0) ctp.removeBookmarkStart(0);
+                    while (ctp.sizeOfBookmarkEndArray() > 0) ctp.removeBookmarkEnd(0);
+                }
+                XWPFParagraph copy = new XWPFParagraph(ctp, bodyContainer.getTarget());
+                DrawingSupport.updateDocPrId(copy);
+                if (repeated) numberingContinue.updateNumbering(copy, copy);
+                bodyContainer.updateBodyElements(insertNewParagraph, copy);
+                bodyContainer.setParagraph(copy, paraPos);
+            } else if (xml instanceof CTTbl) {
+                XWPFTable insertNewTbl = bodyContainer.insertNewTbl(before.newCursor());
+                int tablePos = bodyContainer.getTablePos(insertNewTbl);
+                insertNewTbl.getCTTbl().set(xml);
+                XWPFTable copy = new XWPFTable(insertNewTbl.getCTTbl(), bodyContainer.getTarget());
+                DrawingSupport.updateDocPrId(copy);
+                bodyContainer.updateBodyElements(insertNewTbl, copy);
+                bodyContainer.setTable(tablePos, copy);
+            }
+        }
+    }
+
+    private static class Key {
+        final String hash;
+        final MarkdownStyle style;
+
+        Key(String hash, MarkdownStyle style) {
+            this.hash = hash;
+            this.style = style;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash.hashCode() * 31 + System.identityHashCode(style);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return Objects.equals(hash, other.hash) && style == other.style;
+        }
+    }
+
+}
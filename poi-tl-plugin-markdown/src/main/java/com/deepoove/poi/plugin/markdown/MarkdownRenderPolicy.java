@@ -15,10 +15,21 @@
  */
 package com.deepoove.poi.plugin.markdown;
 
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+
 import com.deepoove.poi.converter.ToRenderDataConverter;
 import com.deepoove.poi.data.DocumentRenderData;
 import com.deepoove.poi.plugin.markdown.converter.MarkdownToDocumentRenderDataConverter;
+import com.deepoove.poi.plugin.markdown.converter.MarkdownToXmlFragmentConverter;
 import com.deepoove.poi.policy.AbstractDocumentConverterRenderPolicy;
+import com.deepoove.poi.render.RenderContext;
+import com.deepoove.poi.xwpf.BodyContainer;
+import com.deepoove.poi.xwpf.BodyContainerFactory;
 
 /**
  * Markdown render policy
@@ -27,9 +38,67 @@ import com.deepoove.poi.policy.AbstractDocumentConverterRenderPolicy;
  */
 public class MarkdownRenderPolicy extends AbstractDocumentConverterRenderPolicy<MarkdownRenderData> {
 
+    private final MarkdownFragmentCache fragmentCache;
+    private final MarkdownToXmlFragmentConverter xmlConverter;
+
+    public MarkdownRenderPolicy() {
+        this(null);
+    }
+
+    /**
+     * @param fragmentCache repeated markdown is inserted from the cached xml
+     */
+    public MarkdownRenderPolicy(MarkdownFragmentCache fragmentCache) {
+        this(fragmentCache, false);
+    }
+
+    /**
+     * @param fragmentCache repeated markdown is inserted from the cached xml
+     * @param writeXml      write the {@link DocumentRenderData} of markdown to
+     *                      detached paragraphs and tables xml and insert them in
+     *                      one pass, markdown with images is rendered at the tag
+     */
+    public MarkdownRenderPolicy(MarkdownFragmentCache fragmentCache, boolean writeXml) {
+        this.fragmentCache = fragmentCache;
+        this.xmlConverter = writeXml ? new MarkdownToXmlFragmentConverter() : null;
+    }
+
     @Override
     public ToRenderDataConverter<MarkdownRenderData, DocumentRenderData> getDocumentRenderDataConverter() {
         return new MarkdownToDocumentRenderDataConverter();
     }
 
+    @Override
+    public void doRender(RenderContext<MarkdownRenderData> context) throws Exception {
+        MarkdownRenderData data = context.getData();
+        XWPFRun run = context.getRun();
+        Object key = null == fragmentCache ? null : fragmentCache.key(data, run);
+        boolean writeXml = null != xmlConverter && null != data.getMarkdown();
+        if (null == key && !writeXml) {
+            super.doRender(context);
+            return;
+        }
+        BodyContainer bodyContainer = BodyContainerFactory.getBodyContainer(run);
+        CTP anchor = ((XWPFParagraph) run.getParent()).getCTP();
+        Object part = bodyContainer.getTarget().getPart();
+        List<XmlObject> fragment = null == key ? null : fragmentCache.get(part, key);
+        boolean repeated = null != fragment;
+        if (null == fragment && writeXml) {
+            fragment = xmlConverter.convert(data, bodyContainer.getTarget(), run);
+            if (null != fragment && null != key) fragmentCache.putFragment(part, key, fragment);
+        }
+        if (null != fragment) {
+            MarkdownFragmentCache.insert(bodyContainer, anchor, fragment, repeated);
+            return;
+        }
+        if (null == key) {
+            super.doRender(context);
+            return;
+        }
+        int start = bodyContainer.getPosOfParagraphCTP(anchor);
+        super.doRender(context);
+        int end = bodyContainer.getPosOfParagraphCTP(anchor);
+        fragmentCache.put(part, key, bodyContainer.getBodyElements().subList(start, end));
+    }
+
 }
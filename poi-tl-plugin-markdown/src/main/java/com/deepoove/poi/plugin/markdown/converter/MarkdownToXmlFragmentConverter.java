@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.plugin.markdown.converter;
+
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.xmlbeans.XmlObject;
+
+import com.deepoove.poi.data.DocumentRenderData;
+import com.deepoove.poi.plugin.markdown.MarkdownRenderData;
+
+/**
+ * MarkdownRenderData to detached CTP/CTTbl Converter, the xml is written from
+ * the same {@link DocumentRenderData} as
+ * {@link MarkdownToDocumentRenderDataConverter}
+ * 
+ * @author Sayi
+ */
+public class MarkdownToXmlFragmentConverter {
+
+    private MarkdownToDocumentRenderDataConverter converter;
+
+    public MarkdownToXmlFragmentConverter() {
+        this.converter = new MarkdownToDocumentRenderDataConverter();
+    }
+
+    /**
+     * @param data     markdown
+     * @param body     the body the xml will be inserted into
+     * @param template the tag run whose paragraph and run style is inherited
+     * @return the xml in document order, null if the markdown contains images
+     * @throws Exception
+     */
+    public List<XmlObject> convert(MarkdownRenderData data, IBody body, XWPFRun template) throws Exception {
+        DocumentRenderData document = converter.convert(data);
+        if (!XmlFragmentWriter.isSupported(document)) return null;
+        return new XmlFragmentWriter(body, template).write(document);
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.plugin.markdown.converter;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
+
+import com.deepoove.poi.data.CellRenderData;
+import com.deepoove.poi.data.DocumentRenderData;
+import com.deepoove.poi.data.NumberingFormat;
+import com.deepoove.poi.data.NumberingItemRenderData;
+import com.deepoove.poi.data.NumberingRenderData;
+import com.deepoove.poi.data.ParagraphRenderData;
+import com.deepoove.poi.data.RenderData;
+import com.deepoove.poi.data.RowRenderData;
+import com.deepoove.poi.data.TableRenderData;
+import com.deepoove.poi.data.TextRenderData;
+import com.deepoove.poi.policy.ParagraphRenderPolicy;
+import com.deepoove.poi.policy.TableRenderPolicy;
+import com.deepoove.poi.util.StyleUtils;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
+
+/**
+ * Write the {@link DocumentRenderData} of {@link DocumentVisitor} as detached
+ * CTP/CTTbl of the body. Each element is rendered by the same helpers as
+ * {@link com.deepoove.poi.policy.DocumentRenderPolicy} at the tag, so
+ * headings, bookmarks and numbering do not differ, only the insertion is done
+ * in one pass, see
+ * {@link com.deepoove.poi.plugin.markdown.MarkdownFragmentCache#insert}.
+ * <p>
+ * Pictures are not written, use {@link #isSupported(DocumentRenderData)}
+ * before writing.
+ * </p>
+ * 
+ * @author Sayi
+ */
+public class XmlFragmentWriter {
+
+    private final IBody body;
+    private final XWPFRun template;
+
+    /**
+     * @param body     the body the xml will be inserted into, hyperlinks and
+     *                 numbering are created in its part and document
+     * @param template the tag run whose paragraph and run style is inherited
+     */
+    public XmlFragmentWriter(IBody body, XWPFRun template) {
+        this.body = body;
+        this.template = template;
+    }
+
+    /**
+     * @param data document of markdown
+     * @return false if the document contains contents other than text
+     */
+    public static boolean isSupported(DocumentRenderData data) {
+        for (RenderData item : data.getContents()) {
+            if (item instanceof ParagraphRenderData) {
+                if (!isSupported((ParagraphRenderData) item)) return false;
+            } else if (item instanceof NumberingRenderData) {
+                for (NumberingItemRenderData numberingItem : ((NumberingRenderData) item).getItems()) {
+                    if (!isSupported(numberingItem.getItem())) return false;
+                }
+            } else if (item instanceof TableRenderData) {
+                for (RowRenderData row : ((TableRenderData) item).getRows()) {
+                    for (CellRenderData cell : row.getCells()) {
+                        for (ParagraphRenderData paragraph : cell.getParagraphs()) {
+                            if (!isSupported(paragraph)) return false;
+                        }
+                    }
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSupported(ParagraphRenderData paragraph) {
+        return null == paragraph || paragraph.getContents().stream().allMatch(r -> r instanceof TextRenderData);
+    }
+
+    /**
+     * @param data document of markdown
+     * @return detached {@link CTP} and {@link CTTbl} in document order
+     * @throws Exception
+     */
+    public List<XmlObject> write(DocumentRenderData data) throws Exception {
+        List<XmlObject> result = new ArrayList<>();
+        for (RenderData item : data.getContents()) {
+            if (item instanceof ParagraphRenderData) {
+                XWPFParagraph paragraph = newParagraph();
+                XWPFRun run = paragraph.createRun();
+                StyleUtils.styleParagraph(paragraph, template.getParent());
+                StyleUtils.styleRun(run, template);
+                ParagraphRenderPolicy.Helper.renderParagraph(run, (ParagraphRenderData) item);
+                result.add(paragraph.getCTP());
+            } else if (item instanceof TableRenderData) {
+                result.add(writeTable((TableRenderData) item).getCTTbl());
+            } else if (item instanceof NumberingRenderData) {
+                writeNumbering((NumberingRenderData) item, result);
+            }
+        }
+        return result;
+    }
+
+    private XWPFParagraph newParagraph() {
+        return new XWPFParagraph(CTP.Factory.newInstance(), body);
+    }
+
+    private XWPFTable writeTable(TableRenderData data) throws Exception {
+        XWPFTable table = new XWPFTable(CTTbl.Factory.newInstance(), body, data.obtainRowSize(),
+                data.obtainColSize());
+        StyleUtils.styleTable(table, data.getTableStyle());
+        int size = table.getRows().size();
+        for (int i = 0; i < size; i++) {
+            TableRenderPolicy.Helper.renderRow(table.getRows().get(i), data.getRows().get(i),
+                    StyleUtils.retriveStyle(template));
+        }
+        return table;
+    }
+
+    private void writeNumbering(NumberingRenderData data, List<XmlObject> result) throws Exception {
+        NumberingFormat[] formats = data.getFormats().toArray(new NumberingFormat[] {});
+        BigInteger numId = ((NiceXWPFDocument) body.getXWPFDocument()).addNewMultiLevelNumberingId(formats);
+        for (NumberingItemRenderData item : data.getItems()) {
+            XWPFParagraph paragraph = newParagraph();
+            int level = item.getLevel();
+            if (NumberingItemRenderData.LEVEL_NORMAL != level) {
+                paragraph.setNumID(numId);
+                paragraph.setNumILvl(BigInteger.valueOf(level));
+            }
+            XWPFRun run = paragraph.createRun();
+            StyleUtils.styleRun(run, template);
+            ParagraphRenderPolicy.Helper.renderParagraph(run, item.getItem());
+            result.add(paragraph.getCTP());
+        }
+    }
+
+}
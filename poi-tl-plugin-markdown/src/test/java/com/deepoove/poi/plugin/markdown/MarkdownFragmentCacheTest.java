@@ -0,0 +1,171 @@
+package com.deepoove.poi.plugin.markdown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFHyperlinkRun;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.xwpf.XWPFNumberingWrapper;
+
+public class MarkdownFragmentCacheTest {
+
+    @Test
+    public void testRepeatedMarkdown() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{md}}");
+        doc.createParagraph().createRun().setText("{{md}}");
+        doc.createParagraph().createRun().setText("{{md}}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+
+        MarkdownRenderData md = new MarkdownRenderData();
+        md.setMarkdown("# Disclaimer\n\nThis is **poi-tl** [website](http://deepoove.com).\n\n" + "1. first\n2. second\n\n"
+                + "| a | b |\n| --- | --- |\n| 1 | 2 |\n");
+        md.setStyle(MarkdownStyle.newStyle());
+        Map<String, Object> data = new HashMap<>();
+        data.put("md", md);
+
+        String expected = render(out.toByteArray(), data, new MarkdownRenderPolicy());
+        MarkdownFragmentCache cache = new MarkdownFragmentCache();
+        XWPFTemplate template = XWPFTemplate
+                .compile(new ByteArrayInputStream(out.toByteArray()),
+                        Configure.builder().bind("md", new MarkdownRenderPolicy(cache)).build())
+                .render(data);
+        XWPFDocument result = template.getXWPFDocument();
+        assertEquals(expected, text(result));
+        assertEquals(3, result.getTables().size());
+        assertNotNull(cache.get(result, cache.key(md, plainRun())));
+
+        List<BigInteger> numIds = new ArrayList<>();
+        for (XWPFParagraph paragraph : result.getParagraphs()) {
+            if (null != paragraph.getNumID() && !numIds.contains(paragraph.getNumID())) {
+                numIds.add(paragraph.getNumID());
+            }
+        }
+        assertEquals(3, numIds.size());
+        assertNotEquals(numIds.get(0), numIds.get(1));
+        template.close();
+    }
+
+    @Test
+    public void testWriteXml() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{md}}");
+        doc.createParagraph().createRun().setText("{{md}}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+
+        MarkdownRenderData md = new MarkdownRenderData();
+        md.setMarkdown("# Disclaimer\n\nThis is **poi-tl** [website](http://deepoove.com) `code`.\n\n"
+                + "- first\n  - nested\n- second\n\n> quote\n\n```java\nint i = 0;\n```\n\n"
+                + "| a | b |\n| --- | --- |\n| 1 | 2 |\n");
+        md.setStyle(MarkdownStyle.newStyle());
+        Map<String, Object> data = new HashMap<>();
+        data.put("md", md);
+
+        String expected = render(out.toByteArray(), data, new MarkdownRenderPolicy());
+        assertEquals(expected, render(out.toByteArray(), data, new MarkdownRenderPolicy(null, true)));
+
+        MarkdownFragmentCache cache = new MarkdownFragmentCache();
+        XWPFTemplate template = XWPFTemplate
+                .compile(new ByteArrayInputStream(out.toByteArray()),
+                        Configure.builder().bind("md", new MarkdownRenderPolicy(cache, true)).build())
+                .render(data);
+        XWPFDocument result = template.getXWPFDocument();
+        assertEquals(expected, text(result));
+        assertNotNull(cache.get(result, cache.key(md, plainRun())));
+        assertEquals(2, result.getTables().size());
+        assertEquals("FFFFFF", result.getTables().get(0).getRow(0).getCell(0).getParagraphs().get(0).getRuns()
+                .get(0).getColor());
+        List<String> links = new ArrayList<>();
+        for (XWPFParagraph paragraph : result.getParagraphs()) {
+            paragraph.getRuns().stream().filter(r -> r instanceof XWPFHyperlinkRun).forEach(r -> links.add(result
+                    .getPackagePart().getRelationship(((XWPFHyperlinkRun) r).getHyperlinkId()).getTargetURI()
+                    .toString()));
+        }
+        assertEquals(Arrays.asList("http://deepoove.com", "http://deepoove.com"), links);
+        assertTrue(result.getParagraphs().get(0).getCTP().sizeOfBookmarkStartArray() > 0);
+
+        Set<BigInteger> numIds = new HashSet<>();
+        result.getParagraphs().stream().filter(p -> null != p.getNumID()).forEach(p -> numIds.add(p.getNumID()));
+        Set<BigInteger> nums = new HashSet<>();
+        new XWPFNumberingWrapper(result.getNumbering()).getNums().forEach(num -> nums.add(num.getCTNum().getNumId()));
+        assertEquals(nums, numIds);
+        template.close();
+    }
+
+    @Test
+    public void testAnchorFormatting() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        XWPFParagraph spaced = doc.createParagraph();
+        spaced.setSpacingBefore(240);
+        XWPFRun bold = spaced.createRun();
+        bold.setBold(true);
+        bold.setText("{{md}}");
+        doc.createParagraph().createRun().setText("{{md}}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+
+        MarkdownRenderData md = new MarkdownRenderData();
+        md.setMarkdown("This is poi-tl.");
+        Map<String, Object> data = new HashMap<>();
+        data.put("md", md);
+
+        for (boolean writeXml : new boolean[] { false, true }) {
+            MarkdownRenderPolicy policy = new MarkdownRenderPolicy(new MarkdownFragmentCache(), writeXml);
+            XWPFTemplate template = XWPFTemplate.compile(new ByteArrayInputStream(out.toByteArray()),
+                    Configure.builder().bind("md", policy).build()).render(data);
+            List<XWPFParagraph> paragraphs = template.getXWPFDocument().getParagraphs();
+            assertEquals(2, paragraphs.size());
+            assertEquals(240, paragraphs.get(0).getSpacingBefore());
+            assertTrue(paragraphs.get(0).getRuns().get(0).isBold());
+            assertNotEquals(240, paragraphs.get(1).getSpacingBefore());
+            assertFalse(paragraphs.get(1).getRuns().get(0).isBold());
+            template.close();
+        }
+    }
+
+    private XWPFRun plainRun() {
+        return new XWPFDocument().createParagraph().createRun();
+    }
+
+    private String render(byte[] bytes, Map<String, Object> data, MarkdownRenderPolicy policy) throws Exception {
+        XWPFTemplate template = XWPFTemplate
+                .compile(new ByteArrayInputStream(bytes), Configure.builder().bind("md", policy).build())
+                .render(data);
+        String text = text(template.getXWPFDocument());
+        template.close();
+        return text;
+    }
+
+    private String text(XWPFDocument doc) {
+        StringBuilder sb = new StringBuilder();
+        doc.getBodyElements().forEach(element -> {
+            if (element instanceof XWPFParagraph) sb.append(((XWPFParagraph) element).getText());
+            else sb.append("[table]");
+            sb.append('\n');
+        });
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generate {@code Xxx_PoitlAccessor} for classes marked with
+ * {@code com.deepoove.poi.expression.TemplateModel}, tag keys(field names and
+ * the value of {@code com.deepoove.poi.expression.Name}) are mapped to direct
+ * getter calls or field reads.
+ * 
+ * @author Sayi
+ */
+public class TemplateModelProcessor extends AbstractProcessor {
+
+    static final String TEMPLATE_MODEL = "com.deepoove.poi.expression.TemplateModel";
+    static final String NAME = "com.deepoove.poi.expression.Name";
+    static final String MODEL_ACCESSOR = "com.deepoove.poi.expression.ModelAccessor";
+    static final String ACCESSOR_SUFFIX = "_PoitlAccessor";
+
+    private final List<String> generated = new ArrayList<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(TEMPLATE_MODEL);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        TypeElement annotation = processingEnv.getElementUtils().getTypeElement(TEMPLATE_MODEL);
+        if (null == annotation) return false;
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@TemplateModel can only be used on classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!isAccessible(type)) {
+                error(element, "@TemplateModel class must not be private or non-static inner class");
+                continue;
+            }
+            try {
+                generate(type);
+            } catch (IOException e) {
+                error(element, "Fail generate accessor: " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        String packageName = getPackageName(type);
+        String accessorName = getFlatName(type) + ACCESSOR_SUFFIX;
+        String qualifiedAccessorName = packageName.isEmpty() ? accessorName : packageName + "." + accessorName;
+        String modelName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+        Map<String, String> reads = collectReads(type, packageName);
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedAccessorName, type);
+        try (Writer writer = file.openWriter()) {
+            StringBuilder sb = new StringBuilder();
+            if (!packageName.isEmpty()) sb.append("package ").append(packageName).append(";\n\n");
+            sb.append("/**\n * Generated by poi-tl-processor, do not edit.\n */\n");
+            sb.append("@SuppressWarnings(\"rawtypes\")\n");
+            sb.append("public final class ").append(accessorName).append(" implements ").append(MODEL_ACCESSOR)
+                    .append(" {\n\n");
+
+            sb.append("    @Override\n");
+            sb.append("    public Class<?> getModelType() {\n");
+            sb.append("        return ").append(modelName).append(".class;\n");
+            sb.append("    }\n\n");
+
+            sb.append("    @Override\n");
+            sb.append("    public boolean canRead(String key) {\n");
+            sb.append("        switch (key) {\n");
+            for (String key : reads.keySet()) {
+                sb.append("        case ").append(literal(key)).append(":\n");
+            }
+            sb.append("            return true;\n");
+            sb.append("        default:\n");
+            sb.append("            return false;\n");
+            sb.append("        }\n");
+            sb.append("    }\n\n");
+
+            sb.append("    @Override\n");
+            sb.append("    public Object read(Object model, String key) {\n");
+            sb.append("        ").append(modelName).append(" target = (").append(modelName).append(") model;\n");
+            sb.append("        switch (key) {\n");
+            for (Map.Entry<String, String> entry : reads.entrySet()) {
+                sb.append("        case ").append(literal(entry.getKey())).append(":\n");
+                sb.append("            return target.").append(entry.getValue()).append(";\n");
+            }
+            sb.append("        default:\n");
+            sb.append("            throw new IllegalArgumentException(\"Cannot read property \" + key + \" from \" + ")
+                    .append(modelName).append(".class);\n");
+            sb.append("        }\n");
+            sb.append("    }\n\n");
+            sb.append("}\n");
+            writer.write(sb.toString());
+        }
+        generated.add(qualifiedAccessorName);
+    }
+
+    /**
+     * key to read expression, fields of sub class hide fields of super class
+     */
+    private Map<String, String> collectReads(TypeElement type, String packageName) {
+        Map<String, String> reads = new LinkedHashMap<>();
+        List<ExecutableElement> methods = ElementFilter
+                .methodsIn(processingEnv.getElementUtils().getAllMembers(type));
+        TypeElement current = type;
+        while (null != current && !"java.lang.Object".equals(current.getQualifiedName().toString())) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC)) continue;
+                String fieldName = field.getSimpleName().toString();
+                String getter = findGetter(methods, field);
+                boolean fieldReadable = isFieldReadable(field, current, packageName);
+                String byGetter = null != getter ? getter + "()" : (fieldReadable ? fieldName : null);
+                if (null != byGetter && !reads.containsKey(fieldName)) {
+                    reads.put(fieldName, byGetter);
+                }
+                String name = getNameValue(field);
+                if (null != name && !reads.containsKey(name)) {
+                    // same as FieldFinder, @Name reads the field itself
+                    String byField = fieldReadable ? fieldName : byGetter;
+                    if (null != byField) reads.put(name, byField);
+                }
+            }
+            current = getSuperclass(current);
+        }
+        return reads;
+    }
+
+    private String findGetter(List<ExecutableElement> methods, VariableElement field) {
+        String name = field.getSimpleName().toString();
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        boolean isBoolean = field.asType().getKind() == TypeKind.BOOLEAN;
+        for (ExecutableElement method : methods) {
+            if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)
+                    || !method.getParameters().isEmpty() || method.getReturnType().getKind() == TypeKind.VOID) {
+                continue;
+            }
+            String methodName = method.getSimpleName().toString();
+            if (methodName.equals("get" + capitalized) || (isBoolean && methodName.equals("is" + capitalized))) {
+                return methodName;
+            }
+        }
+        return null;
+    }
+
+    private boolean isFieldReadable(VariableElement field, TypeElement owner, String packageName) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) return false;
+        if (modifiers.contains(Modifier.PUBLIC)) return true;
+        return packageName.equals(getPackageName(owner));
+    }
+
+    private String getNameValue(VariableElement field) {
+        for (AnnotationMirror mirror : field.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!NAME.equals(annotationType.getQualifiedName().toString())) continue;
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues()
+                    .entrySet()) {
+                if ("value".equals(entry.getKey().getSimpleName().toString())) {
+                    return String.valueOf(entry.getValue().getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) return null;
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    private boolean isAccessible(TypeElement type) {
+        Element current = type;
+        while (current instanceof TypeElement) {
+            TypeElement typeElement = (TypeElement) current;
+            if (typeElement.getModifiers().contains(Modifier.PRIVATE)) return false;
+            if (typeElement.getNestingKind() == NestingKind.MEMBER
+                    && !typeElement.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+            if (typeElement.getNestingKind() == NestingKind.LOCAL
+                    || typeElement.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            current = typeElement.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private String getPackageName(TypeElement type) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        return pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+    }
+
+    private String getFlatName(TypeElement type) {
+        String name = type.getSimpleName().toString();
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name = enclosing.getSimpleName() + "_" + name;
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name;
+    }
+
+    private void writeServiceFile() {
+        if (generated.isEmpty()) return;
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + MODEL_ACCESSOR);
+            try (Writer writer = file.openWriter()) {
+                for (String name : generated) {
+                    writer.write(name);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager()
+                    .printMessage(Diagnostic.Kind.WARNING, "Fail write accessor service file: " + e.getMessage());
+        }
+    }
+
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.deepoove.poi.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.Test;
+
+public class TemplateModelProcessorTest {
+
+    static JavaFileObject source(String name, String content) {
+        return new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + ".java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+
+    @Test
+    public void testGenerate() throws IOException {
+        Path out = Files.createTempDirectory("poitl-processor");
+        List<JavaFileObject> sources = Arrays.asList(
+                source("com.deepoove.poi.expression.TemplateModel",
+                        "package com.deepoove.poi.expression; public @interface TemplateModel {}"),
+                source("com.deepoove.poi.expression.Name",
+                        "package com.deepoove.poi.expression; public @interface Name { String value(); }"),
+                source("com.deepoove.poi.expression.ModelAccessor",
+                        "package com.deepoove.poi.expression; public interface ModelAccessor {"
+                                + " Class<?> getModelType(); boolean canRead(String key);"
+                                + " Object read(Object model, String key); }"),
+                source("demo.Base", "package demo; public class Base { private String id;"
+                        + " public String getId() { return id; } }"),
+                source("demo.User",
+                        "package demo; import com.deepoove.poi.expression.*;"
+                                + " @TemplateModel public class User extends Base {"
+                                + " private String name; @Name(\"alias_name\") String aliasName;"
+                                + " private boolean enable; private int secret; static int COUNT;"
+                                + " public String getName() { return name; }"
+                                + " public boolean isEnable() { return enable; }"
+                                + " @TemplateModel public static class Inner { public String title; } }"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        List<String> options = Arrays.asList("-d", out.toString(), "-s", out.toString());
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, sources);
+        task.setProcessors(Arrays.asList(new TemplateModelProcessor()));
+        assertTrue(task.call());
+
+        String user = new String(Files.readAllBytes(out.resolve("demo" + File.separator + "User_PoitlAccessor.java")),
+                StandardCharsets.UTF_8);
+        assertTrue(user.contains("return target.getName();"));
+        assertTrue(user.contains("case \"alias_name\":"));
+        assertTrue(user.contains("return target.aliasName;"));
+        assertTrue(user.contains("return target.isEnable();"));
+        assertTrue(user.contains("return target.getId();"));
+        assertFalse(user.contains("secret"));
+        assertFalse(user.contains("COUNT"));
+
+        assertTrue(Files.exists(out.resolve("demo" + File.separator + "User_Inner_PoitlAccessor.java")));
+        String services = new String(
+                Files.readAllBytes(out.resolve(
+                        "META-INF" + File.separator + "services" + File.separator + TemplateModelProcessor.MODEL_ACCESSOR)),
+                StandardCharsets.UTF_8);
+        assertEquals("demo.User_PoitlAccessor\ndemo.User_Inner_PoitlAccessor\n", services);
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.server;
+
+import java.io.File;
+
+import com.deepoove.poi.data.ByteArrayPictureRenderData;
+import com.deepoove.poi.data.FilePictureRenderData;
+import com.deepoove.poi.data.PictureRenderData;
+import com.deepoove.poi.data.UrlPictureRenderData;
+import com.deepoove.poi.policy.PictureRenderPolicy;
+import com.deepoove.poi.render.RenderContext;
+
+/**
+ * Picture policy reading url and file pictures through {@link PictureCache}.
+ * 
+ * @author Sayi
+ *
+ */
+public class CachingPictureRenderPolicy extends PictureRenderPolicy {
+
+    private final PictureCache cache;
+
+    public CachingPictureRenderPolicy(PictureCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void doRender(RenderContext<PictureRenderData> context) throws Exception {
+        PictureRenderData data = context.getData();
+        String key = null;
+        if (data instanceof UrlPictureRenderData) {
+            key = "url:" + ((UrlPictureRenderData) data).getUrl();
+        } else if (data instanceof FilePictureRenderData) {
+            String path = ((FilePictureRenderData) data).getPath();
+            key = "file:" + path + ":" + new File(path).lastModified();
+        }
+        if (null == key) {
+            super.doRender(context);
+            return;
+        }
+        ByteArrayPictureRenderData picture = new ByteArrayPictureRenderData(cache.get(key, data::readPictureData),
+                data.getPictureType());
+        picture.setPictureStyle(data.getPictureStyle());
+        picture.setAltMeta(data.getAltMeta());
+        Helper.renderPicture(context.getRun(), picture, context.getTemplate().getRenderBudget());
+    }
+
+}
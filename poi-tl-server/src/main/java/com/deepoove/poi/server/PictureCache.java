@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of picture bytes shared by all renders, bounded by total bytes.
+ * 
+ * @author Sayi
+ *
+ */
+public class PictureCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> pictures = new LinkedHashMap<>(64, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long bytes;
+
+    public PictureCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public byte[] get(String key, Supplier<byte[]> loader) {
+        synchronized (this) {
+            byte[] picture = pictures.get(key);
+            if (null != picture) {
+                hits.increment();
+                return picture;
+            }
+        }
+        misses.increment();
+        byte[] picture = loader.get();
+        if (null == picture || picture.length > maxBytes) return picture;
+        synchronized (this) {
+            byte[] previous = pictures.put(key, picture);
+            if (null != previous) bytes -= previous.length;
+            bytes += picture.length;
+            Iterator<Map.Entry<String, byte[]>> iterator = pictures.entrySet().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                bytes -= iterator.next().getValue().length;
+                iterator.remove();
+            }
+        }
+        return picture;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Render counters and latency histogram, written in the Prometheus text
+ * format.
+ * 
+ * @author Sayi
+ *
+ */
+public class RenderMetrics {
+
+    private static final double[] BUCKETS = { 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder[] buckets = new LongAdder[BUCKETS.length];
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public RenderMetrics() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void rejected() {
+        requests.increment();
+        rejected.increment();
+    }
+
+    public void completed(long nanos, boolean success) {
+        requests.increment();
+        if (!success) failures.increment();
+        latencyNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        double seconds = nanos / 1e9;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            if (seconds <= BUCKETS[i]) {
+                buckets[i].increment();
+                break;
+            }
+        }
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public void write(StringBuilder sb) {
+        counter(sb, "poitl_render_requests_total", "render requests received", requests.sum());
+        counter(sb, "poitl_render_rejected_total", "render requests rejected by a full queue", rejected.sum());
+        counter(sb, "poitl_render_failures_total", "render requests failed", failures.sum());
+        sb.append("# HELP poitl_render_seconds render latency including queue wait\n");
+        sb.append("# TYPE poitl_render_seconds histogram\n");
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            cumulative += buckets[i].sum();
+            sb.append("poitl_render_seconds_bucket{le=\"").append(BUCKETS[i]).append("\"} ").append(cumulative)
+                    .append('\n');
+        }
+        long count = requests.sum() - rejected.sum();
+        sb.append("poitl_render_seconds_bucket{le=\"+Inf\"} ").append(count).append('\n');
+        sb.append("poitl_render_seconds_sum ").append(latencyNanos.sum() / 1e9).append('\n');
+        sb.append("poitl_render_seconds_count ").append(count).append('\n');
+        gauge(sb, "poitl_render_seconds_max", "max render latency", maxNanos.get() / 1e9);
+    }
+
+    static void counter(StringBuilder sb, String name, String help, Number value) {
+        metric(sb, name, help, "counter", value);
+    }
+
+    static void gauge(StringBuilder sb, String name, String help, Number value) {
+        metric(sb, name, help, "gauge", value);
+    }
+
+    private static void metric(StringBuilder sb, String name, String help, String type, Number value) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+}
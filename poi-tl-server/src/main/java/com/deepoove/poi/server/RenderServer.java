@@ -0,0 +1,470 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.cache.RenderCache;
+import com.deepoove.poi.cache.RenderCacheStats;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.config.ConfigureBuilder;
+import com.deepoove.poi.jsonmodel.support.DefaultGsonHandler;
+import com.deepoove.poi.jsonmodel.support.GsonHandler;
+import com.deepoove.poi.jsonmodel.support.GsonPreRenderDataCastor;
+import com.deepoove.poi.resolver.TemplateNormalizer;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Long-running render daemon on the loopback interface, templates, parsed
+ * expressions, pictures and rendered documents stay cached between requests.
+ * 
+ * <pre>
+ * POST /render/{id}     json data model, responds the docx document
+ * PUT  /templates/{id}  register the docx template of request body
+ * GET  /metrics         Prometheus text format metrics
+ * GET  /health
+ * </pre>
+ * 
+ * At most <code>threads</code> documents are rendered at the same time and at
+ * most <code>queueCapacity</code> requests wait for a thread, more requests are
+ * answered 503 immediately, before their body is read. Bodies larger than
+ * <code>maxBodyBytes</code> are answered 413.
+ * 
+ * @author Sayi
+ *
+ */
+public class RenderServer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderServer.class);
+
+    static final String DOCX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    private static final Type TYPE = new TypeToken<Map<String, Object>>() {
+    }.getType();
+
+    private final int port;
+    private final TemplateRegistry templates;
+    private final PictureCache pictureCache;
+    private final RenderCache renderCache;
+    private final GsonHandler gsonHandler;
+    private final Configure configure;
+    private final ThreadPoolExecutor renderExecutor;
+    // reserved before the body is read, threads + queueCapacity
+    private final Semaphore renderSlots;
+    private final long maxBodyBytes;
+    private final long renderTimeoutMillis;
+    private final RenderMetrics metrics = new RenderMetrics();
+    private ExecutorService httpExecutor;
+    private HttpServer server;
+
+    private RenderServer(Builder builder) {
+        this.port = builder.port;
+        this.pictureCache = new PictureCache(builder.pictureCacheBytes);
+        this.renderCache = builder.renderCache;
+        this.gsonHandler = null == builder.gsonHandler ? new DefaultGsonHandler() : builder.gsonHandler;
+        ConfigureBuilder configureBuilder = null == builder.configureBuilder ? Configure.builder()
+                : builder.configureBuilder;
+        GsonPreRenderDataCastor castor = new GsonPreRenderDataCastor();
+        castor.setGsonHandler(gsonHandler);
+        configureBuilder.addPreRenderDataCastor(castor);
+        configureBuilder.addPlugin('@', new CachingPictureRenderPolicy(pictureCache));
+        if (null != renderCache) configureBuilder.useRenderCache(renderCache);
+        this.configure = configureBuilder.build();
+        this.templates = new TemplateRegistry(builder.templateDirectory, new TemplateNormalizer(configure));
+        this.renderExecutor = new ThreadPoolExecutor(builder.threads, builder.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(builder.queueCapacity), daemonThreads("poi-tl-render-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.renderSlots = new Semaphore(builder.threads + builder.queueCapacity);
+        this.maxBodyBytes = builder.maxBodyBytes;
+        this.renderTimeoutMillis = builder.renderTimeoutMillis;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public RenderServer start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/render/", this::handleRender);
+        server.createContext("/templates/", this::handleTemplate);
+        server.createContext("/metrics", this::handleMetrics);
+        server.createContext("/health", exchange -> respond(exchange, 200, "text/plain", bytes("OK")));
+        httpExecutor = Executors.newCachedThreadPool(daemonThreads("poi-tl-http-"));
+        server.setExecutor(httpExecutor);
+        server.start();
+        logger.info("poi-tl server listening on {}", server.getAddress());
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public TemplateRegistry getTemplates() {
+        return templates;
+    }
+
+    public RenderMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        if (null != server) server.stop(0);
+        renderExecutor.shutdownNow();
+        if (null != httpExecutor) httpExecutor.shutdownNow();
+    }
+
+    /**
+     * Render without http, the same path as <code>POST /render/{id}</code>.
+     * 
+     * @param id   template id
+     * @param json data model
+     * @return docx document
+     */
+    public byte[] render(String id, String json) throws IOException {
+        byte[] template = templates.get(id);
+        if (null == template) throw new IllegalArgumentException("Template not found: " + id);
+        Map<String, Object> model = gsonHandler.castJsonToType(json, TYPE);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XWPFTemplate doc = XWPFTemplate.compile(new ByteArrayInputStream(template), configure)) {
+            doc.render(model, out);
+        }
+        return out.toByteArray();
+    }
+
+    private void handleRender(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        boolean reserved = false;
+        Future<byte[]> future = null;
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "text/plain", bytes("Method Not Allowed"));
+                return;
+            }
+            String id = exchange.getRequestURI().getPath().substring("/render/".length());
+            if (null == templates.get(id)) {
+                respond(exchange, 404, "text/plain", bytes("Template not found: " + id));
+                return;
+            }
+            reserved = renderSlots.tryAcquire();
+            if (!reserved) {
+                rejectFull(exchange);
+                return;
+            }
+            byte[] body = readBody(exchange);
+            if (null == body) return;
+            String json = new String(body, StandardCharsets.UTF_8);
+            try {
+                future = renderExecutor.submit(() -> render(id, json));
+            } catch (RejectedExecutionException e) {
+                // a cancelled render may still hold its thread
+                rejectFull(exchange);
+                return;
+            }
+            byte[] document;
+            try {
+                document = renderTimeoutMillis > 0 ? future.get(renderTimeoutMillis, TimeUnit.MILLISECONDS)
+                        : future.get();
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                metrics.completed(System.nanoTime() - start, false);
+                respond(exchange, 504, "text/plain", bytes("Render timed out"));
+                return;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                metrics.completed(System.nanoTime() - start, false);
+                if (cause instanceof JsonParseException) {
+                    respond(exchange, 400, "text/plain", bytes(cause.getMessage()));
+                } else {
+                    logger.warn("Render {} failed", id, cause);
+                    respond(exchange, 500, "text/plain", bytes(String.valueOf(cause.getMessage())));
+                }
+                return;
+            }
+            metrics.completed(System.nanoTime() - start, true);
+            respond(exchange, 200, DOCX_CONTENT_TYPE, document);
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, "text/plain", bytes(e.getMessage()));
+        } catch (InterruptedException e) {
+            if (null != future) future.cancel(true);
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "text/plain", bytes("Server is shutting down"));
+        } finally {
+            if (reserved) renderSlots.release();
+            exchange.close();
+        }
+    }
+
+    private void rejectFull(HttpExchange exchange) throws IOException {
+        metrics.rejected();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        respond(exchange, 503, "text/plain", bytes("Render queue is full"));
+    }
+
+    /**
+     * @return the request body, null if it is too large and 413 is answered
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        byte[] body = null;
+        try {
+            if (null == length || Long.parseLong(length.trim()) <= maxBodyBytes) {
+                body = readAll(exchange.getRequestBody(), maxBodyBytes);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Illegal Content-Length: " + length);
+        }
+        if (null == body) {
+            respond(exchange, 413, "text/plain", bytes("Request body is larger than " + maxBodyBytes + " bytes"));
+        }
+        return body;
+    }
+
+    private void handleTemplate(HttpExchange exchange) throws IOException {
+        try {
+            if (!"PUT".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "text/plain", bytes("Method Not Allowed"));
+                return;
+            }
+            String id = exchange.getRequestURI().getPath().substring("/templates/".length());
+            byte[] body = readBody(exchange);
+            if (null == body) return;
+            templates.register(id, body);
+            respond(exchange, 204, "text/plain", null);
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, "text/plain", bytes(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        metrics.write(sb);
+        RenderMetrics.gauge(sb, "poitl_render_active", "documents being rendered", renderExecutor.getActiveCount());
+        RenderMetrics.gauge(sb, "poitl_render_queue_size", "requests waiting for a render thread",
+                renderExecutor.getQueue().size());
+        RenderMetrics.gauge(sb, "poitl_templates_cached", "templates held in memory", templates.size());
+        RenderMetrics.counter(sb, "poitl_picture_cache_hits_total", "picture cache hits", pictureCache.getHits());
+        RenderMetrics.counter(sb, "poitl_picture_cache_misses_total", "picture cache misses",
+                pictureCache.getMisses());
+        RenderMetrics.gauge(sb, "poitl_picture_cache_bytes", "picture cache size", pictureCache.getBytes());
+        if (null != renderCache) {
+            RenderCacheStats stats = renderCache.getStats();
+            RenderMetrics.counter(sb, "poitl_render_cache_hits_total", "render cache hits", stats.getHits());
+            RenderMetrics.counter(sb, "poitl_render_cache_misses_total", "render cache misses", stats.getMisses());
+            RenderMetrics.gauge(sb, "poitl_render_cache_bytes", "render cache heap size", stats.getHeapBytes());
+        }
+        try {
+            respond(exchange, 200, "text/plain; version=0.0.4", bytes(sb.toString()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (null == body) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * @return null if the stream is longer than max
+     */
+    private static byte[] readAll(InputStream in, long max) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            if (out.size() + n > max) return null;
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * java -jar poi-tl-server.jar --port 8090 --templates ./templates --threads 4 --queue 64
+     */
+    public static void main(String[] args) throws IOException {
+        Builder builder = builder();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+            case "--port":
+                builder.port(Integer.parseInt(value));
+                break;
+            case "--templates":
+                builder.templateDirectory(Paths.get(value));
+                break;
+            case "--threads":
+                builder.threads(Integer.parseInt(value));
+                break;
+            case "--queue":
+                builder.queueCapacity(Integer.parseInt(value));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        RenderServer server = builder.build().start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            server.close();
+        }
+    }
+
+    public static class Builder {
+        private int port = 8090;
+        private Path templateDirectory;
+        private int threads = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 64;
+        private long maxBodyBytes = 16L * 1024 * 1024;
+        private long renderTimeoutMillis;
+        private long pictureCacheBytes = 64L * 1024 * 1024;
+        private RenderCache renderCache;
+        private ConfigureBuilder configureBuilder;
+        private GsonHandler gsonHandler;
+
+        private Builder() {
+        }
+
+        /**
+         * @param port 0 for an ephemeral port
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder templateDirectory(Path templateDirectory) {
+            this.templateDirectory = templateDirectory;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param maxBodyBytes larger request bodies are answered 413
+         */
+        public Builder maxBodyBytes(long maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+            return this;
+        }
+
+        /**
+         * @param renderTimeoutMillis renders running longer are cancelled and
+         *                            answered 504, 0 means no timeout
+         */
+        public Builder renderTimeout(long renderTimeoutMillis) {
+            this.renderTimeoutMillis = renderTimeoutMillis;
+            return this;
+        }
+
+        public Builder pictureCacheBytes(long pictureCacheBytes) {
+            this.pictureCacheBytes = pictureCacheBytes;
+            return this;
+        }
+
+        public Builder renderCache(RenderCache renderCache) {
+            this.renderCache = renderCache;
+            return this;
+        }
+
+        /**
+         * plugins and policies of templates, the json castor and picture policy
+         * are added by the server
+         */
+        public Builder configure(ConfigureBuilder configureBuilder) {
+            this.configureBuilder = configureBuilder;
+            return this;
+        }
+
+        public Builder gsonHandler(GsonHandler gsonHandler) {
+            this.gsonHandler = gsonHandler;
+            return this;
+        }
+
+        public RenderServer build() {
+            if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+            if (queueCapacity <= 0) throw new IllegalArgumentException("queueCapacity must be positive");
+            if (maxBodyBytes <= 0) throw new IllegalArgumentException("maxBodyBytes must be positive");
+            return new RenderServer(this);
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.deepoove.poi.resolver.TemplateNormalizer;
+
+/**
+ * Keeps template contents in memory by id, templates come from
+ * {@link #register(String, byte[])} or from <code>{id}.docx</code> of the
+ * template directory, which is reloaded when the file is modified. A registered
+ * template wins over the file of the same id. Templates
+ * are normalized once when loaded, so each render compiles a template without
+ * fragmented runs.
+ * 
+ * @author Sayi
+ *
+ */
+public class TemplateRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateRegistry.class);
+
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_\\-.]+");
+
+    private final Path directory;
+    private final TemplateNormalizer normalizer;
+    private final Map<String, Entry> templates = new ConcurrentHashMap<>();
+
+    public TemplateRegistry(Path directory) {
+        this(directory, null);
+    }
+
+    /**
+     * @param directory  template directory, null means only registered templates
+     * @param normalizer null means templates are kept as is
+     */
+    public TemplateRegistry(Path directory, TemplateNormalizer normalizer) {
+        this.directory = directory;
+        this.normalizer = normalizer;
+    }
+
+    public void register(String id, byte[] template) {
+        templates.put(checkId(id), new Entry(normalize(id, template), null));
+    }
+
+    /**
+     * @param id template id
+     * @return template contents, null if not found
+     * @throws IOException
+     */
+    public byte[] get(String id) throws IOException {
+        Entry entry = templates.get(checkId(id));
+        if (null != entry && entry.registered()) return entry.template;
+        if (null == directory) return null;
+        Path file = directory.resolve(id + ".docx");
+        if (!Files.isRegularFile(file)) return null == entry ? null : entry.template;
+        FileTime modified = Files.getLastModifiedTime(file);
+        if (null != entry && modified.equals(entry.modified)) return entry.template;
+        Entry loaded = new Entry(normalize(id, Files.readAllBytes(file)), modified);
+        // a template registered meanwhile is kept
+        return templates.compute(id, (k, old) -> null != old && old.registered() ? old : loaded).template;
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    private byte[] normalize(String id, byte[] template) {
+        if (null == normalizer) return template;
+        ByteArrayOutputStream out = new ByteArrayOutputStream(template.length);
+        try {
+            normalizer.normalize(new ByteArrayInputStream(template), out);
+            return out.toByteArray();
+        } catch (Exception e) {
+            // leave it to the render to report the broken template
+            logger.warn("Cannot normalize template {}: {}", id, e.getMessage());
+            return template;
+        }
+    }
+
+    private static String checkId(String id) {
+        if (null == id || !ID.matcher(id).matches() || id.startsWith(".")) {
+            throw new IllegalArgumentException("Illegal template id: " + id);
+        }
+        return id;
+    }
+
+    private static class Entry {
+        final byte[] template;
+        final FileTime modified;
+
+        Entry(byte[] template, FileTime modified) {
+            this.template = template;
+            this.modified = modified;
+        }
+
+        boolean registered() {
+            return null == modified;
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.deepoove.poi.server;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.config.Configure;
+
+public class RenderServerTest {
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch interrupted = new CountDownLatch(1);
+    RenderServer server;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = server(RenderServer.builder());
+    }
+
+    private RenderServer server(RenderServer.Builder builder) throws IOException {
+        return builder.port(0).threads(1).queueCapacity(1).maxBodyBytes(8192)
+                .configure(Configure.builder().bind("slow", (eleTemplate, data, template) -> {
+                    started.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                        Thread.currentThread().interrupt();
+                    }
+                }))
+                .build()
+                .start();
+    }
+
+    @AfterEach
+    public void stop() {
+        release.countDown();
+        server.close();
+    }
+
+    @Test
+    public void testRender() throws Exception {
+        assertEquals(204, request("PUT", "/templates/hello", template("Hi {{name}}")).status);
+
+        Response response = request("POST", "/render/hello", "{\"name\":\"Sayi\"}".getBytes(StandardCharsets.UTF_8));
+        assertEquals(200, response.status);
+        try (XWPFDocument doc = new XWPFDocument(new ByteArrayInputStream(response.body));
+                XWPFWordExtractor extractor = new XWPFWordExtractor(doc)) {
+            assertEquals("Hi Sayi", extractor.getText().trim());
+        }
+
+        assertEquals(404, request("POST", "/render/missing", "{}".getBytes(StandardCharsets.UTF_8)).status);
+        assertEquals(400, request("POST", "/render/hello", "{name".getBytes(StandardCharsets.UTF_8)).status);
+        String metrics = new String(request("GET", "/metrics", null).body, StandardCharsets.UTF_8);
+        assertTrue(metrics.contains("poitl_render_requests_total 2"), metrics);
+        assertTrue(metrics.contains("poitl_render_failures_total 1"), metrics);
+        assertTrue(metrics.contains("poitl_templates_cached 1"), metrics);
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        server.getTemplates().register("slow", template("{{slow}}"));
+        byte[] model = "{\"slow\":1}".getBytes(StandardCharsets.UTF_8);
+
+        CompletableFuture<Response> running = CompletableFuture.supplyAsync(() -> request("POST", "/render/slow", model));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Response> queued = CompletableFuture.supplyAsync(() -> request("POST", "/render/slow", model));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!new String(request("GET", "/metrics", null).body, StandardCharsets.UTF_8)
+                .contains("poitl_render_queue_size 1")) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+
+        Response rejected = request("POST", "/render/slow", model);
+        assertEquals(503, rejected.status);
+
+        release.countDown();
+        assertEquals(200, running.get(10, TimeUnit.SECONDS).status);
+        assertEquals(200, queued.get(10, TimeUnit.SECONDS).status);
+        assertEquals(1, server.getMetrics().getRejected());
+    }
+
+    @Test
+    public void testBodyTooLarge() throws Exception {
+        server.getTemplates().register("hello", template("Hi {{name}}"));
+        assertEquals(413, request("POST", "/render/hello", new byte[16384]).status);
+        assertEquals(413, request("PUT", "/templates/hello", new byte[16384]).status);
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        server.close();
+        server = server(RenderServer.builder().renderTimeout(200));
+        server.getTemplates().register("slow", template("{{slow}}"));
+        assertEquals(504, request("POST", "/render/slow", "{\"slow\":1}".getBytes(StandardCharsets.UTF_8)).status);
+        assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRegisteredTemplateWins() throws Exception {
+        Path directory = Files.createTempDirectory("poitl-templates");
+        Path file = directory.resolve("hello.docx");
+        Files.write(file, template("file"));
+        TemplateRegistry registry = new TemplateRegistry(directory);
+        byte[] registered = template("registered");
+        registry.register("hello", registered);
+        assertArrayEquals(registered, registry.get("hello"));
+        Files.delete(file);
+        Files.delete(directory);
+    }
+
+    private static byte[] template(String text) throws IOException {
+        try (XWPFDocument doc = new XWPFDocument()) {
+            doc.createParagraph().createRun().setText(text);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            doc.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private Response request(String method, String path, byte[] body) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(
+                    "http://localhost:" + server.getPort() + path).openConnection();
+            connection.setRequestMethod(method);
+            if (null != body) {
+                connection.setDoOutput(true);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body);
+                }
+            }
+            Response response = new Response();
+            response.status = connection.getResponseCode();
+            try (InputStream in = response.status < 400 ? connection.getInputStream()
+                    : connection.getErrorStream()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                if (null != in) {
+                    byte[] buffer = new byte[8192];
+                    int n;
+                    while ((n = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, n);
+                    }
+                }
+                response.body = out.toByteArray();
+            }
+            return response;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class Response {
+        int status;
+        byte[] body;
+    }
+
+}
@@ -15,6 +15,8 @@
  */
 package com.deepoove.poi;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
@@ -26,19 +28,28 @@ import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.NotOfficeXmlFileException;
 import org.apache.poi.openxml4j.exceptions.OLE2NotOfficeXmlFileException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.util.IOUtils;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.deepoove.poi.cache.RenderCache;
 import com.deepoove.poi.config.Configure;
 import com.deepoove.poi.data.DocumentRenderData;
 import com.deepoove.poi.data.style.Style;
+import com.deepoove.poi.exception.RenderLimitException;
 import com.deepoove.poi.exception.ResolverException;
 import com.deepoove.poi.policy.DocumentRenderPolicy;
 import com.deepoove.poi.render.DefaultRender;
 import com.deepoove.poi.render.Render;
+import com.deepoove.poi.render.RenderBudget;
 import com.deepoove.poi.resolver.Resolver;
 import com.deepoove.poi.resolver.TemplateResolver;
 import com.deepoove.poi.template.MetaTemplate;
@@ -65,6 +76,13 @@ public class XWPFTemplate implements Closeable {
     private Resolver resolver;
     private Render renderer;
     private List<MetaTemplate> eleTemplates;
+    private String fingerprint;
+    // template content not parsed yet, the parse is skipped by a cache hit
+    private byte[] source;
+    // the model of a cache hit, rendered when the document is accessed
+    private boolean renderPending;
+    private Object pendingModel;
+    private RenderBudget renderBudget;
 
     private XWPFTemplate() {
     }
@@ -161,11 +179,26 @@ public class XWPFTemplate implements Closeable {
         try {
             XWPFTemplate template = new XWPFTemplate();
             template.config = config;
-            template.doc = new NiceXWPFDocument(inputStream);
             template.resolver = new TemplateResolver(template.config);
             template.renderer = new DefaultRender();
-            template.eleTemplates = template.resolver.resolveDocument(template.doc);
+            if (null != config.getRenderCache()) {
+                byte[] bytes = IOUtils.toByteArray(inputStream);
+                validate(bytes);
+                template.fingerprint = DigestUtils.sha256Hex(bytes);
+                template.source = bytes;
+                return template;
+            }
+            template.parse(inputStream);
             return template;
+        } catch (IOException e) {
+            throw new ResolverException("Compile template failed", e);
+        }
+    }
+
+    private void parse(InputStream inputStream) {
+        try {
+            this.doc = new NiceXWPFDocument(inputStream);
+            this.eleTemplates = this.resolver.resolveDocument(this.doc);
         } catch (OLE2NotOfficeXmlFileException e) {
             logger.error("Poi-tl currently only supports .docx format");
             throw new ResolverException("Compile template failed", e);
@@ -174,6 +207,39 @@ public class XWPFTemplate implements Closeable {
         }
     }
 
+    private static void validate(byte[] bytes) {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(new ByteArrayInputStream(bytes));
+            if (pkg.getRelationshipsByType(PackageRelationshipTypes.CORE_DOCUMENT).isEmpty()) {
+                throw new ResolverException("Compile template failed, cannot find the main document part");
+            }
+        } catch (NotOfficeXmlFileException e) {
+            if (e instanceof OLE2NotOfficeXmlFileException) {
+                logger.error("Poi-tl currently only supports .docx format");
+            }
+            throw new ResolverException("Compile template failed", e);
+        } catch (InvalidFormatException | IOException e) {
+            throw new ResolverException("Compile template failed", e);
+        } finally {
+            if (null != pkg) pkg.revert();
+        }
+    }
+
+    private void ensureParsed() {
+        if (null != source) {
+            byte[] bytes = source;
+            source = null;
+            parse(new ByteArrayInputStream(bytes));
+        }
+        if (renderPending) {
+            Object model = pendingModel;
+            renderPending = false;
+            pendingModel = null;
+            this.renderer.render(this, model);
+        }
+    }
+
     /**
      * Create new document
      * 
@@ -206,6 +272,9 @@ public class XWPFTemplate implements Closeable {
      * @return
      */
     public XWPFTemplate render(Object model) {
+        renderPending = false;
+        pendingModel = null;
+        ensureParsed();
         this.renderer.render(this, model);
         return this;
     }
@@ -213,6 +282,11 @@ public class XWPFTemplate implements Closeable {
     /**
      * Render the template by data model and write to OutputStream, do'not forget invoke {@link XWPFTemplate#close()},
      * {@link OutputStream#close()}
+     * <p>
+     * If {@link RenderCache} is configured, the cached document of same template content and data is written
+     * directly, the template is not parsed then. It is parsed and rendered by the model when the document is
+     * accessed later, e.g. {@link #getXWPFDocument()} or {@link #write(OutputStream)}.
+     * </p>
      * 
      * @param model render data
      * @param out   output
@@ -220,8 +294,28 @@ public class XWPFTemplate implements Closeable {
      * @throws IOException
      */
     public XWPFTemplate render(Object model, OutputStream out) throws IOException {
-        this.render(model);
-        this.write(out);
+        RenderCache cache = config.getRenderCache();
+        String key = null == cache ? null : cache.key(fingerprint, model);
+        if (null == key) {
+            this.render(model);
+            this.write(out);
+            return this;
+        }
+        byte[] bytes = cache.get(key);
+        if (null == bytes) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            this.render(model);
+            this.write(buffer);
+            bytes = buffer.toByteArray();
+            cache.put(key, bytes);
+            out.write(bytes);
+            return this;
+        }
+        renderPending = true;
+        pendingModel = model;
+        RenderBudget budget = RenderBudget.start(config.getRenderLimits());
+        setRenderBudget(budget);
+        budget.limitOutput(out).write(bytes);
         return this;
     }
 
@@ -232,7 +326,14 @@ public class XWPFTemplate implements Closeable {
      * @throws IOException
      */
     public void write(OutputStream out) throws IOException {
-        this.doc.write(out);
+        ensureParsed();
+        try {
+            this.doc.write(getRenderBudget().limitOutput(out));
+        } catch (RuntimeException e) {
+            // POI wraps exceptions of the output stream
+            RenderLimitException limitException = RenderLimitException.find(e);
+            throw null == limitException ? e : limitException;
+        }
     }
 
     /**
@@ -242,6 +343,7 @@ public class XWPFTemplate implements Closeable {
      * @throws IOException
      */
     public void writeAndClose(OutputStream out) throws IOException {
+        ensureParsed();
         try {
             this.write(out);
             out.flush();
@@ -266,6 +368,9 @@ public class XWPFTemplate implements Closeable {
      * @param doc load new template document
      */
     public void reload(NiceXWPFDocument doc) {
+        this.source = null;
+        this.renderPending = false;
+        this.pendingModel = null;
         PoitlIOUtils.closeLoggerQuietly(this.doc);
         this.doc = doc;
         this.eleTemplates = this.resolver.resolveDocument(doc);
@@ -278,7 +383,7 @@ public class XWPFTemplate implements Closeable {
      */
     @Override
     public void close() throws IOException {
-        this.doc.close();
+        if (null != this.doc) this.doc.close();
     }
 
     /**
@@ -287,6 +392,7 @@ public class XWPFTemplate implements Closeable {
      * @return
      */
     public List<MetaTemplate> getElementTemplates() {
+        ensureParsed();
         return eleTemplates;
     }
 
@@ -296,6 +402,7 @@ public class XWPFTemplate implements Closeable {
      * @return
      */
     public NiceXWPFDocument getXWPFDocument() {
+        ensureParsed();
         return this.doc;
     }
 
@@ -317,4 +424,32 @@ public class XWPFTemplate implements Closeable {
         return resolver;
     }
 
+    /**
+     * Get content hash of template, only computed when render cache is used
+     * 
+     * @return
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Get the budget of the current render, checked against {@link Configure#getRenderLimits()}
+     * 
+     * @return
+     */
+    public RenderBudget getRenderBudget() {
+        if (null == renderBudget) renderBudget = RenderBudget.start(config.getRenderLimits());
+        return renderBudget;
+    }
+
+    /**
+     * Start a new budget, invoked when render starts
+     * 
+     * @param renderBudget
+     */
+    public void setRenderBudget(RenderBudget renderBudget) {
+        this.renderBudget = renderBudget;
+    }
+
 }
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.cache;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.commons.codec.binary.Hex;
+
+import com.deepoove.poi.data.FilePictureRenderData;
+import com.deepoove.poi.data.UrlPictureRenderData;
+
+/**
+ * SHA-256 of the structure of model: maps(sorted by key), iterables, arrays,
+ * simple values, java.time values, buffered images(by pixels) and fields of
+ * java beans, file pictures are hashed by their content. Models containing
+ * streams, futures, suppliers, url pictures, other images or jdk objects
+ * without a hashing rule are not cacheable, their internals are never walked.
+ * 
+ * @author Sayi
+ */
+public class DefaultModelHasher implements ModelHasher {
+
+    private static final Map<Class<?>, Field[]> FIELDS = new ConcurrentHashMap<>();
+
+    @Override
+    public String hash(Object model) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            update(digest, model, new IdentityHashMap<>());
+        } catch (UncacheableException e) {
+            return null;
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
+    private void update(MessageDigest digest, Object obj, IdentityHashMap<Object, Boolean> path) {
+        if (null == obj) {
+            digest.update((byte) 0);
+            return;
+        }
+        Class<?> clazz = obj.getClass();
+        if (obj instanceof CharSequence || obj instanceof Number || obj instanceof Boolean
+                || obj instanceof Character || obj instanceof Enum || obj instanceof TemporalAccessor
+                || obj instanceof TemporalAmount || obj instanceof ZoneId || obj instanceof UUID
+                || obj instanceof Locale || obj instanceof Currency || obj instanceof URI) {
+            putString(digest, clazz.getName());
+            putString(digest, obj.toString());
+            return;
+        }
+        if (obj instanceof Date) {
+            putString(digest, clazz.getName());
+            putString(digest, String.valueOf(((Date) obj).getTime()));
+            return;
+        }
+        if (obj instanceof byte[]) {
+            putString(digest, "[B");
+            putString(digest, String.valueOf(((byte[]) obj).length));
+            digest.update((byte[]) obj);
+            return;
+        }
+        if (obj instanceof BufferedImage) {
+            putImage(digest, (BufferedImage) obj);
+            return;
+        }
+        if (obj instanceof Optional) {
+            putString(digest, clazz.getName());
+            update(digest, ((Optional<?>) obj).orElse(null), path);
+            return;
+        }
+        // the content behind the url may change
+        if (obj instanceof InputStream || obj instanceof Future || obj instanceof Supplier || obj instanceof Image
+                || obj instanceof UrlPictureRenderData) {
+            throw new UncacheableException();
+        }
+        if (null != path.put(obj, Boolean.TRUE)) {
+            // cycle
+            throw new UncacheableException();
+        }
+        try {
+            if (obj instanceof Map) {
+                putString(digest, "{");
+                // keys of different types with the same text are different
+                Map<String, Object> sorted = new TreeMap<>();
+                for (Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+                    Object key = entry.getKey();
+                    String type = null == key ? "null" : key.getClass().getName();
+                    sorted.put(type + '\u0000' + key, entry.getValue());
+                }
+                for (Entry<String, Object> entry : sorted.entrySet()) {
+                    putString(digest, entry.getKey());
+                    update(digest, entry.getValue(), path);
+                }
+                putString(digest, "}");
+            } else if (obj instanceof Iterable) {
+                putString(digest, "[");
+                for (Object item : (Iterable<?>) obj) {
+                    update(digest, item, path);
+                }
+                putString(digest, "]");
+            } else if (clazz.isArray()) {
+                putString(digest, "[");
+                int length = Array.getLength(obj);
+                for (int i = 0; i < length; i++) {
+                    update(digest, Array.get(obj, i), path);
+                }
+                putString(digest, "]");
+            } else if (isJdkClass(clazz)) {
+                // no hashing rule, the internals of jdk objects are not part of the model
+                throw new UncacheableException();
+            } else {
+                putString(digest, clazz.getName());
+                for (Field field : getFields(clazz)) {
+                    putString(digest, field.getName());
+                    try {
+                        update(digest, field.get(obj), path);
+                    } catch (IllegalAccessException e) {
+                        throw new UncacheableException();
+                    }
+                }
+                if (obj instanceof FilePictureRenderData) {
+                    putContent(digest, ((FilePictureRenderData) obj).getPath());
+                }
+            }
+        } finally {
+            path.remove(obj);
+        }
+    }
+
+    private static Field[] getFields(Class<?> clazz) {
+        return FIELDS.computeIfAbsent(clazz, c -> {
+            List<Field> fields = new ArrayList<>();
+            Class<?> current = c;
+            while (null != current && current != Object.class) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) continue;
+                    try {
+                        field.setAccessible(true);
+                    } catch (RuntimeException e) {
+                        throw new UncacheableException();
+                    }
+                    fields.add(field);
+                }
+                current = current.getSuperclass();
+            }
+            Field[] array = fields.toArray(new Field[0]);
+            Arrays.sort(array, Comparator.comparing((Field f) -> f.getDeclaringClass().getName())
+                    .thenComparing(Field::getName));
+            return array;
+        });
+    }
+
+    private static boolean isJdkClass(Class<?> clazz) {
+        String name = clazz.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.")
+                || name.startsWith("com.sun.") || name.startsWith("jdk.");
+    }
+
+    private static void putImage(MessageDigest digest, BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        putString(digest, BufferedImage.class.getName());
+        putString(digest, width + "x" + height);
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int rgb : row) {
+                digest.update((byte) (rgb >>> 24));
+                digest.update((byte) (rgb >>> 16));
+                digest.update((byte) (rgb >>> 8));
+                digest.update((byte) rgb);
+            }
+        }
+    }
+
+    private static void putContent(MessageDigest digest, String path) {
+        try {
+            byte[] bytes = Files.readAllBytes(Paths.get(path));
+            putString(digest, String.valueOf(bytes.length));
+            digest.update(bytes);
+        } catch (IOException | RuntimeException e) {
+            throw new UncacheableException();
+        }
+    }
+
+    private static void putString(MessageDigest digest, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length;
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+        digest.update(bytes);
+    }
+
+    @SuppressWarnings("serial")
+    private static class UncacheableException extends RuntimeException {
+        UncacheableException() {
+            super(null, null, false, false);
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.cache;
+
+/**
+ * Compute a stable hash of the data model, same data must get the same hash
+ * in different JVMs.
+ * 
+ * @author Sayi
+ */
+@FunctionalInterface
+public interface ModelHasher {
+
+    /**
+     * @param model data model
+     * @return hash of model, null means the model cannot be cached
+     */
+    String hash(Object model);
+
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.cache;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of rendered documents, keyed by the content hash of template and the
+ * hash of data model.
+ * <p>
+ * Documents are kept in a heap LRU tier bounded by bytes, and optionally in a
+ * local disk tier bounded by bytes.
+ * </p>
+ * <p>
+ * The output also depends on the policies, plugins and expression language of
+ * the configure, which are not part of the key, so a cache belongs to one
+ * {@link com.deepoove.poi.config.Configure} and so does its disk directory.
+ * </p>
+ * 
+ * @author Sayi
+ * @see com.deepoove.poi.config.ConfigureBuilder#useRenderCache(RenderCache)
+ */
+public class RenderCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderCache.class);
+
+    private static final String SUFFIX = ".docx";
+
+    private final ModelHasher modelHasher;
+    private final long maxHeapBytes;
+    private final Path diskDirectory;
+    private final long maxDiskBytes;
+
+    private final LinkedHashMap<String, byte[]> heap = new LinkedHashMap<>(16, 0.75f, true);
+    private long heapBytes;
+    private long diskBytes;
+    private Object owner;
+
+    private final AtomicLong heapHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong uncacheable = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private RenderCache(Builder builder) {
+        this.modelHasher = builder.modelHasher;
+        this.maxHeapBytes = builder.maxHeapBytes;
+        this.diskDirectory = builder.diskDirectory;
+        this.maxDiskBytes = builder.maxDiskBytes;
+        if (null != diskDirectory) {
+            try {
+                Files.createDirectories(diskDirectory);
+                this.diskBytes = scanDisk().stream().mapToLong(DiskEntry::size).sum();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot use cache directory " + diskDirectory, e);
+            }
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * bind this cache to the configure using it
+     * 
+     * @param configure
+     * @throws IllegalStateException if this cache is used by another configure
+     */
+    public synchronized void bind(Object configure) {
+        if (null != owner && owner != configure) {
+            throw new IllegalStateException("RenderCache is already used by another Configure, use one cache per Configure");
+        }
+        this.owner = configure;
+    }
+
+    /**
+     * @param templateFingerprint content hash of template
+     * @param model               data model
+     * @return cache key, null if model cannot be cached
+     */
+    public String key(String templateFingerprint, Object model) {
+        String modelHash = null == templateFingerprint ? null : modelHasher.hash(model);
+        if (null == modelHash) {
+            uncacheable.incrementAndGet();
+            return null;
+        }
+        return templateFingerprint.substring(0, Math.min(32, templateFingerprint.length())) + "-" + modelHash;
+    }
+
+    /**
+     * @param key
+     * @return bytes of rendered document, null if missing
+     */
+    public byte[] get(String key) {
+        synchronized (heap) {
+            byte[] bytes = heap.get(key);
+            if (null != bytes) {
+                heapHits.incrementAndGet();
+                return bytes;
+            }
+        }
+        byte[] bytes = readDisk(key);
+        if (null != bytes) {
+            diskHits.incrementAndGet();
+            putHeap(key, bytes);
+            return bytes;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String key, byte[] bytes) {
+        putHeap(key, bytes);
+        writeDisk(key, bytes);
+    }
+
+    public void clear() {
+        synchronized (heap) {
+            heap.clear();
+            heapBytes = 0;
+        }
+        if (null != diskDirectory) {
+            synchronized (diskDirectory) {
+                for (DiskEntry entry : scanDisk()) {
+                    deleteQuietly(entry.path);
+                }
+                diskBytes = 0;
+            }
+        }
+    }
+
+    public RenderCacheStats getStats() {
+        long heapSize;
+        synchronized (heap) {
+            heapSize = heapBytes;
+        }
+        return new RenderCacheStats(heapHits.get(), diskHits.get(), misses.get(), uncacheable.get(),
+                evictions.get(), heapSize, diskBytes);
+    }
+
+    private void putHeap(String key, byte[] bytes) {
+        if (bytes.length > maxHeapBytes) return;
+        synchronized (heap) {
+            byte[] old = heap.put(key, bytes);
+            if (null != old) heapBytes -= old.length;
+            heapBytes += bytes.length;
+            Iterator<Map.Entry<String, byte[]>> iterator = heap.entrySet().iterator();
+            while (heapBytes > maxHeapBytes && iterator.hasNext()) {
+                Map.Entry<String, byte[]> eldest = iterator.next();
+                heapBytes -= eldest.getValue().length;
+                iterator.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private byte[] readDisk(String key) {
+        if (null == diskDirectory) return null;
+        Path path = diskDirectory.resolve(key + SUFFIX);
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return bytes;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Fail read render cache {}: {}", path, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeDisk(String key, byte[] bytes) {
+        if (null == diskDirectory || bytes.length > maxDiskBytes) return;
+        Path path = diskDirectory.resolve(key + SUFFIX);
+        synchronized (diskDirectory) {
+            try {
+                if (Files.exists(path)) return;
+                Path tmp = Files.createTempFile(diskDirectory, key, ".tmp");
+                Files.write(tmp, bytes);
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                diskBytes += bytes.length;
+            } catch (IOException e) {
+                logger.warn("Fail write render cache {}: {}", path, e.getMessage());
+                return;
+            }
+            if (diskBytes > maxDiskBytes) {
+                List<DiskEntry> entries = scanDisk();
+                entries.sort(Comparator.comparingLong(DiskEntry::lastModified));
+                diskBytes = entries.stream().mapToLong(DiskEntry::size).sum();
+                for (DiskEntry entry : entries) {
+                    if (diskBytes <= maxDiskBytes) break;
+                    if (deleteQuietly(entry.path)) {
+                        diskBytes -= entry.size;
+                        evictions.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    private List<DiskEntry> scanDisk() {
+        List<DiskEntry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(diskDirectory, "*" + SUFFIX)) {
+            for (Path path : stream) {
+                try {
+                    entries.add(new DiskEntry(path, Files.size(path), Files.getLastModifiedTime(path).toMillis()));
+                } catch (IOException e) {
+                    // removed by others
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Fail scan render cache {}: {}", diskDirectory, e.getMessage());
+        }
+        return entries;
+    }
+
+    private static boolean deleteQuietly(Path path) {
+        try {
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static class DiskEntry {
+        final Path path;
+        final long size;
+        final long lastModified;
+
+        DiskEntry(Path path, long size, long lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        long size() {
+            return size;
+        }
+
+        long lastModified() {
+            return lastModified;
+        }
+    }
+
+    public static class Builder {
+        private ModelHasher modelHasher = new DefaultModelHasher();
+        private long maxHeapBytes = 64L * 1024 * 1024;
+        private Path diskDirectory;
+        private long maxDiskBytes = 1024L * 1024 * 1024;
+
+        private Builder() {
+        }
+
+        public Builder modelHasher(ModelHasher modelHasher) {
+            this.modelHasher = modelHasher;
+            return this;
+        }
+
+        public Builder maxHeapBytes(long maxHeapBytes) {
+            this.maxHeapBytes = maxHeapBytes;
+            return this;
+        }
+
+        public Builder disk(Path diskDirectory, long maxDiskBytes) {
+            this.diskDirectory = diskDirectory;
+            this.maxDiskBytes = maxDiskBytes;
+            return this;
+        }
+
+        public RenderCache build() {
+            return new RenderCache(this);
+        }
+    }
+
+}
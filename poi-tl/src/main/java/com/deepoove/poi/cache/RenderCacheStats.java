@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.cache;
+
+/**
+ * Snapshot of the metrics of {@link RenderCache}
+ * 
+ * @author Sayi
+ */
+public class RenderCacheStats {
+
+    private final long heapHits;
+    private final long diskHits;
+    private final long misses;
+    private final long uncacheable;
+    private final long evictions;
+    private final long heapBytes;
+    private final long diskBytes;
+
+    RenderCacheStats(long heapHits, long diskHits, long misses, long uncacheable, long evictions, long heapBytes,
+            long diskBytes) {
+        this.heapHits = heapHits;
+        this.diskHits = diskHits;
+        this.misses = misses;
+        this.uncacheable = uncacheable;
+        this.evictions = evictions;
+        this.heapBytes = heapBytes;
+        this.diskBytes = diskBytes;
+    }
+
+    public long getHits() {
+        return heapHits + diskHits;
+    }
+
+    public long getHeapHits() {
+        return heapHits;
+    }
+
+    public long getDiskHits() {
+        return diskHits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * renders whose model cannot be hashed
+     */
+    public long getUncacheable() {
+        return uncacheable;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+
+    public long getDiskBytes() {
+        return diskBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderCacheStats [heapHits=" + heapHits + ", diskHits=" + diskHits + ", misses=" + misses
+                + ", uncacheable=" + uncacheable + ", evictions=" + evictions + ", heapBytes=" + heapBytes
+                + ", diskBytes=" + diskBytes + "]";
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.config;
+
+/**
+ * Options of the compaction applied to the document after render, see
+ * {@link com.deepoove.poi.xwpf.DocumentCompactor}
+ * 
+ * @author Sayi
+ */
+public class CompactOptions {
+
+    private final boolean mergeRuns;
+    private final boolean removeEmptyRuns;
+    private final boolean removeBookkeeping;
+    private final boolean removeEmptyParagraphs;
+    private final int characterStyleThreshold;
+
+    private CompactOptions(Builder builder) {
+        this.mergeRuns = builder.mergeRuns;
+        this.removeEmptyRuns = builder.removeEmptyRuns;
+        this.removeBookkeeping = builder.removeBookkeeping;
+        this.removeEmptyParagraphs = builder.removeEmptyParagraphs;
+        this.characterStyleThreshold = builder.characterStyleThreshold;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return merge adjacent text runs with equal formatting
+     */
+    public boolean isMergeRuns() {
+        return mergeRuns;
+    }
+
+    /**
+     * @return drop runs without content
+     */
+    public boolean isRemoveEmptyRuns() {
+        return removeEmptyRuns;
+    }
+
+    /**
+     * @return drop proofErr elements and rsid attributes
+     */
+    public boolean isRemoveBookkeeping() {
+        return removeBookkeeping;
+    }
+
+    /**
+     * @return drop paragraphs without runs, blank lines of the template are
+     *         dropped too
+     */
+    public boolean isRemoveEmptyParagraphs() {
+        return removeEmptyParagraphs;
+    }
+
+    /**
+     * @return direct formatting repeated at least this many times is promoted
+     *         to a shared character style, 0 means never
+     */
+    public int getCharacterStyleThreshold() {
+        return characterStyleThreshold;
+    }
+
+    public static class Builder {
+        private boolean mergeRuns = true;
+        private boolean removeEmptyRuns = true;
+        private boolean removeBookkeeping = true;
+        private boolean removeEmptyParagraphs;
+        private int characterStyleThreshold;
+
+        private Builder() {
+        }
+
+        public Builder mergeRuns(boolean mergeRuns) {
+            this.mergeRuns = mergeRuns;
+            return this;
+        }
+
+        public Builder removeEmptyRuns(boolean removeEmptyRuns) {
+            this.removeEmptyRuns = removeEmptyRuns;
+            return this;
+        }
+
+        public Builder removeBookkeeping(boolean removeBookkeeping) {
+            this.removeBookkeeping = removeBookkeeping;
+            return this;
+        }
+
+        public Builder removeEmptyParagraphs(boolean removeEmptyParagraphs) {
+            this.removeEmptyParagraphs = removeEmptyParagraphs;
+            return this;
+        }
+
+        public Builder promoteCharacterStyles(int threshold) {
+            this.characterStyleThreshold = threshold;
+            return this;
+        }
+
+        public CompactOptions build() {
+            return new CompactOptions(this);
+        }
+    }
+
+}
@@ -23,11 +23,13 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.poi.xddf.usermodel.chart.ChartTypes;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 
+import com.deepoove.poi.cache.RenderCache;
 import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.policy.DocxRenderPolicy;
 import com.deepoove.poi.policy.NumberingRenderPolicy;
@@ -135,6 +137,44 @@ public class Configure implements Cloneable {
      */
     protected List<PreRenderDataCastor> preRenderDataCastors = new ArrayList<>();
 
+    /**
+     * executor of async data(Future, Supplier), null means async data is not
+     * resolved
+     */
+    protected Executor asyncDataExecutor;
+
+    /**
+     * timeout in millis of async data
+     */
+    protected long asyncDataTimeout;
+
+    /**
+     * cache of rendered documents, null means no cache
+     */
+    protected RenderCache renderCache;
+
+    /**
+     * limits of each render, null means unlimited
+     */
+    protected RenderLimits renderLimits;
+
+    /**
+     * compaction of the rendered document, null means no compaction
+     */
+    protected CompactOptions compactOptions;
+
+    /**
+     * executor of concurrent rendering of document parts(headers, footers,
+     * footnotes...), null means parts are rendered one by one
+     */
+    protected Executor partRenderExecutor;
+
+    /**
+     * executor of concurrent preparation of merged documents, null means merged
+     * documents are prepared one by one
+     */
+    protected Executor mergeExecutor;
+
     Configure() {
         plugin(GramerSymbol.TEXT, new TextRenderPolicy());
         plugin(GramerSymbol.TEXT_ALIAS, new TextRenderPolicy());
@@ -283,6 +323,34 @@ public class Configure implements Cloneable {
         return preRenderDataCastors;
     }
 
+    public Executor getAsyncDataExecutor() {
+        return asyncDataExecutor;
+    }
+
+    public long getAsyncDataTimeout() {
+        return asyncDataTimeout;
+    }
+
+    public RenderCache getRenderCache() {
+        return renderCache;
+    }
+
+    public RenderLimits getRenderLimits() {
+        return renderLimits;
+    }
+
+    public CompactOptions getCompactOptions() {
+        return compactOptions;
+    }
+
+    public Executor getPartRenderExecutor() {
+        return partRenderExecutor;
+    }
+
+    public Executor getMergeExecutor() {
+        return mergeExecutor;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
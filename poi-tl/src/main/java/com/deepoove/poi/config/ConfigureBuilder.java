@@ -18,13 +18,17 @@ package com.deepoove.poi.config;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.poi.xddf.usermodel.chart.ChartTypes;
 
+import com.deepoove.poi.cache.RenderCache;
 import com.deepoove.poi.config.Configure.ValidErrorHandler;
 import com.deepoove.poi.policy.RenderPolicy;
+import com.deepoove.poi.render.compute.AsyncRenderDataCompute;
 import com.deepoove.poi.render.compute.DefaultELRenderDataCompute;
 import com.deepoove.poi.render.compute.RenderDataComputeFactory;
 import com.deepoove.poi.render.compute.SpELRenderDataCompute;
@@ -42,6 +46,7 @@ public class ConfigureBuilder {
     private Configure config;
     private boolean usedSpringEL;
     private boolean changeRegex;
+    private boolean asyncDataWrapped;
 
     ConfigureBuilder() {
         config = new Configure();
@@ -108,6 +113,91 @@ public class ConfigureBuilder {
         return this;
     }
 
+    /**
+     * resolve {@link java.util.concurrent.Future} and
+     * {@link java.util.function.Supplier} values, values of the tags are fetched
+     * concurrently before render
+     * 
+     * @param timeoutMillis timeout of all values
+     * @return
+     */
+    public ConfigureBuilder useAsyncData(long timeoutMillis) {
+        return useAsyncData(ForkJoinPool.commonPool(), timeoutMillis);
+    }
+
+    public ConfigureBuilder useAsyncData(Executor executor, long timeoutMillis) {
+        config.asyncDataExecutor = executor;
+        config.asyncDataTimeout = timeoutMillis;
+        return this;
+    }
+
+    /**
+     * cache the output of {@link com.deepoove.poi.XWPFTemplate#render(Object, java.io.OutputStream)} by template
+     * content and data model, the cache can be used by only one configure
+     * 
+     * @param renderCache
+     * @return
+     */
+    public ConfigureBuilder useRenderCache(RenderCache renderCache) {
+        config.renderCache = renderCache;
+        return this;
+    }
+
+    /**
+     * abort renders exceeding the deadline or quotas
+     * 
+     * @param renderLimits
+     * @return
+     */
+    public ConfigureBuilder useRenderLimits(RenderLimits renderLimits) {
+        config.renderLimits = renderLimits;
+        return this;
+    }
+
+    /**
+     * compact the rendered document: merge split runs, remove empty runs and
+     * proofing bookkeeping
+     * 
+     * @param compactOptions
+     * @return
+     */
+    public ConfigureBuilder useCompaction(CompactOptions compactOptions) {
+        config.compactOptions = compactOptions;
+        return this;
+    }
+
+    /**
+     * render the templates of the body, each header and footer, footnotes,
+     * endnotes and comments concurrently, policies touching document level
+     * parts(numbering, pictures, relationships) are serialized
+     * 
+     * @return
+     */
+    public ConfigureBuilder useParallelParts() {
+        return useParallelParts(ForkJoinPool.commonPool());
+    }
+
+    public ConfigureBuilder useParallelParts(Executor executor) {
+        config.partRenderExecutor = executor;
+        return this;
+    }
+
+    /**
+     * render and serialize the documents merged by
+     * {@link com.deepoove.poi.policy.DocxRenderPolicy} concurrently, they are
+     * still merged in order
+     * 
+     * @return
+     */
+    public ConfigureBuilder useParallelMerge() {
+        return useParallelMerge(ForkJoinPool.commonPool());
+    }
+
+    public ConfigureBuilder useParallelMerge(Executor executor) {
+        config.mergeExecutor = executor;
+        return this;
+    }
+
     public ConfigureBuilder addPlugin(char c, RenderPolicy policy) {
         config.plugin(c, policy);
         return this;
@@ -137,6 +227,14 @@ public class ConfigureBuilder {
         if (usedSpringEL && !changeRegex) {
             config.grammerRegex = RegexUtils.createGeneral(config.gramerPrefix, config.gramerSuffix);
         }
+        if (null != config.asyncDataExecutor && !asyncDataWrapped) {
+            asyncDataWrapped = true;
+            RenderDataComputeFactory factory = config.renderDataComputeFactory;
+            Executor executor = config.asyncDataExecutor;
+            long timeout = config.asyncDataTimeout;
+            config.renderDataComputeFactory = model -> new AsyncRenderDataCompute(factory, model, executor, timeout);
+        }
+        if (null != config.renderCache) config.renderCache.bind(config);
         return config;
     }
 }
\ No newline at end of file
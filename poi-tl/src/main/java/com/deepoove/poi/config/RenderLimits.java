@@ -0,0 +1,126 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.config;
+
+import java.time.Duration;
+
+/**
+ * Limits of one render, checked cooperatively by the processors and policies
+ * together with thread interruption. A render exceeding any limit is aborted
+ * with {@link com.deepoove.poi.exception.RenderLimitException}.
+ * 
+ * @author Sayi
+ */
+public class RenderLimits {
+
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final Duration timeout;
+    private final long maxLoopIterations;
+    private final long maxGeneratedElements;
+    private final long maxPictureBytes;
+    private final long maxOutputBytes;
+
+    private RenderLimits(Builder builder) {
+        this.timeout = builder.timeout;
+        this.maxLoopIterations = builder.maxLoopIterations;
+        this.maxGeneratedElements = builder.maxGeneratedElements;
+        this.maxPictureBytes = builder.maxPictureBytes;
+        this.maxOutputBytes = builder.maxOutputBytes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return wall-clock time allowed from the start of render, null means no
+     *         deadline
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return items iterated by all loops (sections, inline loops and table
+     *         loops)
+     */
+    public long getMaxLoopIterations() {
+        return maxLoopIterations;
+    }
+
+    /**
+     * @return paragraphs, tables, runs, rows and cells copied by loops
+     */
+    public long getMaxGeneratedElements() {
+        return maxGeneratedElements;
+    }
+
+    /**
+     * @return total bytes of pictures inserted
+     */
+    public long getMaxPictureBytes() {
+        return maxPictureBytes;
+    }
+
+    /**
+     * @return bytes of the written document
+     */
+    public long getMaxOutputBytes() {
+        return maxOutputBytes;
+    }
+
+    public static class Builder {
+        private Duration timeout;
+        private long maxLoopIterations = UNLIMITED;
+        private long maxGeneratedElements = UNLIMITED;
+        private long maxPictureBytes = UNLIMITED;
+        private long maxOutputBytes = UNLIMITED;
+
+        private Builder() {
+        }
+
+        public Builder timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder maxLoopIterations(long maxLoopIterations) {
+            this.maxLoopIterations = maxLoopIterations;
+            return this;
+        }
+
+        public Builder maxGeneratedElements(long maxGeneratedElements) {
+            this.maxGeneratedElements = maxGeneratedElements;
+            return this;
+        }
+
+        public Builder maxPictureBytes(long maxPictureBytes) {
+            this.maxPictureBytes = maxPictureBytes;
+            return this;
+        }
+
+        public Builder maxOutputBytes(long maxOutputBytes) {
+            this.maxOutputBytes = maxOutputBytes;
+            return this;
+        }
+
+        public RenderLimits build() {
+            return new RenderLimits(this);
+        }
+    }
+
+}
@@ -42,6 +42,10 @@ public class FilePictureRenderData extends PictureRenderData {
         this.pictureStyle.setHeight(h);
     }
 
+    public String getPath() {
+        return path;
+    }
+
     @Override
     public byte[] readPictureData() {
         return ByteUtils.getLocalByteArray(new File(path));
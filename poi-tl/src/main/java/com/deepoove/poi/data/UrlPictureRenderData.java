@@ -32,6 +32,10 @@ public class UrlPictureRenderData extends PictureRenderData {
         this.setPictureType(pictureType);
     }
 
+    public String getUrl() {
+        return url;
+    }
+
     @Override
     public byte[] readPictureData() {
         return ByteUtils.getUrlByteArray(url);
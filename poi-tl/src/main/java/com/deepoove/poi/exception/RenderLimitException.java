@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.exception;
+
+import com.deepoove.poi.render.RenderStats;
+
+/**
+ * Render aborted by {@link com.deepoove.poi.config.RenderLimits} or thread
+ * interruption, carrying the stats of the work done until abort.
+ * 
+ * @author Sayi
+ */
+public class RenderLimitException extends RenderException {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Limit {
+        INTERRUPTED, DEADLINE, LOOP_ITERATIONS, GENERATED_ELEMENTS, PICTURE_BYTES, OUTPUT_BYTES
+    }
+
+    private final Limit limit;
+    private final transient RenderStats stats;
+
+    public RenderLimitException(Limit limit, RenderStats stats) {
+        super("Render aborted by limit " + limit + ", " + stats);
+        this.limit = limit;
+        this.stats = stats;
+    }
+
+    public Limit getLimit() {
+        return limit;
+    }
+
+    public RenderStats getStats() {
+        return stats;
+    }
+
+    /**
+     * find the limit exception wrapped by other exceptions
+     * 
+     * @param e
+     * @return null if not caused by limit
+     */
+    public static RenderLimitException find(Throwable e) {
+        for (Throwable cause = e; null != cause; cause = cause.getCause()) {
+            if (cause instanceof RenderLimitException) return (RenderLimitException) cause;
+            if (cause.getCause() == cause) break;
+        }
+        return null;
+    }
+
+}
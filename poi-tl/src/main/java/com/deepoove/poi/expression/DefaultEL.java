@@ -27,7 +27,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class DefaultEL {
 
-    final Object model;
+    Object model;
 
     final Map<String, Object> cache = new ConcurrentHashMap<String, Object>(32);
 
@@ -42,6 +42,16 @@ public class DefaultEL {
         return new DefaultEL(model);
     }
 
+    /**
+     * bind to another model and clear the cache
+     * 
+     * @param model
+     */
+    public void rebind(Object model) {
+        this.model = model;
+        this.cache.clear();
+    }
+
     public Object eval(String el) {
         if (THIS.equals(el)) {
             return model;
@@ -80,6 +80,12 @@ public class Dot {
             return ((Map<?, ?>) obj).get(key);
         }
 
+        // generated accessor
+        ModelAccessor accessor = ModelAccessors.find(objClass);
+        if (null != accessor && accessor.canRead(key)) {
+            return accessor.read(obj, key);
+        }
+
         // introspector
         Method readMethod = ReadMethodFinder.find(objClass, key);
         if (null != readMethod) {
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.expression;
+
+/**
+ * Read the properties of a model class without reflection, usually generated
+ * by the annotation processor for classes marked with {@link TemplateModel}.
+ * 
+ * @author Sayi
+ */
+public interface ModelAccessor {
+
+    /**
+     * @return the model class
+     */
+    Class<?> getModelType();
+
+    /**
+     * @param key property name or the value of {@link Name}
+     * @return whether the key is readable
+     */
+    boolean canRead(String key);
+
+    /**
+     * @param model instance of the model class
+     * @param key   property name or the value of {@link Name}
+     * @return property value
+     */
+    Object read(Object model, String key);
+
+}
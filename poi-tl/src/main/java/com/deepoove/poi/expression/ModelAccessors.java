@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.expression;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registry of {@link ModelAccessor}, accessors are discovered by
+ * {@link ServiceLoader} or by the generated class name {@code Xxx_PoitlAccessor}
+ * in the package of the model class.
+ * 
+ * @author Sayi
+ */
+public final class ModelAccessors {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModelAccessors.class);
+
+    public static final String ACCESSOR_SUFFIX = "_PoitlAccessor";
+
+    private static final ModelAccessor NONE = new ModelAccessor() {
+
+        @Override
+        public Class<?> getModelType() {
+            return Object.class;
+        }
+
+        @Override
+        public boolean canRead(String key) {
+            return false;
+        }
+
+        @Override
+        public Object read(Object model, String key) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private static final Map<Class<?>, ModelAccessor> ACCESSORS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ModelAccessor> RESOLVED = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            for (ModelAccessor accessor : ServiceLoader.load(ModelAccessor.class, ModelAccessors.class.getClassLoader())) {
+                ACCESSORS.put(accessor.getModelType(), accessor);
+            }
+        } catch (Throwable e) {
+            logger.warn("Fail load model accessors: {}", e.getMessage());
+        }
+    }
+
+    private ModelAccessors() {
+    }
+
+    public static void register(ModelAccessor accessor) {
+        ACCESSORS.put(accessor.getModelType(), accessor);
+        RESOLVED.clear();
+    }
+
+    /**
+     * find the accessor of class or its super classes
+     * 
+     * @param clazz
+     * @return null if not exist
+     */
+    public static ModelAccessor find(Class<?> clazz) {
+        ModelAccessor accessor = RESOLVED.computeIfAbsent(clazz, ModelAccessors::resolve);
+        return NONE == accessor ? null : accessor;
+    }
+
+    private static ModelAccessor resolve(Class<?> clazz) {
+        Class<?> current = clazz;
+        while (null != current && current != Object.class) {
+            ModelAccessor accessor = ACCESSORS.get(current);
+            if (null == accessor) accessor = loadGenerated(current);
+            if (null != accessor) return accessor;
+            current = current.getSuperclass();
+        }
+        return NONE;
+    }
+
+    private static ModelAccessor loadGenerated(Class<?> clazz) {
+        if (clazz.isArray() || clazz.isPrimitive() || clazz.getName().startsWith("java.")) return null;
+        String name = clazz.getName();
+        int index = name.lastIndexOf('.');
+        String accessorName = name.substring(0, index + 1) + name.substring(index + 1).replace('$', '_')
+                + ACCESSOR_SUFFIX;
+        try {
+            Class<?> accessorClass = Class.forName(accessorName, true, clazz.getClassLoader());
+            ModelAccessor accessor = (ModelAccessor) accessorClass.getDeclaredConstructor().newInstance();
+            ACCESSORS.put(clazz, accessor);
+            return accessor;
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (Exception e) {
+            logger.warn("Fail create model accessor {}: {}", accessorName, e.getMessage());
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.mailmerge;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.namespace.QName;
+
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.xwpf.usermodel.BreakType;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBody;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDecimalNumber;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocument1;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.exception.RenderException;
+import com.deepoove.poi.render.processor.DocumentProcessor;
+import com.deepoove.poi.render.processor.DrawingSupport;
+import com.deepoove.poi.render.processor.IterationScope;
+import com.deepoove.poi.template.MetaTemplate;
+import com.deepoove.poi.xwpf.DrawingIndex;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
+
+/**
+ * Render many records of one template into one document.
+ * <p>
+ * The template is compiled once, every record is rendered into a copy of the
+ * template body appended to the same document, so styles, numbering and
+ * pictures are shared. Once a record is rendered, its xml is written to the
+ * output and removed from the document, the cost of each record does not
+ * depend on the number of records.
+ * </p>
+ * <p>
+ * The template body is resolved once, the tags of each copy are located by
+ * their positions in the body. Bodies holding tags that cannot be located, such
+ * as tags inside textboxes, are resolved again for every record. Lists of each
+ * record restart instead of continuing the lists of the previous record.
+ * </p>
+ * <p>
+ * Headers and footers are parts shared by all records, so their tags are
+ * rendered only once, with the first record. Include
+ * tags({@link com.deepoove.poi.policy.DocxRenderPolicy}) are not supported.
+ * </p>
+ * 
+ * @author Sayi
+ */
+public class MailMerge {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MailMerge.class);
+
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\r\n";
+    private static final String BODY_MARK = "POITL_MAIL_MERGE_BODY";
+    private static final Pattern BODY_START = Pattern.compile("<(\\w+:)?body(\\s[^>]*)?>");
+
+    /**
+     * how records are joined
+     */
+    public enum Separator {
+        /**
+         * records follow each other
+         */
+        NONE,
+        /**
+         * each record starts at a new page
+         */
+        PAGE_BREAK,
+        /**
+         * each record is a new section which copies the last section of
+         * template
+         */
+        SECTION_BREAK
+    }
+
+    private final byte[] template;
+    private final Configure config;
+    private Separator separator = Separator.PAGE_BREAK;
+
+    private MailMerge(byte[] template, Configure config) {
+        this.template = template;
+        this.config = config;
+    }
+
+    public static MailMerge compile(File templateFile) throws IOException {
+        return compile(templateFile, Configure.createDefault());
+    }
+
+    public static MailMerge compile(File templateFile, Configure config) throws IOException {
+        return new MailMerge(Files.readAllBytes(templateFile.toPath()), config);
+    }
+
+    public static MailMerge compile(InputStream inputStream) throws IOException {
+        return compile(inputStream, Configure.createDefault());
+    }
+
+    public static MailMerge compile(InputStream inputStream, Configure config) throws IOException {
+        return new MailMerge(IOUtils.toByteArray(inputStream), config);
+    }
+
+    public MailMerge separator(Separator separator) {
+        this.separator = Objects.requireNonNull(separator);
+        return this;
+    }
+
+    public int merge(Iterable<?> records, OutputStream out) throws IOException {
+        return merge(records.iterator(), out);
+    }
+
+    /**
+     * render records into one document, the output stream is not closed. Tags of
+     * headers and footers are rendered with the first record only.
+     * 
+     * @param records
+     * @param out
+     * @return count of records
+     * @throws IOException
+     */
+    public int merge(Iterator<?> records, OutputStream out) throws IOException {
+        XWPFTemplate xwpfTemplate = XWPFTemplate.compile(new ByteArrayInputStream(template), config);
+        try {
+            return merge(xwpfTemplate, records, out);
+        } finally {
+            xwpfTemplate.close();
+        }
+    }
+
+    private int merge(XWPFTemplate xwpfTemplate, Iterator<?> records, OutputStream out) throws IOException {
+        NiceXWPFDocument doc = xwpfTemplate.getXWPFDocument();
+        CTBody body = doc.getDocument().getBody();
+        CTSectPr sectPr = body.isSetSectPr() ? (CTSectPr) body.getSectPr().copy() : null;
+
+        // detach the template body, records are rendered from these copies
+        List<XmlObject> prototypes = new ArrayList<>();
+        List<IBodyElement> templateElements = new ArrayList<>();
+        for (IBodyElement element : doc.getBodyElements()) {
+            if (element instanceof XWPFParagraph) {
+                prototypes.add(((XWPFParagraph) element).getCTP().copy());
+            } else if (element instanceof XWPFTable) {
+                prototypes.add(((XWPFTable) element).getCTTbl().copy());
+            } else {
+                LOGGER.warn("Ignore unsupported body element of mail merge: {}", element.getElementType());
+                continue;
+            }
+            templateElements.add(element);
+        }
+        // runs of the body are normalized by compile, so the copies share the positions of tags
+        TemplateLocator locator = new TemplateLocator(templateElements,
+                xwpfTemplate.getResolver().resolveBodyElements(templateElements));
+        if (!locator.isLocatable()) {
+            LOGGER.info("Tags of the template body cannot be located, resolve the body of each record");
+        }
+        clearBody(doc);
+        List<DrawingIndex> drawingIndexes = new ArrayList<>(prototypes.size());
+        prototypes.forEach(prototype -> drawingIndexes.add(DrawingIndex.of(prototype)));
+
+        String partName = doc.getPackagePart().getPartName().getName().substring(1);
+        Map<String, String> namespaces = namespaces(doc.getDocument());
+        XmlOptions elementOptions = new XmlOptions();
+        elementOptions.setSaveOuter();
+        elementOptions.setSaveImplicitNamespaces(namespaces);
+        elementOptions.setCharacterEncoding("UTF-8");
+
+        String[] documentXml = splitDocument(doc);
+        List<MetaTemplate> sharedTemplates = xwpfTemplate.getResolver().resolveDocument(doc);
+        IterationScope scope = new IterationScope(xwpfTemplate, xwpfTemplate.getResolver());
+
+        ZipOutputStream zip = new ZipOutputStream(out);
+        zip.putNextEntry(new ZipEntry(partName));
+        Writer writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        writer.write(documentXml[0]);
+        int count = 0;
+        try {
+            while (records.hasNext()) {
+                Object record = records.next();
+                if (count > 0) appendSeparator(doc, sectPr);
+                List<IBodyElement> elements = new ArrayList<>(prototypes.size());
+                for (int i = 0; i < prototypes.size(); i++) {
+                    IBodyElement element = doc.appendBodyElement(prototypes.get(i));
+                    if (element instanceof XWPFParagraph) {
+                        DrawingSupport.updateDocPrId((XWPFParagraph) element, drawingIndexes.get(i));
+                    } else {
+                        DrawingSupport.updateDocPrId((XWPFTable) element, drawingIndexes.get(i));
+                    }
+                    elements.add(element);
+                }
+                DocumentProcessor processor = scope.bind(record);
+                if (0 == count) processor.process(sharedTemplates);
+                processor.process(locator.isLocatable() ? locator.locate(elements)
+                        : xwpfTemplate.getResolver().resolveBodyElements(elements));
+
+                // policies may add body elements, write all of them
+                if (count > 0) restartNumbering(doc, doc.getBodyElements(), new HashMap<>());
+                for (IBodyElement element : doc.getBodyElements()) {
+                    if (element instanceof XWPFParagraph) {
+                        writer.write(((XWPFParagraph) element).getCTP().xmlText(elementOptions));
+                    } else if (element instanceof XWPFTable) {
+                        writer.write(((XWPFTable) element).getCTTbl().xmlText(elementOptions));
+                    }
+                }
+                clearBody(doc);
+                count++;
+            }
+        } catch (Exception e) {
+            if (e instanceof RenderException) throw (RenderException) e;
+            throw new RenderException("Cannot render record " + count + " of mail merge", e);
+        }
+        writer.write(documentXml[1]);
+        writer.flush();
+        zip.closeEntry();
+
+        // other parts are shared by all records
+        ByteArrayOutputStream parts = new ByteArrayOutputStream();
+        doc.write(parts);
+        try (ZipInputStream zin = new ZipInputStream(new ByteArrayInputStream(parts.toByteArray()))) {
+            ZipEntry entry;
+            while (null != (entry = zin.getNextEntry())) {
+                if (entry.getName().equals(partName)) continue;
+                zip.putNextEntry(new ZipEntry(entry.getName()));
+                IOUtils.copy(zin, zip);
+                zip.closeEntry();
+            }
+        }
+        zip.finish();
+        LOGGER.info("Successfully merge {} records", count);
+        return count;
+    }
+
+    private void appendSeparator(NiceXWPFDocument doc, CTSectPr sectPr) {
+        if (separator == Separator.PAGE_BREAK) {
+            doc.createParagraph().createRun().addBreak(BreakType.PAGE);
+        } else if (separator == Separator.SECTION_BREAK) {
+            XWPFParagraph paragraph = doc.createParagraph();
+            if (null != sectPr) paragraph.getCTP().addNewPPr().setSectPr(sectPr);
+            else paragraph.getCTP().addNewPPr().addNewSectPr();
+        }
+    }
+
+    /**
+     * lists of a record use new nums restarting the lists of previous records
+     */
+    private void restartNumbering(NiceXWPFDocument doc, List<IBodyElement> elements,
+            Map<BigInteger, BigInteger> restarts) {
+        for (IBodyElement element : elements) {
+            if (element instanceof XWPFParagraph) {
+                CTPPr pPr = ((XWPFParagraph) element).getCTP().getPPr();
+                if (null == pPr || !pPr.isSetNumPr() || !pPr.getNumPr().isSetNumId()) continue;
+                CTDecimalNumber numId = pPr.getNumPr().getNumId();
+                if (null == numId.getVal() || BigInteger.ZERO.equals(numId.getVal())) continue;
+                numId.setVal(restarts.computeIfAbsent(numId.getVal(), doc::addRestartNumberingId));
+            } else if (element instanceof XWPFTable) {
+                for (XWPFTableRow row : ((XWPFTable) element).getRows()) {
+                    for (XWPFTableCell cell : row.getTableCells()) {
+                        restartNumbering(doc, cell.getBodyElements(), restarts);
+                    }
+                }
+            }
+        }
+    }
+
+    private void clearBody(NiceXWPFDocument doc) {
+        for (int i = doc.getBodyElements().size() - 1; i >= 0; i--) {
+            doc.removeBodyElement(i);
+        }
+    }
+
+    private Map<String, String> namespaces(CTDocument1 document) {
+        Map<String, String> namespaces = new HashMap<>();
+        XmlCursor cursor = document.newCursor();
+        cursor.getAllNamespaces(namespaces);
+        cursor.dispose();
+        return namespaces;
+    }
+
+    /**
+     * the xml before and after the records
+     */
+    private String[] splitDocument(NiceXWPFDocument doc) {
+        CTP mark = doc.createParagraph().getCTP();
+        mark.addNewR().addNewT().setStringValue(BODY_MARK);
+        XmlOptions options = new XmlOptions();
+        options.setSaveSyntheticDocumentElement(
+                new QName(CTDocument1.type.getName().getNamespaceURI(), "document"));
+        options.setCharacterEncoding("UTF-8");
+        String xml = doc.getDocument().xmlText(options);
+        clearBody(doc);
+
+        Matcher matcher = BODY_START.matcher(xml);
+        int markIndex = xml.indexOf(BODY_MARK);
+        if (!matcher.find() || markIndex < 0) {
+            throw new RenderException("Cannot find body of main document part");
+        }
+        String prefix = null == matcher.group(1) ? "" : matcher.group(1);
+        String paragraphEnd = "</" + prefix + "p>";
+        int end = xml.indexOf(paragraphEnd, markIndex) + paragraphEnd.length();
+        return new String[] { XML_DECLARATION + xml.substring(0, matcher.end()), xml.substring(end) };
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.mailmerge;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFPicture;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import com.deepoove.poi.template.ChartTemplate;
+import com.deepoove.poi.template.ElementTemplate;
+import com.deepoove.poi.template.InlineIterableTemplate;
+import com.deepoove.poi.template.IterableTemplate;
+import com.deepoove.poi.template.MetaTemplate;
+import com.deepoove.poi.template.PictureTemplate;
+import com.deepoove.poi.template.run.RunTemplate;
+
+/**
+ * Locates the tags of the template body in a copy of the body by position, so
+ * the body is resolved once and each record gets the tags of its own copy.
+ * <p>
+ * Runs are numbered in document order inside each body element. Tags inside
+ * textboxes, structured document tags, <code>w:pict</code> images and tags
+ * created by custom element template factories cannot be located.
+ * </p>
+ * 
+ * @author Sayi
+ */
+class TemplateLocator {
+
+    private final List<MetaTemplate> templates;
+    private final Map<XWPFRun, int[]> runs = new IdentityHashMap<>();
+    private final Map<XWPFPicture, int[]> pictures = new IdentityHashMap<>();
+    private final boolean locatable;
+
+    TemplateLocator(List<IBodyElement> elements, List<MetaTemplate> templates) {
+        this.templates = templates;
+        for (int i = 0; i < elements.size(); i++) {
+            List<XWPFRun> elementRuns = runs(elements.get(i));
+            for (int j = 0; j < elementRuns.size(); j++) {
+                XWPFRun run = elementRuns.get(j);
+                runs.put(run, new int[] { i, j });
+                List<XWPFPicture> embeddedPictures = run.getEmbeddedPictures();
+                for (int k = 0; k < embeddedPictures.size(); k++) {
+                    pictures.put(embeddedPictures.get(k), new int[] { i, j, k });
+                }
+            }
+        }
+        this.locatable = templates.stream().allMatch(this::isLocatable);
+    }
+
+    /**
+     * @return whether all tags can be located in a copy
+     */
+    boolean isLocatable() {
+        return locatable;
+    }
+
+    /**
+     * @param copies copy of the body elements
+     * @return tags of the copy
+     */
+    List<MetaTemplate> locate(List<IBodyElement> copies) {
+        List<List<XWPFRun>> copyRuns = new ArrayList<>(copies.size());
+        copies.forEach(copy -> copyRuns.add(runs(copy)));
+        List<MetaTemplate> located = new ArrayList<>(templates.size());
+        templates.forEach(template -> located.add(locate(template, copyRuns)));
+        return located;
+    }
+
+    private boolean isLocatable(MetaTemplate template) {
+        Class<?> clazz = template.getClass();
+        if (clazz == RunTemplate.class) return runs.containsKey(((RunTemplate) template).getRun());
+        if (clazz == ChartTemplate.class) return runs.containsKey(((ChartTemplate) template).getRun());
+        if (clazz == PictureTemplate.class) return pictures.containsKey(((PictureTemplate) template).getPicture());
+        if (clazz == IterableTemplate.class || clazz == InlineIterableTemplate.class) {
+            IterableTemplate iterable = (IterableTemplate) template;
+            return isLocatable(iterable.getStartMark()) && isLocatable(iterable.getEndMark())
+                    && iterable.getTemplates().stream().allMatch(this::isLocatable);
+        }
+        return false;
+    }
+
+    private MetaTemplate locate(MetaTemplate template, List<List<XWPFRun>> copyRuns) {
+        if (template instanceof RunTemplate) {
+            RunTemplate runTemplate = (RunTemplate) template;
+            RunTemplate located = new RunTemplate(runTemplate.getTagName(), locate(runTemplate.getRun(), copyRuns));
+            return copyTag(runTemplate, located);
+        }
+        if (template instanceof ChartTemplate) {
+            ChartTemplate chartTemplate = (ChartTemplate) template;
+            return copyTag(chartTemplate, new ChartTemplate(chartTemplate.getTagName(), chartTemplate.getChart(),
+                    locate(chartTemplate.getRun(), copyRuns)));
+        }
+        if (template instanceof PictureTemplate) {
+            PictureTemplate pictureTemplate = (PictureTemplate) template;
+            int[] position = pictures.get(pictureTemplate.getPicture());
+            XWPFRun run = copyRuns.get(position[0]).get(position[1]);
+            return copyTag(pictureTemplate,
+                    new PictureTemplate(pictureTemplate.getTagName(), run.getEmbeddedPictures().get(position[2])));
+        }
+        IterableTemplate iterable = (IterableTemplate) template;
+        RunTemplate startMark = (RunTemplate) locate(iterable.getStartMark(), copyRuns);
+        IterableTemplate located = template instanceof InlineIterableTemplate
+                ? new InlineIterableTemplate(startMark)
+                : new IterableTemplate(startMark);
+        located.setEndMark((RunTemplate) locate(iterable.getEndMark(), copyRuns));
+        List<MetaTemplate> nested = new ArrayList<>(iterable.getTemplates().size());
+        iterable.getTemplates().forEach(child -> nested.add(locate(child, copyRuns)));
+        located.setTemplates(nested);
+        return located;
+    }
+
+    private XWPFRun locate(XWPFRun run, List<List<XWPFRun>> copyRuns) {
+        int[] position = runs.get(run);
+        return copyRuns.get(position[0]).get(position[1]);
+    }
+
+    private static <T extends ElementTemplate> T copyTag(ElementTemplate template, T located) {
+        located.setSign(template.getSign());
+        located.setSource(template.getSource());
+        return located;
+    }
+
+    private static List<XWPFRun> runs(IBodyElement element) {
+        List<XWPFRun> runs = new ArrayList<>();
+        collect(element, runs);
+        return runs;
+    }
+
+    private static void collect(IBodyElement element, List<XWPFRun> runs) {
+        if (element instanceof XWPFParagraph) {
+            runs.addAll(((XWPFParagraph) element).getRuns());
+        } else if (element instanceof XWPFTable) {
+            for (XWPFTableRow row : ((XWPFTable) element).getRows()) {
+                for (XWPFTableCell cell : row.getTableCells()) {
+                    for (IBodyElement child : cell.getBodyElements()) {
+                        collect(child, runs);
+                    }
+                }
+            }
+        }
+    }
+
+}
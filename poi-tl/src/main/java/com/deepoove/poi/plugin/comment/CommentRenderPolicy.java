@@ -29,7 +29,6 @@ import com.deepoove.poi.data.Paragraphs;
 import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.policy.AbstractRenderPolicy;
 import com.deepoove.poi.render.RenderContext;
-import com.deepoove.poi.util.NextIDUtils;
 import com.deepoove.poi.util.ParagraphUtils;
 import com.deepoove.poi.xwpf.NiceXWPFDocument;
 import com.deepoove.poi.xwpf.XWPFParagraphWrapper;
@@ -68,14 +67,20 @@ public class CommentRenderPolicy extends AbstractRenderPolicy<CommentRenderData>
             BigInteger cId = BigInteger.ZERO;
             CommentContent commentContent = data.getCommentContent();
             if (null != commentContent) {
-                XWPFComments comments = ((NiceXWPFDocument) paragraph.getDocument()).createComments();
-                XWPFComment newComment = comments
-                        .createComment(NextIDUtils.getCommentMaxId(comments).add(BigInteger.ONE));
-                newComment.setAuthor(commentContent.getAuthor());
-                newComment.setDate(commentContent.getDate());
-                newComment.setInitials(commentContent.getInitials());
-                renderDocument(newComment.createParagraph().createRun(), commentContent.getContent());
-                cId = newComment.getCtComment().getId();
+                NiceXWPFDocument document = (NiceXWPFDocument) paragraph.getDocument();
+                // the comments part is document level
+                document.getDocumentLock().lock();
+                try {
+                    XWPFComments comments = document.createComments();
+                    XWPFComment newComment = comments.createComment(document.getIdAllocator().nextCommentId());
+                    newComment.setAuthor(commentContent.getAuthor());
+                    newComment.setDate(commentContent.getDate());
+                    newComment.setInitials(commentContent.getInitials());
+                    renderDocument(newComment.createParagraph().createRun(), commentContent.getContent());
+                    cId = newComment.getCtComment().getId();
+                } finally {
+                    document.getDocumentLock().unlock();
+                }
                 parentContext.insertNewCommentRangeStart(run, cId);
             }
             renderParagraph(run, Paragraphs.of().addList(data.getContents()).create());
@@ -39,16 +39,17 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTcPr;
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.policy.RenderPolicy;
+import com.deepoove.poi.render.RenderBudget;
 import com.deepoove.poi.render.compute.EnvModel;
-import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.render.compute.LoopEnv;
 import com.deepoove.poi.render.processor.DocumentProcessor;
-import com.deepoove.poi.render.processor.EnvIterator;
+import com.deepoove.poi.render.processor.IterationScope;
 import com.deepoove.poi.resolver.TemplateResolver;
 import com.deepoove.poi.template.ElementTemplate;
 import com.deepoove.poi.template.MetaTemplate;
 import com.deepoove.poi.template.run.RunTemplate;
-import com.deepoove.poi.util.ReflectionUtils;
 import com.deepoove.poi.util.TableTools;
+import com.deepoove.poi.xwpf.PoiFields;
 
 /**
  * Hack for loop table column
@@ -109,12 +110,18 @@ public class LoopColumnTableRenderPolicy implements RenderPolicy {
                 int insertPosition = templateColIndex;
 
                 TemplateResolver resolver = new TemplateResolver(template.getConfig().copy(prefix, suffix));
+                IterationScope scope = new IterationScope(template, resolver);
+                LoopEnv env = new LoopEnv();
+                EnvModel envModel = EnvModel.of(null, env);
 
                 int index = 0;
+                RenderBudget budget = template.getRenderBudget();
                 boolean hasNext = iterator.hasNext();
                 while (hasNext) {
                     Object root = iterator.next();
                     hasNext = iterator.hasNext();
+                    budget.loopIteration();
+                    budget.generatedElements(rowSize);
 
                     insertPosition = templateColIndex++;
                     List<XWPFTableCell> cells = new ArrayList<XWPFTableCell>();
@@ -141,12 +148,12 @@ public class LoopColumnTableRenderPolicy implements RenderPolicy {
                         cells.add(nextCell);
                     }
 
-                    RenderDataCompute dataCompute = template.getConfig()
-                            .getRenderDataComputeFactory()
-                            .newCompute(EnvModel.of(root, EnvIterator.makeEnv(index++, hasNext)));
+                    env.moveTo(index++, hasNext);
+                    envModel.setRoot(root);
+                    DocumentProcessor documentProcessor = scope.bind(envModel);
                     cells.forEach(cell -> {
                         List<MetaTemplate> templates = resolver.resolveBodyElements(cell.getBodyElements());
-                        new DocumentProcessor(template, resolver, dataCompute).process(templates);
+                        documentProcessor.process(templates);
                     });
                 }
             }
@@ -207,21 +214,19 @@ public class LoopColumnTableRenderPolicy implements RenderPolicy {
         return size;
     }
 
-    @SuppressWarnings("unchecked")
     private void removeCell(XWPFTableRow row, int actualInsertPosition) {
-        List<XWPFTableCell> cells = (List<XWPFTableCell>) ReflectionUtils.getValue("tableCells", row);
+        List<XWPFTableCell> cells = PoiFields.ROW_CELLS.get(row);
         cells.remove(actualInsertPosition);
         row.getCtRow().removeTc(actualInsertPosition);
 
     }
 
-    @SuppressWarnings("unchecked")
     private XWPFTableCell insertCell(XWPFTableRow tableRow, int actualInsertPosition) {
         CTRow row = tableRow.getCtRow();
         CTTc newTc = row.insertNewTc(actualInsertPosition);
         XWPFTableCell cell = new XWPFTableCell(newTc, tableRow, tableRow.getTable().getBody());
 
-        List<XWPFTableCell> cells = (List<XWPFTableCell>) ReflectionUtils.getValue("tableCells", tableRow);
+        List<XWPFTableCell> cells = PoiFields.ROW_CELLS.get(tableRow);
         cells.add(actualInsertPosition, cell);
         return cell;
     }
@@ -229,9 +234,8 @@ public class LoopColumnTableRenderPolicy implements RenderPolicy {
     protected void afterloop(XWPFTable table, Object data) {
     }
 
-    @SuppressWarnings("unchecked")
     private void setTableCell(XWPFTableRow row, XWPFTableCell templateCell, int pos) {
-        List<XWPFTableCell> rows = (List<XWPFTableCell>) ReflectionUtils.getValue("tableCells", row);
+        List<XWPFTableCell> rows = PoiFields.ROW_CELLS.get(row);
         rows.set(pos, templateCell);
         row.getCtRow().setTcArray(pos, templateCell.getCTTc());
     }
@@ -33,16 +33,17 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.STMerge;
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.policy.RenderPolicy;
+import com.deepoove.poi.render.RenderBudget;
 import com.deepoove.poi.render.compute.EnvModel;
-import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.render.compute.LoopEnv;
 import com.deepoove.poi.render.processor.DocumentProcessor;
-import com.deepoove.poi.render.processor.EnvIterator;
+import com.deepoove.poi.render.processor.IterationScope;
 import com.deepoove.poi.resolver.TemplateResolver;
 import com.deepoove.poi.template.ElementTemplate;
 import com.deepoove.poi.template.MetaTemplate;
 import com.deepoove.poi.template.run.RunTemplate;
-import com.deepoove.poi.util.ReflectionUtils;
 import com.deepoove.poi.util.TableTools;
+import com.deepoove.poi.xwpf.PoiFields;
 
 /**
  * Hack for loop table row
@@ -93,12 +94,18 @@ public class LoopRowTableRenderPolicy implements RenderPolicy {
                 int insertPosition = templateRowIndex;
 
                 TemplateResolver resolver = new TemplateResolver(template.getConfig().copy(prefix, suffix));
+                IterationScope scope = new IterationScope(template, resolver);
+                LoopEnv env = new LoopEnv();
+                EnvModel envModel = EnvModel.of(null, env);
                 boolean firstFlag = true;
                 int index = 0;
+                RenderBudget budget = template.getRenderBudget();
                 boolean hasNext = iterator.hasNext();
                 while (hasNext) {
                     Object root = iterator.next();
                     hasNext = iterator.hasNext();
+                    budget.loopIteration();
+                    budget.generatedElements(1);
 
                     insertPosition = templateRowIndex++;
                     XWPFTableRow nextRow = table.insertNewTableRow(insertPosition);
@@ -125,13 +132,13 @@ public class LoopRowTableRenderPolicy implements RenderPolicy {
                     }
                     setTableRow(table, nextRow, insertPosition);
 
-                    RenderDataCompute dataCompute = template.getConfig()
-                            .getRenderDataComputeFactory()
-                            .newCompute(EnvModel.of(root, EnvIterator.makeEnv(index++, hasNext)));
+                    env.moveTo(index++, hasNext);
+                    envModel.setRoot(root);
+                    DocumentProcessor documentProcessor = scope.bind(envModel);
                     List<XWPFTableCell> cells = nextRow.getTableCells();
                     cells.forEach(cell -> {
                         List<MetaTemplate> templates = resolver.resolveBodyElements(cell.getBodyElements());
-                        new DocumentProcessor(template, resolver, dataCompute).process(templates);
+                        documentProcessor.process(templates);
                     });
                 }
             }
@@ -151,9 +158,8 @@ public class LoopRowTableRenderPolicy implements RenderPolicy {
     protected void afterloop(XWPFTable table, Object data) {
     }
 
-    @SuppressWarnings("unchecked")
     private void setTableRow(XWPFTable table, XWPFTableRow templateRow, int pos) {
-        List<XWPFTableRow> rows = (List<XWPFTableRow>) ReflectionUtils.getValue("tableRows", table);
+        List<XWPFTableRow> rows = PoiFields.TABLE_ROWS.get(table);
         rows.set(pos, templateRow);
         table.getCTTbl().setTrArray(pos, templateRow.getCtRow());
     }
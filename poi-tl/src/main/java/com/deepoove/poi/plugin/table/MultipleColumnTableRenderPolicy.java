@@ -18,6 +18,7 @@ package com.deepoove.poi.plugin.table;
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.policy.RenderPolicy;
+import com.deepoove.poi.render.RenderBudget;
 import com.deepoove.poi.render.compute.EnvModel;
 import com.deepoove.poi.render.compute.RenderDataCompute;
 import com.deepoove.poi.render.processor.DocumentProcessor;
@@ -26,7 +27,6 @@ import com.deepoove.poi.resolver.TemplateResolver;
 import com.deepoove.poi.template.ElementTemplate;
 import com.deepoove.poi.template.MetaTemplate;
 import com.deepoove.poi.template.run.RunTemplate;
-import com.deepoove.poi.util.ReflectionUtils;
 import com.deepoove.poi.util.TableTools;
 
 import org.apache.poi.xwpf.usermodel.*;
@@ -38,6 +38,7 @@ import java.math.BigInteger;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import com.deepoove.poi.xwpf.PoiFields;
 
 /**
  * word模板替换，多列表格复用渲染
@@ -123,10 +124,13 @@ public class MultipleColumnTableRenderPolicy implements RenderPolicy {
                 boolean initFlag = true;
                 TemplateResolver resolver = new TemplateResolver(template.getConfig().copy(prefix, suffix));
                 Iterator<?> iterator = ((Iterable<?>) data).iterator();
+                RenderBudget budget = template.getRenderBudget();
                 boolean hasNext = iterator.hasNext();
                 while (hasNext) {
                     Object root = iterator.next();
                     hasNext = iterator.hasNext();
+                    budget.loopIteration();
+                    budget.generatedElements((long) loopColumnNum * rowSize);
 
                     List<XWPFTableCell> cells = new ArrayList<>();
                     int loopCellStartPoint = index * loopColumnNum + templateColIndex;
@@ -275,21 +279,19 @@ public class MultipleColumnTableRenderPolicy implements RenderPolicy {
         return size;
     }
 
-    @SuppressWarnings("unchecked")
     private void removeCell(XWPFTableRow row, int actualInsertPosition) {
-        List<XWPFTableCell> cells = (List<XWPFTableCell>) ReflectionUtils.getValue("tableCells", row);
+        List<XWPFTableCell> cells = PoiFields.ROW_CELLS.get(row);
         cells.remove(actualInsertPosition);
         row.getCtRow().removeTc(actualInsertPosition);
 
     }
 
-    @SuppressWarnings("unchecked")
     private XWPFTableCell insertCell(XWPFTableRow tableRow, int actualInsertPosition) {
         CTRow row = tableRow.getCtRow();
         CTTc newTc = row.insertNewTc(actualInsertPosition);
         XWPFTableCell cell = new XWPFTableCell(newTc, tableRow, tableRow.getTable().getBody());
 
-        List<XWPFTableCell> cells = (List<XWPFTableCell>) ReflectionUtils.getValue("tableCells", tableRow);
+        List<XWPFTableCell> cells = PoiFields.ROW_CELLS.get(tableRow);
         cells.add(actualInsertPosition, cell);
         return cell;
     }
@@ -297,9 +299,8 @@ public class MultipleColumnTableRenderPolicy implements RenderPolicy {
     protected void afterloop(XWPFTable table, Object data) {
     }
 
-    @SuppressWarnings("unchecked")
     private void setTableCell(XWPFTableRow row, XWPFTableCell templateCell, int pos) {
-        List<XWPFTableCell> rows = (List<XWPFTableCell>) ReflectionUtils.getValue("tableCells", row);
+        List<XWPFTableCell> rows = PoiFields.ROW_CELLS.get(row);
         rows.set(pos, templateCell);
         row.getCtRow().setTcArray(pos, templateCell.getCTTc());
     }
@@ -19,6 +19,7 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRow;
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.policy.RenderPolicy;
+import com.deepoove.poi.render.RenderBudget;
 import com.deepoove.poi.render.compute.EnvModel;
 import com.deepoove.poi.render.compute.RenderDataCompute;
 import com.deepoove.poi.render.processor.DocumentProcessor;
@@ -27,8 +28,8 @@ import com.deepoove.poi.resolver.TemplateResolver;
 import com.deepoove.poi.template.ElementTemplate;
 import com.deepoove.poi.template.MetaTemplate;
 import com.deepoove.poi.template.run.RunTemplate;
-import com.deepoove.poi.util.ReflectionUtils;
 import com.deepoove.poi.util.TableTools;
+import com.deepoove.poi.xwpf.PoiFields;
 
 /**
  * word模板替换，多行表格复用渲染
@@ -99,9 +100,12 @@ public class MultipleRowTableRenderPolicy implements RenderPolicy {
                 Iterator<?> dataIt = ((Iterable<?>) data).iterator();
                 boolean hasNextData = dataIt.hasNext();
                 int index = 0;
+                RenderBudget budget = template.getRenderBudget();
                 while (hasNextData) {
                     Object dt = dataIt.next();
                     hasNextData = dataIt.hasNext();
+                    budget.loopIteration();
+                    budget.generatedElements(tempRows.size());
                     Iterator<XWPFTableRow> rowTempIt = tempRows.iterator();
                     boolean hasNextTempRow = rowTempIt.hasNext();
                     while (hasNextTempRow) {
@@ -177,9 +181,8 @@ public class MultipleRowTableRenderPolicy implements RenderPolicy {
         }
     }
 
-    @SuppressWarnings("unchecked")
     protected void setTableRow(XWPFTable table, XWPFTableRow row, int pos) {
-        List<XWPFTableRow> rows = (List<XWPFTableRow>) ReflectionUtils.getValue("tableRows", table);
+        List<XWPFTableRow> rows = PoiFields.TABLE_ROWS.get(table);
         rows.set(pos, row);
         table.getCTTbl().setTrArray(pos, row.getCtRow());
     }
@@ -15,8 +15,8 @@ import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.policy.RenderPolicy;
 import com.deepoove.poi.template.ElementTemplate;
 import com.deepoove.poi.template.run.RunTemplate;
-import com.deepoove.poi.util.ReflectionUtils;
 import com.deepoove.poi.util.TableTools;
+import com.deepoove.poi.xwpf.PoiFields;
 
 public class RemoveTableColumnRenderPolicy implements RenderPolicy {
 
@@ -54,9 +54,8 @@ public class RemoveTableColumnRenderPolicy implements RenderPolicy {
         }
     }
 
-    @SuppressWarnings("unchecked")
     private void removeCell(XWPFTableRow row, int actualInsertPosition) {
-        List<XWPFTableCell> cells = (List<XWPFTableCell>) ReflectionUtils.getValue("tableCells", row);
+        List<XWPFTableCell> cells = PoiFields.ROW_CELLS.get(row);
         cells.remove(actualInsertPosition);
         row.getCtRow().removeTc(actualInsertPosition);
 
@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.Configure.ValidErrorHandler;
 import com.deepoove.poi.exception.RenderException;
+import com.deepoove.poi.exception.RenderLimitException;
 import com.deepoove.poi.render.RenderContext;
 import com.deepoove.poi.template.ElementTemplate;
 import com.deepoove.poi.xwpf.BodyContainer;
@@ -66,6 +67,8 @@ public abstract class AbstractRenderPolicy<T> implements RenderPolicy {
             doRender(context);
             afterRender(context);
         } catch (Exception e) {
+            RenderLimitException limitException = RenderLimitException.find(e);
+            if (null != limitException) throw limitException;
             reThrowException(context, e);
         }
 
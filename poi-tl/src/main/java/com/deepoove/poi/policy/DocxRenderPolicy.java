@@ -17,9 +17,12 @@ package com.deepoove.poi.policy;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.collections4.CollectionUtils;
 
@@ -51,10 +54,40 @@ public class DocxRenderPolicy extends AbstractRenderPolicy<DocxRenderData> {
     public void doRender(RenderContext<DocxRenderData> context) throws Exception {
         NiceXWPFDocument doc = context.getXWPFDocument();
         XWPFTemplate template = context.getTemplate();
-        doc = doc.merge(new XWPFDocumentIterator(context.getData(), context.getConfig()), context.getRun());
+        Executor mergeExecutor = context.getConfig().getMergeExecutor();
+        if (null == mergeExecutor) {
+            doc = doc.merge(new XWPFDocumentIterator(context.getData(), context.getConfig()), context.getRun());
+        } else {
+            doc = doc.merge(loaders(context.getData(), context.getConfig()), context.getRun(), mergeExecutor);
+        }
         template.reload(doc);
     }
 
+    private List<Callable<NiceXWPFDocument>> loaders(DocxRenderData data, Configure config) {
+        List<?> datas = data.getDataModels();
+        int length = null == datas ? 1 : datas.size();
+        List<Callable<NiceXWPFDocument>> loaders = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            final int index = i;
+            loaders.add(() -> load(data.getMergedDoc(), datas, index, config));
+        }
+        return loaders;
+    }
+
+    private static NiceXWPFDocument load(byte[] bytes, List<?> datas, int index, Configure config) {
+        if (CollectionUtils.isEmpty(datas)) {
+            try {
+                return new NiceXWPFDocument(new ByteArrayInputStream(bytes));
+            } catch (IOException e) {
+                throw new RenderException("Create XWPFDocument error", e);
+            }
+        }
+        // TODO performance, should compile template only once?
+        XWPFTemplate temp = XWPFTemplate.compile(new ByteArrayInputStream(bytes), config);
+        temp.render(datas.get(index));
+        return temp.getXWPFDocument();
+    }
+
     // use iterator to retrieve XWPFTemplate objects, for gc
     class XWPFDocumentIterator implements Iterator<NiceXWPFDocument> {
 
@@ -80,19 +113,7 @@ public class DocxRenderPolicy extends AbstractRenderPolicy<DocxRenderData> {
         @Override
         public NiceXWPFDocument next() {
             if (!hasNext()) throw new NoSuchElementException("No instance of NiceXWPFDocument");
-            if (CollectionUtils.isEmpty(datas) && 0 == cursor) {
-                try {
-                    cursor++;
-                    return new NiceXWPFDocument(new ByteArrayInputStream(bytes));
-                } catch (IOException e) {
-                    throw new RenderException("Create XWPFDocument error", e);
-                }
-            } else {
-                // TODO performance, should compile template only once?
-                XWPFTemplate temp = XWPFTemplate.compile(new ByteArrayInputStream(bytes), config);
-                temp.render(datas.get(cursor++));
-                return temp.getXWPFDocument();
-            }
+            return load(bytes, datas, cursor++, config);
 
         }
     }
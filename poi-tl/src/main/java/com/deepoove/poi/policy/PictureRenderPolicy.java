@@ -22,12 +22,14 @@ import com.deepoove.poi.data.PictureType;
 import com.deepoove.poi.data.style.PictureStyle;
 import com.deepoove.poi.data.style.PictureStyle.PictureAlign;
 import com.deepoove.poi.exception.RenderException;
+import com.deepoove.poi.render.RenderBudget;
 import com.deepoove.poi.render.RenderContext;
 import com.deepoove.poi.util.BufferedImageUtils;
 import com.deepoove.poi.util.SVGConvertor;
 import com.deepoove.poi.util.UnitUtils;
 import com.deepoove.poi.xwpf.BodyContainer;
 import com.deepoove.poi.xwpf.BodyContainerFactory;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
 import com.deepoove.poi.xwpf.WidthScalePattern;
 import org.apache.poi.util.Units;
 import org.apache.poi.xwpf.usermodel.IBodyElement;
@@ -38,6 +40,7 @@ import org.apache.poi.xwpf.usermodel.XWPFRun;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.concurrent.locks.Lock;
 
 /**
  * picture render
@@ -60,7 +63,7 @@ public class PictureRenderPolicy extends AbstractRenderPolicy<PictureRenderData>
 
     @Override
     public void doRender(RenderContext<PictureRenderData> context) throws Exception {
-        Helper.renderPicture(context.getRun(), context.getData());
+        Helper.renderPicture(context.getRun(), context.getData(), context.getTemplate().getRenderBudget());
     }
 
     @Override
@@ -77,7 +80,12 @@ public class PictureRenderPolicy extends AbstractRenderPolicy<PictureRenderData>
 
     public static class Helper {
         public static void renderPicture(XWPFRun run, PictureRenderData picture) throws Exception {
-            byte[] imageBytes = picture.readPictureData();
+            renderPicture(run, picture, null);
+        }
+
+        public static void renderPicture(XWPFRun run, PictureRenderData picture, RenderBudget budget)
+            throws Exception {
+            byte[] imageBytes = null == budget ? picture.readPictureData() : budget.readPicture(picture);
             if (null == imageBytes) {
                 throw new IllegalStateException("Can't read picture byte arrays!");
             }
@@ -119,8 +127,15 @@ public class PictureRenderPolicy extends AbstractRenderPolicy<PictureRenderData>
                 if (null != align && run.getParent() instanceof XWPFParagraph) {
                     ((XWPFParagraph) run.getParent()).setAlignment(ParagraphAlignment.valueOf(align.ordinal() + 1));
                 }
-                run.addPicture(stream, pictureType.type(), "Generated", Units.pixelToEMU(width),
-                    Units.pixelToEMU(height));
+                // picture parts and drawing ids are document level
+                Lock lock = NiceXWPFDocument.documentLock(run.getDocument());
+                lock.lock();
+                try {
+                    run.addPicture(stream, pictureType.type(), "Generated", Units.pixelToEMU(width),
+                        Units.pixelToEMU(height));
+                } finally {
+                    lock.unlock();
+                }
             }
         }
 
@@ -20,14 +20,21 @@ import java.util.Optional;
 import org.apache.poi.xwpf.usermodel.BreakType;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.xmlbeans.impl.xb.xmlschema.SpaceAttribute;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBookmark;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTText;
 
+import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.converter.ObjectToTextRenderDataConverter;
 import com.deepoove.poi.converter.ToRenderDataConverter;
 import com.deepoove.poi.data.BookmarkTextRenderData;
 import com.deepoove.poi.data.HyperlinkTextRenderData;
 import com.deepoove.poi.data.TextRenderData;
+import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.render.RenderContext;
+import com.deepoove.poi.template.ElementTemplate;
+import com.deepoove.poi.template.run.RunTemplate;
 import com.deepoove.poi.util.StyleUtils;
 import com.deepoove.poi.util.TableTools;
 import com.deepoove.poi.xwpf.XWPFParagraphWrapper;
@@ -42,6 +49,20 @@ public class TextRenderPolicy extends AbstractRenderPolicy<TextRenderData> {
 
     private static ToRenderDataConverter<Object, TextRenderData> converter = new ObjectToTextRenderDataConverter();
 
+    @Override
+    public void render(ElementTemplate eleTemplate, Object data, XWPFTemplate template) {
+        // plain values are written without render data and context
+        if (getClass() == TextRenderPolicy.class && Helper.isPlainText(data)) {
+            try {
+                Helper.renderPlainText(((RunTemplate) eleTemplate).getRun(), data.toString());
+            } catch (Exception e) {
+                throw new RenderException("Unable to render template " + eleTemplate, e);
+            }
+            return;
+        }
+        super.render(eleTemplate, data, template);
+    }
+
     @Override
     public TextRenderData cast(Object source) throws Exception {
         return converter.convert(source);
@@ -69,25 +90,58 @@ public class TextRenderPolicy extends AbstractRenderPolicy<TextRenderData> {
 
             StyleUtils.styleRun(textRun, data.getStyle());
             String text = Optional.ofNullable(data.getText()).orElse("");
-            String[] fragment = text.split(REGEX_LINE_CHARACTOR, -1);
-            if (fragment.length > 0) {
-                textRun.setText(fragment[0], 0);
-                boolean lineAtTable = fragment.length > 1 && !(data instanceof HyperlinkTextRenderData)
-                        && TableTools.isInsideTable(run);
-                for (int i = 1; i < fragment.length; i++) {
-                    if (lineAtTable) {
-                        textRun.addBreak(BreakType.TEXT_WRAPPING);
-                    } else {
-                        textRun.addCarriageReturn();
-                    }
-                    textRun.setText(fragment[i]);
-                }
-            }
+            writeText(textRun, text, !(data instanceof HyperlinkTextRenderData));
             if (data instanceof BookmarkTextRenderData) {
                 createBookmark(textRun, ((BookmarkTextRenderData) data).getBookmark());
             }
         }
 
+        /**
+         * String, number, boolean or character without style
+         */
+        public static boolean isPlainText(Object data) {
+            return data instanceof CharSequence || data instanceof Number || data instanceof Boolean
+                    || data instanceof Character;
+        }
+
+        public static void renderPlainText(XWPFRun run, String text) {
+            writeText(run, text, true);
+        }
+
+        /**
+         * split the text by {@link #REGEX_LINE_CHARACTOR} without regex, each line is
+         * written to a w:t
+         */
+        private static void writeText(XWPFRun run, String text, boolean breakAtTable) {
+            CTR ctr = run.getCTR();
+            int length = text.length();
+            int start = 0;
+            int pos = 0;
+            Boolean lineAtTable = null;
+            for (int i = 0; i < length; i++) {
+                if (text.charAt(i) != '\n') continue;
+                int end = (i > start && text.charAt(i - 1) == '\r') ? i - 1 : i;
+                setText(ctr, text.substring(start, end), pos++);
+                if (null == lineAtTable) lineAtTable = breakAtTable && TableTools.isInsideTable(run);
+                if (lineAtTable) {
+                    run.addBreak(BreakType.TEXT_WRAPPING);
+                } else {
+                    run.addCarriageReturn();
+                }
+                start = i + 1;
+            }
+            setText(ctr, 0 == start ? text : text.substring(start), pos);
+        }
+
+        private static void setText(CTR ctr, String value, int pos) {
+            CTText t = 0 == pos && ctr.sizeOfTArray() > 0 ? ctr.getTArray(0) : ctr.addNewT();
+            t.setStringValue(value);
+            if (!value.isEmpty() && (Character.isWhitespace(value.charAt(0))
+                    || Character.isWhitespace(value.charAt(value.length() - 1)))) {
+                t.setSpace(SpaceAttribute.Space.PRESERVE);
+            }
+        }
+
         private static XWPFRun createHyperlink(XWPFRun run, String url) {
             XWPFParagraphWrapper paragraph = new XWPFParagraphWrapper((XWPFParagraph) run.getParent());
             XWPFRun hyperlink = paragraph.insertNewHyperLinkRun(run, url);
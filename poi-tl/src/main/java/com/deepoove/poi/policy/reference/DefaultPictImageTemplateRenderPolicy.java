@@ -31,7 +31,7 @@ public class DefaultPictImageTemplateRenderPolicy
     public void doRender(PictImageTemplate pictImageTemplate, PictureRenderData data, XWPFTemplate template)
             throws Exception {
         CTPictWrapper t = pictImageTemplate.getPicture();
-        byte[] image = data.readPictureData();
+        byte[] image = template.getRenderBudget().readPicture(data);
         PictureType pictureType = data.getPictureType();
         if (null == pictureType) {
             pictureType = PictureType.suggestFileType(image);
@@ -26,7 +26,7 @@ import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.data.PictureRenderData;
 import com.deepoove.poi.data.PictureType;
 import com.deepoove.poi.template.PictureTemplate;
-import com.deepoove.poi.util.ReflectionUtils;
+import com.deepoove.poi.xwpf.PoiFields;
 
 public class DefaultPictureTemplateRenderPolicy
         extends AbstractTemplateRenderPolicy<PictureTemplate, PictureRenderData> {
@@ -35,12 +35,12 @@ public class DefaultPictureTemplateRenderPolicy
     public void doRender(PictureTemplate pictureTemplate, PictureRenderData data, XWPFTemplate template)
             throws Exception {
         XWPFPicture t = pictureTemplate.getPicture();
-        byte[] image = data.readPictureData();
+        byte[] image = template.getRenderBudget().readPicture(data);
         PictureType pictureType = data.getPictureType();
         if (null == pictureType) {
             pictureType = PictureType.suggestFileType(image);
         }
-        XWPFRun run = (XWPFRun) ReflectionUtils.getValue("run", t);
+        XWPFRun run = PoiFields.PICTURE_RUN.get(t);
         if (run.getParent().getPart() instanceof XWPFHeaderFooter) {
             XWPFHeaderFooter headerFooter = (XWPFHeaderFooter) run.getParent().getPart();
             setPictureReference(t, headerFooter.addPictureData(image, pictureType.type()));
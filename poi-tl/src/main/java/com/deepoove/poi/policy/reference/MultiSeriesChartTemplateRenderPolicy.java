@@ -15,7 +15,6 @@
  */
 package com.deepoove.poi.policy.reference;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
@@ -39,7 +38,7 @@ import com.deepoove.poi.data.SeriesRenderData;
 import com.deepoove.poi.data.SeriesRenderData.ComboType;
 import com.deepoove.poi.exception.RenderException;
 import com.deepoove.poi.template.ChartTemplate;
-import com.deepoove.poi.util.ReflectionUtils;
+import com.deepoove.poi.util.FieldAccessor;
 
 /**
  * multi series chart
@@ -117,9 +116,7 @@ public class MultiSeriesChartTemplateRenderPolicy
     private int ensureSeriesCount(XWPFChart chart, List<XDDFChartData> chartSeries) throws IllegalAccessException {
         // hack for poi 4.1.1+: repair seriesCount value,
         int totalSeriesCount = chartSeries.stream().mapToInt(XDDFChartData::getSeriesCount).sum();
-        Field field = ReflectionUtils.findField(XDDFChart.class, "seriesCount");
-        field.setAccessible(true);
-        field.set(chart, totalSeriesCount);
+        FieldAccessor.of(XDDFChart.class, "seriesCount").set(chart, totalSeriesCount);
         return totalSeriesCount;
     }
 
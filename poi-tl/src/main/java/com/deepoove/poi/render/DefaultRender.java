@@ -16,8 +16,11 @@
 package com.deepoove.poi.render;
 
 import java.io.IOException;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.time.StopWatch;
@@ -25,15 +28,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.CompactOptions;
 import com.deepoove.poi.exception.RenderException;
+import com.deepoove.poi.exception.RenderLimitException;
 import com.deepoove.poi.policy.DocxRenderPolicy;
 import com.deepoove.poi.policy.RenderPolicy;
+import com.deepoove.poi.render.compute.AsyncRenderDataCompute;
 import com.deepoove.poi.render.compute.RenderDataCompute;
 import com.deepoove.poi.render.processor.DelegatePolicy;
 import com.deepoove.poi.render.processor.DocumentProcessor;
 import com.deepoove.poi.render.processor.LogProcessor;
+import com.deepoove.poi.render.processor.ParallelPartsProcessor;
+import com.deepoove.poi.template.ElementTemplate;
+import com.deepoove.poi.template.IterableTemplate;
 import com.deepoove.poi.template.MetaTemplate;
 import com.deepoove.poi.template.run.RunTemplate;
+import com.deepoove.poi.xwpf.DocumentCompactor;
 import com.deepoove.poi.xwpf.NiceXWPFDocument;
 
 /**
@@ -56,32 +66,69 @@ public class DefaultRender implements Render {
 
         LOGGER.info("Render template start...");
 
+        template.setRenderBudget(RenderBudget.start(template.getConfig().getRenderLimits()));
         RenderDataCompute renderDataCompute = template.getConfig().getRenderDataComputeFactory().newCompute(root);
         StopWatch watch = new StopWatch();
         try {
 
             watch.start();
+            prefetchAsyncData(template, renderDataCompute);
             renderTemplate(template, renderDataCompute);
             renderInclude(template, renderDataCompute);
+            compact(template);
 
         } catch (Exception e) {
+            RenderLimitException limitException = RenderLimitException.find(e);
+            if (null != limitException) throw limitException;
             if (e instanceof RenderException) throw (RenderException) e;
             throw new RenderException("Cannot render docx template", e);
         } finally {
             watch.stop();
+            if (renderDataCompute instanceof AsyncRenderDataCompute) {
+                ((AsyncRenderDataCompute) renderDataCompute).cancel();
+            }
         }
         LOGGER.info("Successfully Render template in {} millis", TimeUnit.NANOSECONDS.toMillis(watch.getNanoTime()));
     }
 
+    private void prefetchAsyncData(XWPFTemplate template, RenderDataCompute renderDataCompute) {
+        if (!(renderDataCompute instanceof AsyncRenderDataCompute)) return;
+        Set<String> tagNames = new LinkedHashSet<>();
+        template.getElementTemplates().forEach(meta -> {
+            if (meta instanceof ElementTemplate) {
+                tagNames.add(((ElementTemplate) meta).getTagName());
+            } else if (meta instanceof IterableTemplate) {
+                tagNames.add(((IterableTemplate) meta).getStartMark().getTagName());
+            }
+        });
+        ((AsyncRenderDataCompute) renderDataCompute).prefetch(tagNames);
+    }
+
     private void renderTemplate(XWPFTemplate template, RenderDataCompute renderDataCompute) {
         // log
         new LogProcessor().process(template.getElementTemplates());
 
         // render
+        Executor partRenderExecutor = template.getConfig().getPartRenderExecutor();
+        if (null != partRenderExecutor) {
+            new ParallelPartsProcessor(template, template.getResolver(), renderDataCompute, partRenderExecutor)
+                    .process(template.getElementTemplates());
+            return;
+        }
         DocumentProcessor documentRender = new DocumentProcessor(template, template.getResolver(), renderDataCompute);
         documentRender.process(template.getElementTemplates());
     }
 
+    private void compact(XWPFTemplate template) {
+        CompactOptions options = template.getConfig().getCompactOptions();
+        if (null == options) return;
+        DocumentCompactor compactor = new DocumentCompactor(options);
+        compactor.compact(template.getXWPFDocument());
+        LOGGER.info("Compact document: {} runs merged, {} runs removed, {} paragraphs removed, {} styles created",
+                compactor.getMergedRuns(), compactor.getRemovedRuns(), compactor.getRemovedParagraphs(),
+                compactor.getCreatedStyles());
+    }
+
     private void renderInclude(XWPFTemplate template, RenderDataCompute renderDataCompute) throws IOException {
         List<MetaTemplate> elementTemplates = template.getElementTemplates();
         long docxCount = elementTemplates.stream()
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.deepoove.poi.config.RenderLimits;
+import com.deepoove.poi.data.FilePictureRenderData;
+import com.deepoove.poi.data.PictureRenderData;
+import com.deepoove.poi.data.UrlPictureRenderData;
+import com.deepoove.poi.exception.RenderLimitException;
+import com.deepoove.poi.exception.RenderLimitException.Limit;
+import com.deepoove.poi.util.ByteUtils;
+
+/**
+ * Work accounting of one render against {@link RenderLimits}, every method is
+ * a no-op when no limits are configured.
+ * 
+ * @author Sayi
+ */
+public class RenderBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderBudget.class);
+
+    private static final RenderBudget UNLIMITED = new RenderBudget(null);
+
+    private final RenderLimits limits;
+    private final long start;
+    private final long deadline;
+    private final AtomicLong loopIterations = new AtomicLong();
+    private final AtomicLong generatedElements = new AtomicLong();
+    private final AtomicLong pictureBytes = new AtomicLong();
+    private final AtomicLong outputBytes = new AtomicLong();
+
+    private RenderBudget(RenderLimits limits) {
+        this.limits = limits;
+        this.start = System.nanoTime();
+        this.deadline = null == limits || null == limits.getTimeout() ? Long.MAX_VALUE
+                : start + limits.getTimeout().toNanos();
+    }
+
+    /**
+     * start a budget, the deadline counts from now
+     * 
+     * @param limits null means unlimited
+     * @return
+     */
+    public static RenderBudget start(RenderLimits limits) {
+        return null == limits ? UNLIMITED : new RenderBudget(limits);
+    }
+
+    /**
+     * abort if the thread is interrupted or the deadline has passed
+     */
+    public void checkpoint() {
+        if (null == limits) return;
+        if (Thread.currentThread().isInterrupted()) throw abort(Limit.INTERRUPTED);
+        if (Long.MAX_VALUE != deadline && System.nanoTime() - deadline > 0) throw abort(Limit.DEADLINE);
+    }
+
+    /**
+     * @return nanos left until the deadline, {@link Long#MAX_VALUE} if there is
+     *         no deadline
+     */
+    public long remainingNanos() {
+        if (Long.MAX_VALUE == deadline) return Long.MAX_VALUE;
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    public void loopIteration() {
+        if (null == limits) return;
+        checkpoint();
+        if (loopIterations.incrementAndGet() > limits.getMaxLoopIterations()) throw abort(Limit.LOOP_ITERATIONS);
+    }
+
+    public void generatedElements(long count) {
+        if (null == limits) return;
+        if (generatedElements.addAndGet(count) > limits.getMaxGeneratedElements()) {
+            throw abort(Limit.GENERATED_ELEMENTS);
+        }
+    }
+
+    public void pictureBytes(long bytes) {
+        if (null == limits) return;
+        checkpoint();
+        if (pictureBytes.addAndGet(bytes) > limits.getMaxPictureBytes()) throw abort(Limit.PICTURE_BYTES);
+    }
+
+    /**
+     * read the picture and charge its bytes, a file picture larger than the
+     * bytes left is not loaded and a url picture is read until it exceeds them
+     * 
+     * @param picture
+     * @return null if the picture cannot be read
+     */
+    public byte[] readPicture(PictureRenderData picture) {
+        if (null == limits) return picture.readPictureData();
+        checkpoint();
+        long remaining = limits.getMaxPictureBytes() - pictureBytes.get();
+        byte[] bytes;
+        if (picture instanceof FilePictureRenderData) {
+            try {
+                long size = Files.size(Paths.get(((FilePictureRenderData) picture).getPath()));
+                if (size > remaining) pictureBytes(size);
+            } catch (IOException | InvalidPathException e) {
+                // reported by reading the picture
+            }
+            bytes = picture.readPictureData();
+        } else if (picture instanceof UrlPictureRenderData) {
+            bytes = readUrl(((UrlPictureRenderData) picture).getUrl(), remaining);
+        } else {
+            bytes = picture.readPictureData();
+        }
+        if (null != bytes) pictureBytes(bytes.length);
+        return bytes;
+    }
+
+    private byte[] readUrl(String url, long remaining) {
+        try (InputStream in = ByteUtils.getUrlStream(url)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                if (out.size() + n > remaining) pictureBytes(out.size() + n);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            logger.error("getUrlPictureStream error,{},{}", url, e);
+            return null;
+        }
+    }
+
+    /**
+     * wrap the output to count written bytes
+     * 
+     * @param out
+     * @return
+     */
+    public OutputStream limitOutput(OutputStream out) {
+        if (null == limits) return out;
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                outputBytes(1);
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                outputBytes(len);
+                out.write(b, off, len);
+            }
+        };
+    }
+
+    // writing is not bounded by the deadline of the render
+    private void outputBytes(long bytes) {
+        if (outputBytes.addAndGet(bytes) > limits.getMaxOutputBytes()) throw abort(Limit.OUTPUT_BYTES);
+    }
+
+    public RenderStats getStats() {
+        return new RenderStats(System.nanoTime() - start, loopIterations.get(), generatedElements.get(),
+                pictureBytes.get(), outputBytes.get());
+    }
+
+    /**
+     * @param limit
+     * @return exception of the render aborted by the limit
+     */
+    public RenderLimitException abort(Limit limit) {
+        return new RenderLimitException(limit, getStats());
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render;
+
+/**
+ * Snapshot of the work done by a render, see {@link RenderBudget}
+ * 
+ * @author Sayi
+ */
+public class RenderStats {
+
+    private final long elapsedNanos;
+    private final long loopIterations;
+    private final long generatedElements;
+    private final long pictureBytes;
+    private final long outputBytes;
+
+    RenderStats(long elapsedNanos, long loopIterations, long generatedElements, long pictureBytes,
+            long outputBytes) {
+        this.elapsedNanos = elapsedNanos;
+        this.loopIterations = loopIterations;
+        this.generatedElements = generatedElements;
+        this.pictureBytes = pictureBytes;
+        this.outputBytes = outputBytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getLoopIterations() {
+        return loopIterations;
+    }
+
+    public long getGeneratedElements() {
+        return generatedElements;
+    }
+
+    public long getPictureBytes() {
+        return pictureBytes;
+    }
+
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderStats [elapsedMillis=" + elapsedNanos / 1000000 + ", loopIterations=" + loopIterations
+                + ", generatedElements=" + generatedElements + ", pictureBytes=" + pictureBytes + ", outputBytes="
+                + outputBytes + "]";
+    }
+
+}
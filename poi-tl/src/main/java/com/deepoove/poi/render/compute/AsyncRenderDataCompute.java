@@ -0,0 +1,165 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render.compute;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import com.deepoove.poi.exception.RenderException;
+
+/**
+ * Expression compute which resolves {@link Future}, {@link CompletableFuture}
+ * and {@link Supplier} values of tags.
+ * <p>
+ * Values of the tags passed to {@link #prefetch(Collection)} are started
+ * concurrently on the executor before rendering, and awaited when the tag is
+ * rendered, so data fetching overlaps document processing. Each of these tags
+ * is evaluated once, its value is kept for rendering. Values of other
+ * tags(e.g. inside loops) are resolved when they are computed.
+ * </p>
+ * <p>
+ * Only the value of a whole tag is resolved: a future in the middle of an
+ * expression path, such as <code>user</code> of <code>{{user.name}}</code>, or
+ * inside a collection is not awaited. Futures of the model belong to the
+ * caller and are never cancelled, only the futures started from suppliers are.
+ * </p>
+ * 
+ * @author Sayi
+ */
+public class AsyncRenderDataCompute implements RebindableRenderDataCompute {
+
+    private final RenderDataComputeFactory factory;
+    private final Executor executor;
+    private final long timeoutMillis;
+
+    private static final Object NULL = new Object();
+
+    private RenderDataCompute delegate;
+    // value or future of the prefetched tags, read by the threads rendering parts
+    private final Map<String, Object> prefetched = new ConcurrentHashMap<>();
+    private final Set<Future<?>> owned = ConcurrentHashMap.newKeySet();
+    private volatile long deadline;
+
+    public AsyncRenderDataCompute(RenderDataComputeFactory factory, EnvModel model, Executor executor,
+            long timeoutMillis) {
+        this.factory = factory;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        this.delegate = factory.newCompute(model);
+        this.deadline = System.currentTimeMillis() + timeoutMillis;
+    }
+
+    /**
+     * start all async values of the tags, the deadline of them is reset to now
+     * plus timeout
+     * 
+     * @param els tag names
+     */
+    public void prefetch(Collection<String> els) {
+        this.deadline = System.currentTimeMillis() + timeoutMillis;
+        for (String el : els) {
+            if (prefetched.containsKey(el)) continue;
+            Object value;
+            try {
+                value = delegate.compute(el);
+            } catch (RuntimeException e) {
+                // reported when the tag is rendered
+                continue;
+            }
+            if (value instanceof Supplier) {
+                CompletableFuture<?> future = CompletableFuture.supplyAsync((Supplier<?>) value, executor);
+                owned.add(future);
+                value = future;
+            }
+            prefetched.put(el, null == value ? NULL : value);
+        }
+    }
+
+    /**
+     * cancel the values started from suppliers which are not completed, futures
+     * of the model are left to the caller
+     */
+    public void cancel() {
+        owned.forEach(future -> {
+            if (!future.isDone()) future.cancel(true);
+        });
+        owned.clear();
+        prefetched.clear();
+    }
+
+    @Override
+    public Object compute(String el) {
+        Object prefetchedValue = prefetched.get(el);
+        if (prefetchedValue instanceof Future) {
+            return await(el, (Future<?>) prefetchedValue, Math.max(0, deadline - System.currentTimeMillis()));
+        }
+        if (null != prefetchedValue) {
+            return NULL == prefetchedValue ? null : prefetchedValue;
+        }
+        Object value = delegate.compute(el);
+        if (value instanceof Future) {
+            return await(el, (Future<?>) value, timeoutMillis);
+        }
+        if (value instanceof Supplier) {
+            return ((Supplier<?>) value).get();
+        }
+        return value;
+    }
+
+    @Override
+    public void rebind(EnvModel model) {
+        cancel();
+        if (delegate instanceof RebindableRenderDataCompute) {
+            ((RebindableRenderDataCompute) delegate).rebind(model);
+        } else {
+            delegate = factory.newCompute(model);
+        }
+        this.deadline = System.currentTimeMillis() + timeoutMillis;
+    }
+
+    private Object await(String el, Future<?> future, long timeout) {
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RenderException("Interrupted while waiting for the data of " + el, e);
+        } catch (TimeoutException e) {
+            if (owned.remove(future)) future.cancel(true);
+            throw new RenderException("Timeout waiting for the data of " + el + " after " + timeoutMillis + "ms", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new RenderException("Fail resolve the data of " + el,
+                    cause instanceof Exception ? (Exception) cause : e);
+        } catch (CancellationException e) {
+            throw new RenderException("The data of " + el + " is cancelled", e);
+        }
+    }
+
+    public RenderDataCompute getDelegate() {
+        return delegate;
+    }
+
+}
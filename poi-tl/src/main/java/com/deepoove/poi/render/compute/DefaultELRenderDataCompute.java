@@ -23,7 +23,7 @@ import com.deepoove.poi.expression.DefaultEL;
  * 
  * @author Sayi
  */
-public class DefaultELRenderDataCompute implements RenderDataCompute {
+public class DefaultELRenderDataCompute implements RebindableRenderDataCompute {
 
     private DefaultEL elObject;
     private DefaultEL envObject;
@@ -37,6 +37,20 @@ public class DefaultELRenderDataCompute implements RenderDataCompute {
         this.isStrict = isStrict;
     }
 
+    @Override
+    public void rebind(EnvModel model) {
+        this.elObject.rebind(model.getRoot());
+        if (null != model.getEnv() && !model.getEnv().isEmpty()) {
+            if (null == envObject) {
+                this.envObject = DefaultEL.create(model.getEnv());
+            } else {
+                this.envObject.rebind(model.getEnv());
+            }
+        } else {
+            this.envObject = null;
+        }
+    }
+
     @Override
     public Object compute(String el) {
         try {
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render.compute;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loop environment of the current item, backed by primitive fields, the
+ * variables(_index, _is_first...) are only boxed when they are read.
+ * <p>
+ * The env is a mutable map like the former HashMap env: keys put by policies
+ * override or extend the variables until the env moves to another item.
+ * </p>
+ * 
+ * @author Sayi
+ */
+public class LoopEnv extends AbstractMap<String, Object> {
+
+    public static final String INDEX = "_index";
+    public static final String IS_FIRST = "_is_first";
+    public static final String IS_LAST = "_is_last";
+    public static final String HAS_NEXT = "_has_next";
+    public static final String IS_EVEN_ITEM = "_is_even_item";
+    public static final String IS_ODD_ITEM = "_is_odd_item";
+
+    private static final Object REMOVED = new Object();
+
+    private int index;
+    private boolean hasNext;
+    // keys put or removed by policies, null until the env is modified
+    private Map<String, Object> overrides;
+
+    public LoopEnv() {
+    }
+
+    public LoopEnv(int index, boolean hasNext) {
+        this.index = index;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * move to another item, the env can be reused between iterations
+     * 
+     * @param index
+     * @param hasNext
+     * @return this
+     */
+    public LoopEnv moveTo(int index, boolean hasNext) {
+        this.index = index;
+        this.hasNext = hasNext;
+        this.overrides = null;
+        return this;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public boolean isFirst() {
+        return index == 0;
+    }
+
+    public boolean isLast() {
+        return !hasNext;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public boolean isEvenItem() {
+        return index % 2 == 1;
+    }
+
+    public boolean isOddItem() {
+        return index % 2 == 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (null != overrides && overrides.containsKey(key)) {
+            Object value = overrides.get(key);
+            return REMOVED == value ? null : value;
+        }
+        return variable(key);
+    }
+
+    private Object variable(Object key) {
+        if (!(key instanceof String)) return null;
+        switch ((String) key) {
+        case INDEX:
+            return index;
+        case IS_FIRST:
+            return isFirst();
+        case IS_LAST:
+            return isLast();
+        case HAS_NEXT:
+            return hasNext();
+        case IS_EVEN_ITEM:
+            return isEvenItem();
+        case IS_ODD_ITEM:
+            return isOddItem();
+        default:
+            return null;
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (null != overrides && overrides.containsKey(key)) return REMOVED != overrides.get(key);
+        return isVariable(key);
+    }
+
+    private static boolean isVariable(Object key) {
+        if (!(key instanceof String)) return false;
+        switch ((String) key) {
+        case INDEX:
+        case IS_FIRST:
+        case IS_LAST:
+        case HAS_NEXT:
+        case IS_EVEN_ITEM:
+        case IS_ODD_ITEM:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = get(key);
+        if (null == overrides) overrides = new LinkedHashMap<>();
+        overrides.put(key, value);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!containsKey(key)) return null;
+        Object previous = get(key);
+        if (isVariable(key)) {
+            if (null == overrides) overrides = new LinkedHashMap<>();
+            overrides.put((String) key, REMOVED);
+        } else {
+            overrides.remove(key);
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        overrides = new LinkedHashMap<>();
+        for (String key : new String[] { INDEX, IS_FIRST, IS_LAST, HAS_NEXT, IS_EVEN_ITEM, IS_ODD_ITEM }) {
+            overrides.put(key, REMOVED);
+        }
+    }
+
+    @Override
+    public int size() {
+        return null == overrides ? 6 : entrySet().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return 0 == size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        // snapshot, rarely used
+        Map<String, Object> env = new LinkedHashMap<>();
+        env.put(IS_FIRST, isFirst());
+        env.put(IS_LAST, isLast());
+        env.put(HAS_NEXT, hasNext());
+        env.put(IS_EVEN_ITEM, isEvenItem());
+        env.put(IS_ODD_ITEM, isOddItem());
+        env.put(INDEX, index);
+        if (null != overrides) {
+            overrides.forEach((key, value) -> {
+                if (REMOVED == value) env.remove(key);
+                else env.put(key, value);
+            });
+        }
+        return env.entrySet();
+    }
+
+}
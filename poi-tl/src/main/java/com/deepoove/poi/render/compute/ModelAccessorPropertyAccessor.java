@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render.compute;
+
+import org.springframework.expression.AccessException;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypedValue;
+
+import com.deepoove.poi.expression.ModelAccessor;
+import com.deepoove.poi.expression.ModelAccessors;
+
+/**
+ * Read properties by the generated {@link ModelAccessor} instead of
+ * reflection
+ * 
+ * @author Sayi
+ */
+public class ModelAccessorPropertyAccessor implements PropertyAccessor {
+
+    @Override
+    public Class<?>[] getSpecificTargetClasses() {
+        return null;
+    }
+
+    @Override
+    public boolean canRead(EvaluationContext context, Object target, String name) throws AccessException {
+        if (null == target) return false;
+        ModelAccessor accessor = ModelAccessors.find(target.getClass());
+        return null != accessor && accessor.canRead(name);
+    }
+
+    @Override
+    public TypedValue read(EvaluationContext context, Object target, String name) throws AccessException {
+        ModelAccessor accessor = ModelAccessors.find(target.getClass());
+        if (null == accessor) throw new AccessException("No model accessor for " + target.getClass());
+        return new TypedValue(accessor.read(target, name));
+    }
+
+    @Override
+    public boolean canWrite(EvaluationContext context, Object target, String name) throws AccessException {
+        return false;
+    }
+
+    @Override
+    public void write(EvaluationContext context, Object target, String name, Object newValue) throws AccessException {
+    }
+
+}
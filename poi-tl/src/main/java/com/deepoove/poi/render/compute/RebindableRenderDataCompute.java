@@ -0,0 +1,33 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render.compute;
+
+/**
+ * Expression compute which can be bound to another model, so one instance can
+ * be reused by all items of a loop.
+ * 
+ * @author Sayi
+ */
+public interface RebindableRenderDataCompute extends RenderDataCompute {
+
+    /**
+     * bind to a new model, all cached values of the previous model are discarded
+     * 
+     * @param model
+     */
+    void rebind(EnvModel model);
+
+}
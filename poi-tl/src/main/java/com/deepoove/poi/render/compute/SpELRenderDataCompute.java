@@ -17,9 +17,11 @@ package com.deepoove.poi.render.compute;
 
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
@@ -30,9 +32,23 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
  * @author Sayi
  * @since 1.5.0
  */
-public class SpELRenderDataCompute implements RenderDataCompute {
+public class SpELRenderDataCompute implements RebindableRenderDataCompute {
+
+    private static final int MAX_CACHED_EXPRESSIONS = 4096;
+    private static final ExpressionParser PARSER = new SpelExpressionParser();
+    // parsed expressions are immutable and shared by all renders in the process,
+    // the least recently used one is evicted
+    private static final Map<String, Expression> EXPRESSIONS = Collections
+            .synchronizedMap(new LinkedHashMap<String, Expression>(256, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+                    return size() > MAX_CACHED_EXPRESSIONS;
+                }
+            });
 
-    private final ExpressionParser parser;
     private final EvaluationContext context;
     private EvaluationContext envContext;
     private boolean isStrict;
@@ -47,22 +63,37 @@ public class SpELRenderDataCompute implements RenderDataCompute {
 
     public SpELRenderDataCompute(EnvModel model, boolean isStrict, Map<String, Method> spELFunction) {
         this.isStrict = isStrict;
-        this.parser = new SpelExpressionParser();
         if (null != model.getEnv() && !model.getEnv().isEmpty()) {
             this.envContext = new StandardEvaluationContext(model.getEnv());
             ((StandardEvaluationContext) envContext).addPropertyAccessor(new ReadMapAccessor());
         }
         this.context = new StandardEvaluationContext(model.getRoot());
         ((StandardEvaluationContext) context).addPropertyAccessor(new ReadMapAccessor());
+        ((StandardEvaluationContext) context).addPropertyAccessor(new ModelAccessorPropertyAccessor());
         spELFunction.forEach(((StandardEvaluationContext) context)::registerFunction);
     }
 
+    @Override
+    public void rebind(EnvModel model) {
+        ((StandardEvaluationContext) context).setRootObject(model.getRoot());
+        if (null != model.getEnv() && !model.getEnv().isEmpty()) {
+            if (null == envContext) {
+                this.envContext = new StandardEvaluationContext(model.getEnv());
+                ((StandardEvaluationContext) envContext).addPropertyAccessor(new ReadMapAccessor());
+            } else {
+                ((StandardEvaluationContext) envContext).setRootObject(model.getEnv());
+            }
+        } else {
+            this.envContext = null;
+        }
+    }
+
     @Override
     public Object compute(String el) {
         try {
             if (null != envContext && !el.contains("#this")) {
                 try {
-                    Object val = parser.parseExpression(el).getValue(envContext);
+                    Object val = expression(el).getValue(envContext);
                     if (null != val) {
                         return val;
                     }
@@ -70,11 +101,20 @@ public class SpELRenderDataCompute implements RenderDataCompute {
                     // ignore
                 }
             }
-            return parser.parseExpression(el).getValue(context);
+            return expression(el).getValue(context);
         } catch (Exception e) {
             if (isStrict) throw e;
             return null;
         }
     }
 
+    private static Expression expression(String el) {
+        Expression expression = EXPRESSIONS.get(el);
+        if (null == expression) {
+            expression = PARSER.parseExpression(el);
+            EXPRESSIONS.put(el, expression);
+        }
+        return expression;
+    }
+
 }
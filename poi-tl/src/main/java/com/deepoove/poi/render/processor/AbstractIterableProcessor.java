@@ -81,4 +81,13 @@ public abstract class AbstractIterableProcessor extends DefaultTemplateProcessor
         new DocumentProcessor(this.template, this.resolver, dataCompute).process(templates);
     }
 
+    protected void process(List<MetaTemplate> templates, Object model, IterableContext context) {
+        IterationScope scope = context.getIterationScope();
+        if (null == scope) {
+            scope = new IterationScope(this.template, this.resolver);
+            context.setIterationScope(scope);
+        }
+        scope.bind(model).process(templates);
+    }
+
 }
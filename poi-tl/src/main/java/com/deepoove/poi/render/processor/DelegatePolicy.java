@@ -15,8 +15,11 @@
  */
 package com.deepoove.poi.render.processor;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 import org.apache.commons.lang3.ClassUtils;
 import org.slf4j.Logger;
@@ -24,13 +27,24 @@ import org.slf4j.LoggerFactory;
 
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.PreRenderDataCastor;
+import com.deepoove.poi.policy.NumberingRenderPolicy;
+import com.deepoove.poi.policy.ParagraphRenderPolicy;
+import com.deepoove.poi.policy.PictureRenderPolicy;
 import com.deepoove.poi.policy.RenderPolicy;
+import com.deepoove.poi.policy.TableRenderPolicy;
+import com.deepoove.poi.policy.TextRenderPolicy;
 import com.deepoove.poi.template.ElementTemplate;
 
 public class DelegatePolicy {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DelegatePolicy.class);
 
+    // these policies edit the part of the template and lock the document level
+    // parts and identifiers themselves
+    private static final Set<Class<?>> PART_LOCAL_POLICIES = new HashSet<>(
+            Arrays.asList(TextRenderPolicy.class, PictureRenderPolicy.class, ParagraphRenderPolicy.class,
+                    NumberingRenderPolicy.class, TableRenderPolicy.class));
+
     public static void invoke(RenderPolicy policy, ElementTemplate eleTemplate, Object data, XWPFTemplate template) {
         Objects.requireNonNull(policy, "Cannot find render policy: [" + eleTemplate.getTagName() + "]");
         Object model = data;
@@ -44,7 +58,19 @@ public class DelegatePolicy {
                     eleTemplate,
                     logChar(eleTemplate.getSign()),
                     ClassUtils.getShortClassName(policy.getClass()));
-        policy.render(eleTemplate, model, template);
+        if (isPartLocal(policy)) {
+            policy.render(eleTemplate, model, template);
+        } else {
+            final Object renderModel = model;
+            ParallelPartsProcessor.locked(template, () -> {
+                policy.render(eleTemplate, renderModel, template);
+                return null;
+            });
+        }
+    }
+
+    private static boolean isPartLocal(RenderPolicy policy) {
+        return PART_LOCAL_POLICIES.contains(policy.getClass());
     }
 
     private static String logChar(Character character) {
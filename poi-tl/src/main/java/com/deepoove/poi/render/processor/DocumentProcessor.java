@@ -23,6 +23,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.render.RenderBudget;
 import com.deepoove.poi.render.compute.RenderDataCompute;
 import com.deepoove.poi.resolver.Resolver;
 import com.deepoove.poi.template.BlockTemplate;
@@ -46,23 +47,38 @@ public class DocumentProcessor implements Visitor {
     private ElementProcessor elementProcessor;
     private IterableProcessor iterableProcessor;
     private InlineIterableProcessor inlineIterableProcessor;
+    private RenderBudget renderBudget;
 
     public DocumentProcessor(XWPFTemplate template, final Resolver resolver,
             final RenderDataCompute renderDataCompute) {
         elementProcessor = new ElementProcessor(template, resolver, renderDataCompute);
         iterableProcessor = new IterableProcessor(template, resolver, renderDataCompute);
         inlineIterableProcessor = new InlineIterableProcessor(template, resolver, renderDataCompute);
+        renderBudget = template.getRenderBudget();
     }
 
     public void process(List<MetaTemplate> templates) {
         // process in order( or sort first)
-        templates.forEach(template -> template.accept(this));
+        templates.forEach(template -> {
+            checkpoint();
+            template.accept(this);
+        });
         Set<XWPFTextboxContent> textboxs = obtainTextboxes(templates);
         textboxs.forEach(content -> {
-            content.getXmlObject().set(content.getCTTxbxContent());
+            // textbox bound in place needs no copy back
+            if (content.getXmlObject() != content.getCTTxbxContent()) {
+                content.getXmlObject().set(content.getCTTxbxContent());
+            }
         });
     }
 
+    /**
+     * called before each template, abort the process by throwing an exception
+     */
+    protected void checkpoint() {
+        renderBudget.checkpoint();
+    }
+
     @SuppressWarnings("deprecation")
     private Set<XWPFTextboxContent> obtainTextboxes(List<MetaTemplate> templates) {
         Set<XWPFTextboxContent> textboxs = new HashSet<>();
@@ -15,34 +15,38 @@
  */
 package com.deepoove.poi.render.processor;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.function.Consumer;
 
 import com.deepoove.poi.render.compute.EnvModel;
+import com.deepoove.poi.render.compute.LoopEnv;
 
 public class EnvIterator {
 
+    /**
+     * iterate all items, the {@link EnvModel} passed to consumer is reused
+     * between items and only valid in the callback
+     * 
+     * @param iterator
+     * @param consumer
+     */
     public static void foreach(Iterator<?> iterator, Consumer<EnvModel> consumer) {
+        LoopEnv env = new LoopEnv();
+        EnvModel envModel = EnvModel.of(null, env);
         int index = 0;
         boolean hasNext = iterator.hasNext();
         while (hasNext) {
             Object root = iterator.next();
             hasNext = iterator.hasNext();
-            consumer.accept(EnvModel.of(root, makeEnv(index++, hasNext)));
+            env.moveTo(index++, hasNext);
+            envModel.setRoot(root);
+            consumer.accept(envModel);
         }
     }
 
     public static Map<String, Object> makeEnv(int index, boolean hasNext) {
-        Map<String, Object> env = new HashMap<>();
-        env.put("_is_first", index == 0);
-        env.put("_is_last", !hasNext);
-        env.put("_has_next", hasNext);
-        env.put("_is_even_item", index % 2 == 1);
-        env.put("_is_odd_item", index % 2 == 0);
-        env.put("_index", index);
-        return env;
+        return new LoopEnv(index, hasNext);
     }
 
 }
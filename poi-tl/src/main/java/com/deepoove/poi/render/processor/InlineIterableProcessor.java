@@ -25,6 +25,7 @@ import org.apache.xmlbeans.XmlObject;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.render.RenderBudget;
 import com.deepoove.poi.render.compute.RenderDataCompute;
 import com.deepoove.poi.resolver.Resolver;
 import com.deepoove.poi.template.InlineIterableTemplate;
@@ -82,6 +83,24 @@ public class InlineIterableProcessor extends AbstractIterableProcessor {
     public void next(IterableTemplate iterable, ParentContext parentContext, IterableContext context, Object model) {
         RunBodyContext paragraphContext = (RunBodyContext) parentContext;
         RunTemplate end = iterable.getEndMark();
+        int startPos = context.getStart();
+        int endPos = context.getEnd();
+        RenderBudget budget = template.getRenderBudget();
+        budget.loopIteration();
+        budget.generatedElements(endPos - startPos - 1);
+
+        // copy content, drawing ids are document level
+        List<XWPFRun> copies = ParallelPartsProcessor.locked(template,
+                () -> copy(paragraphContext, context, end));
+
+        // re-parse
+        List<MetaTemplate> templates = this.resolver.resolveXWPFRuns(copies);
+
+        // render
+        process(templates, model, context);
+    }
+
+    private List<XWPFRun> copy(RunBodyContext paragraphContext, IterableContext context, RunTemplate end) {
         CTR endCtr = end.getRun().getCTR();
         int startPos = context.getStart();
         int endPos = context.getEnd();
@@ -104,16 +123,11 @@ public class InlineIterableProcessor extends AbstractIterableProcessor {
             newCursor.toPrevSibling();
             XmlObject object = newCursor.getObject();
             XWPFRun copy = paragraphContext.createRun(object, paragraphContext.getTarget());
-            DrawingSupport.updateDocPrId(copy);
+            DrawingSupport.updateDocPrId(copy, context.getDrawingIndex(i - startPos - 1, xwpfRun.getCTR()));
             copies.add(copy);
             paragraphContext.setAndUpdateRun(copy, replaceXwpfRun, insertPostionCursor);
         }
-
-        // re-parse
-        List<MetaTemplate> templates = this.resolver.resolveXWPFRuns(copies);
-
-        // render
-        process(templates, model);
+        return copies;
     }
 
 }
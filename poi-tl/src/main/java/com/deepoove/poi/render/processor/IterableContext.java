@@ -15,6 +15,10 @@
  */
 package com.deepoove.poi.render.processor;
 
+import org.apache.xmlbeans.XmlObject;
+
+import com.deepoove.poi.xwpf.DrawingIndex;
+
 public class IterableContext {
 
     private int start;
@@ -22,6 +26,10 @@ public class IterableContext {
 
     private NumberingContinue numberingContinue;
 
+    private IterationScope iterationScope;
+
+    private DrawingIndex[] drawingIndexes;
+
     public IterableContext(int start, int end) {
         this(start, end, null);
     }
@@ -56,4 +64,23 @@ public class IterableContext {
         this.numberingContinue = numberingContinue;
     }
 
+    /**
+     * @param element the n-th element between start and end, indexed on first
+     *                use while it is still the unrendered template content
+     * @return drawing index of the element
+     */
+    public DrawingIndex getDrawingIndex(int n, XmlObject element) {
+        if (null == drawingIndexes) drawingIndexes = new DrawingIndex[Math.max(0, end - start - 1)];
+        if (null == drawingIndexes[n]) drawingIndexes[n] = DrawingIndex.of(element);
+        return drawingIndexes[n];
+    }
+
+    public IterationScope getIterationScope() {
+        return iterationScope;
+    }
+
+    public void setIterationScope(IterationScope iterationScope) {
+        this.iterationScope = iterationScope;
+    }
+
 }
@@ -30,6 +30,7 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTbl;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.render.RenderBudget;
 import com.deepoove.poi.render.compute.RenderDataCompute;
 import com.deepoove.poi.resolver.Resolver;
 import com.deepoove.poi.template.IterableTemplate;
@@ -87,7 +88,8 @@ public class IterableProcessor extends AbstractIterableProcessor {
         int startPos = bodyContainer.getPosOfParagraphCTP(startCtp);
         int endPos = bodyContainer.getPosOfParagraphCTP(endCtp);
 
-        NumberingContinue numbringContinue = NumberingContinue.of(bodyContainer, startPos, endPos, iterableTemplate);
+        NumberingContinue numbringContinue = ParallelPartsProcessor.locked(template,
+                () -> NumberingContinue.of(bodyContainer, startPos, endPos, iterableTemplate));
         IterableContext context = new IterableContext(startPos, endPos, numbringContinue);
 
         EnvIterator.foreach(compute.iterator(), model -> next(iterableTemplate, bodyContainer, context, model));
@@ -104,6 +106,24 @@ public class IterableProcessor extends AbstractIterableProcessor {
         XWPFParagraph endParagraph = (XWPFParagraph) iterable.getEndRun().getParent();
         CTP endCtp = endParagraph.getCTP();
 
+        int start = context.getStart();
+        int end = context.getEnd();
+        RenderBudget budget = template.getRenderBudget();
+        budget.loopIteration();
+        budget.generatedElements(end - start - 1);
+
+        // copy content, drawing ids and numberings are document level
+        List<IBodyElement> copies = ParallelPartsProcessor.locked(template,
+                () -> copy(bodyContainer, context, endCtp));
+
+        // re-parse
+        List<MetaTemplate> templates = this.resolver.resolveBodyElements(copies);
+
+        // render
+        process(templates, model, context);
+    }
+
+    private List<IBodyElement> copy(BodyContainer bodyContainer, IterableContext context, CTP endCtp) {
         int start = context.getStart();
         int end = context.getEnd();
         context.getNumberingContinue().resetCache();
@@ -128,7 +148,8 @@ public class IterableProcessor extends AbstractIterableProcessor {
                 XmlObject object = insertPostionCursor.getObject();
                 XWPFParagraph copy = new XWPFParagraph((CTP) object, bodyContainer.getTarget());
                 // update docpr
-                DrawingSupport.updateDocPrId(copy);
+                DrawingSupport.updateDocPrId(copy,
+                        context.getDrawingIndex(i - start - 1, ((XWPFParagraph) iBodyElement).getCTP()));
                 // update numbering
                 context.getNumberingContinue().updateNumbering((XWPFParagraph) iBodyElement, copy);
 
@@ -147,18 +168,14 @@ public class IterableProcessor extends AbstractIterableProcessor {
                 XmlObject object = insertPostionCursor.getObject();
 
                 XWPFTable copy = new XWPFTable((CTTbl) object, bodyContainer.getTarget());
-                DrawingSupport.updateDocPrId(copy);
+                DrawingSupport.updateDocPrId(copy,
+                        context.getDrawingIndex(i - start - 1, ((XWPFTable) iBodyElement).getCTTbl()));
                 copies.add(copy);
                 bodyContainer.updateBodyElements(insertNewTbl, copy);
                 bodyContainer.setTable(tablePos, copy);
             }
         }
-
-        // re-parse
-        List<MetaTemplate> templates = this.resolver.resolveBodyElements(copies);
-
-        // render
-        process(templates, model);
+        return copies;
     }
 
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render.processor;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.render.compute.EnvModel;
+import com.deepoove.poi.render.compute.RebindableRenderDataCompute;
+import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.resolver.Resolver;
+
+/**
+ * Compute and processor shared by all items of one loop, they are created for
+ * the first item and rebound for the others when the compute is
+ * {@link RebindableRenderDataCompute}.
+ * 
+ * @author Sayi
+ */
+public class IterationScope {
+
+    private final XWPFTemplate template;
+    private final Resolver resolver;
+
+    private RenderDataCompute renderDataCompute;
+    private DocumentProcessor documentProcessor;
+
+    public IterationScope(XWPFTemplate template, Resolver resolver) {
+        this.template = template;
+        this.resolver = resolver;
+    }
+
+    /**
+     * bind the model of current item
+     * 
+     * @param model
+     * @return processor of current item
+     */
+    public DocumentProcessor bind(Object model) {
+        if (renderDataCompute instanceof RebindableRenderDataCompute) {
+            ((RebindableRenderDataCompute) renderDataCompute)
+                    .rebind(model instanceof EnvModel ? (EnvModel) model : EnvModel.ofModel(model));
+        } else {
+            renderDataCompute = template.getConfig().getRenderDataComputeFactory().newCompute(model);
+            documentProcessor = new DocumentProcessor(template, resolver, renderDataCompute);
+        }
+        return documentProcessor;
+    }
+
+    public RenderDataCompute getRenderDataCompute() {
+        return renderDataCompute;
+    }
+
+}
@@ -116,12 +116,11 @@ public class NumberingContinue {
             return;
         }
 
-        XWPFNumberingWrapper wrapper = new XWPFNumberingWrapper(numbering);
         XWPFNum num = numbering.getNum(numID);
         if (null == num) return;
         XWPFAbstractNum abstractNum = numbering.getAbstractNum(num.getCTNum().getAbstractNumId().getVal());
         CTAbstractNum ctAbstractNum = (CTAbstractNum) abstractNum.getAbstractNum().copy();
-        ctAbstractNum.setAbstractNumId(wrapper.getNextAbstractNumID());
+        ctAbstractNum.setAbstractNumId(new XWPFNumberingWrapper(numbering).getNextAbstractNumID());
 
         // clear continues list
         // (related to tracking numbering definitions when documents are
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.render.processor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.exception.RenderLimitException.Limit;
+import com.deepoove.poi.render.RenderBudget;
+import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.resolver.Resolver;
+import com.deepoove.poi.template.BlockTemplate;
+import com.deepoove.poi.template.ChartTemplate;
+import com.deepoove.poi.template.MetaTemplate;
+import com.deepoove.poi.template.PictImageTemplate;
+import com.deepoove.poi.template.PictureTemplate;
+import com.deepoove.poi.template.run.RunTemplate;
+import com.deepoove.poi.xwpf.PoiFields;
+
+/**
+ * Process the templates of the body, each header and footer, footnotes,
+ * endnotes and comments concurrently.
+ * <p>
+ * Every part is a separate xml store, so their content can be edited at the
+ * same time. Work on document level parts and identifiers(numbering,
+ * pictures, relationships, drawing ids...) is serialized by the document lock,
+ * see {@link #locked(XWPFTemplate, Supplier)}.
+ * </p>
+ * <p>
+ * The first failure, the interruption of the calling thread or the deadline of
+ * {@link com.deepoove.poi.config.RenderLimits} cancels the other parts, so does
+ * an executor rejecting a part.
+ * </p>
+ * 
+ * @author Sayi
+ */
+public class ParallelPartsProcessor {
+
+    private final XWPFTemplate template;
+    private final Resolver resolver;
+    private final RenderDataCompute renderDataCompute;
+    private final Executor executor;
+
+    public ParallelPartsProcessor(XWPFTemplate template, Resolver resolver, RenderDataCompute renderDataCompute,
+            Executor executor) {
+        this.template = template;
+        this.resolver = resolver;
+        this.renderDataCompute = renderDataCompute;
+        this.executor = executor;
+    }
+
+    public void process(List<MetaTemplate> templates) {
+        Map<POIXMLDocumentPart, List<MetaTemplate>> parts = new LinkedHashMap<>();
+        templates.forEach(meta -> parts.computeIfAbsent(partOf(meta), k -> new ArrayList<>()).add(meta));
+        // templates of unknown parts are processed alone at last
+        List<MetaTemplate> unknown = parts.remove(null);
+
+        // the calling thread only waits, so it answers interruption and deadline
+        AtomicBoolean cancelled = new AtomicBoolean();
+        CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Void>> futures = new ArrayList<>();
+        try {
+            for (List<MetaTemplate> part : parts.values()) {
+                futures.add(completion.submit(() -> processPart(part, cancelled), null));
+            }
+        } catch (RejectedExecutionException e) {
+            cancel(futures, cancelled);
+            throw e;
+        }
+        // parts are awaited in completion order, so the first failure cancels the others
+        Throwable failure = null;
+        RenderBudget budget = template.getRenderBudget();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                long remaining = budget.remainingNanos();
+                Future<Void> future = Long.MAX_VALUE == remaining ? completion.take()
+                        : completion.poll(remaining, TimeUnit.NANOSECONDS);
+                if (null == future) {
+                    cancel(futures, cancelled);
+                    throw budget.abort(Limit.DEADLINE);
+                }
+                future.get();
+            } catch (CancellationException e) {
+                // cancelled by the first failure
+            } catch (ExecutionException e) {
+                if (null == failure) {
+                    failure = null == e.getCause() ? e : e.getCause();
+                    cancel(futures, cancelled);
+                }
+            } catch (InterruptedException e) {
+                cancel(futures, cancelled);
+                Thread.currentThread().interrupt();
+                throw budget.abort(Limit.INTERRUPTED);
+            }
+        }
+        if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+        if (failure instanceof Error) throw (Error) failure;
+
+        if (null != unknown) processPart(unknown, cancelled);
+    }
+
+    /**
+     * parts not started are dropped, running parts are interrupted and stop
+     * before their next template
+     */
+    private static void cancel(List<Future<Void>> futures, AtomicBoolean cancelled) {
+        cancelled.set(true);
+        futures.forEach(future -> future.cancel(true));
+    }
+
+    private void processPart(List<MetaTemplate> templates, AtomicBoolean cancelled) {
+        RenderBudget budget = template.getRenderBudget();
+        new DocumentProcessor(template, resolver, renderDataCompute) {
+            @Override
+            protected void checkpoint() {
+                if (cancelled.get() || Thread.currentThread().isInterrupted()) {
+                    throw budget.abort(Limit.INTERRUPTED);
+                }
+                super.checkpoint();
+            }
+        }.process(templates);
+    }
+
+    private static POIXMLDocumentPart partOf(MetaTemplate meta) {
+        XWPFRun run = null;
+        if (meta instanceof RunTemplate) {
+            run = ((RunTemplate) meta).getRun();
+        } else if (meta instanceof BlockTemplate) {
+            run = ((BlockTemplate) meta).getStartRun();
+        } else if (meta instanceof PictureTemplate) {
+            run = PoiFields.PICTURE_RUN.get(((PictureTemplate) meta).getPicture());
+        } else if (meta instanceof PictImageTemplate) {
+            run = ((PictImageTemplate) meta).getRun();
+        } else if (meta instanceof ChartTemplate) {
+            run = ((ChartTemplate) meta).getRun();
+        }
+        return null == run || null == run.getParent() ? null : run.getParent().getPart();
+    }
+
+    /**
+     * run the action holding the document lock if parts are rendered
+     * concurrently, waiting for the lock is interruptible
+     */
+    static <T> T locked(XWPFTemplate template, Supplier<T> action) {
+        Lock lock = documentLock(template);
+        if (null == lock) return action.get();
+        try {
+            lock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw template.getRenderBudget().abort(Limit.INTERRUPTED);
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static Lock documentLock(XWPFTemplate template) {
+        return null == template.getConfig().getPartRenderExecutor() ? null
+                : template.getXWPFDocument().getDocumentLock();
+    }
+
+}
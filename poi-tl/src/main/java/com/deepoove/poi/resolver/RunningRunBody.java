@@ -97,6 +97,13 @@ public class RunningRunBody {
             String startText = runs.get(startRunPos).text();
             String endText = runs.get(endRunPos).text();
 
+            // normalized tag owns the whole run, nothing to repair
+            if (startRunPos == endRunPos && startOffset <= 0 && endOffset + 1 >= endText.length()
+                    && runs.get(startRunPos).getCTR().sizeOfTArray() == 1) {
+                templateRuns.add(runs.get(startRunPos));
+                continue;
+            }
+
             if (endOffset + 1 >= endText.length()) {
                 // delete the redundant end Run directly
                 if (startRunPos != endRunPos) runBodyContext.removeRun(endRunPos);
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.resolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlCursor.TokenType;
+import org.apache.xmlbeans.XmlObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.deepoove.poi.config.CompactOptions;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.template.MetaTemplate;
+import com.deepoove.poi.xwpf.DocumentCompactor;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
+
+/**
+ * Normalize template once: remove proofing bookkeeping, merge runs with equal
+ * formatting and unfragment tags into runs of their own, so compiling the
+ * normalized template never has to repair fragmented runs.
+ * 
+ * <pre>
+ * try (InputStream in = new FileInputStream("template.docx");
+ *         OutputStream out = new FileOutputStream("template_normalized.docx")) {
+ *     Report report = new TemplateNormalizer(config).normalize(in, out);
+ * }
+ * </pre>
+ * 
+ * @author Sayi
+ */
+public class TemplateNormalizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateNormalizer.class);
+
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private final Configure config;
+
+    public TemplateNormalizer() {
+        this(Configure.createDefault());
+    }
+
+    /**
+     * @param config the configure used to compile the template, which decides the
+     *               tag syntax
+     */
+    public TemplateNormalizer(Configure config) {
+        this.config = config;
+    }
+
+    /**
+     * normalize the template in place
+     * 
+     * @param doc template
+     * @return report
+     */
+    public Report normalize(XWPFDocument doc) {
+        int runsBefore = countRuns(doc);
+        TemplateResolver resolver = new TemplateResolver(config);
+        Pattern templatePattern = resolver.getTemplatePattern();
+        DocumentCompactor compactor = new DocumentCompactor(CompactOptions.builder().build()) {
+            @Override
+            protected boolean isMergeable(XWPFRun run) {
+                // keep tags already owning a run
+                return !templatePattern.matcher(run.text()).matches();
+            }
+        };
+        compactor.compact(doc);
+        // resolving unfragments the tags in place
+        List<MetaTemplate> templates = resolver.resolveDocument(doc);
+        Report report = new Report(runsBefore, countRuns(doc),
+                compactor.getMergedRuns() + compactor.getRemovedRuns(), templates.size());
+        logger.info("Normalize template: {}", report);
+        return report;
+    }
+
+    /**
+     * write the normalized template
+     * 
+     * @param template template input
+     * @param out      output of normalized template
+     * @return report
+     * @throws IOException
+     */
+    public Report normalize(InputStream template, OutputStream out) throws IOException {
+        try (NiceXWPFDocument doc = new NiceXWPFDocument(template)) {
+            Report report = normalize(doc);
+            doc.write(out);
+            return report;
+        }
+    }
+
+    private static int countRuns(XWPFDocument doc) {
+        List<XmlObject> parts = new ArrayList<>();
+        parts.add(doc.getDocument());
+        doc.getHeaderList().forEach(header -> parts.add(header._getHdrFtr()));
+        doc.getFooterList().forEach(footer -> parts.add(footer._getHdrFtr()));
+        int runs = 0;
+        for (XmlObject part : parts) {
+            XmlCursor cursor = part.newCursor();
+            try {
+                for (TokenType token = cursor.toNextToken(); !token.isNone()
+                        && !token.isEnddoc(); token = cursor.toNextToken()) {
+                    if (token.isStart() && "r".equals(cursor.getName().getLocalPart())
+                            && W_NS.equals(cursor.getName().getNamespaceURI())) {
+                        runs++;
+                    }
+                }
+            } finally {
+                cursor.dispose();
+            }
+        }
+        return runs;
+    }
+
+    public static class Report {
+        private final int runsBefore;
+        private final int runsAfter;
+        private final int runsEliminated;
+        private final int templates;
+
+        Report(int runsBefore, int runsAfter, int runsEliminated, int templates) {
+            this.runsBefore = runsBefore;
+            this.runsAfter = runsAfter;
+            this.runsEliminated = runsEliminated;
+            this.templates = templates;
+        }
+
+        public int getRunsBefore() {
+            return runsBefore;
+        }
+
+        public int getRunsAfter() {
+            return runsAfter;
+        }
+
+        /**
+         * @return number of runs merged or removed, tags split out of their
+         *         surrounding text add runs back, see {@link #getRunsAfter()}
+         */
+        public int getRunsEliminated() {
+            return runsEliminated;
+        }
+
+        /**
+         * @return number of top level templates found
+         */
+        public int getTemplates() {
+            return templates;
+        }
+
+        @Override
+        public String toString() {
+            return runsBefore + " runs before, " + runsAfter + " runs after, " + runsEliminated
+                    + " runs eliminated, " + templates + " templates";
+        }
+    }
+
+}
@@ -47,8 +47,8 @@ import com.deepoove.poi.template.MetaTemplate;
 import com.deepoove.poi.template.PictImageTemplate;
 import com.deepoove.poi.template.PictureTemplate;
 import com.deepoove.poi.template.run.RunTemplate;
-import com.deepoove.poi.util.ReflectionUtils;
 import com.deepoove.poi.xwpf.*;
+import com.deepoove.poi.xwpf.PoiFields;
 
 /**
  * Resolver
@@ -203,6 +203,9 @@ public class TemplateResolver extends AbstractResolver {
         for (XWPFRun run : runs) {
             String text = null;
             if (StringUtils.isBlank(text = run.getText(0))) {
+                // tabs, breaks, fields and bookmarks hold no shape
+                if (XWPFRunWrapper.probe(run.getCTR()) == 0) continue;
+
                 // textbox
                 List<MetaTemplate> visitBodyElements = resolveTextbox(run);
                 if (!visitBodyElements.isEmpty()) {
@@ -300,7 +303,7 @@ public class TemplateResolver extends AbstractResolver {
     }
 
     private CTDrawing getCTDrawing(XWPFPicture pic) throws RuntimeException {
-        XWPFRun run = (XWPFRun) ReflectionUtils.getValue("run", pic);
+        XWPFRun run = PoiFields.PICTURE_RUN.get(pic);
         return getCTDrawing(run);
     }
 
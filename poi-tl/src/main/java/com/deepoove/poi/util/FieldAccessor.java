@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import com.deepoove.poi.exception.ReflectionException;
+
+/**
+ * Accessor of a non-public field, the field is resolved once into cached
+ * {@link MethodHandle}s per (class, field name).
+ * 
+ * @author Sayi
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<Map<String, FieldAccessor>> ACCESSORS = new ClassValue<Map<String, FieldAccessor>>() {
+        @Override
+        protected Map<String, FieldAccessor> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final String name;
+    private final Class<?> declaringClass;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final ReflectionException failure;
+
+    private FieldAccessor(Field field) throws IllegalAccessException {
+        field.setAccessible(true);
+        this.name = field.getName();
+        this.declaringClass = field.getDeclaringClass();
+        this.failure = null;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        MethodHandle unreflectSetter = null;
+        try {
+            unreflectSetter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            // read only
+        }
+        this.setter = unreflectSetter;
+    }
+
+    private FieldAccessor(Class<?> clazz, String name, ReflectionException failure) {
+        this.name = name;
+        this.declaringClass = clazz;
+        this.getter = null;
+        this.setter = null;
+        this.failure = failure;
+    }
+
+    /**
+     * find the accessor of the field declared in class or its super classes
+     * 
+     * @param clazz
+     * @param name
+     * @return accessor
+     * @throws ReflectionException if the field does not exist
+     */
+    public static FieldAccessor of(Class<?> clazz, String name) {
+        Objects.requireNonNull(clazz, "Class must not be null");
+        Objects.requireNonNull(name, "Name must not be null");
+        Map<String, FieldAccessor> accessors = ACCESSORS.get(clazz);
+        FieldAccessor accessor = accessors.get(name);
+        if (null == accessor) {
+            accessor = resolve(clazz, name);
+            accessors.putIfAbsent(name, accessor);
+        }
+        return accessor;
+    }
+
+    /**
+     * accessor of a field that could not be resolved, every access fails with
+     * the given cause instead of failing where the accessor is declared
+     * 
+     * @param clazz
+     * @param name
+     * @param failure
+     * @return accessor
+     */
+    public static FieldAccessor unresolved(Class<?> clazz, String name, ReflectionException failure) {
+        Objects.requireNonNull(failure, "Failure must not be null");
+        return new FieldAccessor(clazz, name, failure);
+    }
+
+    private static FieldAccessor resolve(Class<?> clazz, String name) {
+        Field field = ReflectionUtils.findField(clazz, name);
+        if (null == field) {
+            throw new ReflectionException(
+                    "No Such field " + name + " from class" + ClassUtils.getShortClassName(clazz));
+        }
+        try {
+            return new FieldAccessor(field);
+        } catch (Exception e) {
+            throw new ReflectionException(name, clazz, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(Object obj) {
+        if (null != failure) throw new ReflectionException(failure.getMessage(), failure);
+        try {
+            return (V) (Object) getter.invokeExact(obj);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectionException(name, declaringClass, new Exception(e));
+        }
+    }
+
+    public void set(Object obj, Object value) {
+        if (null != failure) throw new ReflectionException(failure.getMessage(), failure);
+        if (null == setter) throw new ReflectionException("Read only field " + name + " from class "
+                + ClassUtils.getShortClassName(declaringClass));
+        try {
+            setter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectionException(name, declaringClass, new Exception(e));
+        }
+    }
+
+}
@@ -20,26 +20,12 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.util.Objects;
 
-import org.apache.commons.lang3.ClassUtils;
-
-import com.deepoove.poi.exception.ReflectionException;
-
 public class ReflectionUtils {
 
     public static Object getValue(String fieldName, Object obj) {
         Objects.requireNonNull(obj, "Class must not be null");
         Objects.requireNonNull(fieldName, "Name must not be null");
-        Field field = findField(obj.getClass(), fieldName);
-        if (null == field) {
-            throw new ReflectionException(
-                    "No Such field " + fieldName + " from class" + ClassUtils.getShortClassName(obj.getClass()));
-        }
-        try {
-            field.setAccessible(true);
-            return field.get(obj);
-        } catch (Exception e) {
-            throw new ReflectionException(fieldName, obj.getClass(), e);
-        }
+        return FieldAccessor.of(obj.getClass(), fieldName).get(obj);
     }
 
     public static Field findField(Class<?> clazz, String name) {
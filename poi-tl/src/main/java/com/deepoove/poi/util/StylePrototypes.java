@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.util;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import javax.xml.namespace.QName;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.impl.values.TypeStore;
+import org.apache.xmlbeans.impl.values.XmlObjectBase;
+
+/**
+ * Cache of styles compiled into prebuilt properties elements(w:rPr, w:pPr,
+ * w:trPr, w:tcPr), each distinct style is compiled once by the field by field
+ * setters and applying it becomes a copy of the prototype children.
+ * 
+ * <p>
+ * The copy keeps the semantics of the setters: children missing in the target
+ * are added by the same insertion rule, attributes of existing children are
+ * overwritten and the others are kept.
+ * </p>
+ * 
+ * @author Sayi
+ */
+final class StylePrototypes<S, T extends XmlObject> {
+
+    private static final int MAX_SIZE = 1024;
+
+    private final Map<List<Object>, T> prototypes = new ConcurrentHashMap<>();
+    private final Function<S, List<Object>> keyFunction;
+    private final Function<S, T> compiler;
+    private final Map<QName, BiConsumer<XmlObject, XmlObject>> fixups;
+    private final Set<QName> appendings;
+
+    /**
+     * @param keyFunction values of the style fields used by the compiler
+     * @param compiler    apply the style to an empty properties element
+     * @param fixups      extra work of the setters on an existing child, such as
+     *                    unset the attributes replaced
+     * @param appendings  children always added by the setters
+     */
+    StylePrototypes(Function<S, List<Object>> keyFunction, Function<S, T> compiler,
+            Map<QName, BiConsumer<XmlObject, XmlObject>> fixups, Set<QName> appendings) {
+        this.keyFunction = keyFunction;
+        this.compiler = compiler;
+        this.fixups = fixups;
+        this.appendings = appendings;
+    }
+
+    StylePrototypes(Function<S, List<Object>> keyFunction, Function<S, T> compiler) {
+        this(keyFunction, compiler, Collections.emptyMap(), Collections.emptySet());
+    }
+
+    T get(S style) {
+        List<Object> key = keyFunction.apply(style);
+        T prototype = prototypes.get(key);
+        if (null == prototype) {
+            if (prototypes.size() >= MAX_SIZE) prototypes.clear();
+            prototype = compiler.apply(style);
+            prototypes.put(key, prototype);
+        }
+        return prototype;
+    }
+
+    void apply(XmlObject target, S style) {
+        copyTo(target, get(style));
+    }
+
+    void copyTo(XmlObject target, T prototype) {
+        merge(target, prototype);
+    }
+
+    private void merge(XmlObject target, XmlObject prototype) {
+        XmlCursor cursor = prototype.newCursor();
+        try {
+            if (!cursor.toFirstChild()) return;
+            TypeStore store = ((XmlObjectBase) target).get_store();
+            do {
+                QName name = cursor.getName();
+                XmlObject child = cursor.getObject();
+                XmlObject exist = appendings.contains(name) ? null : (XmlObject) store.find_element_user(name, 0);
+                if (null == exist) {
+                    ((XmlObject) store.add_element_user(name)).set(child);
+                } else {
+                    overlay(exist, child);
+                    merge(exist, child);
+                    BiConsumer<XmlObject, XmlObject> fixup = fixups.get(name);
+                    if (null != fixup) fixup.accept(exist, child);
+                }
+            } while (cursor.toNextSibling());
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    private static void overlay(XmlObject target, XmlObject prototype) {
+        XmlCursor cursor = prototype.newCursor();
+        try {
+            if (!cursor.toFirstAttribute()) return;
+            XmlCursor targetCursor = target.newCursor();
+            try {
+                do {
+                    targetCursor.setAttributeText(cursor.getName(), cursor.getTextValue());
+                } while (cursor.toNextAttribute());
+            } finally {
+                targetCursor.dispose();
+            }
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+}
@@ -15,15 +15,23 @@
  */
 package com.deepoove.poi.util;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
+import javax.xml.namespace.QName;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.xwpf.usermodel.IRunBody;
 import org.apache.poi.xwpf.usermodel.LineSpacingRule;
 import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFRun.FontCharRange;
@@ -55,6 +63,55 @@ import com.deepoove.poi.xwpf.XWPFShadingPattern;
  */
 public final class StyleUtils {
 
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private static final StylePrototypes<Style, CTRPr> RUN_PROTOTYPES = new StylePrototypes<>(StyleUtils::runKey,
+            style -> {
+                XWPFRun run = new XWPFRun(CTR.Factory.newInstance(), (IRunBody) null);
+                compileRun(run, style);
+                return (CTRPr) getRunProperties(run).copy();
+            }, Collections.singletonMap(new QName(W_NS, "color"), (exist, prototype) -> {
+                CTColor color = (CTColor) exist;
+                if (color.isSetThemeColor()) color.unsetThemeColor();
+            }), Collections.emptySet());
+
+    private static final StylePrototypes<ParagraphStyle, CTPPr> PARAGRAPH_PROTOTYPES = new StylePrototypes<>(
+            StyleUtils::paragraphKey, style -> {
+                XWPFParagraph paragraph;
+                try (XWPFDocument doc = new XWPFDocument()) {
+                    paragraph = doc.createParagraph();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                compileParagraph(paragraph, style);
+                return (CTPPr) paragraph.getCTP().getPPr().copy();
+            }, Collections.singletonMap(new QName(W_NS, "ind"), (exist, prototype) -> {
+                CTInd indent = (CTInd) exist;
+                CTInd compiled = (CTInd) prototype;
+                if (compiled.isSetLeftChars() && indent.isSetLeft()) indent.unsetLeft();
+                if (compiled.isSetRightChars() && indent.isSetRight()) indent.unsetRight();
+                if (compiled.isSetHangingChars() && indent.isSetHanging()) indent.unsetHanging();
+                if (compiled.isSetFirstLineChars() && indent.isSetFirstLine()) indent.unsetFirstLine();
+            }), Collections.emptySet());
+
+    private static final StylePrototypes<RowStyle, CTTrPr> ROW_PROTOTYPES = new StylePrototypes<>(
+            StyleUtils::rowKey, style -> {
+                XWPFTableRow row = new XWPFTableRow(CTRow.Factory.newInstance(), null);
+                compileTableRow(row, style);
+                return (CTTrPr) row.getCtRow().getTrPr().copy();
+            }, Collections.singletonMap(new QName(W_NS, "cantSplit"),
+                    (exist, prototype) -> ((CTOnOff) exist).setVal(XWPFOnOff.ON)),
+            Collections.emptySet());
+
+    private static final StylePrototypes<CellStyle, CTTcPr> CELL_PROTOTYPES = new StylePrototypes<>(
+            StyleUtils::cellKey, style -> {
+                XWPFTableCell cell = new XWPFTableCell(CTTc.Factory.newInstance(), null, null);
+                compileTableCell(cell, style);
+                CTTc ctTc = cell.getCTTc();
+                return ctTc.isSetTcPr() ? (CTTcPr) ctTc.getTcPr().copy() : CTTcPr.Factory.newInstance();
+                // XWPFTableCell#setVerticalAlignment always adds w:vAlign
+            }, Collections.emptyMap(), Collections.singleton(new QName(W_NS, "vAlign")));
+
     /**
      * set run style by style
      * 
@@ -63,6 +120,10 @@ public final class StyleUtils {
      */
     public static void styleRun(XWPFRun run, Style style) {
         if (null == run || null == style) return;
+        RUN_PROTOTYPES.apply(getRunProperties(run), style);
+    }
+
+    private static void compileRun(XWPFRun run, Style style) {
         CTRPr pr = getRunProperties(run);
         String color = style.getColor();
         if (StringUtils.isNotBlank(color)) {
@@ -167,6 +228,11 @@ public final class StyleUtils {
      */
     public static void styleParagraph(XWPFParagraph paragraph, ParagraphStyle style) {
         if (null == paragraph || null == style) return;
+        CTP ctp = paragraph.getCTP();
+        PARAGRAPH_PROTOTYPES.apply(ctp.isSetPPr() ? ctp.getPPr() : ctp.addNewPPr(), style);
+    }
+
+    private static void compileParagraph(XWPFParagraph paragraph, ParagraphStyle style) {
         stylePpr(paragraph, style);
         styleParaRpr(paragraph, style.getGlyphStyle());
     }
@@ -214,6 +280,11 @@ public final class StyleUtils {
      */
     public static void styleTableRow(XWPFTableRow row, RowStyle rowStyle) {
         if (null == row || null == rowStyle) return;
+        CTRow ctRow = row.getCtRow();
+        ROW_PROTOTYPES.apply(ctRow.isSetTrPr() ? ctRow.getTrPr() : ctRow.addNewTrPr(), rowStyle);
+    }
+
+    private static void compileTableRow(XWPFTableRow row, RowStyle rowStyle) {
         int height = rowStyle.getHeight();
         CTRow ctRow = row.getCtRow();
         CTTrPr properties = (ctRow.isSetTrPr()) ? ctRow.getTrPr() : ctRow.addNewTrPr();
@@ -255,6 +326,13 @@ public final class StyleUtils {
      */
     public static void styleTableCell(XWPFTableCell cell, CellStyle cellStyle) {
         if (null == cell || null == cellStyle) return;
+        CTTcPr prototype = CELL_PROTOTYPES.get(cellStyle);
+        if (!prototype.isSetVAlign() && !prototype.isSetShd()) return;
+        CTTc ctTc = cell.getCTTc();
+        CELL_PROTOTYPES.copyTo(ctTc.isSetTcPr() ? ctTc.getTcPr() : ctTc.addNewTcPr(), prototype);
+    }
+
+    private static void compileTableCell(XWPFTableCell cell, CellStyle cellStyle) {
         if (null != cellStyle.getVertAlign()) {
             cell.setVerticalAlignment(cellStyle.getVertAlign());
         }
@@ -614,6 +692,39 @@ public final class StyleUtils {
         return color.length() > 7 ? color.substring(1, 7) : color.substring(1);
     }
 
+    private static List<Object> runKey(Style style) {
+        if (null == style) return null;
+        return Arrays.asList(style.getColor(), style.getFontFamily(), style.getWesternFontFamily(),
+                style.getFontSize(), style.isBold(), style.isItalic(), style.isStrike(), style.getUnderlinePatterns(),
+                style.getUnderlineColor(), style.getHighlightColor(), style.getCharacterSpacing(),
+                style.getVertAlign());
+    }
+
+    private static List<Object> paragraphKey(ParagraphStyle style) {
+        return Arrays.asList(style.getStyleId(), style.getAlign(), style.getIndentLeftChars(),
+                style.getIndentRightChars(), style.getIndentHangingChars(), style.getIndentFirstLineChars(),
+                borderKey(style.getLeftBorder()), borderKey(style.getRightBorder()), borderKey(style.getTopBorder()),
+                borderKey(style.getBottomBorder()), style.getShadingPattern(), style.getBackgroundColor(),
+                style.getWidowControl(), style.getKeepLines(), style.getKeepNext(), style.getPageBreakBefore(),
+                style.getAllowWordBreak(), style.getSpacingBeforeLines(), style.getSpacingAfterLines(),
+                style.getSpacingBefore(), style.getSpacingAfter(), style.getSpacing(), style.getSpacingRule(),
+                runKey(style.getGlyphStyle()), style.getNumId(), style.getLvl());
+    }
+
+    private static List<Object> borderKey(BorderStyle style) {
+        if (null == style) return null;
+        return Arrays.asList(style.getType(), style.getSize(), style.getSpace(), style.getColor());
+    }
+
+    private static List<Object> rowKey(RowStyle style) {
+        return Arrays.asList(style.getHeight(), style.getHeightRule(), style.isRepeated(),
+                style.isBreakAcrossPage());
+    }
+
+    private static List<Object> cellKey(CellStyle style) {
+        return Arrays.asList(style.getVertAlign(), style.getBackgroundColor(), style.getShadingPattern());
+    }
+
     private static CTRPr getRunProperties(XWPFRun run) {
         return run.getCTR().isSetRPr() ? run.getCTR().getRPr() : run.getCTR().addNewRPr();
     }
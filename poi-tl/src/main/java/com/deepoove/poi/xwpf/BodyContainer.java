@@ -29,7 +29,6 @@ import org.apache.xmlbeans.XmlCursor;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
 
 import com.deepoove.poi.util.ParagraphUtils;
-import com.deepoove.poi.util.ReflectionUtils;
 
 /**
  * {@link IBody} operation
@@ -74,9 +73,8 @@ public interface BodyContainer extends ParentContext {
      *
      * @return
      */
-    @SuppressWarnings("unchecked")
     default List<IBodyElement> getBodyElements() {
-        return (List<IBodyElement>) ReflectionUtils.getValue("bodyElements", getTarget());
+        return PoiFields.bodyElements(getTarget());
     }
 
     /**
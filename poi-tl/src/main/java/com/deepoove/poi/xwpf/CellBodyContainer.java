@@ -31,7 +31,6 @@ import org.apache.xmlbeans.XmlCursor;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
 
 import com.deepoove.poi.util.ParagraphUtils;
-import com.deepoove.poi.util.ReflectionUtils;
 
 public class CellBodyContainer implements BodyContainer {
 
@@ -51,7 +50,7 @@ public class CellBodyContainer implements BodyContainer {
             if (type == BodyElementType.TABLE) {
                 int indexOf = cell.getTables().indexOf(bodyElements.get(pos));
                 // remove cell's table
-                List<XWPFTable> tables = (List<XWPFTable>) ReflectionUtils.getValue("tables", cell);
+                List<XWPFTable> tables = PoiFields.CELL_TABLES.get(cell);
                 tables.remove(indexOf);
                 cell.getCTTc().removeTbl(indexOf);
             }
@@ -59,7 +58,7 @@ public class CellBodyContainer implements BodyContainer {
                 int indexOf = cell.getParagraphs().indexOf(bodyElements.get(pos));
                 // cell.removeParagraph may has bug
                 // cell.removeParagraph(indexOf);
-                List<XWPFParagraph> paragraphs = (List<XWPFParagraph>) ReflectionUtils.getValue("paragraphs", cell);
+                List<XWPFParagraph> paragraphs = PoiFields.CELL_PARAGRAPHS.get(cell);
                 paragraphs.remove(indexOf);
                 cell.getCTTc().removeP(indexOf);
             }
@@ -67,10 +66,9 @@ public class CellBodyContainer implements BodyContainer {
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void setParagraph(XWPFParagraph p, int pos) {
-        List<XWPFParagraph> paragraphs = (List<XWPFParagraph>) ReflectionUtils.getValue("paragraphs", cell);
+        List<XWPFParagraph> paragraphs = PoiFields.CELL_PARAGRAPHS.get(cell);
         paragraphs.set(pos, p);
         CTTc ctTc = cell.getCTTc();
         ctTc.setPArray(pos, p.getCTP());
@@ -81,11 +79,10 @@ public class CellBodyContainer implements BodyContainer {
         return cell;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void setTable(int pos, XWPFTable table) {
         // cell.getTables().set(pos, table);
-        List<XWPFTable> tables = (List<XWPFTable>) ReflectionUtils.getValue("tables", cell);
+        List<XWPFTable> tables = PoiFields.CELL_TABLES.get(cell);
         tables.set(pos, table);
         cell.getCTTc().setTblArray(pos, table.getCTTbl());
 
@@ -29,7 +29,6 @@ import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.apache.xmlbeans.XmlCursor;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTComment;
 
-import com.deepoove.poi.util.ReflectionUtils;
 
 public class CommentBodyContainer implements BodyContainer {
 
@@ -53,10 +52,9 @@ public class CommentBodyContainer implements BodyContainer {
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void setParagraph(XWPFParagraph p, int paraPos) {
-        List<XWPFParagraph> paragraphs = (List<XWPFParagraph>) ReflectionUtils.getValue("paragraphs", comment);
+        List<XWPFParagraph> paragraphs = PoiFields.COMMENT_PARAGRAPHS.get(comment);
         paragraphs.set(paraPos, p);
         CTComment ctc = comment.getCtComment();
         ctc.setPArray(paraPos, p.getCTP());
@@ -68,11 +66,10 @@ public class CommentBodyContainer implements BodyContainer {
         return comment;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void setTable(int pos, XWPFTable table) {
         // cell.getTables().set(pos, table);
-        List<XWPFTable> tables = (List<XWPFTable>) ReflectionUtils.getValue("tables", comment);
+        List<XWPFTable> tables = PoiFields.COMMENT_TABLES.get(comment);
         tables.set(pos, table);
         comment.getCtComment().setTblArray(pos, table.getCTTbl());
 
@@ -0,0 +1,363 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.xwpf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import org.apache.poi.xwpf.usermodel.BodyElementType;
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFFooter;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlCursor.TokenType;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
+
+import com.deepoove.poi.config.CompactOptions;
+
+/**
+ * Remove the dead weight left by rendering: empty runs, adjacent runs split
+ * with equal formatting, proofErr and rsid bookkeeping, and optionally empty
+ * paragraphs and repeated direct formatting.
+ * 
+ * @author Sayi
+ */
+public class DocumentCompactor {
+
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    /**
+     * toggle properties of character style are xor-ed with the paragraph style,
+     * so they always stay direct formatting
+     */
+    private static final Set<String> TOGGLE_PROPERTIES = new HashSet<>(Arrays.asList("b", "bCs", "i", "iCs", "caps",
+            "smallCaps", "strike", "dstrike", "outline", "shadow", "emboss", "imprint", "vanish"));
+
+    private static final String STYLE_ID_PREFIX = "PoitlRun";
+
+    private final CompactOptions options;
+    private int mergedRuns;
+    private int removedRuns;
+    private int removedParagraphs;
+    private int createdStyles;
+
+    public DocumentCompactor(CompactOptions options) {
+        this.options = options;
+    }
+
+    public void compact(XWPFDocument doc) {
+        if (options.isRemoveBookkeeping()) {
+            removeBookkeeping(doc.getDocument());
+            doc.getHeaderList().forEach(header -> removeBookkeeping(header._getHdrFtr()));
+            doc.getFooterList().forEach(footer -> removeBookkeeping(footer._getHdrFtr()));
+        }
+        List<IBody> bodies = new ArrayList<>();
+        bodies.add(doc);
+        bodies.addAll(doc.getHeaderList());
+        bodies.addAll(doc.getFooterList());
+
+        List<XWPFRun> styleCandidates = new ArrayList<>();
+        for (IBody body : bodies) {
+            compact(body, styleCandidates);
+        }
+        if (options.getCharacterStyleThreshold() > 0) {
+            promoteCharacterStyles(doc, styleCandidates);
+        }
+    }
+
+    public int getMergedRuns() {
+        return mergedRuns;
+    }
+
+    public int getRemovedRuns() {
+        return removedRuns;
+    }
+
+    public int getRemovedParagraphs() {
+        return removedParagraphs;
+    }
+
+    public int getCreatedStyles() {
+        return createdStyles;
+    }
+
+    private void compact(IBody body, List<XWPFRun> styleCandidates) {
+        List<XWPFParagraph> emptyParagraphs = new ArrayList<>();
+        for (IBodyElement element : new ArrayList<>(body.getBodyElements())) {
+            if (element.getElementType() == BodyElementType.PARAGRAPH) {
+                XWPFParagraph paragraph = (XWPFParagraph) element;
+                compact(paragraph);
+                if (options.isRemoveEmptyParagraphs() && isEmpty(paragraph)) {
+                    emptyParagraphs.add(paragraph);
+                } else {
+                    for (XWPFRun run : paragraph.getRuns()) {
+                        if (isTextRun(paragraph, run)) styleCandidates.add(run);
+                    }
+                }
+            } else if (element.getElementType() == BodyElementType.TABLE) {
+                for (XWPFTableRow row : ((XWPFTable) element).getRows()) {
+                    for (XWPFTableCell cell : row.getTableCells()) {
+                        compact(cell, styleCandidates);
+                    }
+                }
+            }
+        }
+        removeParagraphs(body, emptyParagraphs);
+    }
+
+    private void compact(XWPFParagraph paragraph) {
+        List<XWPFRun> runs = paragraph.getRuns();
+        int i = 0;
+        while (i < runs.size()) {
+            XWPFRun run = runs.get(i);
+            if (!isTextRun(paragraph, run)) {
+                i++;
+                continue;
+            }
+            if (options.isRemoveEmptyRuns() && run.text().isEmpty()) {
+                paragraph.removeRun(i);
+                removedRuns++;
+                continue;
+            }
+            if (options.isMergeRuns() && i + 1 < runs.size()) {
+                XWPFRun next = runs.get(i + 1);
+                if (isTextRun(paragraph, next) && isNextSibling(run, next) && isMergeable(run)
+                        && isMergeable(next) && formatting(run).equals(formatting(next))) {
+                    run.setText(run.text() + next.text(), 0);
+                    paragraph.removeRun(i + 1);
+                    mergedRuns++;
+                    continue;
+                }
+            }
+            i++;
+        }
+    }
+
+    /**
+     * @param run text run
+     * @return false to keep the run apart from its neighbours
+     */
+    protected boolean isMergeable(XWPFRun run) {
+        return true;
+    }
+
+    private void removeParagraphs(IBody body, List<XWPFParagraph> paragraphs) {
+        if (paragraphs.isEmpty()) return;
+        if (body instanceof XWPFTableCell && paragraphs.size() == body.getParagraphs().size()) {
+            // a cell must end with a paragraph
+            paragraphs.remove(paragraphs.size() - 1);
+        }
+        for (XWPFParagraph paragraph : paragraphs) {
+            if (body instanceof XWPFDocument) {
+                XWPFDocument doc = (XWPFDocument) body;
+                doc.removeBodyElement(doc.getPosOfParagraph(paragraph));
+            } else if (body instanceof XWPFTableCell) {
+                XWPFTableCell cell = (XWPFTableCell) body;
+                cell.removeParagraph(cell.getParagraphs().indexOf(paragraph));
+            } else if (body instanceof XWPFHeader || body instanceof XWPFFooter) {
+                ((XWPFHeaderFooter) body).removeParagraph(paragraph);
+            } else {
+                continue;
+            }
+            removedParagraphs++;
+        }
+    }
+
+    private void promoteCharacterStyles(XWPFDocument doc, List<XWPFRun> runs) {
+        Map<String, List<XWPFRun>> groups = new LinkedHashMap<>();
+        Map<String, CTRPr> properties = new LinkedHashMap<>();
+        for (XWPFRun run : runs) {
+            CTRPr rPr = run.getCTR().getRPr();
+            if (null == rPr || hasChild(rPr, "rStyle") || hasChild(rPr, "rPrChange")) continue;
+            CTRPr shared = (CTRPr) rPr.copy();
+            removeChildren(shared, false);
+            if (!hasChild(shared, null)) continue;
+            String key = shared.xmlText();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(run);
+            properties.putIfAbsent(key, shared);
+        }
+        XWPFStyles styles = null;
+        int id = 0;
+        for (Map.Entry<String, List<XWPFRun>> entry : groups.entrySet()) {
+            if (entry.getValue().size() < options.getCharacterStyleThreshold()) continue;
+            if (null == styles) styles = null == doc.getStyles() ? doc.createStyles() : doc.getStyles();
+            String styleId;
+            do {
+                styleId = STYLE_ID_PREFIX + (++id);
+            } while (styles.styleExist(styleId));
+
+            CTStyle ctStyle = CTStyle.Factory.newInstance();
+            ctStyle.setType(STStyleType.CHARACTER);
+            ctStyle.setStyleId(styleId);
+            ctStyle.addNewName().setVal(styleId);
+            ctStyle.setRPr(properties.get(entry.getKey()));
+            styles.addStyle(new XWPFStyle(ctStyle, styles));
+            createdStyles++;
+
+            for (XWPFRun run : entry.getValue()) {
+                CTRPr rPr = run.getCTR().getRPr();
+                removeChildren(rPr, true);
+                rPr.addNewRStyle().setVal(styleId);
+            }
+        }
+    }
+
+    /**
+     * a run directly under the paragraph holding nothing but formatting and
+     * text
+     */
+    private static boolean isTextRun(XWPFParagraph paragraph, XWPFRun run) {
+        if (run.getClass() != XWPFRun.class) return false;
+        XmlCursor cursor = run.getCTR().newCursor();
+        try {
+            cursor.push();
+            if (!cursor.toParent() || cursor.getObject() != paragraph.getCTP()) return false;
+            cursor.pop();
+            int texts = 0;
+            for (boolean has = cursor.toFirstChild(); has; has = cursor.toNextSibling()) {
+                String name = cursor.getName().getLocalPart();
+                if ("t".equals(name)) {
+                    if (++texts > 1) return false;
+                } else if (!"rPr".equals(name)) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    private static boolean isNextSibling(XWPFRun run, XWPFRun next) {
+        XmlCursor cursor = run.getCTR().newCursor();
+        try {
+            return cursor.toNextSibling() && cursor.getObject() == next.getCTR();
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    private static String formatting(XWPFRun run) {
+        CTRPr rPr = run.getCTR().getRPr();
+        return null == rPr || !hasChild(rPr, null) ? "" : rPr.xmlText();
+    }
+
+    private static boolean isEmpty(XWPFParagraph paragraph) {
+        XmlCursor cursor = paragraph.getCTP().newCursor();
+        try {
+            for (boolean has = cursor.toFirstChild(); has; has = cursor.toNextSibling()) {
+                if (!"pPr".equals(cursor.getName().getLocalPart())) return false;
+                if (hasChild(cursor.getObject(), "sectPr")) return false;
+            }
+            return true;
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    /**
+     * @param name null means any child
+     */
+    private static boolean hasChild(XmlObject object, String name) {
+        XmlCursor cursor = object.newCursor();
+        try {
+            for (boolean has = cursor.toFirstChild(); has; has = cursor.toNextSibling()) {
+                if (null == name || name.equals(cursor.getName().getLocalPart())) return true;
+            }
+            return false;
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    /**
+     * @param shared true to remove properties shared by style, false to remove
+     *               the direct ones
+     */
+    private static void removeChildren(CTRPr rPr, boolean shared) {
+        XmlCursor cursor = rPr.newCursor();
+        try {
+            boolean has = cursor.toFirstChild();
+            while (has) {
+                boolean toggle = TOGGLE_PROPERTIES.contains(cursor.getName().getLocalPart());
+                if (toggle != shared) {
+                    cursor.removeXml();
+                    has = cursor.isStart() || cursor.toNextSibling();
+                } else {
+                    has = cursor.toNextSibling();
+                }
+            }
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    private static void removeBookkeeping(XmlObject root) {
+        XmlCursor cursor = root.newCursor();
+        try {
+            TokenType token = cursor.toNextToken();
+            while (!token.isNone() && !token.isEnddoc()) {
+                if (token.isStart()) {
+                    QName name = cursor.getName();
+                    if (W_NS.equals(name.getNamespaceURI()) && "proofErr".equals(name.getLocalPart())) {
+                        cursor.removeXml();
+                        token = cursor.currentTokenType();
+                        continue;
+                    }
+                    removeRsids(cursor);
+                }
+                token = cursor.toNextToken();
+            }
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    private static void removeRsids(XmlCursor cursor) {
+        cursor.push();
+        List<QName> rsids = null;
+        for (boolean has = cursor.toFirstAttribute(); has; has = cursor.toNextAttribute()) {
+            QName name = cursor.getName();
+            if (W_NS.equals(name.getNamespaceURI()) && name.getLocalPart().startsWith("rsid")) {
+                if (null == rsids) rsids = new ArrayList<>(4);
+                rsids.add(name);
+            }
+        }
+        cursor.pop();
+        if (null != rsids) rsids.forEach(cursor::removeAttribute);
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.xwpf;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.poi.xwpf.usermodel.XWPFAbstractNum;
+import org.apache.poi.xwpf.usermodel.XWPFNumbering;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+
+/**
+ * Content hash index of the styles, abstract numberings and embedded objects
+ * of one document, so identical definitions and parts merged from other
+ * documents are reused instead of added again. The style and numbering indexes
+ * are seeded by a single scan of the existing document the first time they are
+ * used after {@link #reset()}, changes made to the document afterwards without
+ * the index are not seen. The merge resets it before each merge. Embedded
+ * objects are kept across resets, an object whose relationship is removed from
+ * the document is dropped when it is looked up.
+ * 
+ * @author Sayi
+ */
+public class DocumentContentIndex {
+
+    private final NiceXWPFDocument doc;
+
+    private Map<String, String> styleIndex;
+    private Map<String, BigInteger> abstractNumIndex;
+    private final Map<String, String> embeddIndex = new HashMap<>();
+
+    public DocumentContentIndex(NiceXWPFDocument doc) {
+        this.doc = doc;
+    }
+
+    /**
+     * drop the style and numbering indexes, the next lookup scans the document
+     * again
+     */
+    public void reset() {
+        styleIndex = null;
+        abstractNumIndex = null;
+    }
+
+    /**
+     * @return id of an existing style with the same content, null if not found
+     */
+    public String findStyle(CTStyle style) {
+        if (null == styleIndex) {
+            styleIndex = new HashMap<>();
+            XWPFStyles styles = doc.getStyles();
+            if (null != styles) {
+                List<XWPFStyle> lists = PoiFields.STYLES_LIST.get(styles);
+                for (XWPFStyle xwpfStyle : lists) {
+                    styleIndex.putIfAbsent(hash(xwpfStyle.getCTStyle()), xwpfStyle.getStyleId());
+                }
+            }
+        }
+        return styleIndex.get(hash(style));
+    }
+
+    public void indexStyle(CTStyle style) {
+        if (null == styleIndex) findStyle(style);
+        styleIndex.putIfAbsent(hash(style), style.getStyleId());
+    }
+
+    /**
+     * @return id of an existing abstract numbering with the same levels, null if
+     *         not found
+     */
+    public BigInteger findAbstractNum(CTAbstractNum abstractNum) {
+        if (null == abstractNumIndex) {
+            abstractNumIndex = new HashMap<>();
+            XWPFNumbering numbering = doc.getNumbering();
+            if (null != numbering) {
+                for (XWPFAbstractNum xwpfAbstractNum : numbering.getAbstractNums()) {
+                    CTAbstractNum ctAbstractNum = xwpfAbstractNum.getCTAbstractNum();
+                    abstractNumIndex.putIfAbsent(hash(ctAbstractNum), ctAbstractNum.getAbstractNumId());
+                }
+            }
+        }
+        return abstractNumIndex.get(hash(abstractNum));
+    }
+
+    public void indexAbstractNum(CTAbstractNum abstractNum) {
+        if (null == abstractNumIndex) findAbstractNum(abstractNum);
+        abstractNumIndex.putIfAbsent(hash(abstractNum), abstractNum.getAbstractNumId());
+    }
+
+    /**
+     * @return relation id of an embedded object added with the same bytes, null
+     *         if not found
+     */
+    public String findEmbedd(byte[] embeddData, int format) {
+        String hash = hash(embeddData, format);
+        String relationId = embeddIndex.get(hash);
+        if (null != relationId && null == doc.getPackagePart().getRelationship(relationId)) {
+            embeddIndex.remove(hash);
+            return null;
+        }
+        return relationId;
+    }
+
+    public void indexEmbedd(byte[] embeddData, int format, String relationId) {
+        embeddIndex.putIfAbsent(hash(embeddData, format), relationId);
+    }
+
+    private static String hash(CTStyle style) {
+        // the id and the default flag are not content
+        CTStyle copy = (CTStyle) style.copy();
+        copy.setStyleId("");
+        if (copy.isSetDefault()) copy.unsetDefault();
+        return DigestUtils.sha256Hex(copy.xmlText(DefaultXmlOptions.OPTIONS_INNER));
+    }
+
+    private static String hash(CTAbstractNum abstractNum) {
+        // the id and the random identifiers of word are not content
+        CTAbstractNum copy = (CTAbstractNum) abstractNum.copy();
+        copy.setAbstractNumId(BigInteger.ZERO);
+        if (copy.isSetNsid()) copy.unsetNsid();
+        if (copy.isSetTmpl()) copy.unsetTmpl();
+        return DigestUtils.sha256Hex(copy.xmlText(DefaultXmlOptions.OPTIONS_INNER));
+    }
+
+    private static String hash(byte[] data, int format) {
+        return format + ":" + DigestUtils.sha256Hex(data);
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.xwpf;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import org.apache.poi.xwpf.usermodel.XWPFAbstractFootnoteEndnote;
+import org.apache.poi.xwpf.usermodel.XWPFAbstractNum;
+import org.apache.poi.xwpf.usermodel.XWPFComment;
+import org.apache.poi.xwpf.usermodel.XWPFComments;
+import org.apache.poi.xwpf.usermodel.XWPFNum;
+import org.apache.poi.xwpf.usermodel.XWPFNumbering;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlCursor.TokenType;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTLvl;
+
+import com.deepoove.poi.data.NumberingFormat;
+
+/**
+ * Allocates the identifiers of comments, bookmarks, numberings and
+ * footnotes/endnotes of one document in O(1). Each counter is seeded by a
+ * single scan of the existing document the first time it is used, so
+ * identifiers must be allocated here instead of scanning the document again.
+ * Call {@link #reset()} after identifiers are added outside the allocator.
+ * Allocations are thread safe, so parts rendered concurrently share it.
+ * 
+ * @author Sayi
+ */
+public class DocumentIdAllocator {
+
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final QName BOOKMARK_ID = new QName(W_NS, "id");
+
+    private final NiceXWPFDocument doc;
+
+    private BigInteger commentId;
+    private BigInteger bookmarkId;
+    private BigInteger abstractNumId;
+    private BigInteger noteId;
+    private Map<String, BigInteger> numIndex;
+
+    public DocumentIdAllocator(NiceXWPFDocument doc) {
+        this.doc = doc;
+    }
+
+    /**
+     * drop the counters, the next allocation scans the document again
+     */
+    public synchronized void reset() {
+        commentId = null;
+        bookmarkId = null;
+        abstractNumId = null;
+        noteId = null;
+        numIndex = null;
+    }
+
+    public synchronized BigInteger nextCommentId() {
+        if (null == commentId) {
+            commentId = BigInteger.ZERO;
+            XWPFComments comments = doc.getDocComments();
+            if (null != comments) {
+                for (XWPFComment comment : comments.getComments()) {
+                    commentId = max(commentId, comment.getCtComment().getId());
+                }
+            }
+        }
+        commentId = commentId.add(BigInteger.ONE);
+        return commentId;
+    }
+
+    public synchronized BigInteger nextBookmarkId() {
+        if (null == bookmarkId) {
+            List<XmlObject> parts = new ArrayList<>();
+            parts.add(doc.getDocument());
+            doc.getHeaderList().forEach(header -> parts.add(header._getHdrFtr()));
+            doc.getFooterList().forEach(footer -> parts.add(footer._getHdrFtr()));
+            doc.getFootnotes().forEach(note -> parts.add(note.getCTFtnEdn()));
+            doc.getEndnotes().forEach(note -> parts.add(note.getCTFtnEdn()));
+            XWPFComments comments = doc.getDocComments();
+            if (null != comments) comments.getComments().forEach(comment -> parts.add(comment.getCtComment()));
+            bookmarkId = BigInteger.ZERO;
+            for (XmlObject part : parts) {
+                bookmarkId = max(bookmarkId, maxBookmarkId(part));
+            }
+        }
+        bookmarkId = bookmarkId.add(BigInteger.ONE);
+        return bookmarkId;
+    }
+
+    public synchronized BigInteger nextAbstractNumId() {
+        if (null == abstractNumId) {
+            abstractNumId = BigInteger.ZERO;
+            XWPFNumbering numbering = doc.getNumbering();
+            if (null != numbering) {
+                for (XWPFAbstractNum abstractNum : numbering.getAbstractNums()) {
+                    abstractNumId = max(abstractNumId, abstractNum.getCTAbstractNum().getAbstractNumId());
+                }
+            }
+        }
+        abstractNumId = abstractNumId.add(BigInteger.ONE);
+        return abstractNumId;
+    }
+
+    /**
+     * footnotes and endnotes share the identifiers
+     */
+    public synchronized BigInteger nextNoteId() {
+        if (null == noteId) {
+            noteId = BigInteger.ZERO;
+            for (XWPFAbstractFootnoteEndnote note : doc.getFootnotes()) {
+                noteId = max(noteId, note.getId());
+            }
+            for (XWPFAbstractFootnoteEndnote note : doc.getEndnotes()) {
+                noteId = max(noteId, note.getId());
+            }
+        }
+        noteId = noteId.add(BigInteger.ONE);
+        return noteId;
+    }
+
+    /**
+     * @param numFmts numbering formats of each level
+     * @return id of an existing num with the same formats, null if not found
+     */
+    public synchronized BigInteger findNum(NumberingFormat... numFmts) {
+        if (null == numIndex) {
+            numIndex = new HashMap<>();
+            XWPFNumbering numbering = doc.getNumbering();
+            if (null != numbering) {
+                Map<BigInteger, CTAbstractNum> abstractNums = new HashMap<>();
+                for (XWPFAbstractNum abstractNum : numbering.getAbstractNums()) {
+                    CTAbstractNum ctAbstractNum = abstractNum.getCTAbstractNum();
+                    abstractNums.put(ctAbstractNum.getAbstractNumId(), ctAbstractNum);
+                }
+                for (XWPFNum num : numbering.getNums()) {
+                    if (null == num.getCTNum().getAbstractNumId()) continue;
+                    CTAbstractNum ctAbstractNum = abstractNums.get(num.getCTNum().getAbstractNumId().getVal());
+                    String signature = null == ctAbstractNum ? null : signature(ctAbstractNum);
+                    if (null != signature) numIndex.putIfAbsent(signature, num.getCTNum().getNumId());
+                }
+            }
+        }
+        return numIndex.get(signature(numFmts));
+    }
+
+    /**
+     * index a new num so {@link #findNum(NumberingFormat...)} reuses it
+     */
+    public synchronized void indexNum(BigInteger numId, NumberingFormat... numFmts) {
+        if (null == numIndex) findNum(numFmts);
+        numIndex.putIfAbsent(signature(numFmts), numId);
+    }
+
+    private static String signature(NumberingFormat[] numFmts) {
+        StringBuilder sb = new StringBuilder();
+        for (NumberingFormat numFmt : numFmts) {
+            sb.append(numFmt.getNumFmt()).append('\u0000').append(numFmt.getLvlText()).append('\u0001');
+        }
+        return sb.toString();
+    }
+
+    private static String signature(CTAbstractNum ctAbstractNum) {
+        StringBuilder sb = new StringBuilder();
+        for (CTLvl lvl : ctAbstractNum.getLvlList()) {
+            // levels without format never match
+            if (null == lvl.getNumFmt() || null == lvl.getNumFmt().getVal() || null == lvl.getLvlText()) {
+                return null;
+            }
+            sb.append(lvl.getNumFmt().getVal().intValue())
+                    .append('\u0000')
+                    .append(lvl.getLvlText().getVal())
+                    .append('\u0001');
+        }
+        return sb.toString();
+    }
+
+    private static BigInteger maxBookmarkId(XmlObject part) {
+        BigInteger max = BigInteger.ZERO;
+        XmlCursor cursor = part.newCursor();
+        try {
+            for (TokenType token = cursor.toNextToken(); !token.isNone()
+                    && !token.isEnddoc(); token = cursor.toNextToken()) {
+                if (!token.isStart() || !"bookmarkStart".equals(cursor.getName().getLocalPart())
+                        || !W_NS.equals(cursor.getName().getNamespaceURI())) {
+                    continue;
+                }
+                String id = cursor.getAttributeText(BOOKMARK_ID);
+                try {
+                    if (null != id) max = max(max, new BigInteger(id.trim()));
+                } catch (NumberFormatException e) {
+                    // ignore
+                }
+            }
+        } finally {
+            cursor.dispose();
+        }
+        return max;
+    }
+
+    private static BigInteger max(BigInteger max, BigInteger id) {
+        return null != id && id.compareTo(max) > 0 ? id : max;
+    }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.xwpf;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.ooxml.POIXMLDocumentPart.RelationPart;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.xwpf.usermodel.XWPFChart;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlCursor.TokenType;
+import org.apache.xmlbeans.XmlObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Where the <code>wp:docPr</code> and <code>c:chart</code> elements live
+ * inside an element, found by one cursor pass without XPath or re-parse.
+ * Copies of the indexed element share its structure, so their drawing
+ * identifiers are renumbered by walking the recorded child positions.
+ * 
+ * @author Sayi
+ */
+public class DrawingIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(DrawingIndex.class);
+
+    private static final String WP_NS = "http://schemas.openxmlformats.org/drawingml/2006/wordprocessingDrawing";
+    private static final String C_NS = "http://schemas.openxmlformats.org/drawingml/2006/chart";
+    private static final String MC_NS = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+    private static final String R_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final QName ID = new QName("", "id");
+    private static final QName R_ID = new QName(R_NS, "id");
+
+    public static final DrawingIndex EMPTY = new DrawingIndex(new int[0][], new int[0][]);
+
+    private final int[][] docPrs;
+    private final int[][] charts;
+
+    private DrawingIndex(int[][] docPrs, int[][] charts) {
+        this.docPrs = docPrs;
+        this.charts = charts;
+    }
+
+    /**
+     * index the element in one cursor pass
+     * 
+     * @param element paragraph, table or run
+     * @return index
+     */
+    public static DrawingIndex of(XmlObject element) {
+        List<int[]> docPrs = new ArrayList<>();
+        List<int[]> charts = new ArrayList<>();
+        walk(element, (cursor, path, depth, alternate) -> {
+            if (isDocPr(cursor)) docPrs.add(Arrays.copyOf(path, depth));
+            else charts.add(Arrays.copyOf(path, depth));
+        });
+        if (docPrs.isEmpty() && charts.isEmpty()) return EMPTY;
+        return new DrawingIndex(docPrs.toArray(new int[0][]), charts.toArray(new int[0][]));
+    }
+
+    public boolean isEmpty() {
+        return docPrs.length == 0 && charts.length == 0;
+    }
+
+    /**
+     * give the drawings of the copy new identifiers and own chart parts
+     * 
+     * @param copy     copy of the indexed element
+     * @param document document of the copy
+     */
+    public void renumber(XmlObject copy, NiceXWPFDocument document) {
+        if (isEmpty() || !document.getDocPrIdenifierManager().isValid()) return;
+        List<XmlCursor> cursors = new ArrayList<>(docPrs.length + charts.length);
+        try {
+            for (int[] path : docPrs) {
+                XmlCursor cursor = moveTo(copy, path);
+                if (null != cursor) cursors.add(cursor);
+                if (null == cursor || !isDocPr(cursor)) {
+                    // structure changed since indexed
+                    renumberAll(copy, document);
+                    return;
+                }
+            }
+            for (XmlCursor cursor : cursors) {
+                cursor.setAttributeText(ID, String.valueOf(document.getDocPrIdenifierManager().reserveNew()));
+            }
+            for (int[] path : charts) {
+                XmlCursor cursor = moveTo(copy, path);
+                if (null == cursor) continue;
+                cursors.add(cursor);
+                if (isChart(cursor.getName())) relinkChart(cursor, document);
+            }
+        } finally {
+            cursors.forEach(XmlCursor::dispose);
+        }
+    }
+
+    /**
+     * give all drawings of the element new identifiers and own chart parts
+     * 
+     * @param element  paragraph, table or run
+     * @param document document of the element
+     */
+    public static void renumberAll(XmlObject element, NiceXWPFDocument document) {
+        if (!document.getDocPrIdenifierManager().isValid()) return;
+        walk(element, (cursor, path, depth, alternate) -> {
+            if (isDocPr(cursor)) {
+                cursor.setAttributeText(ID, String.valueOf(document.getDocPrIdenifierManager().reserveNew()));
+            } else {
+                relinkChart(cursor, document);
+            }
+        });
+    }
+
+    /**
+     * reserve the identifiers of drawings inside mc:AlternateContent, which are
+     * not seen by poi
+     * 
+     * @param element  document part
+     * @param ids      identifier manager
+     * @param adjust   replace identifiers in use
+     */
+    static void reserveAlternateContent(XmlObject element, IdenifierManagerWrapper ids, boolean adjust) {
+        walk(element, (cursor, path, depth, alternate) -> {
+            if (!alternate || !isDocPr(cursor)) return;
+            String text = cursor.getAttributeText(ID);
+            if (null == text) return;
+            long id;
+            try {
+                id = Long.parseLong(text.trim());
+            } catch (NumberFormatException e) {
+                return;
+            }
+            long reserve = ids.reserve(id);
+            if (adjust && id != reserve) cursor.setAttributeText(ID, String.valueOf(reserve));
+        });
+    }
+
+    private static void relinkChart(XmlCursor cursor, NiceXWPFDocument document) {
+        String rid = cursor.getAttributeText(R_ID);
+        if (null == rid) return;
+        POIXMLDocumentPart documentPart = document.getRelationById(rid);
+        if (!(documentPart instanceof XWPFChart)) return;
+        try {
+            RelationPart relationPart = document.addChartData((XWPFChart) documentPart);
+            cursor.setAttributeText(R_ID, relationPart.getRelationship().getId());
+        } catch (InvalidFormatException | IOException e) {
+            logger.error("Cannot copy chart {}", rid, e);
+        }
+    }
+
+    private static XmlCursor moveTo(XmlObject root, int[] path) {
+        XmlCursor cursor = root.newCursor();
+        for (int index : path) {
+            if (!cursor.toChild(index)) {
+                cursor.dispose();
+                return null;
+            }
+        }
+        return cursor;
+    }
+
+    private static boolean isDocPr(XmlCursor cursor) {
+        QName name = cursor.getName();
+        return "docPr".equals(name.getLocalPart()) && WP_NS.equals(name.getNamespaceURI());
+    }
+
+    private static boolean isChart(QName name) {
+        return "chart".equals(name.getLocalPart()) && C_NS.equals(name.getNamespaceURI());
+    }
+
+    private static boolean isChoice(QName name) {
+        return "Choice".equals(name.getLocalPart()) && MC_NS.equals(name.getNamespaceURI());
+    }
+
+    /**
+     * visit the docPr and chart elements below the element in document order
+     */
+    private static void walk(XmlObject element, Visitor visitor) {
+        int[] path = new int[16];
+        int[] children = new int[17];
+        int choiceDepth = -1;
+        int depth = 0;
+        XmlCursor cursor = element.newCursor();
+        try {
+            for (TokenType token = cursor.toNextToken(); !token.isNone(); token = cursor.toNextToken()) {
+                if (token.isStart()) {
+                    if (depth == path.length) {
+                        path = Arrays.copyOf(path, depth * 2);
+                        children = Arrays.copyOf(children, depth * 2 + 1);
+                    }
+                    path[depth] = children[depth]++;
+                    children[++depth] = 0;
+                    QName name = cursor.getName();
+                    if (choiceDepth < 0 && isChoice(name)) {
+                        choiceDepth = depth;
+                    } else if (isChart(name) || ("docPr".equals(name.getLocalPart())
+                            && WP_NS.equals(name.getNamespaceURI()))) {
+                        visitor.visit(cursor, path, depth, choiceDepth >= 0);
+                    }
+                } else if (token.isEnd()) {
+                    if (depth == choiceDepth) choiceDepth = -1;
+                    if (--depth < 0) break;
+                } else if (token.isEnddoc()) {
+                    break;
+                }
+            }
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    interface Visitor {
+        void visit(XmlCursor cursor, int[] path, int depth, boolean alternate);
+    }
+
+}
@@ -35,7 +35,6 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTHdrFtr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
 
-import com.deepoove.poi.util.ReflectionUtils;
 
 public class HeaderFooterBodyContainer implements BodyContainer {
 
@@ -59,10 +58,9 @@ public class HeaderFooterBodyContainer implements BodyContainer {
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void setParagraph(XWPFParagraph p, int paraPos) {
-        List<XWPFParagraph> paragraphs = (List<XWPFParagraph>) ReflectionUtils.getValue("paragraphs", headerFooter);
+        List<XWPFParagraph> paragraphs = PoiFields.HEADER_FOOTER_PARAGRAPHS.get(headerFooter);
         paragraphs.set(paraPos, p);
         CTHdrFtr ctTc = headerFooter._getHdrFtr();
         ctTc.setPArray(paraPos, p.getCTP());
@@ -74,11 +72,10 @@ public class HeaderFooterBodyContainer implements BodyContainer {
         return headerFooter;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void setTable(int pos, XWPFTable table) {
         // cell.getTables().set(pos, table);
-        List<XWPFTable> tables = (List<XWPFTable>) ReflectionUtils.getValue("tables", headerFooter);
+        List<XWPFTable> tables = PoiFields.HEADER_FOOTER_TABLES.get(headerFooter);
         tables.set(pos, table);
         headerFooter._getHdrFtr().setTblArray(pos, table.getCTTbl());
 
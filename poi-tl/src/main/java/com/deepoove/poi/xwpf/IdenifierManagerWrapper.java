@@ -5,7 +5,7 @@ import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.deepoove.poi.util.ReflectionUtils;
+import com.deepoove.poi.util.FieldAccessor;
 
 public class IdenifierManagerWrapper {
 
@@ -18,7 +18,7 @@ public class IdenifierManagerWrapper {
 
     public IdenifierManagerWrapper(XWPFDocument document) {
         try {
-            drawingIdManager = (IdentifierManager) ReflectionUtils.getValue("drawingIdManager", document);
+            drawingIdManager = FieldAccessor.of(XWPFDocument.class, "drawingIdManager").get(document);
             // 0 will corrupt the document
             reserve(0);
         } catch (Exception e) {
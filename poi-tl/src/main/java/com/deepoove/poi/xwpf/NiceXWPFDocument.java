@@ -19,6 +19,10 @@ import java.io.*;
 import java.lang.reflect.Constructor;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.poi.ooxml.POIXMLDocument;
 import org.apache.poi.ooxml.POIXMLDocumentPart;
@@ -30,8 +34,6 @@ import org.apache.poi.xwpf.usermodel.*;
 import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlException;
 import org.apache.xmlbeans.XmlObject;
-import org.openxmlformats.schemas.drawingml.x2006.wordprocessingDrawing.CTAnchor;
-import org.openxmlformats.schemas.drawingml.x2006.wordprocessingDrawing.CTInline;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.*;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STNumberFormat.Enum;
 import org.slf4j.Logger;
@@ -58,6 +60,9 @@ public class NiceXWPFDocument extends XWPFDocument {
     protected List<POIXMLDocumentPart> embedds = new ArrayList<POIXMLDocumentPart>();
     protected IdenifierManagerWrapper idenifierManagerWrapper;
     protected boolean adjustDoc = false;
+    protected DocumentIdAllocator idAllocator;
+    protected DocumentContentIndex contentIndex;
+    protected final ReentrantLock documentLock = new ReentrantLock();
 
     protected Map<XWPFChart, PackagePart> chartMappingPart = new HashMap<>();
     protected static XWPFRelation DOCUMENT;
@@ -138,27 +143,34 @@ public class NiceXWPFDocument extends XWPFDocument {
         read(this);
         this.getHeaderList().forEach(header -> read(header));
         this.getFooterList().forEach(header -> read(header));
+        // compatible for unique identifier: issue#361 #225
+        // mc:AlternateContent/mc:Choice/w:drawing
+        if (this.idenifierManagerWrapper.isValid()) {
+            DrawingIndex.reserveAlternateContent(getDocument(), idenifierManagerWrapper, adjustDoc);
+            this.getHeaderList()
+                    .forEach(header -> DrawingIndex.reserveAlternateContent(header._getHdrFtr(),
+                            idenifierManagerWrapper, adjustDoc));
+            this.getFooterList()
+                    .forEach(footer -> DrawingIndex.reserveAlternateContent(footer._getHdrFtr(),
+                            idenifierManagerWrapper, adjustDoc));
+        }
         // structured document tag
         if (!contentControls.isEmpty()) {
-            XmlCursor docCursor = getDocument().newCursor();
-            docCursor.selectPath("./*");
-            while (docCursor.toNextSelection()) {
-                XmlObject o = docCursor.getObject();
-                if (o instanceof CTBody) {
-                    XmlCursor bodyCursor = o.newCursor();
-                    bodyCursor.selectPath("./*");
-                    while (bodyCursor.toNextSelection()) {
+            XmlCursor bodyCursor = getDocument().getBody().newCursor();
+            try {
+                if (bodyCursor.toFirstChild()) {
+                    do {
                         XmlObject bodyObj = bodyCursor.getObject();
                         if (bodyObj instanceof CTSdtBlock) {
                             XWPFStructuredDocumentTag c = new XWPFStructuredDocumentTag((CTSdtBlock) bodyObj, this);
                             bodyElements.add(c);
                             structuredDocumentTags.add(c);
                         }
-                    }
-                    bodyCursor.dispose();
+                    } while (bodyCursor.toNextSibling());
                 }
+            } finally {
+                bodyCursor.dispose();
             }
-            docCursor.dispose();
         }
     }
 
@@ -174,24 +186,67 @@ public class NiceXWPFDocument extends XWPFDocument {
         return idenifierManagerWrapper;
     }
 
+    /**
+     * identifiers of comments, bookmarks, numberings and notes allocated in this
+     * document
+     */
+    public DocumentIdAllocator getIdAllocator() {
+        if (null == idAllocator) idAllocator = new DocumentIdAllocator(this);
+        return idAllocator;
+    }
+
+    /**
+     * content hashes of styles, numberings and embedded objects in this document
+     */
+    public DocumentContentIndex getContentIndex() {
+        if (null == contentIndex) contentIndex = new DocumentContentIndex(this);
+        return contentIndex;
+    }
+
+    /**
+     * lock of the document level parts and identifiers when parts are rendered
+     * concurrently
+     */
+    public ReentrantLock getDocumentLock() {
+        return documentLock;
+    }
+
+    /**
+     * lock of the document level parts and identifiers, a new lock if the
+     * document is not a NiceXWPFDocument
+     */
+    public static Lock documentLock(XWPFDocument document) {
+        return document instanceof NiceXWPFDocument ? ((NiceXWPFDocument) document).getDocumentLock()
+                : new ReentrantLock();
+    }
+
     public BigInteger addNewNumberingId(NumberingFormat numFmt) {
         return addNewMultiLevelNumberingId(numFmt);
     }
 
     public BigInteger addNewMultiLevelNumberingId(NumberingFormat... numFmts) {
+        documentLock.lock();
+        try {
+            return addNewMultiLevelNumbering(numFmts);
+        } finally {
+            documentLock.unlock();
+        }
+    }
+
+    private BigInteger addNewMultiLevelNumbering(NumberingFormat... numFmts) {
         XWPFNumbering numbering = this.getNumbering();
         if (null == numbering) {
             numbering = this.createNumbering();
         }
 
-        XWPFNum xwpfNum = useExistNum(numbering, numFmts);
-        if (null != xwpfNum) return xwpfNum.getCTNum().getNumId();
+        DocumentIdAllocator idAllocator = getIdAllocator();
+        BigInteger existNumId = idAllocator.findNum(numFmts);
+        if (null != existNumId) return existNumId;
 
-        XWPFNumberingWrapper numberingWrapper = new XWPFNumberingWrapper(numbering);
         CTAbstractNum cTAbstractNum = CTAbstractNum.Factory.newInstance();
         // if we have an existing document, we must determine the next
         // free number first.
-        cTAbstractNum.setAbstractNumId(numberingWrapper.getNextAbstractNumID());
+        cTAbstractNum.setAbstractNumId(idAllocator.nextAbstractNumId());
         // CTMultiLevelType addNewMultiLevelType = cTAbstractNum.addNewMultiLevelType();
         // addNewMultiLevelType.setVal(STMultiLevelType.HYBRID_MULTILEVEL);
         for (int i = 0; i < numFmts.length; i++) {
@@ -219,34 +274,45 @@ public class NiceXWPFDocument extends XWPFDocument {
 
         XWPFAbstractNum abstractNum = new XWPFAbstractNum(cTAbstractNum);
         BigInteger abstractNumID = numbering.addAbstractNum(abstractNum);
-        return numbering.addNum(abstractNumID);
-    }
-
-    private static XWPFNum useExistNum(XWPFNumbering numbering, NumberingFormat[] numFmts) {
-        List<XWPFNum> nums = numbering.getNums();
-        for (XWPFNum num : nums) {
-            BigInteger abstractNumID = numbering.getAbstractNumID(num.getCTNum().getNumId());
-            XWPFAbstractNum abstractNum = numbering.getAbstractNum(abstractNumID);
-            CTAbstractNum ctAbstractNum = abstractNum.getCTAbstractNum();
-            List<CTLvl> lvlList = ctAbstractNum.getLvlList();
-            int size = lvlList.size();
-            int length = numFmts.length;
-            if (size == length) {
-                for (int i = 0; i < size; i++) {
-                    CTLvl ctLvl = lvlList.get(i);
-                    NumberingFormat numFmt = numFmts[i];
-                    if (ctLvl.getNumFmt().getVal() != Enum.forInt(numFmt.getNumFmt())
-                        || !ctLvl.getLvlText().getVal().equals(numFmt.getLvlText())) {
-                        break;
-                    }
-                    if (i == size -1) {
-                        return num;
-                    }
+        BigInteger numId = numbering.addNum(abstractNumID);
+        idAllocator.indexNum(numId, numFmts);
+        return numId;
+    }
 
-                }
+    /**
+     * add a num of the same abstract numbering as the given num, the list of
+     * the new num restarts at every level instead of continuing
+     * 
+     * @param numId
+     * @return id of the new num, the given id if it is not found
+     */
+    public BigInteger addRestartNumberingId(BigInteger numId) {
+        XWPFNumbering numbering = this.getNumbering();
+        XWPFNum num = null == numbering ? null : numbering.getNum(numId);
+        if (null == num || null == num.getCTNum().getAbstractNumId()) return numId;
+        BigInteger abstractNumId = num.getCTNum().getAbstractNumId().getVal();
+        BigInteger restartNumId = numbering.addNum(abstractNumId);
+        CTNum ctNum = numbering.getNum(restartNumId).getCTNum();
+
+        Map<BigInteger, CTNumLvl> overrides = new HashMap<>();
+        for (CTNumLvl lvlOverride : num.getCTNum().getLvlOverrideList()) {
+            CTNumLvl override = ctNum.addNewLvlOverride();
+            override.set(lvlOverride);
+            overrides.put(override.getIlvl(), override);
+        }
+        XWPFAbstractNum abstractNum = numbering.getAbstractNum(abstractNumId);
+        if (null == abstractNum) return restartNumId;
+        for (CTLvl lvl : abstractNum.getCTAbstractNum().getLvlList()) {
+            CTNumLvl override = overrides.get(lvl.getIlvl());
+            if (null == override) {
+                override = ctNum.addNewLvlOverride();
+                override.setIlvl(lvl.getIlvl());
+            }
+            if (!override.isSetStartOverride()) {
+                override.addNewStartOverride().setVal(lvl.isSetStart() ? lvl.getStart().getVal() : BigInteger.ZERO);
             }
         }
-        return null;
+        return restartNumId;
     }
 
     public RelationPart addChartData(XWPFChart chart) throws InvalidFormatException, IOException {
@@ -341,6 +407,22 @@ public class NiceXWPFDocument extends XWPFDocument {
     }
 
     public NiceXWPFDocument merge(Iterator<NiceXWPFDocument> iterator, XWPFRun run) throws Exception {
+        return new XmlXWPFDocumentMerge().merge(this, iterator, mergeLocation(run));
+    }
+
+    /**
+     * merge the documents created by the loaders in order, the loaders are
+     * called concurrently on the executor
+     */
+    public NiceXWPFDocument merge(List<? extends Callable<NiceXWPFDocument>> loaders, XWPFRun run,
+            Executor executor) throws Exception {
+        if (null == run) return this;
+        // no loaders still replaces the placeholder paragraph like the sequential merge
+        return new XmlXWPFDocumentMerge(true, executor).merge(this,
+                null == loaders ? Collections.<Callable<NiceXWPFDocument>> emptyList() : loaders, mergeLocation(run));
+    }
+
+    private XWPFRun mergeLocation(XWPFRun run) {
         XWPFRun newRun = run;
         String paragraphText = ParagraphUtils.trimLine((XWPFParagraph) run.getParent());
         boolean havePictures = ParagraphUtils.havePictures((XWPFParagraph) run.getParent());
@@ -349,7 +431,35 @@ public class NiceXWPFDocument extends XWPFDocument {
             XWPFParagraph paragraph = container.insertNewParagraph(run);
             newRun = paragraph.createRun();
         }
-        return new XmlXWPFDocumentMerge().merge(this, iterator, newRun);
+        return newRun;
+    }
+
+    /**
+     * append a copy of paragraph or table xml at the end of body, unlike
+     * {@link #insertNewParagraph(XmlCursor)} no position lookup is needed
+     *
+     * @param xml {@link CTP} or {@link CTTbl}
+     * @return the appended body element
+     */
+    public IBodyElement appendBodyElement(XmlObject xml) {
+        CTBody body = getDocument().getBody();
+        if (xml instanceof CTP) {
+            CTP ctp = body.addNewP();
+            ctp.set(xml);
+            XWPFParagraph paragraph = new XWPFParagraph(ctp, this);
+            bodyElements.add(paragraph);
+            paragraphs.add(paragraph);
+            return paragraph;
+        }
+        if (xml instanceof CTTbl) {
+            CTTbl tbl = body.addNewTbl();
+            tbl.set(xml);
+            XWPFTable table = new XWPFTable(tbl, this);
+            bodyElements.add(table);
+            tables.add(table);
+            return table;
+        }
+        throw new IllegalArgumentException("Only paragraph or table can be appended: " + xml.schemaType());
     }
 
     @Override
@@ -483,39 +593,6 @@ public class NiceXWPFDocument extends XWPFDocument {
 
     private void readRun(XWPFRun run) {
         allPictures.addAll(run.getEmbeddedPictures());
-        // compatible for unique identifier: issue#361 #225
-        // mc:AlternateContent/mc:Choice/w:drawing
-        if (!this.idenifierManagerWrapper.isValid()) return;
-        CTR r = run.getCTR();
-        XmlObject[] xmlObjects = r.selectPath(IdenifierManagerWrapper.XPATH_DRAWING);
-        if (null == xmlObjects || xmlObjects.length <= 0) return;
-        for (XmlObject xmlObject : xmlObjects) {
-            try {
-                CTDrawing ctDrawing = CTDrawing.Factory.parse(xmlObject.xmlText());
-                for (CTAnchor anchor : ctDrawing.getAnchorList()) {
-                    if (anchor.getDocPr() != null) {
-                        long id = anchor.getDocPr().getId();
-                        long reserve = this.idenifierManagerWrapper.reserve(id);
-                        if (adjustDoc && id != reserve) {
-                            anchor.getDocPr().setId(reserve);
-                            xmlObject.set(ctDrawing);
-                        }
-                    }
-                }
-                for (CTInline inline : ctDrawing.getInlineList()) {
-                    if (inline.getDocPr() != null) {
-                        long id = inline.getDocPr().getId();
-                        long reserve = this.idenifierManagerWrapper.reserve(id);
-                        if (adjustDoc && id != reserve) {
-                            inline.getDocPr().setId(reserve);
-                            xmlObject.set(ctDrawing);
-                        }
-                    }
-                }
-            } catch (XmlException e) {
-                // no-op
-            }
-        }
     }
 
     private void readTables(List<XWPFTable> tables) {
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014-2024 Sayi
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.deepoove.poi.xwpf;
+
+import java.util.List;
+
+import org.apache.poi.Version;
+import org.apache.poi.xwpf.usermodel.IBody;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFComment;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFHeaderFooter;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFPicture;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import com.deepoove.poi.exception.ReflectionException;
+import com.deepoove.poi.util.FieldAccessor;
+
+/**
+ * Non-public fields of poi used by the wrappers, all of them are resolved when
+ * this class is loaded. A field missing in an incompatible poi version does not
+ * break the class initialization, its accessor fails with the poi version and
+ * the field name when it is used.
+ * 
+ * @author Sayi
+ */
+public final class PoiFields {
+
+    public static final FieldAccessor PARAGRAPH_RUNS = resolve(XWPFParagraph.class, "runs");
+    public static final FieldAccessor PARAGRAPH_IRUNS = resolve(XWPFParagraph.class, "iruns");
+    public static final FieldAccessor TABLE_ROWS = resolve(XWPFTable.class, "tableRows");
+    public static final FieldAccessor ROW_CELLS = resolve(XWPFTableRow.class, "tableCells");
+    public static final FieldAccessor CELL_PARAGRAPHS = resolve(XWPFTableCell.class, "paragraphs");
+    public static final FieldAccessor CELL_TABLES = resolve(XWPFTableCell.class, "tables");
+    public static final FieldAccessor HEADER_FOOTER_PARAGRAPHS = resolve(XWPFHeaderFooter.class, "paragraphs");
+    public static final FieldAccessor HEADER_FOOTER_TABLES = resolve(XWPFHeaderFooter.class, "tables");
+    public static final FieldAccessor COMMENT_PARAGRAPHS = resolve(XWPFComment.class, "paragraphs");
+    public static final FieldAccessor COMMENT_TABLES = resolve(XWPFComment.class, "tables");
+    public static final FieldAccessor PICTURE_RUN = resolve(XWPFPicture.class, "run");
+    public static final FieldAccessor STYLES_LIST = resolve(XWPFStyles.class, "listStyle");
+    public static final FieldAccessor DOCUMENT_BODY_ELEMENTS = resolve(XWPFDocument.class, "bodyElements");
+    public static final FieldAccessor CELL_BODY_ELEMENTS = resolve(XWPFTableCell.class, "bodyElements");
+    public static final FieldAccessor HEADER_FOOTER_BODY_ELEMENTS = resolve(XWPFHeaderFooter.class, "bodyElements");
+    public static final FieldAccessor COMMENT_BODY_ELEMENTS = resolve(XWPFComment.class, "bodyElements");
+
+    private PoiFields() {
+    }
+
+    /**
+     * bodyElements of document, cell, header, footer, comment...
+     */
+    public static List<IBodyElement> bodyElements(IBody body) {
+        if (body instanceof XWPFTextboxContent) return ((XWPFTextboxContent) body).bodyElements;
+        if (body instanceof XWPFDocument) return DOCUMENT_BODY_ELEMENTS.get(body);
+        if (body instanceof XWPFTableCell) return CELL_BODY_ELEMENTS.get(body);
+        if (body instanceof XWPFHeaderFooter) return HEADER_FOOTER_BODY_ELEMENTS.get(body);
+        if (body instanceof XWPFComment) return COMMENT_BODY_ELEMENTS.get(body);
+        return FieldAccessor.of(body.getClass(), "bodyElements").get(body);
+    }
+
+    private static FieldAccessor resolve(Class<?> clazz, String name) {
+        try {
+            return FieldAccessor.of(clazz, name);
+        } catch (ReflectionException e) {
+            return FieldAccessor.unresolved(clazz, name, new ReflectionException(
+                    "Unsupported poi version " + Version.getVersion() + ": " + e.getMessage(), e));
+        }
+    }
+
+}
@@ -27,7 +27,6 @@ import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSdtContentBlock;
 
-import com.deepoove.poi.util.ReflectionUtils;
 
 public class SDTBodyContainer implements BodyContainer {
 
@@ -68,10 +67,9 @@ public class SDTBodyContainer implements BodyContainer {
         if (-1 != pos) bodyElements.set(pos, (ISDTContents) copy);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void setParagraph(XWPFParagraph paragraph, int pos) {
-        List<XWPFParagraph> paragraphs = (List<XWPFParagraph>) ReflectionUtils.getValue("paragraphs", sdtContent);
+        List<XWPFParagraph> paragraphs = sdtContent.paragraphs();
         paragraphs.set(pos, paragraph);
         CTSdtContentBlock sdtContentBlock = sdtContent.getSdtContentBlock();
         sdtContentBlock.setPArray(pos, paragraph.getCTP());
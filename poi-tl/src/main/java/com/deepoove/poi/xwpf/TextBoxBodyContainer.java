@@ -10,7 +10,6 @@ import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFTable;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTxbxContent;
 
-import com.deepoove.poi.util.ReflectionUtils;
 
 public class TextBoxBodyContainer implements BodyContainer {
 
@@ -34,10 +33,9 @@ public class TextBoxBodyContainer implements BodyContainer {
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void setParagraph(XWPFParagraph paragraph, int pos) {
-        List<XWPFParagraph> paragraphs = (List<XWPFParagraph>) ReflectionUtils.getValue("paragraphs", textbox);
+        List<XWPFParagraph> paragraphs = textbox.paragraphs;
         paragraphs.set(pos, paragraph);
         CTTxbxContent ctTxbxContent = textbox.getCTTxbxContent();
         ctTxbxContent.setPArray(pos, paragraph.getCTP());
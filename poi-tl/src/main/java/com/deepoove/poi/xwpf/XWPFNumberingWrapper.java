@@ -55,6 +55,9 @@ public class XWPFNumberingWrapper {
     }
 
     public BigInteger getNextAbstractNumID() {
+        if (numbering.getParent() instanceof NiceXWPFDocument) {
+            return ((NiceXWPFDocument) numbering.getParent()).getIdAllocator().nextAbstractNumId();
+        }
         return NextIDUtils.getAbstractNumMaxId(numbering).add(BigInteger.ONE);
     }
 
@@ -15,12 +15,12 @@
  */
 package com.deepoove.poi.xwpf;
 
-import java.lang.reflect.Field;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.locks.Lock;
 
 import javax.xml.namespace.QName;
 
@@ -28,6 +28,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.openxml4j.opc.PackageRelationship;
 import org.apache.poi.xwpf.usermodel.IRunBody;
 import org.apache.poi.xwpf.usermodel.IRunElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFFieldRun;
 import org.apache.poi.xwpf.usermodel.XWPFHyperlinkRun;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
@@ -47,8 +48,6 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSdtRun;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSimpleField;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.impl.CTPImpl;
 
-import com.deepoove.poi.exception.ReflectionException;
-
 /**
  * XWPFParagraph wrapper
  * 
@@ -110,9 +109,16 @@ public class XWPFParagraphWrapper {
         if (pos >= 0 && pos <= paragraph.getRuns().size()) {
             CTHyperlink hyperlink = insertNewHyperlink(pos);
             // hyperlink.setAnchor(link.substring("anchor:".length()));
-            PackageRelationship relationship = paragraph.getPart()
-                    .getPackagePart()
-                    .addExternalRelationship(link, XWPFRelation.HYPERLINK.getRelation());
+            PackageRelationship relationship;
+            Lock lock = NiceXWPFDocument.documentLock(paragraph.getDocument());
+            lock.lock();
+            try {
+                relationship = paragraph.getPart()
+                        .getPackagePart()
+                        .addExternalRelationship(link, XWPFRelation.HYPERLINK.getRelation());
+            } finally {
+                lock.unlock();
+            }
             hyperlink.setId(relationship.getId());
 
             CTR ctr = hyperlink.addNewR();
@@ -148,7 +154,9 @@ public class XWPFParagraphWrapper {
 
         CTMarkupRange end = insertNewBookmarkEnd(pos + 1);
         CTBookmark start = insertNewBookmarkStart(pos);
-        start.setId(BigInteger.valueOf(500 + new Random().nextInt(50000)));
+        XWPFDocument document = paragraph.getDocument();
+        start.setId(document instanceof NiceXWPFDocument ? ((NiceXWPFDocument) document).getIdAllocator().nextBookmarkId()
+                : BigInteger.valueOf(500 + new Random().nextInt(50000)));
         end.setId(start.getId());
         return start;
     }
@@ -333,26 +341,12 @@ public class XWPFParagraphWrapper {
         return pos;
     }
 
-    @SuppressWarnings("unchecked")
     private List<XWPFRun> getRuns() {
-        try {
-            Field runsField = XWPFParagraph.class.getDeclaredField("runs");
-            runsField.setAccessible(true);
-            return (List<XWPFRun>) runsField.get(paragraph);
-        } catch (Exception e) {
-            throw new ReflectionException("runs", XWPFParagraph.class, e);
-        }
+        return PoiFields.PARAGRAPH_RUNS.get(paragraph);
     }
 
-    @SuppressWarnings("unchecked")
     private List<IRunElement> getIRuns() {
-        try {
-            Field runsField = XWPFParagraph.class.getDeclaredField("iruns");
-            runsField.setAccessible(true);
-            return (List<IRunElement>) runsField.get(paragraph);
-        } catch (Exception e) {
-            throw new ReflectionException("iruns", XWPFParagraph.class, e);
-        }
+        return PoiFields.PARAGRAPH_IRUNS.get(paragraph);
     }
 
     public void setAndUpdateRun(XWPFRun xwpfRun, XWPFRun source, int insertPostionCursor) {
@@ -452,23 +446,25 @@ public class XWPFParagraphWrapper {
     public List<XWPFStructuredDocumentTag> getSDTs() {
         if (null != sdts) return sdts;
         sdts = new ArrayList<>();
-        long count = paragraph.getIRuns().stream().filter(r -> r instanceof XWPFSDT).count();
-        if (0 == count) return sdts;
+        if (paragraph.getIRuns().stream().noneMatch(r -> r instanceof XWPFSDT)) return sdts;
 
         CTP ctp = paragraph.getCTP();
         XmlCursor c = ctp.newCursor();
         try {
-            c.selectPath("child::*");
-            while (c.toNextSelection()) {
-                XmlObject o = c.getObject();
-                if (o instanceof CTSdtBlock) {
-                    XWPFStructuredDocumentTag cc = new XWPFStructuredDocumentTag((CTSdtBlock) o, paragraph.getBody());
-                    sdts.add(cc);
-                }
-                if (o instanceof CTSdtRun) {
-                    XWPFStructuredDocumentTag cc = new XWPFStructuredDocumentTag((CTSdtRun) o, paragraph.getBody());
-                    sdts.add(cc);
-                }
+            if (c.toFirstChild()) {
+                do {
+                    XmlObject o = c.getObject();
+                    if (o instanceof CTSdtBlock) {
+                        XWPFStructuredDocumentTag cc = new XWPFStructuredDocumentTag((CTSdtBlock) o,
+                                paragraph.getBody());
+                        sdts.add(cc);
+                    }
+                    if (o instanceof CTSdtRun) {
+                        XWPFStructuredDocumentTag cc = new XWPFStructuredDocumentTag((CTSdtRun) o,
+                                paragraph.getBody());
+                        sdts.add(cc);
+                    }
+                } while (c.toNextSibling());
             }
         } finally {
             c.dispose();
@@ -15,8 +15,12 @@
  */
 package com.deepoove.poi.xwpf;
 
+import javax.xml.namespace.QName;
+
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlCursor.TokenType;
 import org.apache.xmlbeans.XmlException;
 import org.apache.xmlbeans.XmlObject;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
@@ -31,6 +35,13 @@ public class XWPFRunWrapper {
     public static final String XPATH_PICT_TEXTBOX_TXBXCONTENT = "declare namespace w='http://schemas.openxmlformats.org/wordprocessingml/2006/main' \n"
             + "        declare namespace v='urn:schemas-microsoft-com:vml' ./v:shape/v:textbox/w:txbxContent";
 
+    public static final int DRAWING = 1;
+    public static final int PICT = 1 << 1;
+    public static final int ALTERNATE_CONTENT = 1 << 2;
+
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String MC_NS = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+
     private final XWPFRun run;
     private XWPFTextboxContent wpstxbx;
     private XWPFTextboxContent vtextbox;
@@ -40,47 +51,82 @@ public class XWPFRunWrapper {
         this(run, true);
     }
 
-    @SuppressWarnings("deprecation")
     public XWPFRunWrapper(XWPFRun run, boolean isParse) {
         this.run = run;
         if (!isParse) return;
         CTR r = run.getCTR();
-        XmlObject[] xmlObjects = r.selectPath(XPATH_TXBX_TXBXCONTENT);
-        if (xmlObjects != null && xmlObjects.length >= 1) {
-            try {
-                CTTxbxContent ctTxbxContent = CTTxbxContent.Factory.parse(xmlObjects[0].xmlText());
-                wpstxbx = new XWPFTextboxContent(ctTxbxContent, run, run.getParagraph().getBody(), xmlObjects[0]);
-            } catch (XmlException e) {
-                // no-op
-            }
+        int shapes = probe(r);
+        if ((shapes & ALTERNATE_CONTENT) != 0) {
+            wpstxbx = textbox(r.selectPath(XPATH_TXBX_TXBXCONTENT));
+            vtextbox = textbox(r.selectPath(XPATH_TEXTBOX_TXBXCONTENT));
         }
-        xmlObjects = r.selectPath(XPATH_TEXTBOX_TXBXCONTENT);
-        if (xmlObjects != null && xmlObjects.length >= 1) {
-            try {
-                CTTxbxContent ctTxbxContent = CTTxbxContent.Factory.parse(xmlObjects[0].xmlText());
-                vtextbox = new XWPFTextboxContent(ctTxbxContent, run, run.getParagraph().getBody(), xmlObjects[0]);
-            } catch (XmlException e) {
-                // no-op
+        if ((shapes & PICT) != 0) {
+            org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPicture ctPicture = CollectionUtils
+                    .isNotEmpty(r.getPictList()) ? r.getPictArray(0) : null;
+            if (null != ctPicture) {
+                shapetxbx = textbox(ctPicture.selectPath(XPATH_PICT_TEXTBOX_TXBXCONTENT));
             }
         }
-        org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPicture ctPicture = CollectionUtils
-                .isNotEmpty(r.getPictList()) ? r.getPictArray(0) : null;
-        if (null != ctPicture) {
-            xmlObjects = ctPicture.selectPath(XPATH_PICT_TEXTBOX_TXBXCONTENT);
-            if (xmlObjects != null && xmlObjects.length >= 1) {
-                try {
-                    CTTxbxContent ctTxbxContent = null;
-                    if (xmlObjects[0] instanceof CTTxbxContent) {
-                        ctTxbxContent = (CTTxbxContent) xmlObjects[0];
-                    } else {
-                        ctTxbxContent = CTTxbxContent.Factory.parse(xmlObjects[0].xmlText());
+    }
+
+    /**
+     * Cheap structural check of the elements under the run with a cursor,
+     * without any XPath query. Descendants are visited as well, so
+     * mc:AlternateContent nested in other elements is found like the
+     * <code>.//mc:Choice</code> query does.
+     * 
+     * @param r run
+     * @return bit set of {@link #DRAWING}, {@link #PICT} and
+     *         {@link #ALTERNATE_CONTENT}, 0 means the run holds no shape
+     */
+    public static int probe(CTR r) {
+        int shapes = 0;
+        XmlCursor cursor = r.newCursor();
+        try {
+            int depth = 0;
+            while (shapes != (DRAWING | PICT | ALTERNATE_CONTENT)) {
+                TokenType token = cursor.toNextToken();
+                if (token.isStart()) {
+                    depth++;
+                    QName name = cursor.getName();
+                    if (W_NS.equals(name.getNamespaceURI())) {
+                        if ("drawing".equals(name.getLocalPart())) shapes |= DRAWING;
+                        else if ("pict".equals(name.getLocalPart())) shapes |= PICT;
+                    } else if (MC_NS.equals(name.getNamespaceURI())
+                            && "AlternateContent".equals(name.getLocalPart())) {
+                        shapes |= ALTERNATE_CONTENT;
                     }
-                    shapetxbx = new XWPFTextboxContent(ctTxbxContent, run, run.getParagraph().getBody(), xmlObjects[0]);
-                } catch (XmlException e) {
-                    // no-op
+                } else if (token.isEnd()) {
+                    if (--depth < 0) break;
+                } else if (token.isNone() || token.isEnddoc()) {
+                    break;
                 }
             }
+        } finally {
+            cursor.dispose();
+        }
+        return shapes;
+    }
+
+    /**
+     * typed textbox content is bound in place, content under
+     * mc:AlternateContent is untyped and parsed into a typed copy, which is
+     * copied back after render
+     */
+    @SuppressWarnings("deprecation")
+    private XWPFTextboxContent textbox(XmlObject[] xmlObjects) {
+        if (xmlObjects == null || xmlObjects.length < 1) return null;
+        CTTxbxContent ctTxbxContent;
+        if (xmlObjects[0] instanceof CTTxbxContent) {
+            ctTxbxContent = (CTTxbxContent) xmlObjects[0];
+        } else {
+            try {
+                ctTxbxContent = CTTxbxContent.Factory.parse(xmlObjects[0].xmlText());
+            } catch (XmlException e) {
+                return null;
+            }
         }
+        return new XWPFTextboxContent(ctTxbxContent, run, run.getParagraph().getBody(), xmlObjects[0]);
     }
 
     public XWPFRun getRun() {
@@ -63,19 +63,23 @@ public class XWPFStructuredDocumentTagContent implements ISDTContent, IRunBody,
             return;
         }
         XmlCursor cursor = sdtRun.newCursor();
-        cursor.selectPath("./*");
-        while (cursor.toNextSelection()) {
-            XmlObject o = cursor.getObject();
-            if (o instanceof CTR) {
-                XWPFRun run = new XWPFRun((CTR) o, this);
-                runs.add(run);
-                sdtElements.add(run);
-            } else if (o instanceof CTSdtRun) {
-                XWPFStructuredDocumentTag c = new XWPFStructuredDocumentTag(((CTSdtRun) o), this);
-                sdtElements.add(c);
+        try {
+            if (cursor.toFirstChild()) {
+                do {
+                    XmlObject o = cursor.getObject();
+                    if (o instanceof CTR) {
+                        XWPFRun run = new XWPFRun((CTR) o, this);
+                        runs.add(run);
+                        sdtElements.add(run);
+                    } else if (o instanceof CTSdtRun) {
+                        XWPFStructuredDocumentTag c = new XWPFStructuredDocumentTag(((CTSdtRun) o), this);
+                        sdtElements.add(c);
+                    }
+                } while (cursor.toNextSibling());
             }
+        } finally {
+            cursor.dispose();
         }
-        cursor.dispose();
     }
 
     public XWPFStructuredDocumentTagContent(CTSdtContentBlock block, IBody part, XWPFStructuredDocumentTag parent) {
@@ -85,26 +89,30 @@ public class XWPFStructuredDocumentTagContent implements ISDTContent, IRunBody,
             return;
         }
         XmlCursor cursor = block.newCursor();
-        cursor.selectPath("./*");
-        while (cursor.toNextSelection()) {
-            XmlObject o = cursor.getObject();
-            if (o instanceof CTP) {
-                XWPFParagraph p = new XWPFParagraph((CTP) o, this);
-                paragraphs.add(p);
-                sdtElements.add(p);
-            } else if (o instanceof CTTbl) {
-                XWPFTable t = new XWPFTable((CTTbl) o, this);
-                sdtElements.add(t);
-            } else if (o instanceof CTSdtBlock) {
-                XWPFStructuredDocumentTag c = new XWPFStructuredDocumentTag(((CTSdtBlock) o), this);
-                sdtElements.add(c);
-            } else if (o instanceof CTR) {
-                XWPFRun run = new XWPFRun((CTR) o, this);
-                // runs.add(run);
-                sdtElements.add(run);
+        try {
+            if (cursor.toFirstChild()) {
+                do {
+                    XmlObject o = cursor.getObject();
+                    if (o instanceof CTP) {
+                        XWPFParagraph p = new XWPFParagraph((CTP) o, this);
+                        paragraphs.add(p);
+                        sdtElements.add(p);
+                    } else if (o instanceof CTTbl) {
+                        XWPFTable t = new XWPFTable((CTTbl) o, this);
+                        sdtElements.add(t);
+                    } else if (o instanceof CTSdtBlock) {
+                        XWPFStructuredDocumentTag c = new XWPFStructuredDocumentTag(((CTSdtBlock) o), this);
+                        sdtElements.add(c);
+                    } else if (o instanceof CTR) {
+                        XWPFRun run = new XWPFRun((CTR) o, this);
+                        // runs.add(run);
+                        sdtElements.add(run);
+                    }
+                } while (cursor.toNextSibling());
             }
+        } finally {
+            cursor.dispose();
         }
-        cursor.dispose();
     }
 
     public XWPFStructuredDocumentTagContent(CTSdtContentCell cell, XWPFTableRow row, IBody part,
@@ -115,15 +123,19 @@ public class XWPFStructuredDocumentTagContent implements ISDTContent, IRunBody,
             return;
         }
         XmlCursor cursor = cell.newCursor();
-        cursor.selectPath("./*");
-        while (cursor.toNextSelection()) {
-            XmlObject o = cursor.getObject();
-            if (o instanceof CTTc) {
-                XWPFTableCell c = new XWPFTableCell((CTTc) o, row, this);
-                cells.add(c);
+        try {
+            if (cursor.toFirstChild()) {
+                do {
+                    XmlObject o = cursor.getObject();
+                    if (o instanceof CTTc) {
+                        XWPFTableCell c = new XWPFTableCell((CTTc) o, row, this);
+                        cells.add(c);
+                    }
+                } while (cursor.toNextSibling());
             }
+        } finally {
+            cursor.dispose();
         }
-        cursor.dispose();
 
     }
 
@@ -419,6 +431,13 @@ public class XWPFStructuredDocumentTagContent implements ISDTContent, IRunBody,
         return Collections.unmodifiableList(paragraphs);
     }
 
+    /**
+     * modifiable paragraphs for the body container
+     */
+    List<XWPFParagraph> paragraphs() {
+        return paragraphs;
+    }
+
     /**
      * add a Paragraph to this sdt content
      *
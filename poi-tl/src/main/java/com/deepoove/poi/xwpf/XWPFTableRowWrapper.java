@@ -8,37 +8,48 @@ import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRow;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSdtCell;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTTc;
 
 public class XWPFTableRowWrapper {
 
     private XWPFTableRow row;
+    private List<ICell> cells;
 
     public XWPFTableRowWrapper(XWPFTableRow row) {
         this.row = row;
     }
 
+    /**
+     * cells and content controls of the row, indexed once per wrapper
+     * 
+     * @return cells
+     */
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public List<ICell> getTableICells() {
-        boolean haveSdt = false;
-        List<ICell> cells = new ArrayList<>();
-        XmlCursor cursor = row.getCtRow().newCursor();
+        if (null != cells) return cells;
+        CTRow ctRow = row.getCtRow();
+        // plain row
+        if (0 == ctRow.sizeOfSdtArray()) return cells = (List) row.getTableCells();
+
+        cells = new ArrayList<>();
+        XmlCursor cursor = ctRow.newCursor();
         try {
-            cursor.selectPath("./*");
-            while (cursor.toNextSelection()) {
-                XmlObject o = cursor.getObject();
-                if (o instanceof CTTc) {
-                    cells.add(new XWPFTableCell((CTTc) o, row, row.getTable().getBody()));
-                } else if (o instanceof CTSdtCell) {
-                    haveSdt = true;
-                    cells.add(new XWPFStructuredDocumentTag((CTSdtCell) o, row, row.getTable().getBody()));
-                }
+            if (cursor.toFirstChild()) {
+                do {
+                    XmlObject o = cursor.getObject();
+                    if (o instanceof CTTc) {
+                        cells.add(new XWPFTableCell((CTTc) o, row, row.getTable().getBody()));
+                    } else if (o instanceof CTSdtCell) {
+                        cells.add(new XWPFStructuredDocumentTag((CTSdtCell) o, row, row.getTable().getBody()));
+                    }
+                } while (cursor.toNextSibling());
             }
         } finally {
             cursor.dispose();
         }
-        return haveSdt ? cells : (List) row.getTableCells();
+        return cells;
     }
 
     public XWPFTableRow getRow() {
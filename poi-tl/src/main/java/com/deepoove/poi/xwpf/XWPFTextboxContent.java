@@ -47,24 +47,28 @@ public class XWPFTextboxContent implements IBody {
         paragraphs = new ArrayList<>();
 
         XmlCursor cursor = ctTxbxContent.newCursor();
-        cursor.selectPath("./*");
-        while (cursor.toNextSelection()) {
-            XmlObject o = cursor.getObject();
-            if (o instanceof CTP) {
-                XWPFParagraph p = new XWPFParagraph((CTP) o, this);
-                paragraphs.add(p);
-                bodyElements.add(p);
+        try {
+            if (cursor.toFirstChild()) {
+                do {
+                    XmlObject o = cursor.getObject();
+                    if (o instanceof CTP) {
+                        XWPFParagraph p = new XWPFParagraph((CTP) o, this);
+                        paragraphs.add(p);
+                        bodyElements.add(p);
+                    }
+                    if (o instanceof CTSdtBlock) {
+                        XWPFSDT c = new XWPFSDT((CTSdtBlock) o, this);
+                        bodyElements.add(c);
+                    }
+//                    if (o instanceof CTSdtRun) {
+//                        XWPFSDT c = new XWPFSDT((CTSdtRun) o, this);
+//                        bodyElements.add(c);
+//                    }
+                } while (cursor.toNextSibling());
             }
-            if (o instanceof CTSdtBlock) {
-                XWPFSDT c = new XWPFSDT((CTSdtBlock) o, this);
-                bodyElements.add(c);
-            }
-//            if (o instanceof CTSdtRun) {
-//                XWPFSDT c = new XWPFSDT((CTSdtRun) o, this);
-//                bodyElements.add(c);
-//            }
+        } finally {
+            cursor.dispose();
         }
-        cursor.dispose();
     }
 
     @Internal
@@ -16,16 +16,22 @@
 package com.deepoove.poi.xwpf;
 
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.ooxml.POIXMLDocument;
@@ -44,6 +50,9 @@ import org.apache.xmlbeans.XmlCursor;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBody;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDocument1;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTLvl;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTNumLvl;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
@@ -52,11 +61,20 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
 
     private static final String CROSS_REPLACE_STRING = "@PoiTL@";
 
+    // merges nested in a loader run inline, waiting for the executor there may starve it
+    private static final ThreadLocal<Boolean> LOADING = new ThreadLocal<>();
+
     /**
      * 重名的样式，是否进行重命名后合并
      */
     private boolean renameAndMergeExistsStyle = true;
 
+    /**
+     * executor of loading, serializing and rewriting merged documents, null
+     * means they are prepared one by one
+     */
+    private Executor executor;
+
     public XmlXWPFDocumentMerge() {
     }
 
@@ -64,11 +82,29 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
         this.renameAndMergeExistsStyle = renameAndMergeExistsStyle;
     }
 
+    public XmlXWPFDocumentMerge(boolean renameAndMergeExistsStyle, Executor executor) {
+        this.renameAndMergeExistsStyle = renameAndMergeExistsStyle;
+        this.executor = executor;
+    }
+
     @Override
     public NiceXWPFDocument merge(NiceXWPFDocument source, Iterator<NiceXWPFDocument> mergeIterator, XWPFRun run)
             throws Exception {
+        return insertMergeableStrings(source, createMergeableStrings(source, mergeIterator), run);
+    }
+
+    /**
+     * merge the documents created by the loaders, loaders are called
+     * concurrently on the executor and the documents are merged in order
+     */
+    public NiceXWPFDocument merge(NiceXWPFDocument source, List<? extends Callable<NiceXWPFDocument>> loaders,
+            XWPFRun run) throws Exception {
+        return insertMergeableStrings(source, pipeMergeableStrings(source, loaders.iterator()), run);
+    }
+
+    private NiceXWPFDocument insertMergeableStrings(NiceXWPFDocument source, List<String> addParts, XWPFRun run)
+            throws Exception {
         CTBody body = source.getDocument().getBody();
-        List<String> addParts = createMergeableStrings(source, mergeIterator);
         String[] startEnd = truncatedStartEndXmlFragment(body);
 
         XWPFParagraph paragraph = (XWPFParagraph) run.getParent();
@@ -103,29 +139,118 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
     }
 
     protected List<String> createMergeableStrings(NiceXWPFDocument source, Iterator<NiceXWPFDocument> iterator)
-            throws InvalidFormatException, IOException {
-        List<String> addParts = new ArrayList<String>();
-        if (!iterator.hasNext()) return addParts;
-        NiceXWPFDocument next = iterator.next();
-
-        // apply style merge once
-        Map<String, String> mergeStyles = mergeStyles(source, next);
-        // apply namespaces merge once
-        mergeNamespaces(source, next);
-        do {
-            addParts.add(createMergeableString(source, next, mergeStyles));
-            try {
-                next.close();
-            } catch (Exception e) {
-                logger.warn("close merged doc failed!", e);
+            throws Exception {
+        // documents of the iterator are pulled in order on this thread
+        return pipeMergeableStrings(source, new Iterator<Callable<NiceXWPFDocument>>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
             }
-            if (iterator.hasNext())
-                next = iterator.next();
-            else
-                break;
-        } while (true);
 
-        return addParts;
+            @Override
+            public Callable<NiceXWPFDocument> next() {
+                NiceXWPFDocument next = iterator.next();
+                return () -> next;
+            }
+        });
+    }
+
+    /**
+     * Pipeline of merged documents: loading and serializing the body run
+     * concurrently, ids are allocated in the source one document after
+     * another in order, then the ids of the serialized body are rewritten
+     * concurrently. At most one more document than processors is loaded ahead.
+     */
+    private List<String> pipeMergeableStrings(NiceXWPFDocument source,
+            Iterator<? extends Callable<NiceXWPFDocument>> loaders) throws Exception {
+        boolean inline = null == executor || Boolean.TRUE.equals(LOADING.get());
+        Executor worker = inline ? Runnable::run : executor;
+        int window = inline ? 1 : Runtime.getRuntime().availableProcessors() + 1;
+        Deque<CompletableFuture<Prepared>> loading = new ArrayDeque<>();
+        List<CompletableFuture<String>> addParts = new ArrayList<>();
+        Map<String, String> mergeStyles = null;
+        // the source may have changed since the index and ids were seeded
+        source.getContentIndex().reset();
+        source.getIdAllocator().reset();
+        try {
+            while (true) {
+                while (loading.size() < window && loaders.hasNext()) {
+                    Callable<NiceXWPFDocument> loader = loaders.next();
+                    // body of the first document is serialized after the style merge
+                    boolean first = null == mergeStyles && loading.isEmpty();
+                    loading.add(CompletableFuture.supplyAsync(() -> prepare(loader, !first), worker));
+                }
+                if (loading.isEmpty()) break;
+                Prepared prepared = join(loading.poll());
+                NiceXWPFDocument next = prepared.document;
+                MergeIds ids;
+                String body;
+                try {
+                    if (null == mergeStyles) {
+                        // apply style merge once
+                        mergeStyles = mergeStyles(source, next);
+                        // apply namespaces merge once
+                        mergeNamespaces(source, next);
+                    }
+                    ids = mergeIds(source, next);
+                    body = null == prepared.body ? serializeBody(next) : prepared.body;
+                } finally {
+                    close(next);
+                }
+                Map<String, String> styleIdsMap = mergeStyles;
+                addParts.add(CompletableFuture.supplyAsync(() -> replaceIds(body, styleIdsMap, ids), worker));
+            }
+            List<String> parts = new ArrayList<>(addParts.size());
+            for (CompletableFuture<String> part : addParts) {
+                parts.add(join(part));
+            }
+            return parts;
+        } finally {
+            loading.forEach(future -> future.thenAccept(prepared -> close(prepared.document)));
+        }
+    }
+
+    private Prepared prepare(Callable<NiceXWPFDocument> loader, boolean serialize) {
+        NiceXWPFDocument document;
+        Boolean loading = LOADING.get();
+        LOADING.set(Boolean.TRUE);
+        try {
+            document = loader.call();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            LOADING.set(loading);
+        }
+        return new Prepared(document, serialize ? serializeBody(document) : null);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+    }
+
+    private void close(NiceXWPFDocument document) {
+        try {
+            document.close();
+        } catch (Exception e) {
+            logger.warn("close merged doc failed!", e);
+        }
+    }
+
+    private static class Prepared {
+        final NiceXWPFDocument document;
+        final String body;
+
+        Prepared(NiceXWPFDocument document, String body) {
+            this.document = document;
+            this.body = body;
+        }
     }
 
     protected void mergeNamespaces(NiceXWPFDocument source, NiceXWPFDocument docMerge) {
@@ -157,20 +282,43 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
 
     protected String createMergeableString(NiceXWPFDocument source, NiceXWPFDocument merged,
             Map<String, String> styleIdsMap) throws InvalidFormatException, IOException {
-        CTBody mergedBody = merged.getDocument().getBody();
-        // TODO For the same style, reduce the number of merges
-        // Map<String, String> styleIdsMap = mergeStyles(docMerge);
-        Map<String, String> numIdsMap = mergeNumbering(source, merged);
-        Map<String, String> blipIdsMap = mergePicture(source, merged);
-        Map<String, String> externalBlipIdsMap = mergeExternalPicture(source, merged);
-        Map<String, String> hyperlinkMap = mergeHyperlink(source, merged);
-        Map<String, String> chartIdsMap = mergeChart(source, merged);
-        Map<String, String> attachmentIdsMap = mergeAttachment(source, merged);
-        Map<String, String> footnoteIdsMap = mergeFootnote(source, merged);
-        Map<String, String> endnoteIdsMap = mergeEndnote(source, merged);
+        MergeIds ids = mergeIds(source, merged);
+        return replaceIds(serializeBody(merged), styleIdsMap, ids);
+    }
 
+    /**
+     * allocate the ids of numbering, pictures, hyperlinks, charts, attachments
+     * and notes of the merged document in the source
+     */
+    protected MergeIds mergeIds(NiceXWPFDocument source, NiceXWPFDocument merged)
+            throws InvalidFormatException, IOException {
+        MergeIds ids = new MergeIds();
+        ids.numIdsMap = mergeNumbering(source, merged);
+        ids.blipIdsMap = mergePicture(source, merged);
+        ids.externalBlipIdsMap = mergeExternalPicture(source, merged);
+        ids.hyperlinkMap = mergeHyperlink(source, merged);
+        ids.chartIdsMap = mergeChart(source, merged);
+        ids.attachmentIdsMap = mergeAttachment(source, merged);
+        ids.footnoteIdsMap = mergeFootnote(source, merged);
+        ids.endnoteIdsMap = mergeEndnote(source, merged);
+        return ids;
+    }
+
+    protected String serializeBody(NiceXWPFDocument merged) {
+        CTBody mergedBody = merged.getDocument().getBody();
         String appendString = mergedBody.xmlText(DefaultXmlOptions.OPTIONS_OUTER);
-        String addPart = ridSectPr(appendString);
+        return ridSectPr(appendString);
+    }
+
+    protected String replaceIds(String addPart, Map<String, String> styleIdsMap, MergeIds ids) {
+        Map<String, String> numIdsMap = ids.numIdsMap;
+        Map<String, String> blipIdsMap = ids.blipIdsMap;
+        Map<String, String> externalBlipIdsMap = ids.externalBlipIdsMap;
+        Map<String, String> hyperlinkMap = ids.hyperlinkMap;
+        Map<String, String> chartIdsMap = ids.chartIdsMap;
+        Map<String, String> attachmentIdsMap = ids.attachmentIdsMap;
+        Map<String, String> footnoteIdsMap = ids.footnoteIdsMap;
+        Map<String, String> endnoteIdsMap = ids.endnoteIdsMap;
 
         // style
         for (String styleId : styleIdsMap.keySet()) {
@@ -276,6 +424,7 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
         Map<String, String> blipIdsMap = new HashMap<String, String>();
         List<XWPFPictureData> allPictures = merged.getAllPictures();
         for (XWPFPictureData xwpfPictureData : allPictures) {
+            // pictures with the same checksum are shared by the source package
             String relationId = merged.getRelationId(xwpfPictureData);
             String blidId = source.addPictureData(xwpfPictureData.getData(), xwpfPictureData.getPictureType());
             blipIdsMap.put(relationId, blidId);
@@ -311,12 +460,13 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
 
         XWPFNumbering numbering = source.getNumbering();
         if (null == numbering) numbering = source.createNumbering();
-        XWPFNumberingWrapper wrapper = new XWPFNumberingWrapper(numbering);
+        DocumentIdAllocator idAllocator = source.getIdAllocator();
 
         XWPFAbstractNum xwpfAbstractNum;
         CTAbstractNum cTAbstractNum;
         Map<BigInteger, CTAbstractNum> cache = new HashMap<BigInteger, CTAbstractNum>();
-        Map<BigInteger, CTAbstractNum> ret = new HashMap<BigInteger, CTAbstractNum>();
+        // in num id order, the first num of a definition is the one restarted
+        Map<BigInteger, CTAbstractNum> ret = new TreeMap<BigInteger, CTAbstractNum>();
         for (XWPFNum xwpfNum : nums) {
             BigInteger mergeNumId = xwpfNum.getCTNum().getNumId();
 
@@ -328,28 +478,52 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
                     continue;
                 }
                 cTAbstractNum = xwpfAbstractNum.getCTAbstractNum();
-                // cTAbstractNum.setAbstractNumId(wrapper.getNextAbstractNumID());
                 if (cTAbstractNum.isSetNsid()) cTAbstractNum.unsetNsid();
                 if (cTAbstractNum.isSetTmpl()) cTAbstractNum.unsetTmpl();
                 cache.put(xwpfNum.getCTNum().getAbstractNumId().getVal(), cTAbstractNum);
             }
             ret.put(mergeNumId, cTAbstractNum);
         }
-        long nextId = wrapper.getNextAbstractNumID().longValue();
+        DocumentContentIndex contentIndex = source.getContentIndex();
         Set<CTAbstractNum> hashSet = new HashSet<>(ret.values());
+        Map<CTAbstractNum, BigInteger> abstractNumIds = new HashMap<>();
+        Set<CTAbstractNum> reused = new HashSet<>();
         for (CTAbstractNum abnum : hashSet) {
-            abnum.setAbstractNumId(BigInteger.valueOf(nextId++));
+            BigInteger abstractNumId = contentIndex.findAbstractNum(abnum);
+            if (null == abstractNumId) {
+                abnum.setAbstractNumId(idAllocator.nextAbstractNumId());
+                abstractNumId = numbering.addAbstractNum(new XWPFAbstractNum(abnum));
+                contentIndex.indexAbstractNum(abnum);
+            } else {
+                reused.add(abnum);
+            }
+            abstractNumIds.put(abnum, abstractNumId);
         }
         final XWPFNumbering finalNumbering = numbering;
+        Set<CTAbstractNum> restarted = new HashSet<>();
         ret.forEach((mergeNumId, abnum) -> {
-            BigInteger numID = finalNumbering.addNum(finalNumbering.addAbstractNum(new XWPFAbstractNum(abnum)));
+            BigInteger numID = finalNumbering.addNum(abstractNumIds.get(abnum));
+            // nums of a shared definition continue the list unless restarted, only the
+            // first num of each merged definition restarts so later ones continue it as
+            // they do in the merged document
+            if (reused.contains(abnum) && restarted.add(abnum)) {
+                restartNum(finalNumbering.getNum(numID).getCTNum(), abnum);
+            }
             numIdsMap.put(mergeNumId.toString(), numID.toString());
         });
 
         return numIdsMap;
     }
 
-    @SuppressWarnings("unchecked")
+    protected void restartNum(CTNum ctNum, CTAbstractNum abstractNum) {
+        for (CTLvl lvl : abstractNum.getLvlList()) {
+            CTNumLvl lvlOverride = ctNum.addNewLvlOverride();
+            lvlOverride.setIlvl(lvl.getIlvl());
+            lvlOverride.addNewStartOverride()
+                    .setVal(lvl.isSetStart() ? lvl.getStart().getVal() : BigInteger.ZERO);
+        }
+    }
+
     protected Map<String, String> mergeStyles(NiceXWPFDocument source, NiceXWPFDocument merged) {
         Map<String, String> styleIdsMap = new HashMap<String, String>();
         XWPFStyles styles = source.getStyles();
@@ -357,24 +531,37 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
         XWPFStyles stylesMerge = merged.getStyles();
         if (null == stylesMerge) return styleIdsMap;
         try {
-            Field listStyleField = XWPFStyles.class.getDeclaredField("listStyle");
-            listStyleField.setAccessible(true);
-            List<XWPFStyle> lists = (List<XWPFStyle>) listStyleField.get(stylesMerge);
+            List<XWPFStyle> lists = PoiFields.STYLES_LIST.get(stylesMerge);
+            DocumentContentIndex contentIndex = source.getContentIndex();
             String defaultParaStyleId = null;
             for (XWPFStyle xwpfStyle : lists) {
-                if (styles.styleExist(xwpfStyle.getStyleId())) {
-                    if (!getRenameAndMergeExistsStyle()) {
+                CTStyle ctStyle = xwpfStyle.getCTStyle();
+                String id = xwpfStyle.getStyleId();
+                boolean exist = styles.styleExist(id);
+                if (exist && !getRenameAndMergeExistsStyle()) {
+                    continue;
+                }
+
+                // fix github issue 499
+                boolean defaultPara = ctStyle.isSetDefault() && POIXMLUnits.parseOnOff(ctStyle.xgetDefault())
+                        && ctStyle.getType() == STStyleType.PARAGRAPH;
+                if (ctStyle.isSetBasedOn()) {
+                    String newId = styleIdsMap.get(ctStyle.getBasedOn().getVal());
+                    if (null != newId) ctStyle.getBasedOn().setVal(newId);
+                }
+
+                if (exist) {
+                    // reuse the same style instead of a renamed copy
+                    String existId = contentIndex.findStyle(ctStyle);
+                    if (null != existId) {
+                        if (!existId.equals(id)) styleIdsMap.put(id, existId);
+                        if (defaultPara) defaultParaStyleId = existId;
                         continue;
                     }
-                    String id = xwpfStyle.getStyleId();
                     xwpfStyle.setStyleId(UUID.randomUUID().toString().substring(0, 8));
                     styleIdsMap.put(id, xwpfStyle.getStyleId());
                 }
-
-                // fix github issue 499
-                CTStyle ctStyle = xwpfStyle.getCTStyle();
-                if (ctStyle.isSetDefault() && POIXMLUnits.parseOnOff(ctStyle.xgetDefault())
-                        && ctStyle.getType() == STStyleType.PARAGRAPH) {
+                if (defaultPara) {
                     defaultParaStyleId = ctStyle.getStyleId();
                 }
 
@@ -384,11 +571,8 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
                 if (ctStyle.isSetName() && StringUtils.isBlank(ctStyle.getName().getVal())) {
                     ctStyle.getName().setVal(ctStyle.getName().getVal() + xwpfStyle.getStyleId());
                 }
-                if (ctStyle.isSetBasedOn()) {
-                    String newId = styleIdsMap.get(ctStyle.getBasedOn().getVal());
-                    if (null != newId) ctStyle.getBasedOn().setVal(newId);
-                }
                 styles.addStyle(xwpfStyle);
+                contentIndex.indexStyle(ctStyle);
             }
 
             if (null != defaultParaStyleId) {
@@ -435,6 +619,7 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
         Map<String, String> attachmentIdsMap = new HashMap<String, String>();
         PackageRelationshipCollection part = merged.getPackagePart()
                 .getRelationshipsByType(POIXMLDocument.PACK_OBJECT_REL_TYPE);
+        DocumentContentIndex contentIndex = source.getContentIndex();
         Iterator<PackageRelationship> iterator = part.iterator();
         while (iterator.hasNext()) {
             PackageRelationship relationship = iterator.next();
@@ -443,7 +628,13 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
             if (null == path || (!path.endsWith(".docx") && !path.endsWith(".xlsx"))) continue;
             try {
                 byte[] byteData = IOUtils.toByteArray(embeddPart.getInputStream());
-                String newId = source.addEmbeddData(byteData, path.endsWith("docx") ? 0 : 1);
+                int format = path.endsWith("docx") ? 0 : 1;
+                // the same object is embedded once
+                String newId = contentIndex.findEmbedd(byteData, format);
+                if (null == newId) {
+                    newId = source.addEmbeddData(byteData, format);
+                    contentIndex.indexEmbedd(byteData, format, newId);
+                }
                 attachmentIdsMap.putIfAbsent(relationship.getId(), newId);
             } catch (IOException e) {
                 throw new POIXMLException(e);
@@ -454,14 +645,14 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
 
     protected Map<String, String> mergeFootnote(NiceXWPFDocument source, NiceXWPFDocument merged) {
         Map<String, String> blipIdsMap = new HashMap<>();
-        FootnoteEndnoteIdManager footnoteEndnoteIdManager = new FootnoteEndnoteIdManager(source);
+        DocumentIdAllocator idAllocator = source.getIdAllocator();
 
         List<XWPFFootnote> footnotes = merged.getFootnotes();
         if (!footnotes.isEmpty()) {
             XWPFFootnotes sourceFootnotes = source.createFootnotes();
             for (XWPFFootnote footnote : footnotes) {
                 String relationId = footnote.getId().toString();
-                footnote.getCTFtnEdn().setId(footnoteEndnoteIdManager.nextId());
+                footnote.getCTFtnEdn().setId(idAllocator.nextNoteId());
                 sourceFootnotes.addFootnote(footnote);
                 String blidId = footnote.getId().toString();
                 blipIdsMap.put(relationId, blidId);
@@ -472,14 +663,14 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
 
     protected Map<String, String> mergeEndnote(NiceXWPFDocument source, NiceXWPFDocument merged) {
         Map<String, String> blipIdsMap = new HashMap<>();
-        FootnoteEndnoteIdManager footnoteEndnoteIdManager = new FootnoteEndnoteIdManager(source);
+        DocumentIdAllocator idAllocator = source.getIdAllocator();
 
         List<XWPFEndnote> endnotes = merged.getEndnotes();
         if (!endnotes.isEmpty()) {
             XWPFEndnotes sourceEndnotes = source.createEndnotes();
             for (XWPFEndnote endnote : endnotes) {
                 String relationId = endnote.getId().toString();
-                endnote.getCTFtnEdn().setId(footnoteEndnoteIdManager.nextId());
+                endnote.getCTFtnEdn().setId(idAllocator.nextNoteId());
                 sourceEndnotes.addEndnote(endnote);
                 String blidId = endnote.getId().toString();
                 blipIdsMap.put(relationId, blidId);
@@ -488,6 +679,20 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
         return blipIdsMap;
     }
 
+    /**
+     * old id to new id maps of a merged document
+     */
+    protected static class MergeIds {
+        protected Map<String, String> numIdsMap;
+        protected Map<String, String> blipIdsMap;
+        protected Map<String, String> externalBlipIdsMap;
+        protected Map<String, String> hyperlinkMap;
+        protected Map<String, String> chartIdsMap;
+        protected Map<String, String> attachmentIdsMap;
+        protected Map<String, String> footnoteIdsMap;
+        protected Map<String, String> endnoteIdsMap;
+    }
+
     public boolean getRenameAndMergeExistsStyle() {
         return renameAndMergeExistsStyle;
     }
@@ -496,6 +701,14 @@ public class XmlXWPFDocumentMerge extends AbstractXWPFDocumentMerge {
         this.renameAndMergeExistsStyle = renameAndMergeExistsStyle;
     }
 
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
     // TODO merge header, footer, pageSect...
 
 }
\ No newline at end of file
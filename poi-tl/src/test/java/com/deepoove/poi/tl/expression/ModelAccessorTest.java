@@ -0,0 +1,66 @@
+package com.deepoove.poi.tl.expression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.expression.DefaultEL;
+import com.deepoove.poi.expression.ModelAccessor;
+import com.deepoove.poi.expression.ModelAccessors;
+import com.deepoove.poi.render.compute.EnvModel;
+import com.deepoove.poi.render.compute.SpELRenderDataCompute;
+
+@DisplayName("Model accessor test case")
+public class ModelAccessorTest {
+
+    public static class Book {
+        private String title = "poi-tl";
+
+        public String getTitle() {
+            return title;
+        }
+    }
+
+    public static class Novel extends Book {
+    }
+
+    @Test
+    public void testAccessor() {
+        AtomicInteger reads = new AtomicInteger();
+        ModelAccessors.register(new ModelAccessor() {
+
+            @Override
+            public Class<?> getModelType() {
+                return Book.class;
+            }
+
+            @Override
+            public boolean canRead(String key) {
+                return "book_title".equals(key);
+            }
+
+            @Override
+            public Object read(Object model, String key) {
+                reads.incrementAndGet();
+                return ((Book) model).getTitle();
+            }
+        });
+
+        assertNull(ModelAccessors.find(String.class));
+        assertEquals(Book.class, ModelAccessors.find(Novel.class).getModelType());
+
+        DefaultEL el = DefaultEL.create(new Novel());
+        assertEquals("poi-tl", el.eval("book_title"));
+        assertEquals("poi-tl", el.eval("title"));
+        assertEquals(1, reads.get());
+
+        SpELRenderDataCompute compute = new SpELRenderDataCompute(EnvModel.ofModel(new Novel()));
+        assertEquals("poi-tl", compute.compute("book_title"));
+        assertEquals(2, reads.get());
+    }
+
+}
@@ -1,17 +1,28 @@
 package com.deepoove.poi.tl.policy;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
 import com.deepoove.poi.data.FilePictureRenderData;
 import com.deepoove.poi.data.Includes;
 import com.deepoove.poi.tl.source.DataTest;
@@ -74,4 +85,50 @@ public class DocxRenderTest {
 
     }
 
+    @Test
+    public void testParallelMerge() throws Exception {
+        List<DataTest> models = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            models.addAll(dataList);
+        }
+        Map<String, Object> datas = new HashMap<>();
+        datas.put("title", "Hello, poi tl.");
+        datas.put("docx_template", Includes.ofLocal("src/test/resources/template/render_include_merge_template.docx")
+                .setRenderModel(models).create());
+
+        String expected = mergeText(Configure.createDefault(), datas);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertEquals(expected, mergeText(Configure.builder().useParallelMerge(executor).build(), datas));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParallelMergeEmpty() throws Exception {
+        Map<String, Object> datas = new HashMap<>();
+        datas.put("title", "Hello, poi tl.");
+        datas.put("docx_template", Includes.ofLocal("src/test/resources/template/render_include_merge_template.docx")
+                .setRenderModel(new ArrayList<>()).create());
+
+        String expected = mergeText(Configure.createDefault(), datas);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertEquals(expected, mergeText(Configure.builder().useParallelMerge(executor).build(), datas));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String mergeText(Configure config, Map<String, Object> datas) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XWPFTemplate.compile("src/test/resources/template/render_include.docx", config).render(datas)
+                .writeAndClose(out);
+        try (XWPFDocument doc = new XWPFDocument(new ByteArrayInputStream(out.toByteArray()));
+                XWPFWordExtractor extractor = new XWPFWordExtractor(doc)) {
+            return extractor.getText() + doc.getAllPackagePictures().size();
+        }
+    }
+
 }
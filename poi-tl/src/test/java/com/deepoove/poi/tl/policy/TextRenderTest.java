@@ -1,11 +1,16 @@
 package com.deepoove.poi.tl.policy;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import java.io.File;
 import java.io.FileInputStream;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.xmlbeans.impl.xb.xmlschema.SpaceAttribute;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -69,4 +74,29 @@ public class TextRenderTest {
 
     }
 
+    @Test
+    public void testPlainText() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{text}}");
+        doc.createParagraph().createRun().setText("{{number}}");
+        doc.createTable(1, 1).getRow(0).getCell(0).setText("{{cell}}");
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("text", " a\r\nb\n");
+        data.put("number", 3.14);
+        data.put("cell", new StringBuilder("x\ny"));
+        XWPFDocument result = XWPFTemplate.compile(doc).render(data).getXWPFDocument();
+
+        XWPFRun run = result.getParagraphArray(0).getRuns().get(0);
+        assertEquals(3, run.getCTR().sizeOfTArray());
+        assertEquals(2, run.getCTR().sizeOfCrArray());
+        assertEquals(" a", run.getCTR().getTArray(0).getStringValue());
+        assertEquals(SpaceAttribute.Space.PRESERVE, run.getCTR().getTArray(0).getSpace());
+        assertEquals("", run.getCTR().getTArray(2).getStringValue());
+        assertEquals("3.14", result.getParagraphArray(1).getText());
+        XWPFRun cellRun = result.getTables().get(0).getRow(0).getCell(0).getParagraphArray(0).getRuns().get(0);
+        assertEquals(1, cellRun.getCTR().sizeOfBrArray());
+        assertEquals("x\ny", cellRun.text());
+    }
+
 }
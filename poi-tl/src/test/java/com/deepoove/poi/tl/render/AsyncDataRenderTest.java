@@ -0,0 +1,119 @@
+package com.deepoove.poi.tl.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.exception.RenderException;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
+
+@DisplayName("Async data render test case")
+public class AsyncDataRenderTest {
+
+    ExecutorService executor;
+
+    @BeforeEach
+    public void init() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private XWPFTemplate compile(Configure config) throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        XWPFParagraph para = doc.createParagraph();
+        para.createRun().setText("{{a}}-{{b}}-");
+        para.createRun().setText("{{?list}}");
+        para.createRun().setText("{{=#this}}");
+        para.createRun().setText("{{/list}}");
+        return XWPFTemplate.compile(XWPFTestSupport.readInputStream(doc), config);
+    }
+
+    @Test
+    public void testConcurrentData() throws Exception {
+        // both suppliers must run at the same time to finish
+        CountDownLatch latch = new CountDownLatch(2);
+        Supplier<String> a = () -> await(latch, "A");
+        Supplier<String> b = () -> await(latch, "B");
+        Map<String, Object> data = new HashMap<>();
+        data.put("a", a);
+        data.put("b", b);
+        data.put("list", CompletableFuture.supplyAsync(() -> Arrays.asList("1", "2"), executor));
+
+        Configure config = Configure.builder().useSpringEL(false).useAsyncData(executor, 5000).build();
+        XWPFTemplate template = compile(config).render(data);
+        XWPFDocument document = XWPFTestSupport.readNewDocument(template);
+        assertEquals("A-B-12", document.getParagraphArray(0).getText());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        CompletableFuture<String> a = new CompletableFuture<>();
+        Map<String, Object> data = new HashMap<>();
+        data.put("a", a);
+        data.put("b", "B");
+
+        Configure config = Configure.builder().useAsyncData(executor, 100).build();
+        XWPFTemplate template = compile(config);
+        assertThrows(RenderException.class, () -> template.render(data));
+        // the future of the caller is not cancelled
+        assertFalse(a.isCancelled());
+    }
+
+    @Test
+    public void testEvaluateOnce() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        Map<String, Object> data = new HashMap<String, Object>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Object get(Object key) {
+                if ("a".equals(key)) reads.incrementAndGet();
+                return super.get(key);
+            }
+        };
+        data.put("a", "A");
+        data.put("b", (Supplier<String>) () -> "B");
+        data.put("list", Arrays.asList("1", "2"));
+
+        Configure config = Configure.builder().useAsyncData(executor, 5000).build();
+        XWPFTemplate template = compile(config).render(data);
+        XWPFDocument document = XWPFTestSupport.readNewDocument(template);
+        assertEquals("A-B-12", document.getParagraphArray(0).getText());
+        assertEquals(1, reads.get());
+    }
+
+    private String await(CountDownLatch latch, String value) {
+        latch.countDown();
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("not concurrent");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.deepoove.poi.tl.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.CompactOptions;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.xwpf.DocumentCompactor;
+
+@DisplayName("Compaction test case")
+public class CompactionTest {
+
+    @Test
+    public void testMergeRuns() {
+        XWPFDocument doc = new XWPFDocument();
+        XWPFParagraph paragraph = doc.createParagraph();
+        paragraph.createRun().setText("Hi ");
+        paragraph.createRun().setText("{{name}}");
+        paragraph.createRun().setText("{{empty}}");
+        paragraph.createRun().setText(", welcome");
+        XWPFRun bold = paragraph.createRun();
+        bold.setBold(true);
+        bold.setText("!");
+        paragraph.getCTP().addNewProofErr();
+        paragraph.getCTP().setRsidR(new byte[] { 0, 1, 2, 3 });
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "Sayi");
+        data.put("empty", "");
+        Configure config = Configure.builder().useCompaction(CompactOptions.builder().build()).build();
+        XWPFTemplate template = XWPFTemplate.compile(doc, config).render(data);
+
+        XWPFParagraph result = template.getXWPFDocument().getParagraphArray(0);
+        assertEquals(2, result.getRuns().size());
+        assertEquals("Hi Sayi, welcome", result.getRuns().get(0).text());
+        assertEquals("!", result.getRuns().get(1).text());
+        assertTrue(result.getRuns().get(1).isBold());
+        String xml = result.getCTP().xmlText();
+        assertFalse(xml.contains("proofErr"), xml);
+        assertFalse(xml.contains("rsid"), xml);
+    }
+
+    @Test
+    public void testRemoveEmptyParagraphs() {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("first");
+        doc.createParagraph().createRun().setText("{{empty}}");
+        doc.createParagraph();
+        doc.createParagraph().createRun().setText("last");
+
+        new DocumentCompactor(CompactOptions.builder().build()).compact(doc);
+        assertEquals(4, doc.getParagraphs().size());
+
+        doc.getParagraphArray(1).getRuns().get(0).setText("", 0);
+        DocumentCompactor compactor = new DocumentCompactor(
+                CompactOptions.builder().removeEmptyParagraphs(true).build());
+        compactor.compact(doc);
+        assertEquals(2, compactor.getRemovedParagraphs());
+        assertEquals(2, doc.getParagraphs().size());
+        assertEquals("last", doc.getParagraphArray(1).getText());
+    }
+
+    @Test
+    public void testPromoteCharacterStyles() {
+        XWPFDocument doc = new XWPFDocument();
+        for (int i = 0; i < 3; i++) {
+            XWPFRun run = doc.createParagraph().createRun();
+            run.setFontFamily("Arial");
+            run.setFontSize(14);
+            run.setBold(true);
+            run.setText("item" + i);
+        }
+        DocumentCompactor compactor = new DocumentCompactor(
+                CompactOptions.builder().promoteCharacterStyles(3).build());
+        compactor.compact(doc);
+
+        assertEquals(1, compactor.getCreatedStyles());
+        assertNotNull(doc.getStyles().getStyle("PoitlRun1"));
+        XWPFRun run = doc.getParagraphArray(2).getRuns().get(0);
+        assertEquals("PoitlRun1", run.getStyle());
+        assertTrue(run.isBold());
+        assertEquals(null, run.getFontFamily());
+    }
+
+}
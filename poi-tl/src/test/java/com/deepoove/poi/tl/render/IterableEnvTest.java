@@ -1,9 +1,12 @@
 package com.deepoove.poi.tl.render;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
@@ -12,6 +15,11 @@ import org.junit.jupiter.api.Test;
 
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.render.compute.DefaultELRenderDataCompute;
+import com.deepoove.poi.render.compute.EnvModel;
+import com.deepoove.poi.render.compute.LoopEnv;
+import com.deepoove.poi.render.compute.SpELRenderDataCompute;
+import com.deepoove.poi.render.processor.EnvIterator;
 import com.deepoove.poi.tl.source.XWPFTestSupport;
 
 public class IterableEnvTest {
@@ -51,4 +59,82 @@ public class IterableEnvTest {
                 text);
     }
 
+    @SuppressWarnings("serial")
+    @Test
+    public void testNestedEnvWithDefaultEL() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        XWPFParagraph para = doc.createParagraph();
+        para.createRun().setText("{{?list}}");
+        para.createRun().setText("{{_index}}{{name}}[");
+        para.createRun().setText("{{?items}}");
+        para.createRun().setText("{{_index}}{{=#this}}{{_is_last}}");
+        para.createRun().setText("{{/items}}");
+        para.createRun().setText("]");
+        para.createRun().setText("{{/list}}");
+
+        XWPFTemplate template = XWPFTemplate.compile(XWPFTestSupport.readInputStream(doc));
+        template.render(new HashMap<String, Object>() {
+            {
+                put("list", Arrays.asList(new HashMap<String, Object>() {
+                    {
+                        put("name", "a");
+                        put("items", Arrays.asList("x", "y"));
+                    }
+                }, new HashMap<String, Object>() {
+                    {
+                        put("name", "b");
+                        put("items", Arrays.asList("z"));
+                    }
+                }));
+            }
+        });
+        XWPFDocument newDocument = XWPFTestSupport.readNewDocument(template);
+        assertEquals("0a[0xfalse1ytrue]1b[0ztrue]", newDocument.getParagraphArray(0).getText());
+    }
+
+    @SuppressWarnings("serial")
+    @Test
+    public void testRebind() {
+        LoopEnv env = new LoopEnv(0, true);
+        DefaultELRenderDataCompute compute = new DefaultELRenderDataCompute(
+                EnvModel.of(new HashMap<String, Object>() {
+                    {
+                        put("name", "a");
+                    }
+                }, env), false);
+        assertEquals("a", compute.compute("name"));
+        assertEquals(0, compute.compute("_index"));
+        assertEquals(true, compute.compute("_is_first"));
+
+        compute.rebind(EnvModel.of(new HashMap<String, Object>(), env.moveTo(1, false)));
+        assertNull(compute.compute("name"));
+        assertEquals(1, compute.compute("_index"));
+        assertEquals(true, compute.compute("_is_last"));
+
+        SpELRenderDataCompute spel = new SpELRenderDataCompute(EnvModel.of("a", new LoopEnv(0, true)));
+        assertEquals(0, spel.compute("_index"));
+        spel.rebind(EnvModel.of("b", new LoopEnv(3, false)));
+        assertEquals("b", spel.compute("#this"));
+        assertEquals(4, spel.compute("_index + 1"));
+        assertEquals(true, spel.compute("_is_even_item"));
+    }
+
+    @Test
+    public void testMutableEnv() {
+        Map<String, Object> env = EnvIterator.makeEnv(0, true);
+        env.put("_group", "a");
+        env.put("_index", 5);
+        assertEquals("a", env.get("_group"));
+        assertEquals(5, env.get("_index"));
+        assertEquals(7, env.size());
+        env.remove("_is_first");
+        assertFalse(env.containsKey("_is_first"));
+        assertEquals(6, env.size());
+
+        LoopEnv loopEnv = ((LoopEnv) env).moveTo(1, false);
+        assertNull(loopEnv.get("_group"));
+        assertEquals(1, loopEnv.get("_index"));
+        assertEquals(6, loopEnv.size());
+    }
+
 }
@@ -0,0 +1,128 @@
+package com.deepoove.poi.tl.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFNum;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.data.Numberings;
+import com.deepoove.poi.mailmerge.MailMerge;
+import com.deepoove.poi.mailmerge.MailMerge.Separator;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
+
+@DisplayName("Mail merge test case")
+public class MailMergeTest {
+
+    @Test
+    public void testMerge() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("Dear {{name}}");
+        doc.createTable(1, 2).getRow(0).getCell(0).setText("{{no}}");
+        doc.createHeader(org.apache.poi.wp.usermodel.HeaderFooterType.DEFAULT).createParagraph().createRun()
+                .setText("{{title}}");
+
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("name", "Sayi" + i);
+            record.put("no", String.valueOf(i));
+            record.put("title", "Letters");
+            records.add(record);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int count = MailMerge.compile(XWPFTestSupport.readInputStream(doc)).separator(Separator.PAGE_BREAK)
+                .merge(records, out);
+        assertEquals(100, count);
+
+        XWPFDocument result = new XWPFDocument(new ByteArrayInputStream(out.toByteArray()));
+        List<XWPFParagraph> letters = new ArrayList<>();
+        result.getParagraphs().forEach(p -> {
+            if (p.getText().startsWith("Dear")) letters.add(p);
+        });
+        assertEquals(100, letters.size());
+        assertEquals(100, result.getTables().size());
+        // one page break between two records
+        assertEquals(200 + 99, result.getBodyElements().size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Dear Sayi" + i, letters.get(i).getText());
+            XWPFTable table = result.getTables().get(i);
+            assertEquals(String.valueOf(i), table.getRow(0).getCell(0).getText());
+        }
+        assertEquals("Letters", result.getHeaderList().get(0).getText().trim());
+        result.close();
+    }
+
+    @Test
+    public void testRestartNumbering() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{*items}}");
+        XWPFParagraph section = doc.createParagraph();
+        section.createRun().setText("{{?tags}}");
+        section.createRun().setText("[{{=#this}}]");
+        section.createRun().setText("{{/tags}}");
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("items", Numberings.ofDecimal("a" + i, "b" + i).create());
+            record.put("tags", Arrays.asList("x" + i, "y" + i));
+            records.add(record);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MailMerge.compile(XWPFTestSupport.readInputStream(doc), Configure.builder().useSpringEL(false).build())
+                .separator(Separator.NONE).merge(records, out);
+
+        XWPFDocument result = new XWPFDocument(new ByteArrayInputStream(out.toByteArray()));
+        List<BigInteger> numIds = new ArrayList<>();
+        for (XWPFParagraph paragraph : result.getParagraphs()) {
+            if (paragraph.getText().startsWith("a")) numIds.add(paragraph.getNumID());
+        }
+        assertEquals(3, numIds.size());
+        assertEquals(3, new HashSet<>(numIds).size());
+        // lists of later records restart
+        XWPFNum num = result.getNumbering().getNum(numIds.get(1));
+        assertTrue(num.getCTNum().getLvlOverrideArray(0).isSetStartOverride());
+        assertTrue(result.getParagraphs().stream().anyMatch(p -> "[x2][y2]".equals(p.getText())));
+        result.close();
+    }
+
+    @Test
+    public void testSectionBreak() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{name}}");
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("name", "Sayi" + i);
+            records.add(record);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MailMerge.compile(XWPFTestSupport.readInputStream(doc)).separator(Separator.SECTION_BREAK).merge(records,
+                out);
+
+        XWPFDocument result = new XWPFDocument(new ByteArrayInputStream(out.toByteArray()));
+        List<XWPFParagraph> paragraphs = result.getParagraphs();
+        assertEquals(5, paragraphs.size());
+        assertEquals("Sayi0", paragraphs.get(0).getText());
+        assertEquals(true, paragraphs.get(1).getCTP().getPPr().isSetSectPr());
+        assertEquals("Sayi2", paragraphs.get(4).getText());
+        result.close();
+    }
+
+}
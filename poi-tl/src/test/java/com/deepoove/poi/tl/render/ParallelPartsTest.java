@@ -0,0 +1,236 @@
+package com.deepoove.poi.tl.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFFooter;
+import org.apache.poi.xwpf.usermodel.XWPFHeader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.config.RenderLimits;
+import com.deepoove.poi.data.Pictures;
+import com.deepoove.poi.exception.RenderException;
+import com.deepoove.poi.exception.RenderLimitException;
+import com.deepoove.poi.exception.RenderLimitException.Limit;
+import com.deepoove.poi.render.compute.DefaultELRenderDataCompute;
+import com.deepoove.poi.render.compute.RenderDataCompute;
+import com.deepoove.poi.render.compute.RenderDataComputeFactory;
+
+@DisplayName("Parallel parts render test case")
+public class ParallelPartsTest {
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testParallelParts() throws Exception {
+        String expected = render(Configure.createDefault());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected, render(Configure.builder().useParallelParts(executor).build()));
+        }
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        Configure config = Configure.builder().useParallelParts(executor).bind("footer", (eleTemplate, data, t) -> {
+            throw new RenderException("footer failed");
+        }).build();
+        RenderException e = assertThrows(RenderException.class,
+                () -> XWPFTemplate.compile(document(), config).render(data()));
+        assertEquals("footer failed", e.getMessage());
+    }
+
+    @Test
+    public void testFirstFailureCancelsParts() throws Exception {
+        ExecutorService parts = Executors.newFixedThreadPool(8);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Configure config = Configure.builder()
+                .useParallelParts(parts)
+                .setRenderDataComputeFactory(slowTitle(new CountDownLatch(1), stopped))
+                .bind("footer", (eleTemplate, data, t) -> {
+                    throw new RenderException("footer failed");
+                })
+                .build();
+        try {
+            RenderException e = assertThrows(RenderException.class,
+                    () -> XWPFTemplate.compile(document(), config).render(data()));
+            assertEquals("footer failed", e.getMessage());
+            assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        } finally {
+            parts.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedCancelsParts() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        AtomicInteger submitted = new AtomicInteger();
+        Executor first = runnable -> {
+            if (0 == submitted.getAndIncrement()) {
+                executor.execute(runnable);
+                return;
+            }
+            try {
+                started.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RejectedExecutionException("full");
+        };
+        Configure config = Configure.builder()
+                .useParallelParts(first)
+                .setRenderDataComputeFactory(slowTitle(started, stopped))
+                .build();
+        Exception e = assertThrows(Exception.class, () -> XWPFTemplate.compile(document(), config).render(data()));
+        assertTrue(e instanceof RejectedExecutionException || e.getCause() instanceof RejectedExecutionException,
+                String.valueOf(e));
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+    }
+
+    // computing data does not hold the document lock
+    private static RenderDataComputeFactory slowTitle(CountDownLatch started, CountDownLatch stopped) {
+        return model -> {
+            RenderDataCompute compute = new DefaultELRenderDataCompute(model, false);
+            return el -> {
+                if ("title".equals(el)) {
+                    started.countDown();
+                    sleep(stopped);
+                }
+                return compute.compute(el);
+            };
+        };
+    }
+
+    @Test
+    public void testDeadlineCancelsParts() throws Exception {
+        CountDownLatch stopped = new CountDownLatch(1);
+        Configure config = Configure.builder()
+                .useParallelParts(executor)
+                .useRenderLimits(RenderLimits.builder().timeout(Duration.ofMillis(500)).build())
+                .bind("footer", (eleTemplate, data, t) -> sleep(stopped))
+                .build();
+        RenderLimitException e = assertThrows(RenderLimitException.class,
+                () -> XWPFTemplate.compile(document(), config).render(data()));
+        assertEquals(Limit.DEADLINE, e.getLimit());
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testInterruptCancelsParts() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Configure config = Configure.builder().useParallelParts(executor).bind("footer", (eleTemplate, data, t) -> {
+            started.countDown();
+            sleep(stopped);
+        }).build();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread caller = new Thread(() -> {
+            try {
+                XWPFTemplate.compile(document(), config).render(data());
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        caller.join(5000);
+
+        assertFalse(caller.isAlive());
+        assertEquals(Limit.INTERRUPTED, RenderLimitException.find(failure.get()).getLimit());
+        assertTrue(interrupted.get());
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void sleep(CountDownLatch stopped) {
+        try {
+            Thread.sleep(60000);
+        } catch (InterruptedException e) {
+            stopped.countDown();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String render(Configure config) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XWPFTemplate.compile(document(), config).render(data()).writeAndClose(out);
+        StringBuilder sb = new StringBuilder();
+        try (XWPFDocument doc = new XWPFDocument(new ByteArrayInputStream(out.toByteArray()))) {
+            doc.getParagraphs().forEach(p -> sb.append(p.getText()).append('\n'));
+            for (XWPFHeader header : doc.getHeaderList()) {
+                sb.append(header.getText());
+            }
+            for (XWPFFooter footer : doc.getFooterList()) {
+                sb.append(footer.getText());
+            }
+            sb.append(doc.getAllPackagePictures().size());
+        }
+        return sb.toString();
+    }
+
+    private XWPFDocument document() {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{title}}");
+        doc.createParagraph().createRun().setText("{{?items}}");
+        doc.createParagraph().createRun().setText("{{name}} {{@logo}}");
+        doc.createParagraph().createRun().setText("{{/items}}");
+        for (HeaderFooterType type : new HeaderFooterType[] { HeaderFooterType.DEFAULT, HeaderFooterType.FIRST,
+                HeaderFooterType.EVEN }) {
+            XWPFHeader header = doc.createHeader(type);
+            header.createParagraph().createRun().setText("{{title}} {{@logo}}");
+            header.createParagraph().createRun().setText("{{?items}}{{name}}{{/items}}");
+            doc.createFooter(type).createParagraph().createRun().setText("{{footer}}");
+        }
+        return doc;
+    }
+
+    private Map<String, Object> data() {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("name", "item" + i);
+            item.put("logo", Pictures.ofLocal("src/test/resources/sayi.png").size(10, 10).create());
+            items.add(item);
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("title", "Poi-tl");
+        data.put("footer", Collections.singletonList("footer"));
+        data.put("items", items);
+        data.put("logo", Pictures.ofLocal("src/test/resources/logo.png").size(10, 10).create());
+        return data;
+    }
+
+}
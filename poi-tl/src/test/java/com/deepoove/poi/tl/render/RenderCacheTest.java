@@ -0,0 +1,175 @@
+package com.deepoove.poi.tl.render;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.cache.DefaultModelHasher;
+import com.deepoove.poi.cache.RenderCache;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.data.Pictures;
+import com.deepoove.poi.exception.ResolverException;
+import com.deepoove.poi.tl.source.XWPFTestSupport;
+
+@DisplayName("Render cache test case")
+public class RenderCacheTest {
+
+    @Test
+    public void testModelHasher() {
+        DefaultModelHasher hasher = new DefaultModelHasher();
+        Map<String, Object> a = new HashMap<>();
+        a.put("name", "poi-tl");
+        a.put("list", Arrays.asList(1, 2));
+        Map<String, Object> b = new LinkedHashMap<>();
+        b.put("list", Arrays.asList(1, 2));
+        b.put("name", "poi-tl");
+        assertEquals(hasher.hash(a), hasher.hash(b));
+
+        b.put("name", "poi-tl2");
+        assertNotEquals(hasher.hash(a), hasher.hash(b));
+
+        Map<Object, Object> c = new HashMap<>();
+        c.put(1, "one");
+        Map<Object, Object> d = new HashMap<>();
+        d.put("1", "one");
+        assertNotEquals(hasher.hash(c), hasher.hash(d));
+
+        Supplier<String> supplier = () -> "";
+        a.put("async", supplier);
+        assertNull(hasher.hash(a));
+    }
+
+    @Test
+    public void testPictureHash() throws Exception {
+        DefaultModelHasher hasher = new DefaultModelHasher();
+        Path file = Files.createTempFile("poitl-cache", ".png");
+        Files.write(file, new byte[] { 1, 2, 3 });
+        Map<String, Object> data = new HashMap<>();
+        data.put("picture", Pictures.ofLocal(file.toString()).create());
+        String hash = hasher.hash(data);
+        assertNotNull(hash);
+        Files.write(file, new byte[] { 4, 5, 6 });
+        assertNotEquals(hash, hasher.hash(data));
+        Files.delete(file);
+        assertNull(hasher.hash(data));
+
+        data.put("picture", Pictures.ofUrl("http://deepoove.com/images/icecream.png").create());
+        assertNull(hasher.hash(data));
+    }
+
+    @Test
+    public void testValueHash() {
+        DefaultModelHasher hasher = new DefaultModelHasher();
+        Map<String, Object> data = new HashMap<>();
+        data.put("date", LocalDate.of(2024, 1, 1));
+        data.put("time", Instant.ofEpochSecond(0));
+        String hash = hasher.hash(data);
+        assertNotNull(hash);
+        data.put("date", LocalDate.of(2024, 1, 2));
+        assertNotEquals(hash, hasher.hash(data));
+
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+        data.put("image", image);
+        hash = hasher.hash(data);
+        assertNotNull(hash);
+        image.setRGB(1, 1, 0xFF0000);
+        assertNotEquals(hash, hasher.hash(data));
+
+        data.put("thread", new Thread());
+        assertNull(hasher.hash(data));
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{name}}");
+        byte[] templateBytes = toBytes(XWPFTestSupport.readInputStream(doc));
+
+        Path dir = Files.createTempDirectory("poitl-cache");
+        RenderCache cache = RenderCache.builder().maxHeapBytes(1024 * 1024).disk(dir, 10 * 1024 * 1024).build();
+        Configure config = Configure.builder().useRenderCache(cache).build();
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "Sayi");
+
+        byte[] first = render(templateBytes, config, data);
+        byte[] second = render(templateBytes, config, data);
+        assertArrayEquals(first, second);
+        assertEquals(1, cache.getStats().getMisses());
+        assertEquals(1, cache.getStats().getHeapHits());
+
+        // the document of a cache hit is rendered when accessed
+        XWPFTemplate hit = XWPFTemplate.compile(new ByteArrayInputStream(templateBytes), config)
+                .render(data, new ByteArrayOutputStream());
+        assertEquals("Sayi", hit.getXWPFDocument().getParagraphArray(0).getText());
+        hit.close();
+        assertEquals(2, cache.getStats().getHeapHits());
+
+        // disk tier
+        RenderCache diskOnly = RenderCache.builder().disk(dir, 10 * 1024 * 1024).build();
+        byte[] third = render(templateBytes, Configure.builder().useRenderCache(diskOnly).build(), data);
+        assertArrayEquals(first, third);
+        assertEquals(1, diskOnly.getStats().getDiskHits());
+
+        data.put("name", "Deepoove");
+        render(templateBytes, config, data);
+        assertEquals(2, cache.getStats().getMisses());
+
+        cache.clear();
+        assertEquals(0, cache.getStats().getDiskBytes());
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    public void testCompileInvalidPackage() {
+        Configure config = Configure.builder().useRenderCache(RenderCache.builder().build()).build();
+        assertThrows(ResolverException.class,
+                () -> XWPFTemplate.compile(new ByteArrayInputStream("not docx".getBytes()), config));
+    }
+
+    @Test
+    public void testOneCachePerConfigure() {
+        RenderCache cache = RenderCache.builder().build();
+        Configure.builder().useRenderCache(cache).build();
+        assertThrows(IllegalStateException.class, () -> Configure.builder().useRenderCache(cache).build());
+    }
+
+    private byte[] render(byte[] templateBytes, Configure config, Object data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XWPFTemplate.compile(new ByteArrayInputStream(templateBytes), config).render(data, out).close();
+        return out.toByteArray();
+    }
+
+    private byte[] toBytes(InputStream in) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+}
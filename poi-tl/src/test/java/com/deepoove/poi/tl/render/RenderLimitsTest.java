@@ -0,0 +1,192 @@
+package com.deepoove.poi.tl.render;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.cache.RenderCache;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.config.RenderLimits;
+import com.deepoove.poi.data.ByteArrayPictureRenderData;
+import com.deepoove.poi.data.FilePictureRenderData;
+import com.deepoove.poi.data.PictureType;
+import com.deepoove.poi.exception.RenderLimitException;
+import com.deepoove.poi.exception.RenderLimitException.Limit;
+import com.deepoove.poi.plugin.table.LoopRowTableRenderPolicy;
+
+@DisplayName("Render limits test case")
+public class RenderLimitsTest {
+
+    @Test
+    public void testLoopIterations() {
+        Configure config = Configure.builder()
+                .useRenderLimits(RenderLimits.builder().maxLoopIterations(10).build())
+                .build();
+        RenderLimitException e = assertThrows(RenderLimitException.class,
+                () -> XWPFTemplate.compile(sectionDocument(), config).render(items(100)));
+        assertEquals(Limit.LOOP_ITERATIONS, e.getLimit());
+        assertEquals(11, e.getStats().getLoopIterations());
+
+        // under limit
+        XWPFTemplate.compile(sectionDocument(), config).render(items(10));
+    }
+
+    @Test
+    public void testGeneratedElements() {
+        Configure config = Configure.builder()
+                .useRenderLimits(RenderLimits.builder().maxGeneratedElements(5).build())
+                .build();
+        RenderLimitException e = assertThrows(RenderLimitException.class,
+                () -> XWPFTemplate.compile(sectionDocument(), config).render(items(100)));
+        assertEquals(Limit.GENERATED_ELEMENTS, e.getLimit());
+        assertEquals(6, e.getStats().getGeneratedElements());
+    }
+
+    @Test
+    public void testTableLoop() {
+        XWPFDocument doc = new XWPFDocument();
+        XWPFTable table = doc.createTable(2, 1);
+        table.getRow(0).getCell(0).setText("{{items}}");
+        table.getRow(1).getCell(0).setText("[name]");
+        Configure config = Configure.builder()
+                .bind("items", new LoopRowTableRenderPolicy())
+                .useRenderLimits(RenderLimits.builder().maxLoopIterations(3).build())
+                .build();
+        RenderLimitException e = assertThrows(RenderLimitException.class,
+                () -> XWPFTemplate.compile(doc, config).render(items(10)));
+        assertEquals(Limit.LOOP_ITERATIONS, e.getLimit());
+    }
+
+    @Test
+    public void testDeadline() {
+        Configure config = Configure.builder()
+                .useRenderLimits(RenderLimits.builder().timeout(Duration.ZERO).build())
+                .build();
+        RenderLimitException e = assertThrows(RenderLimitException.class,
+                () -> XWPFTemplate.compile(sectionDocument(), config).render(items(1)));
+        assertEquals(Limit.DEADLINE, e.getLimit());
+    }
+
+    @Test
+    public void testInterrupted() {
+        Configure config = Configure.builder()
+                .useRenderLimits(RenderLimits.builder().timeout(Duration.ofMinutes(1)).build())
+                .build();
+        Thread.currentThread().interrupt();
+        try {
+            RenderLimitException e = assertThrows(RenderLimitException.class,
+                    () -> XWPFTemplate.compile(sectionDocument(), config).render(items(1)));
+            assertEquals(Limit.INTERRUPTED, e.getLimit());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testPictureBytes() {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{@picture}}");
+        Configure config = Configure.builder()
+                .useRenderLimits(RenderLimits.builder().maxPictureBytes(10).build())
+                .build();
+        Map<String, Object> data = Collections.singletonMap("picture",
+                new ByteArrayPictureRenderData(new byte[100], PictureType.PNG));
+        RenderLimitException e = assertThrows(RenderLimitException.class,
+                () -> XWPFTemplate.compile(doc, config).render(data));
+        assertEquals(Limit.PICTURE_BYTES, e.getLimit());
+        assertEquals(100, e.getStats().getPictureBytes());
+    }
+
+    @Test
+    public void testFilePictureBytes() throws Exception {
+        Path file = Files.createTempFile("poitl-limits", ".png");
+        Files.write(file, new byte[100]);
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{@picture}}");
+        Configure config = Configure.builder()
+                .useRenderLimits(RenderLimits.builder().maxPictureBytes(10).build())
+                .build();
+        Map<String, Object> data = Collections.singletonMap("picture",
+                new FilePictureRenderData(file.toString(), PictureType.PNG));
+        RenderLimitException e = assertThrows(RenderLimitException.class,
+                () -> XWPFTemplate.compile(doc, config).render(data));
+        assertEquals(Limit.PICTURE_BYTES, e.getLimit());
+        assertEquals(100, e.getStats().getPictureBytes());
+        Files.delete(file);
+    }
+
+    @Test
+    public void testWriteAfterDeadline() throws Exception {
+        Configure config = Configure.builder()
+                .useRenderLimits(RenderLimits.builder().timeout(Duration.ofMillis(200)).build())
+                .build();
+        XWPFTemplate template = XWPFTemplate.compile(sectionDocument(), config).render(items(1));
+        Thread.sleep(300);
+        template.write(new ByteArrayOutputStream());
+        template.close();
+    }
+
+    @Test
+    public void testOutputBytesOfCacheHit() throws Exception {
+        RenderCache cache = RenderCache.builder().build();
+        Configure config = Configure.builder()
+                .useRenderCache(cache)
+                .useRenderLimits(RenderLimits.builder().maxOutputBytes(1024).build())
+                .build();
+        XWPFTemplate template = XWPFTemplate.compile(sectionDocument(), config);
+        Map<String, Object> data = items(1);
+        cache.put(cache.key(template.getFingerprint(), data), new byte[2048]);
+        RenderLimitException e = assertThrows(RenderLimitException.class,
+                () -> template.render(data, new ByteArrayOutputStream()));
+        assertEquals(Limit.OUTPUT_BYTES, e.getLimit());
+        template.close();
+    }
+
+    @Test
+    public void testOutputBytes() throws Exception {
+        Configure config = Configure.builder()
+                .useRenderLimits(RenderLimits.builder().maxOutputBytes(1024).build())
+                .build();
+        XWPFTemplate template = XWPFTemplate.compile(sectionDocument(), config).render(items(1));
+        RenderLimitException e = assertThrows(RenderLimitException.class,
+                () -> template.write(new ByteArrayOutputStream()));
+        assertEquals(Limit.OUTPUT_BYTES, e.getLimit());
+        assertTrue(e.getStats().getOutputBytes() > 1024);
+        template.close();
+    }
+
+    private XWPFDocument sectionDocument() {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{?items}}");
+        doc.createParagraph().createRun().setText("{{name}}");
+        doc.createParagraph().createRun().setText("{{/items}}");
+        return doc;
+    }
+
+    private Map<String, Object> items(int size) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            items.add(Collections.singletonMap("name", "item" + i));
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("items", items);
+        return data;
+    }
+
+}
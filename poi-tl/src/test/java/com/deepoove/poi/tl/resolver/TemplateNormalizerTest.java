@@ -0,0 +1,76 @@
+package com.deepoove.poi.tl.resolver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.resolver.TemplateNormalizer;
+import com.deepoove.poi.resolver.TemplateNormalizer.Report;
+import com.deepoove.poi.template.MetaTemplate;
+
+@DisplayName("Template normalizer test case")
+public class TemplateNormalizerTest {
+
+    private static final String TEMPLATE = "src/test/resources/template/resolver_running_run.docx";
+
+    @Test
+    public void testNormalize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Report report;
+        try (InputStream in = new FileInputStream(TEMPLATE)) {
+            report = new TemplateNormalizer().normalize(in, out);
+        }
+        assertEquals(22, report.getTemplates());
+
+        List<String> expected;
+        try (XWPFTemplate template = XWPFTemplate.compile(TEMPLATE)) {
+            expected = variables(template.getElementTemplates());
+        }
+        try (XWPFTemplate template = XWPFTemplate.compile(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(expected, variables(template.getElementTemplates()));
+        }
+
+        // normalized template is stable
+        Report again = new TemplateNormalizer().normalize(new ByteArrayInputStream(out.toByteArray()),
+                new ByteArrayOutputStream());
+        assertEquals(0, again.getRunsEliminated());
+    }
+
+    @Test
+    public void testUnfragment() {
+        XWPFDocument doc = new XWPFDocument();
+        XWPFParagraph paragraph = doc.createParagraph();
+        paragraph.createRun().setText("Hi {{na");
+        paragraph.getCTP().addNewProofErr();
+        paragraph.createRun().setText("me}}");
+        paragraph.createRun().setText(", {{");
+        XWPFRun bold = paragraph.createRun();
+        bold.setBold(true);
+        bold.setText("date}} ok");
+
+        Report report = new TemplateNormalizer().normalize(doc);
+        assertEquals(2, report.getTemplates());
+        assertEquals(2, report.getRunsEliminated());
+        List<String> texts = paragraph.getRuns().stream().map(XWPFRun::text).collect(Collectors.toList());
+        assertEquals(Arrays.asList("Hi ", "{{name}}", ", ", "{{date}}", " ok"), texts);
+    }
+
+    private List<String> variables(List<MetaTemplate> templates) {
+        return templates.stream().map(MetaTemplate::variable).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.deepoove.poi.tl.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.exception.ReflectionException;
+import com.deepoove.poi.util.FieldAccessor;
+import com.deepoove.poi.xwpf.PoiFields;
+
+@DisplayName("FieldAccessor test case")
+public class FieldAccessorTest {
+
+    @Test
+    public void testAccessor() {
+        XWPFDocument doc = new XWPFDocument();
+        XWPFParagraph paragraph = doc.createParagraph();
+        XWPFRun run = paragraph.createRun();
+
+        List<XWPFRun> runs = PoiFields.PARAGRAPH_RUNS.get(paragraph);
+        assertEquals(1, runs.size());
+        assertSame(run, runs.get(0));
+        assertSame(doc.getBodyElements().get(0), PoiFields.bodyElements(doc).get(0));
+        assertSame(PoiFields.PARAGRAPH_RUNS, FieldAccessor.of(XWPFParagraph.class, "runs"));
+
+        Bean bean = new Bean();
+        FieldAccessor.of(Bean.class, "name").set(bean, "poi-tl");
+        assertEquals("poi-tl", FieldAccessor.of(Bean.class, "name").get(bean));
+
+        assertThrows(ReflectionException.class, () -> FieldAccessor.of(Bean.class, "missing"));
+    }
+
+    @Test
+    public void testUnresolved() {
+        FieldAccessor accessor = FieldAccessor.unresolved(Bean.class, "missing",
+                new ReflectionException("Unsupported poi version"));
+        ReflectionException e = assertThrows(ReflectionException.class, () -> accessor.get(new Bean()));
+        assertEquals("Unsupported poi version", e.getMessage());
+        assertThrows(ReflectionException.class, () -> accessor.set(new Bean(), "poi-tl"));
+    }
+
+    static class Bean {
+        private String name;
+    }
+
+}
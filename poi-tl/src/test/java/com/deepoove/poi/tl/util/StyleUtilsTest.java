@@ -1,13 +1,21 @@
 package com.deepoove.poi.tl.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 
+import org.apache.poi.xwpf.usermodel.ParagraphAlignment;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFRun.FontCharRange;
 import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTColor;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STThemeColor;
 
+import com.deepoove.poi.data.style.ParagraphStyle;
 import com.deepoove.poi.data.style.Style;
 import com.deepoove.poi.util.StyleUtils;
 
@@ -34,6 +42,38 @@ public class StyleUtilsTest {
 
     }
 
+    @Test
+    public void testPrototype() throws IOException {
+        try (XWPFDocument doc = new XWPFDocument()) {
+            XWPFRun run = doc.createParagraph().createRun();
+            CTColor color = run.getCTR().addNewRPr().addNewColor();
+            color.setVal("123456");
+            color.setThemeColor(STThemeColor.ACCENT_1);
+            run.setFontFamily("Arial", FontCharRange.hAnsi);
+
+            Style style = Style.builder().buildColor("FF0000").buildFontFamily("宋体").buildBold().build();
+            StyleUtils.styleRun(run, style);
+            XWPFRun other = doc.createParagraph().createRun();
+            StyleUtils.styleRun(other, style);
+
+            assertEquals("FF0000", run.getColor());
+            assertFalse(run.getCTR().getRPr().getColorArray(0).isSetThemeColor());
+            assertEquals("宋体", run.getFontFamily(FontCharRange.hAnsi));
+            assertTrue(run.isBold());
+            assertEquals(1, run.getCTR().getRPr().sizeOfRFontsArray());
+            assertEquals("FF0000", other.getColor());
+            assertTrue(other.isBold());
+
+            XWPFParagraph paragraph = doc.createParagraph();
+            paragraph.setIndentationLeft(420);
+            StyleUtils.styleParagraph(paragraph,
+                    ParagraphStyle.builder().withIndentLeftChars(2.0).withAlign(ParagraphAlignment.CENTER).build());
+            assertEquals(ParagraphAlignment.CENTER, paragraph.getAlignment());
+            assertEquals(200, paragraph.getCTP().getPPr().getInd().getLeftChars().intValue());
+            assertFalse(paragraph.getCTP().getPPr().getInd().isSetLeft());
+        }
+    }
+
     @Test
     public void testToRgb() {
         assertEquals("11ff22", StyleUtils.toRgb("#1f2"));
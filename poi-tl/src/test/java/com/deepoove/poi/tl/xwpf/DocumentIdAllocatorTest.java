@@ -0,0 +1,94 @@
+package com.deepoove.poi.tl.xwpf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+
+import org.apache.poi.xwpf.usermodel.XWPFAbstractNum;
+import org.apache.poi.xwpf.usermodel.XWPFComments;
+import org.apache.poi.xwpf.usermodel.XWPFFootnote;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
+
+import com.deepoove.poi.data.NumberingFormat;
+import com.deepoove.poi.xwpf.DocumentIdAllocator;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
+import com.deepoove.poi.xwpf.XWPFNumberingWrapper;
+
+@DisplayName("Document id allocator test case")
+public class DocumentIdAllocatorTest {
+
+    @Test
+    public void testSeedFromDocument() throws Exception {
+        NiceXWPFDocument doc = new NiceXWPFDocument();
+        doc.createParagraph().getCTP().addNewBookmarkStart().setId(BigInteger.valueOf(7));
+        XWPFComments comments = doc.createComments();
+        comments.createComment(BigInteger.valueOf(5));
+        XWPFFootnote footnote = doc.createFootnote();
+
+        DocumentIdAllocator allocator = doc.getIdAllocator();
+        assertEquals(BigInteger.valueOf(8), allocator.nextBookmarkId());
+        assertEquals(BigInteger.valueOf(9), allocator.nextBookmarkId());
+        assertEquals(BigInteger.valueOf(6), allocator.nextCommentId());
+        assertEquals(footnote.getId().add(BigInteger.ONE), allocator.nextNoteId());
+    }
+
+    @Test
+    public void testSeedBookmarkFromAllParts() throws Exception {
+        NiceXWPFDocument doc = new NiceXWPFDocument();
+        doc.createParagraph().getCTP().addNewBookmarkStart().setId(BigInteger.valueOf(1));
+        doc.createFootnote().createParagraph().getCTP().addNewBookmarkStart().setId(BigInteger.valueOf(3));
+        doc.createEndnote().createParagraph().getCTP().addNewBookmarkStart().setId(BigInteger.valueOf(5));
+        doc.createComments().createComment(BigInteger.ONE).createParagraph().getCTP().addNewBookmarkStart()
+                .setId(BigInteger.valueOf(9));
+
+        assertEquals(BigInteger.valueOf(10), doc.getIdAllocator().nextBookmarkId());
+    }
+
+    @Test
+    public void testResetAfterOutsideIds() throws Exception {
+        NiceXWPFDocument doc = new NiceXWPFDocument();
+        DocumentIdAllocator allocator = doc.getIdAllocator();
+        assertEquals(BigInteger.ONE, allocator.nextBookmarkId());
+        assertEquals(BigInteger.ONE, allocator.nextAbstractNumId());
+
+        doc.createParagraph().getCTP().addNewBookmarkStart().setId(BigInteger.valueOf(4));
+        doc.createNumbering().addAbstractNum(new XWPFAbstractNum(newAbstractNum(BigInteger.valueOf(6))));
+        allocator.reset();
+        assertEquals(BigInteger.valueOf(5), allocator.nextBookmarkId());
+        // the numbering wrapper allocates through the allocator of the document
+        assertEquals(BigInteger.valueOf(7), new XWPFNumberingWrapper(doc.getNumbering()).getNextAbstractNumID());
+        assertEquals(BigInteger.valueOf(8), allocator.nextAbstractNumId());
+    }
+
+    private static CTAbstractNum newAbstractNum(BigInteger id) {
+        CTAbstractNum abstractNum = CTAbstractNum.Factory.newInstance();
+        abstractNum.setAbstractNumId(id);
+        return abstractNum;
+    }
+
+    @Test
+    public void testReuseNumbering() throws Exception {
+        NiceXWPFDocument doc = new NiceXWPFDocument();
+        BigInteger decimal = doc.addNewNumberingId(NumberingFormat.DECIMAL);
+        BigInteger bullet = doc.addNewNumberingId(NumberingFormat.BULLET);
+        assertNotEquals(decimal, bullet);
+        assertEquals(decimal, doc.addNewNumberingId(NumberingFormat.DECIMAL));
+        assertNotEquals(doc.getNumbering().getAbstractNumID(decimal), doc.getNumbering().getAbstractNumID(bullet));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+        doc.close();
+        try (NiceXWPFDocument reopen = new NiceXWPFDocument(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(bullet, reopen.addNewNumberingId(NumberingFormat.BULLET));
+            BigInteger lower = reopen.addNewNumberingId(NumberingFormat.LOWER_LETTER);
+            assertEquals(3, reopen.getNumbering().getNums().size());
+            assertEquals(BigInteger.valueOf(3), reopen.getNumbering().getAbstractNumID(lower));
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.deepoove.poi.tl.xwpf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import org.apache.poi.util.Units;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.xwpf.DrawingIndex;
+
+@DisplayName("Drawing index test case")
+public class DrawingIndexTest {
+
+    @Test
+    public void testLoopRenumber() throws Exception {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("{{?items}}");
+        XWPFParagraph paragraph = doc.createParagraph();
+        paragraph.createRun().setText("{{name}}");
+        try (InputStream in = new FileInputStream("src/test/resources/sayi.png")) {
+            paragraph.createRun().addPicture(in, Document.PICTURE_TYPE_PNG, "sayi.png", Units.toEMU(20), Units.toEMU(20));
+        }
+        doc.createParagraph().createRun().setText("{{/items}}");
+
+        DrawingIndex index = DrawingIndex.of(paragraph.getCTP());
+        assertFalse(index.isEmpty());
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(Collections.singletonMap("name", "item" + i));
+        }
+        XWPFTemplate template = XWPFTemplate.compile(doc)
+                .render(Collections.singletonMap("items", items));
+        List<String> ids = docPrIds(template.getXWPFDocument().getDocument());
+        assertEquals(5, ids.size());
+        Set<String> unique = new HashSet<>(ids);
+        assertEquals(5, unique.size());
+        assertFalse(unique.contains("0"));
+        template.close();
+    }
+
+    @Test
+    public void testEmpty() {
+        XWPFDocument doc = new XWPFDocument();
+        doc.createParagraph().createRun().setText("text");
+        assertEquals(DrawingIndex.EMPTY, DrawingIndex.of(doc.getParagraphArray(0).getCTP()));
+    }
+
+    private List<String> docPrIds(XmlObject root) {
+        List<String> ids = new ArrayList<>();
+        XmlCursor cursor = root.newCursor();
+        while (cursor.hasNextToken()) {
+            if (cursor.toNextToken().isStart() && "docPr".equals(cursor.getName().getLocalPart())) {
+                ids.add(cursor.getAttributeText(new QName("id")));
+            }
+        }
+        cursor.dispose();
+        return ids;
+    }
+
+}
@@ -1,14 +1,26 @@
 package com.deepoove.poi.tl.xwpf;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.poi.ooxml.POIXMLProperties.CoreProperties;
+import org.apache.poi.xwpf.usermodel.ICell;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRow;
 
 import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.xwpf.XWPFStructuredDocumentTag;
+import com.deepoove.poi.xwpf.XWPFTableRowWrapper;
 
 /**
  * @author Sayi
@@ -108,4 +120,24 @@ public class SDTTest {
 
     }
 
+    @Test
+    public void testTableRowICells() throws Exception {
+        try (XWPFDocument doc = new XWPFDocument()) {
+            XWPFTableRow row = doc.createTable(1, 2).getRow(0);
+            XWPFTableRowWrapper wrapper = new XWPFTableRowWrapper(row);
+            assertSame(row.getTableCells(), wrapper.getTableICells());
+
+            CTRow ctRow = row.getCtRow();
+            ctRow.addNewSdt().addNewSdtContent().addNewTc().addNewP();
+            wrapper = new XWPFTableRowWrapper(row);
+            List<ICell> cells = wrapper.getTableICells();
+            assertEquals(3, cells.size());
+            assertTrue(cells.get(0) instanceof XWPFTableCell);
+            assertTrue(cells.get(1) instanceof XWPFTableCell);
+            assertTrue(cells.get(2) instanceof XWPFStructuredDocumentTag);
+            assertEquals(1, ((XWPFStructuredDocumentTag) cells.get(2)).getContent().getCells().size());
+            assertSame(cells, wrapper.getTableICells());
+        }
+    }
+
 }
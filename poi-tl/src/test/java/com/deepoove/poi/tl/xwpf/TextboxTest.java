@@ -1,16 +1,31 @@
 package com.deepoove.poi.tl.xwpf;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FileInputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.xml.namespace.QName;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.xmlbeans.XmlCursor;
 import org.junit.jupiter.api.Test;
 
 import com.deepoove.poi.XWPFTemplate;
 import com.deepoove.poi.data.FilePictureRenderData;
 import com.deepoove.poi.data.HyperlinkTextRenderData;
 import com.deepoove.poi.data.TextRenderData;
+import com.deepoove.poi.xwpf.XWPFRunWrapper;
+import com.deepoove.poi.xwpf.XWPFTextboxContent;
 
 /**
  * @author Sayi
@@ -52,4 +67,45 @@ public class TextboxTest {
 
     }
 
+    @Test
+    public void testProbe() throws Exception {
+        try (XWPFDocument doc = new XWPFDocument(new FileInputStream("src/test/resources/template/template_textbox.docx"))) {
+            int textboxes = 0;
+            for (XWPFParagraph paragraph : doc.getParagraphs()) {
+                for (XWPFRun run : paragraph.getRuns()) {
+                    if (XWPFRunWrapper.probe(run.getCTR()) == 0) {
+                        assertNull(new XWPFRunWrapper(run).getWpstxbx());
+                        continue;
+                    }
+                    XWPFRunWrapper wrapper = new XWPFRunWrapper(run);
+                    for (XWPFTextboxContent content : Arrays.asList(wrapper.getWpstxbx(), wrapper.getVtextbox(),
+                            wrapper.getShapetxbx())) {
+                        if (null == content) continue;
+                        assertFalse(content.getParagraphs().isEmpty());
+                        textboxes++;
+                    }
+                }
+            }
+            assertTrue(textboxes > 0);
+        }
+    }
+
+    @Test
+    public void testProbeNestedAlternateContent() throws Exception {
+        String mc = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+        try (XWPFDocument doc = new XWPFDocument()) {
+            XWPFRun run = doc.createParagraph().createRun();
+            XmlCursor cursor = run.getCTR().addNewObject().newCursor();
+            cursor.toEndToken();
+            cursor.beginElement(new QName(mc, "AlternateContent", "mc"));
+            cursor.dispose();
+            assertEquals(XWPFRunWrapper.ALTERNATE_CONTENT, XWPFRunWrapper.probe(run.getCTR()));
+
+            XWPFRun text = doc.createParagraph().createRun();
+            text.setText("{{name}}");
+            text.addTab();
+            assertEquals(0, XWPFRunWrapper.probe(text.getCTR()));
+        }
+    }
+
 }
@@ -0,0 +1,156 @@
+package com.deepoove.poi.tl.xwpf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.xwpf.usermodel.XWPFNum;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTStyle;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STStyleType;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.data.Numberings;
+import com.deepoove.poi.data.Pictures;
+import com.deepoove.poi.xwpf.NiceXWPFDocument;
+
+@DisplayName("Xml document merge test case")
+public class XmlXWPFDocumentMergeTest {
+
+    @Test
+    public void testDeduplicateContents() throws Exception {
+        byte[] annex = annex();
+        NiceXWPFDocument source = new NiceXWPFDocument();
+        addStyle(source, "Annex", "Source Annex");
+        int styles = source.getStyles().getNumberOfStyles();
+
+        source = source.merge(copies(annex, 5), source.createParagraph().createRun());
+        source = reload(source);
+        assertEquals(1, source.getAllPackagePictures().size());
+        assertEquals(1, source.getNumbering().getAbstractNums().size());
+        List<XWPFNum> nums = source.getNumbering().getNums();
+        assertEquals(5, nums.size());
+        // lists of the shared definition restart in each document
+        assertEquals(0, nums.get(0).getCTNum().sizeOfLvlOverrideArray());
+        for (int i = 1; i < nums.size(); i++) {
+            assertTrue(nums.get(i).getCTNum().sizeOfLvlOverrideArray() > 0);
+        }
+        // the conflicting style is renamed once
+        int merged = source.getStyles().getNumberOfStyles();
+        assertEquals(styles + 1, merged);
+
+        // identical contents merged before are reused
+        source = source.merge(copies(annex, 2), source.createParagraph().createRun());
+        source = reload(source);
+        assertEquals(merged, source.getStyles().getNumberOfStyles());
+        assertEquals(1, source.getNumbering().getAbstractNums().size());
+        assertEquals(1, source.getAllPackagePictures().size());
+        source.close();
+    }
+
+    @Test
+    public void testRestartFirstNumOfDefinition() throws Exception {
+        NiceXWPFDocument annex = new NiceXWPFDocument(new ByteArrayInputStream(annex()));
+        // a second list of the same definition continues the first one
+        XWPFNum first = annex.getNumbering().getNums().get(0);
+        BigInteger second = annex.getNumbering().addNum(first.getCTNum().getAbstractNumId().getVal());
+        XWPFParagraph paragraph = annex.createParagraph();
+        paragraph.setNumID(second);
+        paragraph.createRun().setText("three");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        annex.write(out);
+        annex.close();
+
+        NiceXWPFDocument source = new NiceXWPFDocument();
+        source = source.merge(copies(out.toByteArray(), 2), source.createParagraph().createRun());
+        source = reload(source);
+        assertEquals(1, source.getNumbering().getAbstractNums().size());
+        List<XWPFNum> nums = source.getNumbering().getNums();
+        assertEquals(4, nums.size());
+        assertEquals(0, nums.get(0).getCTNum().sizeOfLvlOverrideArray());
+        assertEquals(0, nums.get(1).getCTNum().sizeOfLvlOverrideArray());
+        assertTrue(nums.get(2).getCTNum().sizeOfLvlOverrideArray() > 0);
+        assertEquals(0, nums.get(3).getCTNum().sizeOfLvlOverrideArray());
+        source.close();
+    }
+
+    @Test
+    public void testResetContentIndex() throws Exception {
+        NiceXWPFDocument source = new NiceXWPFDocument();
+        addStyle(source, "Normal", "Source");
+        assertEquals("Normal", source.getContentIndex().findStyle(style("Copy", "Source")));
+        assertNull(source.getContentIndex().findStyle(style("Copy", "Added")));
+
+        addStyle(source, "Added", "Added");
+        assertNull(source.getContentIndex().findStyle(style("Copy", "Added")));
+        source.getContentIndex().reset();
+        assertEquals("Added", source.getContentIndex().findStyle(style("Copy", "Added")));
+        source.close();
+    }
+
+    @Test
+    public void testEmbeddIndexAcrossMerges() throws Exception {
+        NiceXWPFDocument source = new NiceXWPFDocument();
+        byte[] embedd = annex();
+        String relationId = source.addEmbeddData(embedd, 0);
+        source.getContentIndex().indexEmbedd(embedd, 0, relationId);
+        source.getContentIndex().reset();
+        assertEquals(relationId, source.getContentIndex().findEmbedd(embedd, 0));
+
+        source.getPackagePart().removeRelationship(relationId);
+        assertNull(source.getContentIndex().findEmbedd(embedd, 0));
+        source.close();
+    }
+
+    private byte[] annex() throws Exception {
+        NiceXWPFDocument doc = new NiceXWPFDocument();
+        addStyle(doc, "Annex", "Annex");
+        doc.createParagraph().createRun().setText("{{*list}}");
+        doc.createParagraph().createRun().setText("{{@picture}}");
+        Map<String, Object> datas = new HashMap<>();
+        datas.put("list", Numberings.ofDecimal("one", "two").create());
+        datas.put("picture", Pictures.ofLocal("src/test/resources/sayi.png").size(20, 20).create());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XWPFTemplate.compile(doc).render(datas).writeAndClose(out);
+        return out.toByteArray();
+    }
+
+    private void addStyle(NiceXWPFDocument doc, String id, String name) {
+        doc.createStyles().addStyle(new XWPFStyle(style(id, name)));
+    }
+
+    private CTStyle style(String id, String name) {
+        CTStyle ctStyle = CTStyle.Factory.newInstance();
+        ctStyle.setStyleId(id);
+        ctStyle.setType(STStyleType.PARAGRAPH);
+        ctStyle.addNewName().setVal(name);
+        return ctStyle;
+    }
+
+    private List<NiceXWPFDocument> copies(byte[] annex, int size) throws Exception {
+        List<NiceXWPFDocument> docs = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            docs.add(new NiceXWPFDocument(new ByteArrayInputStream(annex)));
+        }
+        return docs;
+    }
+
+    private NiceXWPFDocument reload(NiceXWPFDocument doc) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        doc.write(out);
+        doc.close();
+        return new NiceXWPFDocument(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+}